@@ -0,0 +1,30 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the report contains the
+ * throughput, the average time and the allocation rate per operation
+ * ('gc.alloc.rate.norm') of every engine. Accepts the usual JMH command
+ * line options, i.e. 'DepthBenchmark -p engine=STACK'.
+ */
+public class BenchmarkRunner {
+    /**
+     * The starting point of the benchmarks
+     *
+     * @param args The JMH command line options
+     * @throws RunnerException            If a benchmark fails
+     * @throws CommandLineOptionException If the options are wrong
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().
+                parent(new CommandLineOptions(args)).
+                addProfiler(GCProfiler.class).
+                build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.corpus.ExpressionGenerator;
+import com.sysgears.simplecalculator.corpus.Literals;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the engines on a generated corpus, one expression per
+ * operation. The corpus covers all the operators and functions and can
+ * contain invalid expressions, so failures are a part of the measured
+ * workload.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorpusBenchmark {
+    /**
+     * The number of expressions in the corpus
+     */
+    private static final int CORPUS_SIZE = 1024;
+
+    @Param({"REGEXP", "BRUTE_FORCE", "FUNCTION", "FUNCTION2", "STACK"})
+    public Engines engine;
+
+    @Param({"SMALL_INTEGERS", "MIXED"})
+    public Literals literals;
+
+    @Param({"0", "0.2"})
+    public double invalidShare;
+
+    private Computer computer;
+
+    private String[] corpus;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        corpus = new ExpressionGenerator(42, 10, 3, literals, invalidShare).stream(CORPUS_SIZE).toArray(String[]::new);
+        computer = engine.create("");
+    }
+
+    @Benchmark
+    public String compute() {
+        String expression = corpus[next++ & (CORPUS_SIZE - 1)];
+
+        try {
+            return computer.compute(expression);
+
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the engines on sums where some operands are written in
+ * E-notation. The function engines do not support E-notation, so they
+ * are not measured.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ENotationBenchmark {
+    @Param({"REGEXP", "BRUTE_FORCE", "STACK"})
+    public Engines engine;
+
+    @Param({"0", "25", "50", "100"})
+    public int density;
+
+    private Computer computer;
+
+    private String expression;
+
+    @Setup
+    public void setUp() {
+        expression = Expressions.withENotation(100, density);
+        computer = engine.create(expression);
+    }
+
+    @Benchmark
+    public String compute() {
+        return computer.compute(expression);
+    }
+}
@@ -0,0 +1,85 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.compiler.Definitions;
+import com.sysgears.simplecalculator.computer.compiler.StackComputer;
+import com.sysgears.simplecalculator.computer.function.FunctionComputer;
+import com.sysgears.simplecalculator.computer.operators.ComputerBruteForce;
+import com.sysgears.simplecalculator.computer.operators.ComputerRegExp;
+
+import java.math.MathContext;
+import java.util.function.Supplier;
+
+/**
+ * Contains all the {@link Computer} engines which can be benchmarked
+ */
+public enum Engines {
+    /**
+     * {@code operators.ComputerRegExp}
+     */
+    REGEXP(ComputerRegExp::new),
+    /**
+     * {@code operators.ComputerBruteForce}
+     */
+    BRUTE_FORCE(ComputerBruteForce::new),
+    /**
+     * {@code function.FunctionComputer}
+     */
+    FUNCTION(FunctionComputer::new),
+    /**
+     * {@code function2.FunctionComputer}
+     */
+    FUNCTION2(com.sysgears.simplecalculator.computer.function2.FunctionComputer::new),
+    /**
+     * {@code compiler.StackComputer}
+     */
+    STACK(StackComputer::new),
+    /**
+     * {@code compiler.StackComputer} with 16 significant digits
+     */
+    STACK_DECIMAL64(() -> new StackComputer(MathContext.DECIMAL64)),
+    /**
+     * {@code compiler.StackComputer} with 34 significant digits
+     */
+    STACK_DECIMAL128(() -> new StackComputer(MathContext.DECIMAL128)),
+    /**
+     * {@code compiler.StackComputer} which computes on fractions
+     */
+    STACK_FRACTIONS(() -> new StackComputer(new Definitions(), null, true));
+
+    /**
+     * The engine factory
+     */
+    private final Supplier<Computer> factory;
+
+    /**
+     * Constructs an object
+     *
+     * @param factory The engine factory
+     */
+    Engines(final Supplier<Computer> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a new engine and checks that it can compute the expression,
+     * so a benchmark measures the calculation instead of the error path.
+     * Not all the engines support all the expressions.
+     *
+     * @param expression The benchmark expression
+     * @return The engine
+     * @throws IllegalStateException If the engine fails on the expression
+     */
+    public Computer create(final String expression) {
+        Computer computer = factory.get();
+
+        try {
+            computer.compute(expression);
+
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(this + " cannot compute the benchmark expression: " + e, e);
+        }
+
+        return computer;
+    }
+}
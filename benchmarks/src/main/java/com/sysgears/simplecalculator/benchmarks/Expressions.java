@@ -0,0 +1,213 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Builds the expressions for benchmarks. All the expressions use only
+ * the syntax which is common for all the engines: positive numbers,
+ * '+', '-', '*', '/', '^', parentheses and 'sqrt', 'sin', 'cos' functions.
+ * The random generator has a fixed seed, so every run measures the same
+ * expressions.
+ */
+public final class Expressions {
+    /**
+     * The seed of the random generator
+     */
+    private static final long SEED = 42;
+
+    /**
+     * The functions which are known by all the engines
+     */
+    private static final String[] FUNCTIONS = {"sqrt", "sin", "cos"};
+
+    /**
+     * The functions which are defined for any argument
+     */
+    private static final String[] OUTER_FUNCTIONS = {"sin", "cos"};
+
+    /**
+     * Contains operator mixes
+     */
+    public enum OperatorMix {
+        /**
+         * Only '+' and '-'
+         */
+        ADDITIVE("+-"),
+        /**
+         * Only '*' and '/'
+         */
+        MULTIPLICATIVE("*/"),
+        /**
+         * '^' between additions
+         */
+        POWER("^+"),
+        /**
+         * All the operators
+         */
+        MIXED("+-*/^");
+
+        /**
+         * The operators of the mix
+         */
+        private final String operators;
+
+        /**
+         * Constructs an object
+         *
+         * @param operators The operators of the mix
+         */
+        OperatorMix(final String operators) {
+            this.operators = operators;
+        }
+    }
+
+    /**
+     * Contains function mixes
+     */
+    public enum FunctionMix {
+        /**
+         * There are no functions
+         */
+        NONE,
+        /**
+         * Every operand is a function of a number
+         */
+        FLAT,
+        /**
+         * Every operand is a trigonometric function of a function of a
+         * number
+         */
+        NESTED
+    }
+
+    private Expressions() {
+    }
+
+    /**
+     * Builds an expression which contains {@code terms} operands joined
+     * by the operators of the mix. An exponent is always a small integer
+     * and two powers never follow each other so as not to get an infinity.
+     *
+     * @param terms The number of operands
+     * @param mix   The operator mix
+     * @return The expression
+     */
+    static String withOperators(final int terms, final OperatorMix mix) {
+        Random random = new Random(SEED);
+        StringBuilder builder = new StringBuilder(number(random));
+        char previous = ' ';
+
+        for (int i = 1; i < terms; i++) {
+            char operator;
+            do {
+                operator = mix.operators.charAt(random.nextInt(mix.operators.length()));
+            } while (operator == '^' && previous == '^' && mix.operators.length() > 1);
+
+            builder.append(operator).append(operator == '^' ? String.valueOf(random.nextInt(3) + 1) : number(random));
+            previous = operator;
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Builds an expression with {@code depth} nested parentheses, i.e.
+     * depth 3: (1+(2+(3+4)))
+     *
+     * @param depth The nesting depth
+     * @return The expression
+     */
+    static String withDepth(final int depth) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < depth; i++) {
+            builder.append('(').append(i % 9 + 1).append('+');
+        }
+        builder.append(depth % 9 + 1);
+
+        for (int i = 0; i < depth; i++) {
+            builder.append(')');
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Builds a sum of {@code terms} operands where operands are wrapped
+     * into functions according to the mix
+     *
+     * @param terms The number of operands
+     * @param mix   The function mix
+     * @return The expression
+     */
+    static String withFunctions(final int terms, final FunctionMix mix) {
+        Random random = new Random(SEED);
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < terms; i++) {
+            if (i > 0) {
+                builder.append('+');
+            }
+
+            String operand = number(random);
+            if (mix != FunctionMix.NONE) {
+                operand = function(random, FUNCTIONS) + "(" + operand + ")";
+            }
+            if (mix == FunctionMix.NESTED) {
+                operand = function(random, OUTER_FUNCTIONS) + "(" + operand + ")";
+            }
+            builder.append(operand);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Builds a sum of {@code terms} operands where the specified percent
+     * of operands is written in E-notation
+     *
+     * @param terms   The number of operands
+     * @param density The percent of operands in E-notation
+     * @return The expression
+     */
+    static String withENotation(final int terms, final int density) {
+        Random random = new Random(SEED);
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < terms; i++) {
+            if (i > 0) {
+                builder.append('+');
+            }
+
+            builder.append(number(random));
+            if (random.nextInt(100) < density) {
+                builder.append('E').append(random.nextBoolean() ? "-" : "").append(random.nextInt(5) + 1);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns a random positive number, every fourth one is fractional
+     *
+     * @param random The random generator
+     * @return The string representation of the number
+     */
+    private static String number(final Random random) {
+        int integer = random.nextInt(99) + 1;
+
+        return random.nextInt(4) == 0 ? integer + "." + (random.nextInt(99) + 1) : String.valueOf(integer);
+    }
+
+    /**
+     * Returns a random function name
+     *
+     * @param random    The random generator
+     * @param functions The functions to choose from
+     * @return The function name
+     */
+    private static String function(final Random random, final String[] functions) {
+        return functions[random.nextInt(functions.length)];
+    }
+}
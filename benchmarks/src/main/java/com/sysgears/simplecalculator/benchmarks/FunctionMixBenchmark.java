@@ -0,0 +1,39 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the engines on sums of the same length where operands are
+ * numbers, functions of numbers or nested functions.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FunctionMixBenchmark {
+    @Param({"REGEXP", "BRUTE_FORCE", "FUNCTION", "FUNCTION2", "STACK"})
+    public Engines engine;
+
+    @Param({"NONE", "FLAT", "NESTED"})
+    public Expressions.FunctionMix mix;
+
+    private Computer computer;
+
+    private String expression;
+
+    @Setup
+    public void setUp() {
+        expression = Expressions.withFunctions(100, mix);
+        computer = engine.create(expression);
+    }
+
+    @Benchmark
+    public String compute() {
+        return computer.compute(expression);
+    }
+}
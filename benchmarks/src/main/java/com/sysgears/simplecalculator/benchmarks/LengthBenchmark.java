@@ -0,0 +1,39 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the engines scale with the expression length. The
+ * expression contains all the operators.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LengthBenchmark {
+    @Param({"REGEXP", "BRUTE_FORCE", "FUNCTION", "FUNCTION2", "STACK"})
+    public Engines engine;
+
+    @Param({"10", "100", "1000"})
+    public int terms;
+
+    private Computer computer;
+
+    private String expression;
+
+    @Setup
+    public void setUp() {
+        expression = Expressions.withOperators(terms, Expressions.OperatorMix.MIXED);
+        computer = engine.create(expression);
+    }
+
+    @Benchmark
+    public String compute() {
+        return computer.compute(expression);
+    }
+}
@@ -0,0 +1,80 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import com.sysgears.simplecalculator.computer.NumberParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code NumberParser} against {@code Double.parseDouble()} on
+ * random values and on the half ways between two values, which are the
+ * hardest to round. The setup checks every number by {@code
+ * Double.parseDouble()} first, so a run is also the exhaustive test of the
+ * parser which is too long for the unit tests.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumberParserBenchmark {
+    @Param({"100000"})
+    public int size;
+
+    private String[] numbers;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        List<String> texts = new ArrayList<>();
+
+        while (texts.size() < size) {
+            double value = Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE);
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                continue;
+            }
+            texts.add(Double.toString(value));
+
+            BigDecimal halfWay = new BigDecimal(value).add(new BigDecimal(Math.nextUp(value))).
+                    divide(BigDecimal.valueOf(2));
+            texts.add(halfWay.toString());
+            texts.add(halfWay.add(halfWay.ulp()).toString());
+        }
+
+        for (String text : texts) {
+            if (Double.doubleToRawLongBits(NumberParser.parse(text)) !=
+                    Double.doubleToRawLongBits(Double.parseDouble(text))) {
+
+                throw new IllegalStateException("NumberParser parses " + text + " to " +
+                                                        NumberParser.parse(text) + " instead of " +
+                                                        Double.parseDouble(text));
+            }
+        }
+        numbers = texts.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public double parse() {
+        double sum = 0;
+        for (String number : numbers) {
+            sum += NumberParser.parse(number);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        double sum = 0;
+        for (String number : numbers) {
+            sum += Double.parseDouble(number);
+        }
+
+        return sum;
+    }
+}
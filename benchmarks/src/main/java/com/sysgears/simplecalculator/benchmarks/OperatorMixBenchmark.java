@@ -0,0 +1,39 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the engines on expressions of the same length which use
+ * different operators.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperatorMixBenchmark {
+    @Param({"REGEXP", "BRUTE_FORCE", "FUNCTION", "FUNCTION2", "STACK"})
+    public Engines engine;
+
+    @Param({"ADDITIVE", "MULTIPLICATIVE", "POWER", "MIXED"})
+    public Expressions.OperatorMix mix;
+
+    private Computer computer;
+
+    private String expression;
+
+    @Setup
+    public void setUp() {
+        expression = Expressions.withOperators(100, mix);
+        computer = engine.create(expression);
+    }
+
+    @Benchmark
+    public String compute() {
+        return computer.compute(expression);
+    }
+}
@@ -0,0 +1,41 @@
+package com.sysgears.simplecalculator.benchmarks;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the precision of the compiled engine relative to
+ * its {@code double} results: an operation which is exact in {@code
+ * double} stays there, a fractional one moves to {@code BigDecimal}, or
+ * the whole expression is computed exactly on fractions.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrecisionBenchmark {
+    @Param({"STACK", "STACK_DECIMAL64", "STACK_DECIMAL128", "STACK_FRACTIONS"})
+    public Engines engine;
+
+    @Param({"ADDITIVE", "MULTIPLICATIVE", "POWER", "MIXED"})
+    public Expressions.OperatorMix mix;
+
+    private Computer computer;
+
+    private String expression;
+
+    @Setup
+    public void setUp() {
+        expression = Expressions.withOperators(100, mix);
+        computer = engine.create(expression);
+    }
+
+    @Benchmark
+    public String compute() {
+        return computer.compute(expression);
+    }
+}
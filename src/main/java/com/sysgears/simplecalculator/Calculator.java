@@ -1,13 +1,21 @@
 package com.sysgears.simplecalculator;
 
 import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.compiler.Definitions;
+import com.sysgears.simplecalculator.computer.compiler.StackComputer;
 import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.validator.ExpressionValidator;
 import com.sysgears.simplecalculator.history.HistoryHolder;
+import com.sysgears.simplecalculator.monitoring.EvaluationEvent;
+import com.sysgears.simplecalculator.monitoring.EvaluationStatistics;
 import com.sysgears.simplecalculator.ui.Commands;
 import com.sysgears.simplecalculator.ui.CommandsHandler;
 import com.sysgears.simplecalculator.ui.UIController;
+import com.sysgears.simplecalculator.workbook.Cell;
+import com.sysgears.simplecalculator.workbook.Workbook;
 
 import java.util.Objects;
+import java.util.StringJoiner;
 
 /**
  * Uses {@link UIController} to lead dialog with a user, {@link Computer}
@@ -18,8 +26,19 @@ import java.util.Objects;
  *     will be gotten from the history holder, and no calculations will
  *     be done.
  * </p>
+ * A new expression is checked by {@link ExpressionValidator} before it is
+ * computed. A line which starts from 'def ' defines a function for the
+ * next expressions if the computer supports definitions. A line like
+ * 'a = 2*3' assigns a cell of the {@link Workbook}, the cells which depend
+ * on it are recalculated and printed. Every evaluation is recorded as an
+ * {@link EvaluationEvent} if the Flight Recorder is on.
  */
 public final class Calculator {
+    /**
+     * The ending of the result of an invalid expression
+     */
+    private static final String INVALID_RESULT_ENDING = " Please read the instructions carefully.";
+
     /**
      * A UI controller
      */
@@ -35,6 +54,21 @@ public final class Calculator {
      */
     private final Computer computer;
 
+    /**
+     * The evaluation statistics
+     */
+    private final EvaluationStatistics statistics;
+
+    /**
+     * A validator which rejects malformed expressions before computing
+     */
+    private final ExpressionValidator validator;
+
+    /**
+     * The named cells which are assigned by a user
+     */
+    private final Workbook workbook;
+
     /**
      * Constructs an object
      *
@@ -43,9 +77,28 @@ public final class Calculator {
      * @param computer   The computer
      */
     public Calculator(final UIController controller, final HistoryHolder history, final Computer computer) {
+        this(controller, history, computer, new EvaluationStatistics());
+    }
+
+    /**
+     * Constructs an object
+     *
+     * @param controller The UI controller
+     * @param history    The history holder
+     * @param computer   The computer
+     * @param statistics The evaluation statistics
+     */
+    public Calculator(final UIController controller, final HistoryHolder history, final Computer computer,
+                      final EvaluationStatistics statistics) {
         this.controller = Objects.requireNonNull(controller);
         this.history = history;
         this.computer = computer;
+        this.statistics = Objects.requireNonNull(statistics);
+        // the validator checks the grammar of the engine which computes the expressions
+        this.validator = computer instanceof StackComputer ?
+                new ExpressionValidator(computer::isDefined, ((StackComputer) computer).getOperators()) :
+                new ExpressionValidator(computer::isDefined);
+        this.workbook = new Workbook(computer);
     }
 
     /**
@@ -63,19 +116,68 @@ public final class Calculator {
                         "Type an expression to calculate or 'help' to see the commands list:");
 
                 if (Commands.isCommand(line)) {
-                    CommandsHandler.handle(Commands.valueOf(line.toUpperCase().replace(" ", "_")), controller, history);
+                    CommandsHandler.handle(Commands.valueOf(line.toUpperCase().replace(" ", "_")), controller, history,
+                            statistics);
+
+                } else if (Definitions.isDefinition(line)) {
+                    try {
+                        result = computer.define(line);
+
+                    } catch (InvalidInputExpressionException e) {
+                        result = e.getMessage() + INVALID_RESULT_ENDING;
+                    }
+
+                    controller.printLine("", result);
+
+                } else if (Workbook.isAssignment(line)) {
+                    try {
+                        StringJoiner cells = new StringJoiner(System.lineSeparator());
+                        for (Cell cell : workbook.assign(line)) {
+                            cells.add(cell.toString());
+                        }
+                        result = cells.toString();
+
+                    } catch (InvalidInputExpressionException e) {
+                        result = e.getMessage() + INVALID_RESULT_ENDING;
+                    }
+
+                    controller.printLine("", result);
 
                 } else {
-                    line = line.replaceAll("\\s", "");
+                    EvaluationEvent event = new EvaluationEvent();
+                    long start = System.nanoTime();
+                    event.begin();
+
+                    String expression = line;
+                    line = normalize(line);
                     result = history.getResult(line);
+                    event.cacheHit = !result.isEmpty();
 
                     if (result.isEmpty()) {
                         try {
-                            result = computer.compute(line);
+                            validator.check(line);
+                            result = computer.compute(expression, 0, expression.length());
+                            event.succeed();
 
                         } catch (InvalidInputExpressionException e) {
-                            result = e.getMessage() + " Please read the instructions carefully.";
+                            result = e.getMessage() + INVALID_RESULT_ENDING;
+                            event.reject();
                         }
+
+                    } else if (result.endsWith(INVALID_RESULT_ENDING)) {
+                        event.reject();
+
+                    } else {
+                        event.succeed();
+                    }
+
+                    event.end();
+                    statistics.record(line, computer.getClass().getName(), System.nanoTime() - start, event.cacheHit);
+
+                    if (event.shouldCommit()) {
+                        event.engine = computer.getClass().getName();
+                        event.expressionLength = line.length();
+                        event.commit();
                     }
 
                     controller.printLine("", result);
@@ -88,4 +190,45 @@ public final class Calculator {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Removes the whitespace which separates the parts of an expression, so
+     * equal expressions have one key in the history, i.e. {@code "2 + 2"}
+     * becomes {@code "2+2"}. A whitespace between two symbols of numbers or
+     * names is kept as one space, so {@code "1 2"} stays invalid.
+     *
+     * @param line The line
+     * @return The line without the whitespace which does not matter
+     */
+    private static String normalize(final String line) {
+        StringBuilder normalized = new StringBuilder(line.length());
+        boolean separated = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char symbol = line.charAt(i);
+
+            if (Character.isWhitespace(symbol)) {
+                separated = normalized.length() > 0;
+                continue;
+
+            } else if (separated && isWordSymbol(normalized.charAt(normalized.length() - 1)) &&
+                    isWordSymbol(symbol)) {
+                normalized.append(' ');
+            }
+            normalized.append(symbol);
+            separated = false;
+        }
+
+        return normalized.toString();
+    }
+
+    /**
+     * Checks whether a symbol can be a part of a number or a name
+     *
+     * @param symbol The symbol
+     * @return true if it is a letter, a digit or a point
+     */
+    private static boolean isWordSymbol(final char symbol) {
+        return Character.isLetterOrDigit(symbol) || symbol == '.';
+    }
 }
\ No newline at end of file
@@ -1,15 +1,52 @@
 package com.sysgears.simplecalculator;
 
 import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.compiler.Definitions;
+import com.sysgears.simplecalculator.computer.compiler.StackComputer;
 import com.sysgears.simplecalculator.computer.function2.FunctionComputer;
 import com.sysgears.simplecalculator.history.HistoryHolder;
+import com.sysgears.simplecalculator.monitoring.EvaluationStatistics;
 import com.sysgears.simplecalculator.ui.ConsoleController;
 import com.sysgears.simplecalculator.ui.UIController;
 
+import java.math.MathContext;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Is used to run a demo of Simple Calculator application
  */
 public class Executor {
+    /**
+     * The system property of the file to which the statistics are dumped
+     */
+    private static final String STATISTICS_FILE = "simplecalculator.stats.file";
+
+    /**
+     * The system property of the period of the statistics dump in seconds
+     */
+    private static final String STATISTICS_PERIOD = "simplecalculator.stats.period";
+
+    /**
+     * The system property of the engine, 'stack' selects {@code StackComputer}
+     * which supports function definitions
+     */
+    private static final String ENGINE = "simplecalculator.engine";
+
+    /**
+     * The system property of the number of significant digits of the
+     * results of {@code StackComputer}, they are computed in {@code double}
+     * if it is not set
+     */
+    private static final String PRECISION = "simplecalculator.precision";
+
+    /**
+     * The system property which makes {@code StackComputer} compute the
+     * expressions without functions exactly on fractions, i.e. 1/3+1/6 is
+     * 1/2
+     */
+    private static final String FRACTIONS = "simplecalculator.fractions";
+
     /**
      * The starting point of the UI interface demo
      *
@@ -18,9 +55,18 @@ public class Executor {
     public static void main(String[] args) {
         try (UIController controller = new ConsoleController()) {
             HistoryHolder history = new HistoryHolder();
-            Computer computer = new FunctionComputer();
+            Integer precision = Integer.getInteger(PRECISION);
+            Computer computer = !"stack".equals(System.getProperty(ENGINE)) ? new FunctionComputer() :
+                    new StackComputer(new Definitions(), precision != null ? new MathContext(precision) : null,
+                                      Boolean.getBoolean(FRACTIONS));
+            EvaluationStatistics statistics = new EvaluationStatistics();
+
+            if (System.getProperty(STATISTICS_FILE) != null) {
+                statistics.startDumping(Paths.get(System.getProperty(STATISTICS_FILE)),
+                        Long.getLong(STATISTICS_PERIOD, 60), TimeUnit.SECONDS);
+            }
 
-            new Calculator(controller, history, computer).run();
+            new Calculator(controller, history, computer, statistics).run();
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,106 @@
+package com.sysgears.simplecalculator.computer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Shows a range of ASCII bytes of a buffer as characters without copying
+ * them. The bytes are read by their absolute indexes, so the position of
+ * the buffer is not moved, and they are read every time, so the buffer
+ * must not change while the sequence is used.
+ */
+public final class AsciiSequence implements CharSequence {
+    /**
+     * The bytes
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The index of the first byte in the buffer
+     */
+    private final int start;
+
+    /**
+     * The index after the last byte in the buffer
+     */
+    private final int end;
+
+    /**
+     * Constructs an object
+     *
+     * @param buffer The bytes
+     * @param start  The index of the first byte in the buffer
+     * @param end    The index after the last byte in the buffer
+     * @throws IndexOutOfBoundsException If the range is out of the limit of
+     *                                   the buffer
+     */
+    public AsciiSequence(final ByteBuffer buffer, final int start, final int end) throws IndexOutOfBoundsException {
+        if (start < 0 || start > end || end > buffer.limit()) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of limit " +
+                                                        buffer.limit());
+        }
+
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the number of bytes
+     *
+     * @return The length
+     */
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * Returns a byte as a character
+     *
+     * @param index The index from the start of the range
+     * @return The character
+     * @throws IndexOutOfBoundsException If the index is out of the range
+     */
+    @Override
+    public char charAt(final int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of length " + (end - start));
+        }
+
+        return (char) (buffer.get(start + index) & 0xFF);
+    }
+
+    /**
+     * Returns a part of the range which shares the buffer
+     *
+     * @param from The start of the part
+     * @param to   The end of the part
+     * @return The part
+     * @throws IndexOutOfBoundsException If the part is out of the range
+     */
+    @Override
+    public CharSequence subSequence(final int from, final int to) throws IndexOutOfBoundsException {
+        if (from < 0 || from > to || to > end - start) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of length " +
+                                                        (end - start));
+        }
+
+        return new AsciiSequence(buffer, start + from, start + to);
+    }
+
+    /**
+     * Copies the bytes to a string
+     *
+     * @return The string
+     */
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -1,7 +1,10 @@
 package com.sysgears.simplecalculator.computer;
 
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
 import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
 
+import java.nio.ByteBuffer;
+
 public interface Computer {
     /**
      * Computes the expression.
@@ -13,4 +16,103 @@ public interface Computer {
      */
     String compute(String expression) throws InvalidInputExpressionException;
 
+    /**
+     * Computes the expression which is a range of characters, i.e. a part
+     * of an I/O buffer, so a caller does not have to build a string. The
+     * whitespace separates the parts of an expression but never joins
+     * them, i.e. {@code "1 2"} is invalid, not 12. By default the range is
+     * copied to a string without the whitespace which is given to {@code
+     * compute()}.
+     *
+     * @param expression The characters contain a math expression
+     * @param start      The index of the first character of the expression
+     * @param end        The index after the last character of the
+     *                   expression
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the range has an invalid
+     *                                         format, or it is null
+     * @throws IndexOutOfBoundsException       If the range is out of the
+     *                                         characters
+     */
+    default String compute(CharSequence expression, int start, int end)
+            throws InvalidInputExpressionException, IndexOutOfBoundsException {
+
+        if (expression == null) {
+            return compute((String) null);
+
+        } else if (start < 0 || start > end || end > expression.length()) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of length " +
+                                                        expression.length());
+        }
+
+        StringBuilder builder = new StringBuilder(end - start);
+        boolean separated = false;
+        for (int i = start; i < end; i++) {
+            char symbol = expression.charAt(i);
+
+            if (Character.isWhitespace(symbol)) {
+                separated = builder.length() > 0;
+
+            } else {
+                char previous = separated ? builder.charAt(builder.length() - 1) : ' ';
+                if ((Character.isLetterOrDigit(previous) || previous == '.') &&
+                        (Character.isLetterOrDigit(symbol) || symbol == '.')) {
+                    // a number or a name cannot be split
+                    throw new InvalidInputExpressionException(ErrorCode.UNEXPECTED_SYMBOL,
+                            expression.subSequence(start, end).toString(), i - start);
+                }
+
+                builder.append(symbol);
+                separated = false;
+            }
+        }
+
+        return compute(builder.toString());
+    }
+
+    /**
+     * Computes the expression which is a range of ASCII bytes, i.e. a part
+     * of a buffer which is read from a network or a file. The indexes are
+     * absolute, the position of the buffer is not used and not moved.
+     *
+     * @param expression The bytes contain a math expression
+     * @param start      The index of the first byte of the expression
+     * @param end        The index after the last byte of the expression
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the range has an invalid
+     *                                         format, or it is null
+     * @throws IndexOutOfBoundsException       If the range is out of the
+     *                                         limit of the buffer
+     */
+    default String compute(ByteBuffer expression, int start, int end)
+            throws InvalidInputExpressionException, IndexOutOfBoundsException {
+
+        return expression == null ? compute((String) null) :
+                compute(new AsciiSequence(expression, start, end), 0, end - start);
+    }
+
+    /**
+     * Defines a function for the next computations, i.e. {@code def f(x) = x^2}.
+     * An engine does not support definitions by default.
+     *
+     * @param definition The string contains a function definition
+     * @return The string contains the defined function
+     * @throws InvalidInputExpressionException If the engine does not support
+     *                                         definitions, or the definition
+     *                                         is invalid
+     */
+    default String define(String definition) throws InvalidInputExpressionException {
+        throw new InvalidInputExpressionException(ErrorCode.DEFINITIONS_NOT_SUPPORTED, definition, 0);
+    }
+
+    /**
+     * Checks whether a function is defined by {@code define()}
+     *
+     * @param name      The function name
+     * @param arguments The number of arguments, -1 if it can be any
+     * @return true if the function is defined
+     */
+    default boolean isDefined(String name, int arguments) {
+        return false;
+    }
 }
@@ -0,0 +1,594 @@
+package com.sysgears.simplecalculator.computer;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses a decimal number straight from a range of characters or ASCII
+ * bytes, so an engine does not have to cut a substring for every operand.
+ * The result is the nearest {@code double}, the same one which {@code
+ * Double.parseDouble()} gives. The ideas lie behind the parser are next:
+ * <p>
+ *     <ul>
+ *         <li>up to 19 significant digits are read into a {@code long}, the
+ *         exponent of E-notation and the position of the point are summed
+ *         into one power of ten</li>
+ *         <li>a mantissa up to 2^53 with a power up to 10^22 is computed
+ *         by one {@code double} operation which is exact, since both
+ *         operands are exact</li>
+ *         <li>otherwise the mantissa is multiplied by the 128 bits of the
+ *         power of ten, it is the algorithm of Eisel and Lemire, which is
+ *         correct unless the product is too close to the half way between
+ *         two values</li>
+ *         <li>a rare number which the fast paths cannot round, as well as
+ *         a special one like {@code NaN}, is given to {@code
+ *         Double.parseDouble()}</li>
+ *     </ul>
+ * </p>
+ * The fast paths allocate nothing.
+ */
+public final class NumberParser {
+    /**
+     * The greatest number of significant digits which fits the mantissa
+     */
+    private static final int MAX_DIGITS = 19;
+
+    /**
+     * The greatest integer from which all the integers are exact in {@code
+     * double}, 2^53
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * The powers of ten which are exact in {@code double}
+     */
+    private static final double[] EXACT_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * The least power of ten of the table, a smaller one gives zero for
+     * any mantissa
+     */
+    private static final int MIN_POWER = -342;
+
+    /**
+     * The greatest power of ten of the table, a greater one gives infinity
+     * for any mantissa
+     */
+    private static final int MAX_POWER = 308;
+
+    /**
+     * The greatest power of ten which is computed by the upper 128 bits of
+     * the reciprocal of 5^-q, the smaller ones are computed by 256 bits
+     */
+    private static final int MIN_NARROW_POWER = -27;
+
+    /**
+     * The greatest exponent of E-notation which is summed up, a greater one
+     * is out of the range anyway
+     */
+    private static final int MAX_EXPONENT = 100000;
+
+    /**
+     * The exponent bias of {@code double}
+     */
+    private static final int EXPONENT_BIAS = 1023;
+
+    /**
+     * The upper 64 bits of the 128 most significant bits of 5^q
+     */
+    private static final long[] POWERS_HIGH = new long[MAX_POWER - MIN_POWER + 1];
+
+    /**
+     * The lower 64 bits of the 128 most significant bits of 5^q
+     */
+    private static final long[] POWERS_LOW = new long[MAX_POWER - MIN_POWER + 1];
+
+    static {
+        BigInteger mask = BigInteger.ONE.shiftLeft(Long.SIZE).subtract(BigInteger.ONE);
+
+        for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+            BigInteger power = BigInteger.valueOf(5).pow(Math.abs(q));
+            BigInteger bits;
+
+            if (q >= 0) {
+                bits = power.bitLength() < 2 * Long.SIZE ?
+                        power.shiftLeft(2 * Long.SIZE - power.bitLength()) :
+                        power.shiftRight(power.bitLength() - 2 * Long.SIZE);
+            } else {
+                // the reciprocal is rounded up, a small one has all its significant bits
+                int shift = q >= MIN_NARROW_POWER ? power.bitLength() + 2 * Long.SIZE - 1 :
+                        2 * power.bitLength() + 2 * Long.SIZE;
+                bits = BigInteger.ONE.shiftLeft(shift).divide(power).add(BigInteger.ONE);
+                bits = bits.shiftRight(Math.max(bits.bitLength() - 2 * Long.SIZE, 0));
+            }
+
+            POWERS_HIGH[q - MIN_POWER] = bits.shiftRight(Long.SIZE).longValue();
+            POWERS_LOW[q - MIN_POWER] = bits.and(mask).longValue();
+        }
+    }
+
+    /**
+     * Constructs an object
+     */
+    private NumberParser() {
+    }
+
+    /**
+     * Parses a number
+     *
+     * @param text The text of the number
+     * @return The nearest {@code double}
+     * @throws NumberFormatException If the text is not a number
+     */
+    public static double parse(final CharSequence text) throws NumberFormatException {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses a number from a range of characters
+     *
+     * @param text  The characters
+     * @param start The index of the first character of the number
+     * @param end   The index after the last character of the number
+     * @return The nearest {@code double}
+     * @throws NumberFormatException     If the range is not a number
+     * @throws IndexOutOfBoundsException If the range is out of the text
+     */
+    public static double parse(final CharSequence text, final int start, final int end)
+            throws NumberFormatException, IndexOutOfBoundsException {
+
+        checkRange(start, end, text.length());
+
+        return parseRange(text, start, end);
+    }
+
+    /**
+     * Parses a number from a range of characters
+     *
+     * @param text  The characters
+     * @param start The index of the first character of the number
+     * @param end   The index after the last character of the number
+     * @return The nearest {@code double}
+     * @throws NumberFormatException     If the range is not a number
+     * @throws IndexOutOfBoundsException If the range is out of the array
+     */
+    public static double parse(final char[] text, final int start, final int end)
+            throws NumberFormatException, IndexOutOfBoundsException {
+
+        checkRange(start, end, text.length);
+
+        return parseRange(text, start, end);
+    }
+
+    /**
+     * Parses a number from a range of ASCII bytes
+     *
+     * @param text  The bytes
+     * @param start The index of the first byte of the number
+     * @param end   The index after the last byte of the number
+     * @return The nearest {@code double}
+     * @throws NumberFormatException     If the range is not a number
+     * @throws IndexOutOfBoundsException If the range is out of the array
+     */
+    public static double parse(final byte[] text, final int start, final int end)
+            throws NumberFormatException, IndexOutOfBoundsException {
+
+        checkRange(start, end, text.length);
+
+        return parseRange(text, start, end);
+    }
+
+    /**
+     * Parses a number from a range of characters which is already checked.
+     * There is one copy of the loop for every kind of the source, so a
+     * character is read without checking the kind of the source.
+     *
+     * @param text  The characters
+     * @param start The index of the first character of the number
+     * @param end   The index after the last character of the number
+     * @return The nearest {@code double}
+     * @throws NumberFormatException If the range is not a number
+     */
+    private static double parseRange(final CharSequence text, final int start, final int end)
+            throws NumberFormatException {
+
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i++) == '-';
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean number = false;
+        boolean fraction = false;
+
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+
+            } else if (c < '0' || c > '9') {
+                break;
+            }
+
+            number = true;
+            if (mantissa == 0 && c == '0') {
+                // a leading zero only moves the point
+                exponent -= fraction ? 1 : 0;
+
+            } else if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                exponent -= fraction ? 1 : 0;
+
+            } else {
+                truncated |= c != '0';
+                exponent += fraction ? 0 : 1;
+            }
+        }
+
+        if (number && i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                negativeExponent = text.charAt(i++) == '-';
+            }
+
+            int value = 0;
+            int exponentStart = i;
+            for (; i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+                value = Math.min(value * 10 + (text.charAt(i) - '0'), MAX_EXPONENT);
+            }
+
+            number = i > exponentStart;
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (!number || i != end) {
+            // i.e. Infinity, NaN, a hexadecimal number or an error
+            return Double.parseDouble(toString(text, start, end));
+        }
+
+        double value = toDouble(mantissa, exponent, truncated, negative);
+
+        return Double.isNaN(value) ? Double.parseDouble(toString(text, start, end)) : value;
+    }
+
+    /**
+     * Parses a number from a range of an array of characters which is
+     * already checked
+     *
+     * @param text  The characters
+     * @param start The index of the first character of the number
+     * @param end   The index after the last character of the number
+     * @return The nearest {@code double}
+     * @throws NumberFormatException If the range is not a number
+     */
+    private static double parseRange(final char[] text, final int start, final int end)
+            throws NumberFormatException {
+
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i++] == '-';
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean number = false;
+        boolean fraction = false;
+
+        for (; i < end; i++) {
+            char c = text[i];
+
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+
+            } else if (c < '0' || c > '9') {
+                break;
+            }
+
+            number = true;
+            if (mantissa == 0 && c == '0') {
+                // a leading zero only moves the point
+                exponent -= fraction ? 1 : 0;
+
+            } else if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                exponent -= fraction ? 1 : 0;
+
+            } else {
+                truncated |= c != '0';
+                exponent += fraction ? 0 : 1;
+            }
+        }
+
+        if (number && i < end && (text[i] == 'e' || text[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (text[i] == '-' || text[i] == '+')) {
+                negativeExponent = text[i++] == '-';
+            }
+
+            int value = 0;
+            int exponentStart = i;
+            for (; i < end && text[i] >= '0' && text[i] <= '9'; i++) {
+                value = Math.min(value * 10 + (text[i] - '0'), MAX_EXPONENT);
+            }
+
+            number = i > exponentStart;
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (!number || i != end) {
+            // i.e. Infinity, NaN, a hexadecimal number or an error
+            return Double.parseDouble(toString(text, start, end));
+        }
+
+        double value = toDouble(mantissa, exponent, truncated, negative);
+
+        return Double.isNaN(value) ? Double.parseDouble(toString(text, start, end)) : value;
+    }
+
+    /**
+     * Parses a number from a range of ASCII bytes which is already checked
+     *
+     * @param text  The bytes
+     * @param start The index of the first byte of the number
+     * @param end   The index after the last byte of the number
+     * @return The nearest {@code double}
+     * @throws NumberFormatException If the range is not a number
+     */
+    private static double parseRange(final byte[] text, final int start, final int end)
+            throws NumberFormatException {
+
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i++] == '-';
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean number = false;
+        boolean fraction = false;
+
+        for (; i < end; i++) {
+            char c = (char) (text[i] & 0xFF);
+
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+
+            } else if (c < '0' || c > '9') {
+                break;
+            }
+
+            number = true;
+            if (mantissa == 0 && c == '0') {
+                // a leading zero only moves the point
+                exponent -= fraction ? 1 : 0;
+
+            } else if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                exponent -= fraction ? 1 : 0;
+
+            } else {
+                truncated |= c != '0';
+                exponent += fraction ? 0 : 1;
+            }
+        }
+
+        if (number && i < end && (text[i] == 'e' || text[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (text[i] == '-' || text[i] == '+')) {
+                negativeExponent = text[i++] == '-';
+            }
+
+            int value = 0;
+            int exponentStart = i;
+            for (; i < end && text[i] >= '0' && text[i] <= '9'; i++) {
+                value = Math.min(value * 10 + (text[i] - '0'), MAX_EXPONENT);
+            }
+
+            number = i > exponentStart;
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (!number || i != end) {
+            // i.e. Infinity, NaN, a hexadecimal number or an error
+            return Double.parseDouble(toString(text, start, end));
+        }
+
+        double value = toDouble(mantissa, exponent, truncated, negative);
+
+        return Double.isNaN(value) ? Double.parseDouble(toString(text, start, end)) : value;
+    }
+
+    /**
+     * Computes {@code mantissa * 10^exponent}
+     *
+     * @param mantissa  The significant digits, unsigned
+     * @param exponent  The power of ten
+     * @param truncated Whether there are more digits which are not zero
+     * @param negative  Whether the number is negative
+     * @return The nearest {@code double}, NaN if it cannot be decided
+     */
+    private static double toDouble(final long mantissa, final int exponent, final boolean truncated,
+                                   final boolean negative) {
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+
+        } else if (!truncated && Long.compareUnsigned(mantissa, MAX_EXACT_MANTISSA) <= 0 &&
+                Math.abs(exponent) < EXACT_POWERS.length) {
+
+            double value = exponent < 0 ? mantissa / EXACT_POWERS[-exponent] : mantissa * EXACT_POWERS[exponent];
+            return negative ? -value : value;
+
+        } else if (exponent < MIN_POWER) {
+            return negative ? -0.0 : 0.0;
+
+        } else if (exponent > MAX_POWER) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+
+        double value = multiply(mantissa, exponent);
+
+        if (truncated && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(
+                multiply(mantissa + 1, exponent))) {
+            // the digits which are cut off can change the result
+            return Double.NaN;
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Computes {@code mantissa * 10^exponent} by the algorithm of Eisel and
+     * Lemire
+     *
+     * @param mantissa The significant digits, unsigned and not zero
+     * @param exponent The power of ten within the table
+     * @return The nearest {@code double}, NaN if it is not normal, or the
+     * product is too close to the half way between two values
+     */
+    private static double multiply(final long mantissa, final int exponent) {
+        int zeros = Long.numberOfLeadingZeros(mantissa);
+        long normalized = mantissa << zeros;
+        // 217706 / 2^16 is log2(10)
+        long binaryExponent = ((217706 * exponent) >> 16) + Long.SIZE + EXPONENT_BIAS - zeros;
+
+        long high = POWERS_HIGH[exponent - MIN_POWER];
+        long productHigh = multiplyHigh(normalized, high);
+        long productLow = normalized * high;
+
+        if ((productHigh & 0x1FF) == 0x1FF && Long.compareUnsigned(productLow + normalized, normalized) < 0) {
+            // the lower bits of the power can carry into the result
+            long low = POWERS_LOW[exponent - MIN_POWER];
+            long lowHigh = multiplyHigh(normalized, low);
+            long lowLow = normalized * low;
+            long mergedLow = productLow + lowHigh;
+            long mergedHigh = Long.compareUnsigned(mergedLow, productLow) < 0 ? productHigh + 1 : productHigh;
+
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow == -1 &&
+                    Long.compareUnsigned(lowLow + normalized, normalized) < 0) {
+                return Double.NaN;
+            }
+            productHigh = mergedHigh;
+            productLow = mergedLow;
+        }
+
+        long top = productHigh >>> 63;
+        long bits = productHigh >>> (top + 9);
+        binaryExponent -= 1 ^ top;
+
+        if (productLow == 0 && (productHigh & 0x1FF) == 0 && (bits & 3) == 1) {
+            // exactly the half way, the lost bits decide the rounding
+            return Double.NaN;
+        }
+
+        bits = (bits + (bits & 1)) >>> 1;
+        if (bits >>> 53 > 0) {
+            bits >>>= 1;
+            binaryExponent++;
+        }
+
+        if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+            // subnormal or infinite
+            return Double.NaN;
+        }
+
+        return Double.longBitsToDouble(binaryExponent << 52 | bits & 0xFFFFFFFFFFFFFL);
+    }
+
+    /**
+     * Computes the upper 64 bits of the unsigned 128-bit product
+     *
+     * @param x The first factor, unsigned
+     * @param y The second factor, unsigned
+     * @return The upper bits of the product
+     */
+    private static long multiplyHigh(final long x, final long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long middle = ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+
+        return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+    }
+
+    /**
+     * Copies a range of characters to a string
+     *
+     * @param text  The characters
+     * @param start The index of the first character
+     * @param end   The index after the last character
+     * @return The string
+     */
+    private static String toString(final CharSequence text, final int start, final int end) {
+        return text.subSequence(start, end).toString();
+    }
+
+    /**
+     * Copies a range of an array of characters to a string
+     *
+     * @param text  The characters
+     * @param start The index of the first character
+     * @param end   The index after the last character
+     * @return The string
+     */
+    private static String toString(final char[] text, final int start, final int end) {
+        return new String(text, start, end - start);
+    }
+
+    /**
+     * Copies a range of ASCII bytes to a string
+     *
+     * @param text  The bytes
+     * @param start The index of the first byte
+     * @param end   The index after the last byte
+     * @return The string
+     */
+    private static String toString(final byte[] text, final int start, final int end) {
+        return new String(text, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Checks whether a range is within a source
+     *
+     * @param start  The index of the first character
+     * @param end    The index after the last character
+     * @param length The length of the source
+     * @throws IndexOutOfBoundsException If the range is out of the source
+     */
+    private static void checkRange(final int start, final int end, final int length)
+            throws IndexOutOfBoundsException {
+
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of length " + length);
+        }
+    }
+}
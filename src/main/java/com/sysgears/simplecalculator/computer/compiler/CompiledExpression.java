@@ -0,0 +1,914 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.registry.Derivatives;
+import com.sysgears.simplecalculator.computer.registry.DomainFunctions;
+import com.sysgears.simplecalculator.computer.registry.MathFunction;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+
+/**
+ * Keeps a math expression compiled by {@link ExpressionCompiler} into a
+ * postfix program and evaluates it. The program is a flat {@code int}
+ * array of instructions and their operands, so the evaluation is a single
+ * loop over the array which uses an explicit stack of {@code double}
+ * values instead of recursion, i.e.:
+ * <p>
+ *     2*(3+4)  =>  CONSTANT 0, CONSTANT 1, CONSTANT 2, ADD, MULTIPLY
+ * </p>
+ * The arguments of {@code if} and {@code choose} which are not selected are
+ * skipped by jumps, so they are not computed. The program can be evaluated
+ * on dual numbers as well, then it gives the partial derivatives by the
+ * parameters together with the value. The object is immutable and can be
+ * evaluated many times, also from several threads at once.
+ */
+public final class CompiledExpression {
+    /**
+     * Pushes a constant. The operand is the index in the constants pool
+     */
+    static final int CONSTANT = 0;
+
+    /**
+     * Pops two values and pushes their sum
+     */
+    static final int ADD = 1;
+
+    /**
+     * Pops two values and pushes their difference
+     */
+    static final int SUBTRACT = 2;
+
+    /**
+     * Pops two values and pushes their product
+     */
+    static final int MULTIPLY = 3;
+
+    /**
+     * Pops two values and pushes their quotient
+     */
+    static final int DIVIDE = 4;
+
+    /**
+     * Pops two values and pushes the power, the sign is taken from the
+     * base like it is done by {@code operators.Operators.POWER}
+     */
+    static final int POWER = 5;
+
+    /**
+     * Changes the sign of the value on the top of the stack
+     */
+    static final int NEGATE = 6;
+
+    /**
+     * Calls a function. The operands are the index in the functions pool
+     * and the number of arguments which are popped from the stack
+     */
+    static final int CALL = 7;
+
+    /**
+     * Calls a function of one argument. The operand is the index in the
+     * functions pool
+     */
+    static final int CALL1 = 8;
+
+    /**
+     * Calls a function of two arguments. The operand is the index in the
+     * functions pool
+     */
+    static final int CALL2 = 9;
+
+    /**
+     * Calls a function of three arguments. The operand is the index in the
+     * functions pool
+     */
+    static final int CALL3 = 10;
+
+    /**
+     * Pops two values and pushes the value of an operator of {@code
+     * OperatorTable}. The operand is the index in the operators pool
+     */
+    static final int BINARY = 11;
+
+    /**
+     * Changes the value on the top of the stack by an operator of {@code
+     * OperatorTable}. The operand is the index in the operators pool
+     */
+    static final int UNARY = 12;
+
+    /**
+     * Pushes a copy of a value of the stack. The operand is the distance
+     * from the top, it is used to read the parameters of an inlined
+     * {@code Definition}
+     */
+    static final int LOAD = 13;
+
+    /**
+     * Moves the value on the top of the stack down by the operand and
+     * removes the values in between, it removes the arguments of an
+     * inlined {@code Definition}
+     */
+    static final int SLIDE = 14;
+
+    /**
+     * Continues from the instruction which index is the operand
+     */
+    static final int JUMP = 15;
+
+    /**
+     * Pops a value and continues from the instruction which index is the
+     * operand if the value is 0, it skips the branch of a condition which
+     * is not selected
+     */
+    static final int JUMP_IF_ZERO = 16;
+
+    /**
+     * Pops a position which counts from 1 and continues from the branch at
+     * the position. The operand is the index in the tables pool, a table
+     * keeps the indexes of the first instructions of the branches and the
+     * index after the last branch. If there is no branch at the position
+     * NaN is pushed and the branches are skipped.
+     */
+    static final int CHOOSE = 17;
+
+    /**
+     * The source expression
+     */
+    private final CharSequence expression;
+
+    /**
+     * The instructions and their operands
+     */
+    private final int[] code;
+
+    /**
+     * The constants pool
+     */
+    private final double[] constants;
+
+    /**
+     * The constants pool as exact {@code long} values, null if the program
+     * is not an integer one
+     */
+    private final long[] integers;
+
+    /**
+     * The source text of the constants which are numbers of the
+     * expression, null for the computed ones
+     */
+    private final String[] literals;
+
+    /**
+     * The functions pool
+     */
+    private final MathFunction[] functions;
+
+    /**
+     * The operators pool
+     */
+    private final Operator[] operators;
+
+    /**
+     * The jump tables pool
+     */
+    private final int[][] tables;
+
+    /**
+     * The maximum size of the stack which the program needs
+     */
+    private final int stackSize;
+
+    /**
+     * Constructs an object
+     *
+     * @param expression The source expression
+     * @param code       The instructions and their operands
+     * @param constants  The constants pool
+     * @param integers   The exact constants, null if the program is not an
+     *                   integer one
+     * @param literals   The source text of the constants
+     * @param functions  The functions pool
+     * @param operators  The operators pool
+     * @param tables     The jump tables pool
+     * @param stackSize  The maximum size of the stack
+     */
+    CompiledExpression(final CharSequence expression, final int[] code, final double[] constants, final long[] integers,
+                       final String[] literals, final MathFunction[] functions, final Operator[] operators,
+                       final int[][] tables, final int stackSize) {
+        this.expression = expression;
+        this.code = code;
+        this.constants = constants;
+        this.integers = integers;
+        this.literals = literals;
+        this.functions = functions;
+        this.operators = operators;
+        this.tables = tables;
+        this.stackSize = stackSize;
+    }
+
+    /**
+     * Evaluates the program
+     *
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero, or a function fails
+     */
+    public double evaluate() throws InvalidInputExpressionException {
+        return evaluate(new double[0]);
+    }
+
+    /**
+     * Evaluates the program exactly when it has only integer constants and
+     * the operators of integers, see {@link IntegerEvaluation}
+     *
+     * @return The exact value, null if the program is not an integer one,
+     * or the value is not an integer, i.e. 7/2
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    public BigInteger evaluateExact() throws InvalidInputExpressionException {
+        return integers == null ? null : IntegerEvaluation.evaluate(this);
+    }
+
+    /**
+     * Evaluates the program exactly on fractions, see {@link
+     * RationalEvaluation}
+     *
+     * @return The exact value, null if the program calls a function, has a
+     * fractional exponent, or the value is too big
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    public Fraction evaluateFraction() throws InvalidInputExpressionException {
+        return RationalEvaluation.evaluate(this);
+    }
+
+    /**
+     * Evaluates the program with the specified number of significant
+     * digits, see {@link DecimalEvaluation}
+     *
+     * @param precision The number of digits and the rounding mode, not
+     *                  unlimited
+     * @return The value rounded to the digits which the error bound
+     * guarantees, null if the value is either NaN or infinite
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero, or a function fails
+     */
+    public BigDecimal evaluateDecimal(final MathContext precision) throws InvalidInputExpressionException {
+        return new DecimalEvaluation(this, precision).evaluate();
+    }
+
+    /**
+     * Evaluates the program which reads the parameters from the bottom of
+     * the stack, i.e. the body of a {@code Definition}
+     *
+     * @param parameters The values of the parameters
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero, or a function fails
+     */
+    double evaluate(final double[] parameters) throws InvalidInputExpressionException {
+        double[] stack = new double[Math.max(stackSize, parameters.length)];
+        System.arraycopy(parameters, 0, stack, 0, parameters.length);
+
+        return evaluate(stack, parameters.length);
+    }
+
+    /**
+     * Evaluates the program on the stack which already contains the
+     * parameters at its bottom. The program does not change the parameters,
+     * so a loop evaluates it many times on the same stack and changes only
+     * the parameters which differ.
+     *
+     * @param stack      The stack which size is at least {@code
+     *                   getStackSize()}
+     * @param parameters The number of parameters
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero, or a function fails
+     */
+    double evaluate(final double[] stack, final int parameters) throws InvalidInputExpressionException {
+        int top = parameters - 1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case CONSTANT:
+                    stack[++top] = constants[code[++pc]];
+                    break;
+
+                case ADD:
+                    top--;
+                    stack[top] += stack[top + 1];
+                    break;
+
+                case SUBTRACT:
+                    top--;
+                    stack[top] -= stack[top + 1];
+                    break;
+
+                case MULTIPLY:
+                    top--;
+                    stack[top] *= stack[top + 1];
+                    break;
+
+                case DIVIDE:
+                    top--;
+                    if (stack[top + 1] == 0) {
+                        throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+                    }
+                    stack[top] /= stack[top + 1];
+                    break;
+
+                case POWER:
+                    top--;
+                    stack[top] = (stack[top] < 0 ? -1 : 1) * Math.pow(stack[top], stack[top + 1]);
+                    break;
+
+                case NEGATE:
+                    stack[top] = -stack[top];
+                    break;
+
+                case CALL:
+                    MathFunction function = functions[code[++pc]];
+                    double[] arguments = new double[code[++pc]];
+                    top -= arguments.length;
+                    System.arraycopy(stack, top + 1, arguments, 0, arguments.length);
+                    stack[++top] = call(function, arguments);
+                    break;
+
+                case CALL1:
+                    stack[top] = call(functions[code[++pc]], stack[top]);
+                    break;
+
+                case CALL2:
+                    top--;
+                    stack[top] = call(functions[code[++pc]], stack[top], stack[top + 1]);
+                    break;
+
+                case CALL3:
+                    top -= 2;
+                    stack[top] = call(functions[code[++pc]], stack[top], stack[top + 1], stack[top + 2]);
+                    break;
+
+                case BINARY:
+                    top--;
+                    stack[top] = apply(operators[code[++pc]], stack[top], stack[top + 1]);
+                    break;
+
+                case UNARY:
+                    stack[top] = apply(operators[code[++pc]], stack[top]);
+                    break;
+
+                case LOAD:
+                    top++;
+                    stack[top] = stack[top - 1 - code[++pc]];
+                    break;
+
+                case SLIDE:
+                    stack[top - code[pc + 1]] = stack[top];
+                    top -= code[++pc];
+                    break;
+
+                case JUMP:
+                    pc = code[pc + 1] - 1;
+                    break;
+
+                case JUMP_IF_ZERO:
+                    pc = stack[top--] == 0 ? code[pc + 1] - 1 : pc + 1;
+                    break;
+
+                case CHOOSE:
+                    int[] table = tables[code[pc + 1]];
+                    int branch = DomainFunctions.select(stack[top], table.length - 1);
+
+                    if (branch < 0) {
+                        stack[top] = Double.NaN;
+                        pc = table[table.length - 1] - 1;
+                    } else {
+                        top--;
+                        pc = table[branch] - 1;
+                    }
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+        }
+
+        return stack[top] + 0.0;
+    }
+
+    /**
+     * Evaluates the program on dual numbers, so the value and all its
+     * partial derivatives by the parameters are computed in one pass. Every
+     * slot of the stack keeps a value and its tangent, i.e. the gradient of
+     * the value, the instructions apply the chain rule to the tangents of
+     * their operands. The tangent of an operand which does not depend on
+     * the parameters is zero and is skipped, so a derivative which is not
+     * defined, i.e. by the exponent of a negative base, does not spoil the
+     * result when the exponent is a constant.
+     *
+     * @param parameters The values of the parameters
+     * @return The value followed by the partial derivatives by every
+     * parameter
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero, or a function fails
+     */
+    double[] gradient(final double[] parameters) throws InvalidInputExpressionException {
+        int n = parameters.length;
+        int size = Math.max(stackSize, n);
+        double[] stack = new double[size];
+        double[] tangents = new double[size * n];
+        double[] tangent = new double[n];
+        int top = n - 1;
+
+        System.arraycopy(parameters, 0, stack, 0, n);
+        for (int i = 0; i < n; i++) {
+            tangents[i * n + i] = 1;
+        }
+
+        for (int pc = 0; pc < code.length; pc++) {
+            double x;
+            double y;
+
+            switch (code[pc]) {
+                case CONSTANT:
+                    stack[++top] = constants[code[++pc]];
+                    Arrays.fill(tangents, top * n, top * n + n, 0);
+                    break;
+
+                case ADD:
+                    top--;
+                    stack[top] += stack[top + 1];
+                    combine(tangents, n, top, 1, top + 1, 1);
+                    break;
+
+                case SUBTRACT:
+                    top--;
+                    stack[top] -= stack[top + 1];
+                    combine(tangents, n, top, 1, top + 1, -1);
+                    break;
+
+                case MULTIPLY:
+                    top--;
+                    x = stack[top];
+                    y = stack[top + 1];
+                    stack[top] = x * y;
+                    combine(tangents, n, top, y, top + 1, x);
+                    break;
+
+                case DIVIDE:
+                    top--;
+                    y = stack[top + 1];
+                    if (y == 0) {
+                        throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+                    }
+                    stack[top] /= y;
+                    combine(tangents, n, top, 1 / y, top + 1, -stack[top] / y);
+                    break;
+
+                case POWER:
+                    top--;
+                    x = stack[top];
+                    y = stack[top + 1];
+                    stack[top] = (x < 0 ? -1 : 1) * Math.pow(x, y);
+                    combine(tangents, n, top, Derivatives.powerBase(x, y),
+                            top + 1, Derivatives.powerExponent(x, stack[top]));
+                    break;
+
+                case NEGATE:
+                    stack[top] = -stack[top];
+                    combine(tangents, n, top, -1, top, 0);
+                    break;
+
+                case CALL:
+                    MathFunction function = functions[code[++pc]];
+                    double[] arguments = new double[code[++pc]];
+                    top -= arguments.length - 1;
+                    System.arraycopy(stack, top, arguments, 0, arguments.length);
+                    stack[top] = call(function, arguments);
+                    chain(function, arguments, stack[top], tangents, n, top, tangent);
+                    break;
+
+                case CALL1:
+                case CALL2:
+                case CALL3:
+                    function = functions[code[pc + 1]];
+                    arguments = new double[code[pc] - CALL1 + 1];
+                    pc++;
+                    top -= arguments.length - 1;
+                    System.arraycopy(stack, top, arguments, 0, arguments.length);
+                    stack[top] = call(function, arguments);
+                    chain(function, arguments, stack[top], tangents, n, top, tangent);
+                    break;
+
+                case BINARY:
+                    Operator operator = operators[code[++pc]];
+                    top--;
+                    x = stack[top];
+                    y = stack[top + 1];
+                    stack[top] = apply(operator, x, y);
+                    combine(tangents, n, top, derivative(operator, x, y, stack[top], 0),
+                            top + 1, derivative(operator, x, y, stack[top], 1));
+                    break;
+
+                case UNARY:
+                    operator = operators[code[++pc]];
+                    x = stack[top];
+                    stack[top] = apply(operator, x);
+                    combine(tangents, n, top, derivative(operator, x, 0, stack[top], 0), top, 0);
+                    break;
+
+                case LOAD:
+                    top++;
+                    int source = top - 1 - code[++pc];
+                    stack[top] = stack[source];
+                    System.arraycopy(tangents, source * n, tangents, top * n, n);
+                    break;
+
+                case SLIDE:
+                    int target = top - code[pc + 1];
+                    stack[target] = stack[top];
+                    System.arraycopy(tangents, top * n, tangents, target * n, n);
+                    top = target;
+                    pc++;
+                    break;
+
+                case JUMP:
+                    pc = code[pc + 1] - 1;
+                    break;
+
+                case JUMP_IF_ZERO:
+                    pc = stack[top--] == 0 ? code[pc + 1] - 1 : pc + 1;
+                    break;
+
+                case CHOOSE:
+                    int[] table = tables[code[pc + 1]];
+                    int branch = DomainFunctions.select(stack[top], table.length - 1);
+
+                    if (branch < 0) {
+                        stack[top] = Double.NaN;
+                        Arrays.fill(tangents, top * n, top * n + n, Double.NaN);
+                        pc = table[table.length - 1] - 1;
+                    } else {
+                        top--;
+                        pc = table[branch] - 1;
+                    }
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+        }
+
+        double[] result = new double[n + 1];
+        result[0] = stack[top] + 0.0;
+        System.arraycopy(tangents, top * n, result, 1, n);
+
+        return result;
+    }
+
+    /**
+     * Replaces the tangent of a slot by the sum of the tangents of two
+     * slots multiplied by the partial derivatives. A tangent component
+     * which is zero is skipped, so the partial derivative is not used.
+     *
+     * @param tangents The tangents of the stack slots
+     * @param n        The number of parameters
+     * @param x        The slot of the left operand and of the result
+     * @param dx       The partial derivative by the left operand
+     * @param y        The slot of the right operand
+     * @param dy       The partial derivative by the right operand
+     */
+    private static void combine(final double[] tangents, final int n, final int x, final double dx, final int y,
+                                final double dy) {
+
+        for (int i = 0; i < n; i++) {
+            double left = tangents[x * n + i];
+            double right = tangents[y * n + i];
+
+            tangents[x * n + i] = (left == 0 ? 0 : dx * left) + (x == y || right == 0 ? 0 : dy * right);
+        }
+    }
+
+    /**
+     * Applies the chain rule to a function call. The arguments are in the
+     * slots from the slot of the result.
+     *
+     * @param function  The function
+     * @param arguments The arguments
+     * @param value     The value of the function
+     * @param tangents  The tangents of the stack slots
+     * @param n         The number of parameters
+     * @param slot      The slot of the first argument and of the result
+     * @param tangent   The buffer for the tangent of the result
+     * @throws InvalidInputExpressionException If a derivative fails
+     */
+    private void chain(final MathFunction function, final double[] arguments, final double value,
+                       final double[] tangents, final int n, final int slot, final double[] tangent)
+            throws InvalidInputExpressionException {
+
+        Arrays.fill(tangent, 0);
+
+        for (int argument = 0; argument < arguments.length; argument++) {
+            int offset = (slot + argument) * n;
+            double partial = Double.NaN;
+            boolean computed = false;
+
+            for (int i = 0; i < n; i++) {
+                if (tangents[offset + i] != 0) {
+                    if (!computed) {
+                        partial = derivative(function, arguments, value, argument);
+                        computed = true;
+                    }
+                    tangent[i] += partial * tangents[offset + i];
+                }
+            }
+        }
+        System.arraycopy(tangent, 0, tangents, slot * n, n);
+    }
+
+    /**
+     * Computes a partial derivative of a function
+     *
+     * @param function  The function
+     * @param arguments The arguments
+     * @param value     The value of the function
+     * @param index     The index of the argument
+     * @return The partial derivative
+     * @throws InvalidInputExpressionException If the function fails
+     */
+    double derivative(final MathFunction function, final double[] arguments, final double value,
+                      final int index) throws InvalidInputExpressionException {
+
+        try {
+            return function.derivative(arguments, value, index);
+
+        } catch (ArithmeticException e) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+        }
+    }
+
+    /**
+     * Computes a partial derivative of an operator
+     *
+     * @param operator The operator
+     * @param x        The left or the only operand
+     * @param y        The right operand
+     * @param value    The value of the operator
+     * @param operand  The index of the operand
+     * @return The partial derivative
+     * @throws InvalidInputExpressionException If the operator fails
+     */
+    double derivative(final Operator operator, final double x, final double y, final double value,
+                      final int operand) throws InvalidInputExpressionException {
+
+        try {
+            return OperatorTable.derivative(operator, x, y, value, operand);
+
+        } catch (ArithmeticException e) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+        }
+    }
+
+    /**
+     * Computes a binary operator
+     *
+     * @param operator The operator
+     * @param x        The left operand
+     * @param y        The right operand
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the operator fails
+     */
+    double apply(final Operator operator, final double x, final double y)
+            throws InvalidInputExpressionException {
+
+        try {
+            return operator.apply(x, y);
+
+        } catch (ArithmeticException e) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+        }
+    }
+
+    /**
+     * Computes a unary operator
+     *
+     * @param operator The operator
+     * @param x        The operand
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the operator fails
+     */
+    double apply(final Operator operator, final double x) throws InvalidInputExpressionException {
+        try {
+            return operator.apply(x);
+
+        } catch (ArithmeticException e) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+        }
+    }
+
+    /**
+     * Calls a function
+     *
+     * @param function  The function
+     * @param arguments The arguments
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the function fails
+     */
+    double call(final MathFunction function, final double[] arguments)
+            throws InvalidInputExpressionException {
+
+        try {
+            return function.apply(arguments);
+
+        } catch (ArithmeticException e) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+        }
+    }
+
+    /**
+     * Calls a function of one argument
+     *
+     * @param function The function
+     * @param x        The argument
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the function fails
+     */
+    private double call(final MathFunction function, final double x) throws InvalidInputExpressionException {
+        try {
+            return function.apply(x);
+
+        } catch (ArithmeticException e) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+        }
+    }
+
+    /**
+     * Calls a function of two arguments
+     *
+     * @param function The function
+     * @param x        The first argument
+     * @param y        The second argument
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the function fails
+     */
+    private double call(final MathFunction function, final double x, final double y)
+            throws InvalidInputExpressionException {
+
+        try {
+            return function.apply(x, y);
+
+        } catch (ArithmeticException e) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+        }
+    }
+
+    /**
+     * Calls a function of three arguments
+     *
+     * @param function The function
+     * @param x        The first argument
+     * @param y        The second argument
+     * @param z        The third argument
+     * @return The computed value
+     * @throws InvalidInputExpressionException If the function fails
+     */
+    private double call(final MathFunction function, final double x, final double y, final double z)
+            throws InvalidInputExpressionException {
+
+        try {
+            return function.apply(x, y, z);
+
+        } catch (ArithmeticException e) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, getExpression(), 0);
+        }
+    }
+
+    /**
+     * Returns the instructions and their operands. The array is shared, it
+     * must not be changed.
+     *
+     * @return The instructions
+     */
+    int[] getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the constant
+     *
+     * @param index The index in the constants pool
+     * @return The constant
+     */
+    double getConstant(final int index) {
+        return constants[index];
+    }
+
+    /**
+     * Returns the exact constant of an integer program
+     *
+     * @param index The index in the constants pool
+     * @return The constant
+     */
+    long getInteger(final int index) {
+        return integers[index];
+    }
+
+    /**
+     * Returns the source text of a constant
+     *
+     * @param index The index in the constants pool
+     * @return The number of the expression, null if the constant is
+     * computed
+     */
+    String getLiteral(final int index) {
+        return literals[index];
+    }
+
+    /**
+     * Checks whether the program has only integer constants and operators
+     * which {@link IntegerEvaluation} supports
+     *
+     * @return true if the program can be evaluated exactly
+     */
+    boolean isInteger() {
+        return integers != null;
+    }
+
+    /**
+     * Returns the function
+     *
+     * @param index The index in the functions pool
+     * @return The function
+     */
+    MathFunction getFunction(final int index) {
+        return functions[index];
+    }
+
+    /**
+     * Returns the jump table
+     *
+     * @param index The index in the tables pool
+     * @return The jump table, the array is shared, it must not be changed
+     */
+    int[] getTable(final int index) {
+        return tables[index];
+    }
+
+    /**
+     * Returns the operators pool
+     *
+     * @return The operators pool
+     */
+    Operator[] getOperators() {
+        return operators;
+    }
+
+    /**
+     * Returns the maximum size of the stack which the program needs
+     *
+     * @return The size of the stack
+     */
+    int getStackSize() {
+        return stackSize;
+    }
+
+    /**
+     * Checks whether the program returns the same value for the same
+     * parameters, i.e. all its functions are pure
+     *
+     * @return true if the program is pure
+     */
+    boolean isPure() {
+        for (MathFunction function : functions) {
+            if (!function.isPure()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the source expression
+     *
+     * @return The source expression
+     */
+    public String getExpression() {
+        return expression.toString();
+    }
+
+    /**
+     * Returns the source expression
+     *
+     * @return The source expression
+     */
+    @Override
+    public String toString() {
+        return expression.toString();
+    }
+}
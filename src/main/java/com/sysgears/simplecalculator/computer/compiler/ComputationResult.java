@@ -0,0 +1,130 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+
+/**
+ * Keeps either the value of an expression or the reason why it cannot be
+ * computed. It lets bulk workloads handle invalid expressions without
+ * catching exceptions, the error message is built only when it is read.
+ */
+public final class ComputationResult {
+    /**
+     * The value, NaN if the expression is invalid
+     */
+    private final double value;
+
+    /**
+     * The error, null if the expression is valid
+     */
+    private final InvalidInputExpressionException error;
+
+    /**
+     * Constructs an object
+     *
+     * @param value The value
+     * @param error The error
+     */
+    private ComputationResult(final double value, final InvalidInputExpressionException error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * Creates the result of a valid expression
+     *
+     * @param value The value
+     * @return The result
+     */
+    static ComputationResult valid(final double value) {
+        return new ComputationResult(value, null);
+    }
+
+    /**
+     * Creates the result of an invalid expression
+     *
+     * @param error The error
+     * @return The result
+     */
+    static ComputationResult invalid(final InvalidInputExpressionException error) {
+        return new ComputationResult(Double.NaN, error);
+    }
+
+    /**
+     * Checks whether the expression is computed
+     *
+     * @return true if the expression is valid
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Returns the value
+     *
+     * @return The value
+     * @throws InvalidInputExpressionException If the expression is invalid
+     */
+    public double getValue() throws InvalidInputExpressionException {
+        if (error != null) {
+            throw error;
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the reason why the expression cannot be computed
+     *
+     * @return The reason, null if the expression is valid
+     */
+    public ErrorCode getErrorCode() {
+        return error == null ? null : error.getErrorCode();
+    }
+
+    /**
+     * Returns the start of the wrong part in the expression
+     *
+     * @return The position, -1 if the expression is valid
+     */
+    public int getPosition() {
+        return error == null ? -1 : error.getPosition();
+    }
+
+    /**
+     * Returns the end of the wrong part in the expression
+     *
+     * @return The exclusive end, -1 if the expression is valid
+     */
+    public int getEnd() {
+        return error == null ? -1 : error.getEnd();
+    }
+
+    /**
+     * Returns the wrong part of the expression
+     *
+     * @return The wrong part, null if the expression is valid
+     */
+    public String getWrongPart() {
+        return error == null ? null : error.getWrongPart();
+    }
+
+    /**
+     * Returns the error message
+     *
+     * @return The message, null if the expression is valid
+     */
+    public String getMessage() {
+        return error == null ? null : error.getMessage();
+    }
+
+    /**
+     * Returns the string representation of the result
+     *
+     * @return The value or the error message
+     */
+    @Override
+    public String toString() {
+        return error == null ? String.valueOf(value) : getMessage();
+    }
+}
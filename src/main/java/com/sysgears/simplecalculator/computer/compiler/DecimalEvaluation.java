@@ -0,0 +1,689 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.registry.Derivatives;
+import com.sysgears.simplecalculator.computer.registry.DomainFunctions;
+import com.sysgears.simplecalculator.computer.registry.MathFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static com.sysgears.simplecalculator.computer.compiler.CompiledExpression.*;
+
+/**
+ * Evaluates a {@link CompiledExpression} with a requested number of
+ * significant digits. {@code BigDecimal} is slow, so it is used only where
+ * {@code double} is not precise enough. The ideas lie behind it are next:
+ * <p>
+ *     <ul>
+ *         <li>every slot of the stack keeps a {@code double} value and a
+ *         bound of its absolute error, the error of an operation is the
+ *         error of its operands which is carried by the derivatives plus
+ *         the round-off of the operation itself</li>
+ *         <li>the round-off of {@code + - * /} is found exactly by the
+ *         error-free transformations, so an operation which {@code double}
+ *         computes exactly, i.e. on integers, has no error at all</li>
+ *         <li>an operation which error bound is greater than a tenth of the
+ *         requested unit in the last place is computed in {@code
+ *         BigDecimal}, and so are all the operations which use its value</li>
+ *         <li>a number of the expression which is not an exact integer is
+ *         taken by its decimal text, so {@code 0.1} is exactly 0.1</li>
+ *         <li>the functions and a power of a fractional exponent are
+ *         computed in {@code double}, their error bound then limits the
+ *         number of digits of the result</li>
+ *     </ul>
+ * </p>
+ * The operations of {@code BigDecimal} keep a few guard digits, the result
+ * is rounded to the requested digits or to fewer ones which the error bound
+ * still guarantees. A value which is out of the range of {@code double} is
+ * computed only while it is exact, i.e. {@code 10^400}. A product or a
+ * quotient which underflows {@code double} has no bound of its error, so it
+ * is computed in {@code BigDecimal}, i.e. {@code 1e-200*1e-200}.
+ */
+final class DecimalEvaluation {
+    /**
+     * The number of the digits which {@code BigDecimal} keeps above the
+     * requested ones
+     */
+    private static final int GUARD_DIGITS = 3;
+
+    /**
+     * The greatest integer from which all the integers are exact in {@code
+     * double}, 2^53
+     */
+    private static final double MAX_EXACT_DOUBLE = 9007199254740992.0;
+
+    /**
+     * The number of characters of a number which is exactly its {@code
+     * double} value if the value is an integer
+     */
+    private static final int MAX_EXACT_LITERAL = 15;
+
+    /**
+     * The greatest integer exponent which {@code BigDecimal.pow()} accepts
+     */
+    private static final int MAX_EXPONENT = 999999999;
+
+    /**
+     * The greatest number which factorial is exact in {@code double}
+     */
+    private static final int MAX_EXACT_FACTORIAL = 18;
+
+    /**
+     * The greatest number which factorial is finite in {@code double}
+     */
+    private static final int MAX_FACTORIAL = 170;
+
+    /**
+     * The factor which splits a {@code double} into two halves of 26 bits
+     */
+    private static final double SPLITTER = 134217729;
+
+    /**
+     * The program
+     */
+    private final CompiledExpression program;
+
+    /**
+     * The requested number of digits and the rounding mode
+     */
+    private final MathContext precision;
+
+    /**
+     * The number of digits of the operations of {@code BigDecimal}
+     */
+    private final MathContext working;
+
+    /**
+     * The greatest relative error of a {@code double} value which is kept
+     */
+    private final double tolerance;
+
+    /**
+     * The greatest relative round-off of an operation of {@code BigDecimal}
+     */
+    private final double roundOff;
+
+    /**
+     * The {@code double} values of the stack
+     */
+    private final double[] values;
+
+    /**
+     * The bounds of the absolute errors of the values
+     */
+    private final double[] errors;
+
+    /**
+     * The {@code BigDecimal} values of the stack, null where the {@code
+     * double} value is used
+     */
+    private final BigDecimal[] decimals;
+
+    /**
+     * Constructs an object
+     *
+     * @param program   The program
+     * @param precision The number of digits and the rounding mode, not
+     *                  unlimited
+     * @throws IllegalArgumentException If the precision is unlimited
+     */
+    DecimalEvaluation(final CompiledExpression program, final MathContext precision)
+            throws IllegalArgumentException {
+
+        if (precision.getPrecision() == 0) {
+            throw new IllegalArgumentException("Precision must be limited");
+        }
+
+        int size = Math.max(program.getStackSize(), 1);
+
+        this.program = program;
+        this.precision = precision;
+        this.working = new MathContext(precision.getPrecision() + GUARD_DIGITS, precision.getRoundingMode());
+        this.tolerance = 0.5 * Math.pow(10, -precision.getPrecision());
+        this.roundOff = 0.5 * Math.pow(10, 1 - working.getPrecision());
+        this.values = new double[size];
+        this.errors = new double[size];
+        this.decimals = new BigDecimal[size];
+    }
+
+    /**
+     * Evaluates the program
+     *
+     * @return The value rounded to the digits which the error bound
+     * guarantees, null if the value is either NaN or infinite, or the error
+     * bound does not guarantee any digit
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero, or a function fails
+     */
+    BigDecimal evaluate() throws InvalidInputExpressionException {
+        int[] code = program.getCode();
+        int top = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case CONSTANT:
+                    constant(++top, code[++pc]);
+                    break;
+
+                case ADD:
+                case SUBTRACT:
+                case MULTIPLY:
+                case DIVIDE:
+                    arithmetic(code[pc], --top);
+                    break;
+
+                case POWER:
+                    power(--top);
+                    break;
+
+                case NEGATE:
+                    values[top] = -values[top];
+                    if (decimals[top] != null) {
+                        decimals[top] = decimals[top].negate();
+                    }
+                    break;
+
+                case CALL:
+                    top -= code[pc + 2] - 1;
+                    call(program.getFunction(code[pc + 1]), top, code[pc + 2]);
+                    pc += 2;
+                    break;
+
+                case CALL1:
+                    call(program.getFunction(code[++pc]), top, 1);
+                    break;
+
+                case CALL2:
+                    call(program.getFunction(code[++pc]), --top, 2);
+                    break;
+
+                case CALL3:
+                    top -= 2;
+                    call(program.getFunction(code[++pc]), top, 3);
+                    break;
+
+                case BINARY:
+                    binary(program.getOperators()[code[++pc]], --top);
+                    break;
+
+                case UNARY:
+                    unary(program.getOperators()[code[++pc]], top);
+                    break;
+
+                case LOAD:
+                    top++;
+                    copy(top - 1 - code[++pc], top);
+                    break;
+
+                case SLIDE:
+                    copy(top, top - code[pc + 1]);
+                    top -= code[++pc];
+                    break;
+
+                case JUMP:
+                    pc = code[pc + 1] - 1;
+                    break;
+
+                case JUMP_IF_ZERO:
+                    boolean zero = decimals[top] != null ? decimals[top].signum() == 0 : values[top] == 0;
+                    top--;
+                    pc = zero ? code[pc + 1] - 1 : pc + 1;
+                    break;
+
+                case CHOOSE:
+                    int[] table = program.getTable(code[pc + 1]);
+                    int branch = DomainFunctions.select(values[top], table.length - 1);
+
+                    if (branch < 0) {
+                        store(top, Double.NaN, 0);
+                        pc = table[table.length - 1] - 1;
+                    } else {
+                        top--;
+                        pc = table[branch] - 1;
+                    }
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+        }
+
+        return result(top);
+    }
+
+    /**
+     * Rounds the value of the slot to the digits which its error bound
+     * guarantees
+     *
+     * @param slot The slot
+     * @return The rounded value, null if the value is either NaN or
+     * infinite, or no digit is guaranteed
+     */
+    private BigDecimal result(final int slot) {
+        double value = Math.abs(values[slot]);
+        double error = errors[slot];
+
+        if (decimals[slot] == null && (Double.isNaN(value) || Double.isInfinite(value))) {
+            return null;
+
+        } else if (error == 0) {
+            return decimal(slot).round(precision);
+
+        } else if (!(error < value)) {
+            return null;
+        }
+
+        int digits = (int) Math.floor(Math.log10(value / (2 * error))) + 1;
+
+        return digits >= precision.getPrecision() ? decimal(slot).round(precision) :
+                decimal(slot).round(new MathContext(Math.max(digits, 1), precision.getRoundingMode()));
+    }
+
+    /**
+     * Pushes a constant. An exact integer is kept in {@code double}, a
+     * number of the expression is taken by its text, a computed constant
+     * is within one unit in the last place. A number like {@code 1e-400}
+     * which underflows to zero is not an exact integer.
+     *
+     * @param slot  The slot
+     * @param index The index in the constants pool
+     */
+    private void constant(final int slot, final int index) {
+        double value = program.getConstant(index);
+        String literal = program.getLiteral(index);
+        boolean integer = value == Math.rint(value) && Math.abs(value) <= MAX_EXACT_DOUBLE;
+
+        if (literal == null) {
+            store(slot, value, integer ? 0 : Math.ulp(value));
+
+        } else if (integer && literal.length() <= MAX_EXACT_LITERAL &&
+                (value != 0 || literal.indexOf('e') < 0 && literal.indexOf('E') < 0)) {
+            store(slot, value, 0);
+
+        } else {
+            store(slot, new BigDecimal(literal), 0);
+        }
+    }
+
+    /**
+     * Computes {@code + - * /} of two slots, in {@code double} if its error
+     * bound is small enough
+     *
+     * @param instruction The instruction
+     * @param slot        The slot of the left operand, the right one is
+     *                    above it
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    private void arithmetic(final int instruction, final int slot) throws InvalidInputExpressionException {
+        double x = values[slot];
+        double y = values[slot + 1];
+        double ex = errors[slot];
+        double ey = errors[slot + 1];
+
+        if (instruction == DIVIDE && (decimals[slot + 1] != null ? decimals[slot + 1].signum() == 0 : y == 0)) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, program.getExpression(), 0);
+        }
+
+        if (!isFinite(slot) || !isFinite(slot + 1)) {
+            store(slot, instruction == ADD ? x + y : instruction == SUBTRACT ? x - y :
+                    instruction == MULTIPLY ? x * y : x / y, 0);
+            return;
+
+        } else if (decimals[slot] == null && decimals[slot + 1] == null) {
+            double value;
+            double error;
+
+            switch (instruction) {
+                case ADD:
+                    value = x + y;
+                    error = ex + ey + Math.abs(sumError(x, y, value));
+                    break;
+
+                case SUBTRACT:
+                    value = x - y;
+                    error = ex + ey + Math.abs(sumError(x, -y, value));
+                    break;
+
+                case MULTIPLY:
+                    value = x * y;
+                    error = propagate(y, ex) + propagate(x, ey) + ex * ey + Math.abs(productError(x, y, value));
+                    break;
+
+                default:
+                    value = x / y;
+                    double product = value * y;
+                    double residual = x - product - productError(value, y, product);
+                    error = quotientError(value, y, ex, ey) + Math.abs(residual / y);
+            }
+
+            // the round-off of a subnormal product or quotient is not exact, it can even be the whole value
+            if ((instruction == MULTIPLY || instruction == DIVIDE) && Math.abs(value) < Double.MIN_NORMAL &&
+                    x != 0 && y != 0) {
+                error = Double.POSITIVE_INFINITY;
+            }
+
+            if (isKept(value, error)) {
+                store(slot, value, error);
+                return;
+            }
+        }
+
+        BigDecimal a = decimal(slot);
+        BigDecimal b = decimal(slot + 1);
+
+        switch (instruction) {
+            case ADD:
+                store(slot, a.add(b, working), ex + ey);
+                break;
+
+            case SUBTRACT:
+                store(slot, a.subtract(b, working), ex + ey);
+                break;
+
+            case MULTIPLY:
+                store(slot, a.multiply(b, working), propagate(y, ex) + propagate(x, ey) + ex * ey);
+                break;
+
+            default:
+                BigDecimal quotient = a.divide(b, working);
+                store(slot, quotient, quotientError(quotient.doubleValue(), y, ex, ey));
+        }
+    }
+
+    /**
+     * Computes the power which takes the sign of the base. A power of an
+     * exact integer exponent is computed in {@code BigDecimal} if {@code
+     * double} is not precise enough, a power of another exponent is
+     * computed in {@code double}.
+     *
+     * @param slot The slot of the base, the exponent is above it
+     */
+    private void power(final int slot) {
+        double x = values[slot];
+        double y = values[slot + 1];
+        double value = (x < 0 ? -1 : 1) * Math.pow(x, y);
+        double error = propagate(Derivatives.powerBase(x, y), errors[slot]) +
+                propagate(Derivatives.powerExponent(x, value), errors[slot + 1]);
+
+        boolean integer = errors[slot + 1] == 0 && y == Math.rint(y) && Math.abs(y) <= MAX_EXPONENT &&
+                (decimals[slot + 1] == null || decimals[slot + 1].compareTo(BigDecimal.valueOf(y)) == 0);
+        boolean defined = isFinite(slot) && (y >= 0 || decimal(slot).signum() != 0);
+
+        if (integer && defined && (decimals[slot] != null || !isKept(value, error + Math.ulp(value)))) {
+            BigDecimal result = decimal(slot).pow((int) y, working);
+            store(slot, decimal(slot).signum() < 0 ? result.negate() : result, error);
+
+        } else {
+            store(slot, value, Math.ulp(value) + propagate(Derivatives.powerBase(x, y), inputError(slot)) +
+                    propagate(Derivatives.powerExponent(x, value), inputError(slot + 1)));
+        }
+    }
+
+    /**
+     * Calls a function in {@code double}
+     *
+     * @param function The function
+     * @param slot     The slot of the first argument, the other ones are
+     *                 above it
+     * @param argc     The number of arguments
+     * @throws InvalidInputExpressionException If the function fails
+     */
+    private void call(final MathFunction function, final int slot, final int argc)
+            throws InvalidInputExpressionException {
+
+        double[] arguments = new double[argc];
+        System.arraycopy(values, slot, arguments, 0, argc);
+
+        double value = program.call(function, arguments);
+        double error = Math.ulp(value);
+
+        for (int i = 0; i < argc; i++) {
+            if (inputError(slot + i) != 0) {
+                error += propagate(program.derivative(function, arguments, value, i), inputError(slot + i));
+            }
+        }
+        store(slot, value, error);
+    }
+
+    /**
+     * Computes a binary operator. The remainder and the integer division
+     * of exact operands are exact, in {@code BigDecimal} if an operand is
+     * there, another operator is computed in {@code double}.
+     *
+     * @param operator The operator
+     * @param slot     The slot of the left operand, the right one is above
+     *                 it
+     * @throws InvalidInputExpressionException If the operator fails
+     */
+    private void binary(final Operator operator, final int slot) throws InvalidInputExpressionException {
+        double x = values[slot];
+        double y = values[slot + 1];
+        boolean exact = errors[slot] == 0 && errors[slot + 1] == 0;
+        boolean integral = operator == OperatorTable.REMAINDER || operator == OperatorTable.INTEGER_DIVIDE;
+
+        if (integral && exact && isFinite(slot) && isFinite(slot + 1) &&
+                (decimals[slot] != null || decimals[slot + 1] != null)) {
+
+            BigDecimal b = decimal(slot + 1);
+
+            if (b.signum() == 0) {
+                throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, program.getExpression(), 0);
+            }
+
+            BigDecimal[] quotient = decimal(slot).divideAndRemainder(b);
+            if (operator == OperatorTable.REMAINDER) {
+                store(slot, quotient[1], 0);
+
+            } else {
+                boolean floor = quotient[1].signum() != 0 && quotient[1].signum() != b.signum();
+                store(slot, floor ? quotient[0].subtract(BigDecimal.ONE) : quotient[0], 0);
+            }
+            return;
+        }
+
+        double value = program.apply(operator, x, y);
+        double error = integral && exact ? 0 : Math.ulp(value);
+
+        for (int operand = 0; operand < 2; operand++) {
+            if (inputError(slot + operand) != 0) {
+                error += propagate(program.derivative(operator, x, y, value, operand), inputError(slot + operand));
+            }
+        }
+        store(slot, value, error);
+    }
+
+    /**
+     * Computes a unary operator. The factorial of an exact integer is
+     * exact, in {@code BigDecimal} if {@code double} cannot keep it, another
+     * operator is computed in {@code double}.
+     *
+     * @param operator The operator
+     * @param slot     The slot of the operand
+     * @throws InvalidInputExpressionException If the operator fails
+     */
+    private void unary(final Operator operator, final int slot) throws InvalidInputExpressionException {
+        double x = values[slot];
+        double ex = errors[slot];
+        double value = program.apply(operator, x);
+
+        if (operator == OperatorTable.FACTORIAL && ex == 0 && x == Math.rint(x) && x >= 0 && x <= MAX_FACTORIAL) {
+            if (x <= MAX_EXACT_FACTORIAL) {
+                store(slot, value, 0);
+
+            } else {
+                BigDecimal result = BigDecimal.ONE;
+                for (int i = 2; i <= x; i++) {
+                    result = result.multiply(BigDecimal.valueOf(i));
+                }
+                store(slot, result.round(working), 0);
+            }
+            return;
+        }
+
+        store(slot, value, Math.ulp(value) + (inputError(slot) == 0 ? 0 :
+                propagate(program.derivative(operator, x, 0, value, 0), inputError(slot))));
+    }
+
+    /**
+     * Checks whether a {@code double} value is precise enough
+     *
+     * @param value The value
+     * @param error The error bound of the value
+     * @return true if the value is finite and its relative error is not
+     * greater than the tolerance
+     */
+    private boolean isKept(final double value, final double error) {
+        return isFinite(value) && error <= Math.abs(value) * tolerance;
+    }
+
+    /**
+     * Returns the error bound of a slot which is used in {@code double}
+     *
+     * @param slot The slot
+     * @return The error bound increased by the rounding of a {@code
+     * BigDecimal} value to {@code double}
+     */
+    private double inputError(final int slot) {
+        return decimals[slot] == null ? errors[slot] : errors[slot] + Math.ulp(values[slot]) / 2;
+    }
+
+    /**
+     * Checks whether the value of a slot is finite
+     *
+     * @param slot The slot
+     * @return true if the slot keeps a {@code BigDecimal} or a finite
+     * {@code double} value
+     */
+    private boolean isFinite(final int slot) {
+        return decimals[slot] != null || isFinite(values[slot]);
+    }
+
+    /**
+     * Returns the value of a slot as {@code BigDecimal}
+     *
+     * @param slot The slot
+     * @return The value, a finite {@code double} one is converted exactly
+     */
+    private BigDecimal decimal(final int slot) {
+        return decimals[slot] != null ? decimals[slot] : new BigDecimal(values[slot]);
+    }
+
+    /**
+     * Puts a {@code double} value into a slot
+     *
+     * @param slot  The slot
+     * @param value The value
+     * @param error The error bound of the value
+     */
+    private void store(final int slot, final double value, final double error) {
+        values[slot] = value;
+        errors[slot] = error;
+        decimals[slot] = null;
+    }
+
+    /**
+     * Puts a {@code BigDecimal} value into a slot, the error bound is
+     * increased by the rounding to the working digits
+     *
+     * @param slot  The slot
+     * @param value The value
+     * @param error The error bound of the operands of the value
+     */
+    private void store(final int slot, final BigDecimal value, final double error) {
+        // a value of all the working digits can be rounded, unless its last digits are zeros
+        boolean exact = value.precision() < working.getPrecision() ||
+                value.stripTrailingZeros().precision() < working.getPrecision();
+
+        values[slot] = value.doubleValue();
+        errors[slot] = exact ? error : error + Math.abs(values[slot]) * roundOff;
+        decimals[slot] = value;
+    }
+
+    /**
+     * Copies a slot
+     *
+     * @param from The source slot
+     * @param to   The target slot
+     */
+    private void copy(final int from, final int to) {
+        values[to] = values[from];
+        errors[to] = errors[from];
+        decimals[to] = decimals[from];
+    }
+
+    /**
+     * Computes the error of an operand which is carried to the value
+     *
+     * @param derivative The derivative of the value by the operand
+     * @param error      The error bound of the operand
+     * @return The carried error, 0 if the operand is exact
+     */
+    private static double propagate(final double derivative, final double error) {
+        return error == 0 ? 0 : Math.abs(derivative) * error;
+    }
+
+    /**
+     * Computes the error of a quotient which is carried from its operands
+     *
+     * @param quotient The quotient
+     * @param y        The divisor
+     * @param ex       The error bound of the dividend
+     * @param ey       The error bound of the divisor
+     * @return The carried error, infinite if the divisor can be zero
+     */
+    private static double quotientError(final double quotient, final double y, final double ex, final double ey) {
+        if (ex == 0 && ey == 0) {
+            return 0;
+        }
+
+        return ey < Math.abs(y) ? (ex + propagate(quotient, ey)) / (Math.abs(y) - ey) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Finds the round-off of a sum exactly, the Knuth's two-sum
+     *
+     * @param x   The first addend
+     * @param y   The second addend
+     * @param sum The rounded sum
+     * @return The exact sum minus the rounded one
+     */
+    private static double sumError(final double x, final double y, final double sum) {
+        double virtual = sum - x;
+
+        return (x - (sum - virtual)) + (y - virtual);
+    }
+
+    /**
+     * Finds the round-off of a product exactly, the Dekker's two-product
+     * which splits the factors into halves, so their products are exact
+     *
+     * @param x       The first factor
+     * @param y       The second factor
+     * @param product The rounded product
+     * @return The exact product minus the rounded one, NaN if a factor is
+     * too big to be split
+     */
+    private static double productError(final double x, final double y, final double product) {
+        double cx = SPLITTER * x;
+        double xHigh = cx - (cx - x);
+        double xLow = x - xHigh;
+        double cy = SPLITTER * y;
+        double yHigh = cy - (cy - y);
+        double yLow = y - yHigh;
+
+        return ((xHigh * yHigh - product) + xHigh * yLow + xLow * yHigh) + xLow * yLow;
+    }
+
+    /**
+     * Checks whether a value is finite
+     *
+     * @param value The value
+     * @return true if the value is neither NaN nor infinite
+     */
+    private static boolean isFinite(final double value) {
+        return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+}
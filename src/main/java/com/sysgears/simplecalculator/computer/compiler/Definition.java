@@ -0,0 +1,135 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps a function which is defined by a user, i.e. {@code def f(x,y)=x^2+y}.
+ * The body is compiled once, when the function is defined. The program of
+ * the body reads the parameters from the stack below it, so {@link
+ * ExpressionCompiler} inlines it at every call site right after the
+ * arguments instead of calling it. The object is immutable.
+ */
+public final class Definition {
+    /**
+     * The name of the function
+     */
+    private final String name;
+
+    /**
+     * The names of the parameters
+     */
+    private final String[] parameters;
+
+    /**
+     * The source of the body
+     */
+    private final String body;
+
+    /**
+     * The compiled body
+     */
+    private final CompiledExpression program;
+
+    /**
+     * Constructs an object
+     *
+     * @param name       The name of the function
+     * @param parameters The names of the parameters
+     * @param body       The source of the body
+     * @param program    The compiled body
+     */
+    Definition(final String name, final String[] parameters, final String body, final CompiledExpression program) {
+        this.name = name;
+        this.parameters = parameters;
+        this.body = body;
+        this.program = program;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getParameters() {
+        return Collections.unmodifiableList(Arrays.asList(parameters));
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the number of parameters
+     *
+     * @return The number of parameters
+     */
+    public int getArity() {
+        return parameters.length;
+    }
+
+    /**
+     * Computes the function
+     *
+     * @param arguments The arguments
+     * @return The computed value
+     * @throws IllegalArgumentException        If the number of arguments is
+     *                                         wrong
+     * @throws InvalidInputExpressionException If the body divides by zero,
+     *                                         or a function fails
+     */
+    public double apply(final double... arguments) throws IllegalArgumentException, InvalidInputExpressionException {
+        if (arguments.length != parameters.length) {
+            throw new IllegalArgumentException("The function " + name + " takes " + parameters.length +
+                    " arguments instead of " + arguments.length);
+        }
+
+        return program.evaluate(arguments);
+    }
+
+    /**
+     * Computes the function and all its partial derivatives in one pass by
+     * the forward-mode automatic differentiation, so a gradient does not
+     * need a computation per parameter
+     *
+     * @param arguments The arguments
+     * @return The value followed by the partial derivatives by every
+     * parameter, i.e. {@code [f, df/dx, df/dy]}
+     * @throws IllegalArgumentException        If the number of arguments is
+     *                                         wrong
+     * @throws InvalidInputExpressionException If the body divides by zero,
+     *                                         or a function fails
+     */
+    public double[] gradient(final double... arguments) throws IllegalArgumentException,
+            InvalidInputExpressionException {
+
+        if (arguments.length != parameters.length) {
+            throw new IllegalArgumentException("The function " + name + " takes " + parameters.length +
+                    " arguments instead of " + arguments.length);
+        }
+
+        return program.gradient(arguments);
+    }
+
+    /**
+     * Returns the compiled body
+     *
+     * @return The compiled body
+     */
+    CompiledExpression getProgram() {
+        return program;
+    }
+
+    /**
+     * Returns the definition without the keyword, i.e. {@code f(x,y)=x^2+y}
+     *
+     * @return The string representation
+     */
+    @Override
+    public String toString() {
+        return name + ExpressionCompiler.OPEN_EXP + String.join(String.valueOf(ExpressionCompiler.DELIMITER), parameters) +
+                ExpressionCompiler.CLOSE_EXP + "=" + body;
+    }
+}
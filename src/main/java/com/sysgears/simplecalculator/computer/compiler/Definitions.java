@@ -0,0 +1,185 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.registry.FunctionRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the functions which are defined by a user during a session, i.e.:
+ * <p>
+ *     def hyp(a, b) = sqrt(a^2 + b^2)
+ * </p>
+ * The body can use the parameters, the operators of the {@link
+ * OperatorTable}, the functions of {@code FunctionRegistry} and the
+ * functions which are defined before. It is compiled once, when the
+ * function is defined, and calls of other definitions are already inlined
+ * into it. A name can be defined only once in a session and cannot be the
+ * name of a function of {@code FunctionRegistry}, so a result which is
+ * computed once stays valid during the session. The object is thread safe.
+ */
+public final class Definitions {
+    /**
+     * The keyword which starts a definition
+     */
+    private static final String KEYWORD = "def";
+
+    /**
+     * A pattern for a definition without the keyword and white spaces
+     */
+    private static final Pattern DEFINITION = Pattern.compile(
+            "([a-zA-Z][a-zA-Z0-9]*)\\(((?:[a-zA-Z][a-zA-Z0-9]*)(?:,[a-zA-Z][a-zA-Z0-9]*)*)?\\)=(.+)");
+
+    /**
+     * The operators which are recognized in bodies
+     */
+    private final OperatorTable table;
+
+    /**
+     * The definitions by the names
+     */
+    private final ConcurrentMap<String, Definition> definitions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an object which recognizes the operators of the default
+     * {@code OperatorTable}
+     */
+    public Definitions() {
+        this(OperatorTable.getDefault());
+    }
+
+    /**
+     * Constructs an object
+     *
+     * @param table The operators which are recognized in bodies
+     */
+    public Definitions(final OperatorTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Checks whether the line is a definition, i.e. it starts from the
+     * keyword followed by a white space
+     *
+     * @param line The line
+     * @return true if it is a definition
+     */
+    public static boolean isDefinition(final String line) {
+        String trimmed = line == null ? "" : line.trim();
+
+        return trimmed.length() > KEYWORD.length() && trimmed.startsWith(KEYWORD) &&
+                Character.isWhitespace(trimmed.charAt(KEYWORD.length()));
+    }
+
+    /**
+     * Defines a function
+     *
+     * @param definition The definition, i.e. {@code def f(x, y) = x * y}
+     * @return The defined function
+     * @throws InvalidInputExpressionException If the definition has a wrong
+     *                                         format, the name is already
+     *                                         defined, or the body is invalid
+     */
+    public Definition define(final String definition) throws InvalidInputExpressionException {
+        if (definition == null) {
+            throw new InvalidInputExpressionException(ErrorCode.NULL_EXPRESSION, null, -1);
+
+        } else if (!isDefinition(definition)) {
+            throw new InvalidInputExpressionException(ErrorCode.WRONG_DEFINITION, definition, 0);
+        }
+
+        String source = definition.trim().substring(KEYWORD.length()).replaceAll("\\s", "");
+        Matcher matcher = DEFINITION.matcher(source);
+
+        if (!matcher.matches()) {
+            throw new InvalidInputExpressionException(ErrorCode.WRONG_DEFINITION, source, 0);
+        }
+
+        String name = matcher.group(1);
+        String[] parameters = matcher.group(2) == null ? new String[0] :
+                matcher.group(2).split(String.valueOf(ExpressionCompiler.DELIMITER));
+        String body = matcher.group(3);
+
+        Set<String> unique = new HashSet<>();
+        for (String parameter : parameters) {
+            if (!unique.add(parameter)) {
+                throw new InvalidInputExpressionException(ErrorCode.WRONG_DEFINITION, source, 0);
+            }
+        }
+
+        if (isDefined(name)) {
+            throw new InvalidInputExpressionException(ErrorCode.DEFINED_FUNCTION, source, 0, name.length());
+        }
+
+        Definition function = new Definition(name, parameters, body,
+                ExpressionCompiler.compileBody(body, this, parameters));
+
+        if (definitions.putIfAbsent(name, function) != null) {
+            throw new InvalidInputExpressionException(ErrorCode.DEFINED_FUNCTION, source, 0, name.length());
+        }
+
+        return function;
+    }
+
+    /**
+     * Finds a function
+     *
+     * @param name The name of the function
+     * @return The function, null if it is not defined
+     */
+    public Definition find(final String name) {
+        return definitions.get(name);
+    }
+
+    /**
+     * Finds a function which takes the number of arguments
+     *
+     * @param name      The name of the function
+     * @param arguments The number of arguments
+     * @return The function, null if there is no such a function
+     */
+    public Definition find(final String name, final int arguments) {
+        Definition definition = definitions.get(name);
+
+        return definition != null && definition.getArity() == arguments ? definition : null;
+    }
+
+    /**
+     * Returns all the defined functions
+     *
+     * @return The unmodifiable collection of the functions
+     */
+    public Collection<Definition> getDefinitions() {
+        return Collections.unmodifiableCollection(new ArrayList<>(definitions.values()));
+    }
+
+    /**
+     * Returns the operators which are recognized in bodies
+     *
+     * @return The operators table
+     */
+    OperatorTable getTable() {
+        return table;
+    }
+
+    /**
+     * Checks whether the name is taken either by a defined function, by a
+     * function of {@code FunctionRegistry} or by a series
+     *
+     * @param name The name
+     * @return true if the name is taken
+     */
+    private boolean isDefined(final String name) {
+        return definitions.containsKey(name) || FunctionRegistry.getDefault().indexOf(name) >= 0 ||
+                Series.isSeries(name);
+    }
+}
@@ -0,0 +1,1307 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.NumberParser;
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.function2.FunctionNames;
+import com.sysgears.simplecalculator.computer.registry.FunctionRegistry;
+import com.sysgears.simplecalculator.computer.registry.MathFunction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.sysgears.simplecalculator.computer.compiler.CompiledExpression.*;
+
+/**
+ * Compiles a math expression into a {@link CompiledExpression}. The white
+ * spaces between the parts of an expression are skipped, but they cannot
+ * split a number or a name, i.e. {@code 1 2} is invalid. The ideas lie
+ * behind the algorithm are next:
+ * <p>
+ *     <ul>
+ *         <li>the expression is read once from left to right</li>
+ *         <li>numbers are moved to the program as soon as they are read</li>
+ *         <li>operators wait on the operators stack until an operator with
+ *         lower precedence or a closing symbol comes (shunting-yard)</li>
+ *         <li>operators, their precedence and associativity are taken from
+ *         an {@link OperatorTable} by the symbol, so the compiler does not
+ *         know any particular operator</li>
+ *         <li>parentheses and functions are kept on the same stack, the
+ *         number of function's arguments is counted on the frames stack</li>
+ *         <li>the arguments of {@code if} and {@code choose} are separated by
+ *         jumps which are patched when the next argument starts, so only the
+ *         selected one is computed</li>
+ *         <li>the bounds and the body of {@code series} and {@code product}
+ *         are compiled apart and are computed by a {@link Series} in a
+ *         counted loop</li>
+ *     </ul>
+ * </p>
+ * Both stacks are heap arrays, so there is no recursion and the nesting
+ * depth of an expression is limited only by the memory. The cost is linear
+ * in the expression length.
+ */
+public class ExpressionCompiler {
+    /**
+     * A pattern for the opening of a parentheses expression
+     */
+    static final char OPEN_EXP = '(';
+
+    /**
+     * A pattern for the closing of a parentheses expression
+     */
+    static final char CLOSE_EXP = ')';
+
+    /**
+     * A pattern for the delimiter of function's arguments
+     */
+    static final char DELIMITER = ',';
+
+    /**
+     * A marker of an opened parentheses expression on the operators stack
+     */
+    private static final int GROUP = -1;
+
+    /**
+     * A marker of an opened function call on the operators stack
+     */
+    private static final int FUNCTION = -2;
+
+    /**
+     * The number of values which a frame takes on the frames stack: the
+     * start and the end of the function name, the kind of the call and the
+     * arguments counter
+     */
+    private static final int FRAME_SIZE = 4;
+
+    /**
+     * The kind of a call which arguments are all computed
+     */
+    private static final int EAGER = 0;
+
+    /**
+     * The kind of an {@code if} call
+     */
+    private static final int CONDITION = 1;
+
+    /**
+     * The kind of a {@code choose} call
+     */
+    private static final int SELECTION = 2;
+
+    /**
+     * The name of the function which selects one of two values by a
+     * condition
+     */
+    private static final String CONDITION_FUNCTION = "if";
+
+    /**
+     * The name of the function which selects a value by its position
+     */
+    private static final String SELECTION_FUNCTION = "choose";
+
+    /**
+     * The number of arguments of {@code if}
+     */
+    private static final int CONDITION_ARGUMENTS = 3;
+
+    /**
+     * The number of arguments of {@code series} and {@code product}
+     */
+    private static final int SERIES_ARGUMENTS = 4;
+
+    /**
+     * The number of digits of the greatest {@code long}
+     */
+    private static final int MAX_LONG_DIGITS = 19;
+
+    /**
+     * The greatest integer from which all the integers are exact in {@code
+     * double}, 2^53
+     */
+    private static final double MAX_EXACT_DOUBLE = 9007199254740992.0;
+
+    /**
+     * The number of decimal digits which {@code double} always keeps
+     */
+    private static final int DOUBLE_DIGITS = 15;
+
+    /**
+     * The functions which are defined by a user
+     */
+    private final Definitions definitions;
+
+    /**
+     * Constructs an object which recognizes the operators of the default
+     * {@code OperatorTable}
+     */
+    public ExpressionCompiler() {
+        this(OperatorTable.getDefault());
+    }
+
+    /**
+     * Constructs an object without functions defined by a user
+     *
+     * @param table The operators which are recognized
+     */
+    public ExpressionCompiler(final OperatorTable table) {
+        this(new Definitions(table));
+    }
+
+    /**
+     * Constructs an object which inlines the functions defined by a user
+     * and recognizes the operators of their table
+     *
+     * @param definitions The functions which are defined by a user
+     */
+    public ExpressionCompiler(final Definitions definitions) {
+        this.definitions = definitions;
+    }
+
+    /**
+     * Compiles the expression. The whitespace between the symbols is
+     * skipped, but it cannot split a number or a name. The program refers
+     * to the characters for its error messages, so they must not change
+     * while the program is used.
+     *
+     * @param expression The characters contain a math expression
+     * @return The compiled expression
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format, or it is null
+     */
+    public CompiledExpression compile(final CharSequence expression) throws InvalidInputExpressionException {
+        if (expression == null) {
+            throw new InvalidInputExpressionException(ErrorCode.NULL_EXPRESSION, null, -1);
+        }
+
+        return new Compilation(expression, definitions, new String[0]).run();
+    }
+
+    /**
+     * Compiles the body of a function defined by a user. The program reads
+     * the parameters from the stack below it, the first parameter is the
+     * deepest one.
+     *
+     * @param body        The body
+     * @param definitions The functions which are defined before
+     * @param parameters  The names of the parameters
+     * @return The compiled body
+     * @throws InvalidInputExpressionException If the body has an invalid
+     *                                         format
+     */
+    static CompiledExpression compileBody(final String body, final Definitions definitions, final String[] parameters)
+            throws InvalidInputExpressionException {
+
+        return new Compilation(body, definitions, parameters).run();
+    }
+
+    /**
+     * Checks whether the symbol is a sign, two signs in a row are not
+     * allowed, i.e. '++', '--', '+-' and '-+'
+     *
+     * @param symbol The symbol
+     * @return true if it is a sign
+     */
+    private static boolean isSign(final char symbol) {
+        return symbol == '+' || symbol == '-';
+    }
+
+    /**
+     * Keeps the state of one compilation
+     */
+    private static final class Compilation {
+        /**
+         * The source expression
+         */
+        private final CharSequence expression;
+
+        /**
+         * The operators which are recognized
+         */
+        private final OperatorTable table;
+
+        /**
+         * The functions which are defined by a user
+         */
+        private final Definitions definitions;
+
+        /**
+         * The names of the parameters of a compiled body, they are on the
+         * stack below the program
+         */
+        private final String[] parameters;
+
+        /**
+         * The program
+         */
+        private final IntStack code = new IntStack();
+
+        /**
+         * The indexes of the operators in {@code table} and the markers of
+         * opened expressions
+         */
+        private final IntStack operators = new IntStack();
+
+        /**
+         * The opened function calls and parentheses expressions
+         */
+        private final IntStack frames = new IntStack();
+
+        /**
+         * The indexes of the jump operands which are not patched yet and
+         * the indexes of the tables and the branches of the opened {@code
+         * choose} calls
+         */
+        private final IntStack jumps = new IntStack();
+
+        /**
+         * The jump tables pool
+         */
+        private final List<int[]> tables = new ArrayList<>();
+
+        /**
+         * The constants pool
+         */
+        private double[] constants = new double[16];
+
+        /**
+         * The constants pool as {@code long} values, they are exact when
+         * {@code integer} is true
+         */
+        private long[] integers = new long[16];
+
+        /**
+         * The source text of the constants which are numbers of the
+         * expression
+         */
+        private String[] literals = new String[16];
+
+        /**
+         * The number of constants in the pool
+         */
+        private int constantsNumber;
+
+        /**
+         * true while the program has only integer constants, the
+         * operators which {@link IntegerEvaluation} computes and no calls
+         */
+        private boolean integer = true;
+
+        /**
+         * The functions pool
+         */
+        private final List<MathFunction> functions = new ArrayList<>();
+
+        /**
+         * The number of {@code CONSTANT} instructions at the end of the
+         * program
+         */
+        private int constantsTail;
+
+        /**
+         * The current size of the stack of the program
+         */
+        private int depth;
+
+        /**
+         * The maximum size of the stack of the program
+         */
+        private int maxDepth;
+
+        /**
+         * Constructs an object
+         *
+         * @param expression  The source expression
+         * @param definitions The functions which are defined by a user
+         * @param parameters  The names of the parameters of a compiled body
+         */
+        Compilation(final CharSequence expression, final Definitions definitions, final String[] parameters) {
+            this.expression = expression;
+            this.table = definitions.getTable();
+            this.definitions = definitions;
+            this.parameters = parameters;
+            this.depth = parameters.length;
+            this.maxDepth = parameters.length;
+        }
+
+        /**
+         * Reads the expression and builds the program
+         *
+         * @return The compiled expression
+         * @throws InvalidInputExpressionException If the expression has an
+         *                                         invalid format
+         */
+        CompiledExpression run() throws InvalidInputExpressionException {
+            int length = expression.length();
+            boolean expectOperand = true;
+            boolean afterSign = false;
+            int i = 0;
+
+            while (i < length) {
+                char symbol = expression.charAt(i);
+
+                if (Character.isWhitespace(symbol)) {
+                    // keeps the state, so '+ -' is not allowed as well as '+-'
+                    i++;
+                    continue;
+
+                } else if (expectOperand) {
+                    if (Character.isDigit(symbol)) {
+                        int end = scanNumber(i);
+                        emitNumber(i, end);
+                        expectOperand = false;
+                        i = end;
+
+                    } else if (Character.isLetter(symbol)) {
+                        int end = scanName(i);
+                        int open = skipWhitespace(end);
+
+                        if (open < length && expression.charAt(open) == OPEN_EXP &&
+                                (isName(Series.SUM, i, end) || isName(Series.PRODUCT, i, end))) {
+                            i = compileSeries(i, end, open);
+                            expectOperand = false;
+
+                        } else if (open < length && expression.charAt(open) == OPEN_EXP) {
+                            openFrame(FUNCTION, i, end);
+                            i = open + 1;
+
+                        } else if (findParameter(i, end) >= 0) {
+                            emitLoad(findParameter(i, end));
+                            expectOperand = false;
+                            i = end;
+
+                        } else {
+                            throw error(i, ErrorCode.NOT_FUNCTION_CALL);
+                        }
+
+                    } else if (symbol == OPEN_EXP) {
+                        openFrame(GROUP, i, i);
+                        i++;
+
+                    } else if (table.findPrefix(symbol) != -1 && !(afterSign && isSign(symbol))) {
+                        int operator = table.findPrefix(symbol);
+                        if (table.get(operator).getInstruction() != Operator.IDENTITY) {
+                            operators.push(operator);
+                        }
+                        afterSign = isSign(symbol);
+                        i++;
+                        continue;
+
+                    } else if (symbol == CLOSE_EXP && !afterSign && isEmptyFunction(i)) {
+                        closeFrame(i, true);
+                        expectOperand = false;
+                        i++;
+
+                    } else {
+                        throw error(i, ErrorCode.MISSING_OPERAND);
+                    }
+
+                } else {
+                    int operator = table.findInfix(symbol);
+
+                    if (operator != -1) {
+                        popOperators(operator);
+                        operators.push(operator);
+                        expectOperand = true;
+                        // '+-', '-+', '--' and '++' are not allowed
+                        afterSign = isSign(symbol);
+                        i++;
+                        continue;
+
+                    } else if (table.findPostfix(symbol) != -1) {
+                        popOperators(table.findPostfix(symbol));
+                        emitOperator(table.findPostfix(symbol));
+
+                    } else if (symbol == CLOSE_EXP) {
+                        closeFrame(i, false);
+
+                    } else if (symbol == DELIMITER) {
+                        nextArgument(i);
+                        expectOperand = true;
+
+                    } else {
+                        throw error(i, ErrorCode.UNEXPECTED_SYMBOL);
+                    }
+                    i++;
+                }
+
+                afterSign = false;
+            }
+
+            if (expectOperand) {
+                throw error(length, ErrorCode.MISSING_OPERAND);
+            }
+
+            while (!operators.isEmpty()) {
+                int operator = operators.pop();
+
+                if (operator < 0) {
+                    throw error(frames.get(frames.size() - FRAME_SIZE), ErrorCode.NOT_CLOSED);
+                }
+                emitOperator(operator);
+            }
+
+            return new CompiledExpression(expression, code.toArray(), Arrays.copyOf(constants, constantsNumber),
+                    integer ? Arrays.copyOf(integers, constantsNumber) : null, Arrays.copyOf(literals, constantsNumber),
+                    functions.toArray(new MathFunction[0]), table.getOperators(), tables.toArray(new int[0][]), maxDepth);
+        }
+
+        /**
+         * Finds the end of a number which starts from the specified index.
+         * Supports the E-notation.
+         *
+         * @param start The index of the first digit
+         * @return The index after the last symbol of the number
+         * @throws InvalidInputExpressionException If the number has an
+         *                                         invalid format
+         */
+        private int scanNumber(final int start) throws InvalidInputExpressionException {
+            int end = skipDigits(start);
+
+            if (end < expression.length() && expression.charAt(end) == '.') {
+                int fraction = skipDigits(end + 1);
+                if (fraction == end + 1) {
+                    throw error(start, ErrorCode.WRONG_NUMBER);
+                }
+                end = fraction;
+            }
+
+            if (end < expression.length() && (expression.charAt(end) == 'e' || expression.charAt(end) == 'E')) {
+                int exponent = end + 1;
+                if (exponent < expression.length() &&
+                        (expression.charAt(exponent) == '-' || expression.charAt(exponent) == '+')) {
+                    exponent++;
+                }
+
+                end = skipDigits(exponent);
+                if (end == exponent) {
+                    throw error(start, ErrorCode.WRONG_NUMBER);
+                }
+            }
+
+            return end;
+        }
+
+        /**
+         * Skips all the digits which start from the specified index
+         *
+         * @param start The index to start from
+         * @return The index of the first symbol which is not a digit
+         */
+        private int skipDigits(final int start) {
+            int end = start;
+
+            while (end < expression.length() && Character.isDigit(expression.charAt(end))) {
+                end++;
+            }
+
+            return end;
+        }
+
+        /**
+         * Finds the end of a name which starts from the specified index
+         *
+         * @param start The index of the first letter
+         * @return The index after the last symbol of the name
+         */
+        private int scanName(final int start) {
+            int end = start;
+
+            while (end < expression.length() && Character.isLetterOrDigit(expression.charAt(end))) {
+                end++;
+            }
+
+            return end;
+        }
+
+        /**
+         * Finds the first symbol which is not a whitespace
+         *
+         * @param start The index from which the whitespace is skipped
+         * @return The index of the symbol, the length of the expression if
+         * there is no such a symbol
+         */
+        private int skipWhitespace(final int start) {
+            int end = start;
+
+            while (end < expression.length() && Character.isWhitespace(expression.charAt(end))) {
+                end++;
+            }
+
+            return end;
+        }
+
+        /**
+         * Checks whether the expression contains the name at the index
+         *
+         * @param name  The name
+         * @param start The index
+         * @return true if the characters from the index are the name
+         */
+        private boolean startsWith(final String name, final int start) {
+            if (start + name.length() > expression.length()) {
+                return false;
+            }
+
+            for (int i = 0; i < name.length(); i++) {
+                if (expression.charAt(start + i) != name.charAt(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Finds the parameter of a compiled body by its name
+         *
+         * @param start The start of the name
+         * @param end   The end of the name
+         * @return The index of the parameter, -1 if there is no such a
+         * parameter
+         */
+        private int findParameter(final int start, final int end) {
+            // the variable of a series is the last one and hides the outer parameters
+            for (int i = parameters.length - 1; i >= 0; i--) {
+                if (parameters[i].length() == end - start && startsWith(parameters[i], start)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Opens a function call or a parentheses expression
+         *
+         * @param marker    The marker of the frame
+         * @param nameStart The start of the function name
+         * @param nameEnd   The end of the function name
+         */
+        private void openFrame(final int marker, final int nameStart, final int nameEnd) {
+            operators.push(marker);
+            frames.push(nameStart);
+            frames.push(nameEnd);
+            frames.push(getKind(nameStart, nameEnd));
+            frames.push(0);
+        }
+
+        /**
+         * Finds the kind of a call by the function name
+         *
+         * @param nameStart The start of the function name
+         * @param nameEnd   The end of the function name
+         * @return The kind of the call
+         */
+        private int getKind(final int nameStart, final int nameEnd) {
+            if (isName(CONDITION_FUNCTION, nameStart, nameEnd)) {
+                return CONDITION;
+
+            } else if (isName(SELECTION_FUNCTION, nameStart, nameEnd)) {
+                return SELECTION;
+            }
+
+            return EAGER;
+        }
+
+        /**
+         * Checks whether the part of the expression is the name
+         *
+         * @param name  The name
+         * @param start The start of the part
+         * @param end   The end of the part
+         * @return true if the part is the name
+         */
+        private boolean isName(final String name, final int start, final int end) {
+            return end - start == name.length() && startsWith(name, start);
+        }
+
+        /**
+         * Checks whether the closing symbol at the index closes a function
+         * call without arguments
+         *
+         * @param index The index of the closing symbol
+         * @return true if it is a function call without arguments
+         */
+        private boolean isEmptyFunction(final int index) {
+            if (operators.isEmpty() || operators.peek() != FUNCTION) {
+                return false;
+            }
+
+            // the call is opened, so there is the opening symbol before the index
+            int previous = index - 1;
+            while (Character.isWhitespace(expression.charAt(previous))) {
+                previous--;
+            }
+
+            return expression.charAt(previous) == OPEN_EXP;
+        }
+
+        /**
+         * Closes the innermost function call or parentheses expression
+         *
+         * @param index The index of the closing symbol
+         * @param empty true if the function call does not have arguments
+         * @throws InvalidInputExpressionException If there is nothing to close
+         */
+        private void closeFrame(final int index, final boolean empty) throws InvalidInputExpressionException {
+            int marker = popFrameOperators(index);
+            int argumentsNumber = frames.pop() + (empty ? 0 : 1);
+            int kind = frames.pop();
+            int nameEnd = frames.pop();
+            int nameStart = frames.pop();
+
+            if (marker != FUNCTION) {
+                return;
+
+            } else if (kind == CONDITION && argumentsNumber > 1) {
+                if (argumentsNumber != CONDITION_ARGUMENTS) {
+                    throw error(nameStart, ErrorCode.UNKNOWN_FUNCTION);
+                }
+                patchJump();
+
+            } else if (kind == SELECTION && argumentsNumber > 1) {
+                closeSelection(argumentsNumber - 1);
+
+            } else {
+                emitCall(nameStart, nameEnd, argumentsNumber);
+            }
+        }
+
+        /**
+         * Counts the argument of the innermost function call
+         *
+         * @param index The index of the delimiter
+         * @throws InvalidInputExpressionException If the delimiter is outside
+         *                                         of a function call
+         */
+        private void nextArgument(final int index) throws InvalidInputExpressionException {
+            if (popFrameOperators(index) != FUNCTION) {
+                throw error(index, ErrorCode.MISPLACED_DELIMITER);
+            }
+
+            operators.push(FUNCTION);
+            int argumentsNumber = frames.get(frames.size() - 1) + 1;
+            frames.set(frames.size() - 1, argumentsNumber);
+
+            switch (frames.get(frames.size() - 2)) {
+                case CONDITION:
+                    if (argumentsNumber == 1) {
+                        emitJump(JUMP_IF_ZERO);
+
+                    } else if (argumentsNumber == 2) {
+                        int condition = jumps.pop();
+                        emitJump(JUMP);
+                        code.set(condition, code.size());
+
+                    } else {
+                        throw error(frames.get(frames.size() - FRAME_SIZE), ErrorCode.UNKNOWN_FUNCTION);
+                    }
+                    break;
+
+                case SELECTION:
+                    if (argumentsNumber == 1) {
+                        code.push(CHOOSE);
+                        code.push(tables.size());
+                        tables.add(null);
+                        jumps.push(tables.size() - 1);
+                        depth--;
+
+                    } else {
+                        emitJump(JUMP);
+                    }
+                    jumps.push(code.size());
+                    constantsTail = 0;
+                    break;
+
+                default:
+                    // the arguments are computed one after another
+            }
+        }
+
+        /**
+         * Adds a jump which target is not known yet, the index of its
+         * operand is kept to be patched later. The value of the branch
+         * before the jump is not on the stack in the next branch.
+         *
+         * @param instruction Either {@code JUMP} or {@code JUMP_IF_ZERO}
+         */
+        private void emitJump(final int instruction) {
+            code.push(instruction);
+            code.push(0);
+            jumps.push(code.size() - 1);
+            constantsTail = 0;
+            depth--;
+        }
+
+        /**
+         * Sets the target of the last jump which is not patched to the end
+         * of the program
+         */
+        private void patchJump() {
+            code.set(jumps.pop(), code.size());
+            constantsTail = 0;
+        }
+
+        /**
+         * Builds the jump table of a {@code choose} call when all its
+         * branches are added and patches the jumps at the ends of the
+         * branches
+         *
+         * @param branches The number of branches
+         */
+        private void closeSelection(final int branches) {
+            int[] jumpTable = new int[branches + 1];
+            jumpTable[branches] = code.size();
+
+            for (int branch = branches - 1; branch >= 0; branch--) {
+                jumpTable[branch] = jumps.pop();
+                if (branch > 0) {
+                    code.set(jumps.pop(), code.size());
+                }
+            }
+            tables.set(jumps.pop(), jumpTable);
+            constantsTail = 0;
+        }
+
+        /**
+         * Moves all the operators of the innermost frame to the program
+         * and removes the frame marker
+         *
+         * @param index The index of the current symbol
+         * @return The marker of the frame
+         * @throws InvalidInputExpressionException If there is no opened frame
+         */
+        private int popFrameOperators(final int index) throws InvalidInputExpressionException {
+            while (!operators.isEmpty() && operators.peek() >= 0) {
+                emitOperator(operators.pop());
+            }
+
+            if (operators.isEmpty()) {
+                throw error(index, ErrorCode.NOT_OPENED);
+            }
+
+            return operators.pop();
+        }
+
+        /**
+         * Moves to the program all the operators which must be computed
+         * before the incoming one
+         *
+         * @param operator The index of the incoming operator
+         */
+        private void popOperators(final int operator) {
+            int precedence = table.get(operator).getPrecedence();
+            boolean leftAssociative = table.get(operator).getAssociativity() == Operator.Associativity.LEFT;
+
+            while (!operators.isEmpty() && operators.peek() >= 0) {
+                int previous = table.get(operators.peek()).getPrecedence();
+
+                if (previous > precedence || previous == precedence && leftAssociative) {
+                    emitOperator(operators.pop());
+                } else {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Adds a number of the expression to the program. A number of
+         * digits only which fits {@code long} keeps its exact value, even
+         * if the {@code double} one is rounded. The text of the number is
+         * kept for the exact evaluations only if it can differ from the
+         * {@code double} value, so an integer of up to {@code DOUBLE_DIGITS}
+         * digits is not copied.
+         *
+         * @param start The start of the number
+         * @param end   The end of the number
+         */
+        private void emitNumber(final int start, final int end) {
+            double value = NumberParser.parse(expression, start, end);
+            long exact = skipDigits(start) == end && end - start <= MAX_LONG_DIGITS ? parseDigits(start, end) : -1;
+            int index;
+
+            if (exact >= 0) {
+                index = addConstant(value, exact);
+                if (end - start > DOUBLE_DIGITS) {
+                    literals[index] = expression.subSequence(start, end).toString();
+                }
+
+            } else {
+                String number = expression.subSequence(start, end).toString();
+                index = addConstant(value);
+                if (integer && (number.length() > DOUBLE_DIGITS || value == 0) &&
+                        new BigDecimal(number).compareTo(new BigDecimal(value)) != 0) {
+                    // i.e. 1.0000000000000000001 is rounded to an integer, or 1e-400 underflows to zero
+                    integer = false;
+                }
+                literals[index] = number;
+            }
+
+            code.push(CONSTANT);
+            code.push(index);
+            constantsTail++;
+            increaseDepth(1);
+        }
+
+        /**
+         * Reads the digits of a number of at most {@code MAX_LONG_DIGITS}
+         * digits, such a number fits an unsigned {@code long}
+         *
+         * @param start The index of the first digit
+         * @param end   The index after the last digit
+         * @return The number, negative if it does not fit {@code long}
+         */
+        private long parseDigits(final int start, final int end) {
+            long number = 0;
+
+            for (int i = start; i < end; i++) {
+                number = number * 10 + Character.digit(expression.charAt(i), 10);
+            }
+
+            return number;
+        }
+
+        /**
+         * Adds a constant to the program
+         *
+         * @param value The value of the constant
+         */
+        private void emitConstant(final double value) {
+            code.push(CONSTANT);
+            code.push(addConstant(value));
+            constantsTail++;
+            increaseDepth(1);
+        }
+
+        /**
+         * Adds a value to the constants pool. A value which is not an
+         * integer, or which is too big to be exact in {@code double}, makes
+         * the program not an integer one.
+         *
+         * @param value The value of the constant
+         * @return The index of the constant
+         */
+        private int addConstant(final double value) {
+            if (value != Math.rint(value) || Math.abs(value) > MAX_EXACT_DOUBLE) {
+                integer = false;
+            }
+
+            return addConstant(value, (long) value);
+        }
+
+        /**
+         * Adds a value to the constants pool
+         *
+         * @param value The value of the constant
+         * @param exact The exact value of an integer constant
+         * @return The index of the constant
+         */
+        private int addConstant(final double value, final long exact) {
+            if (constantsNumber == constants.length) {
+                constants = Arrays.copyOf(constants, constantsNumber * 2);
+                integers = Arrays.copyOf(integers, constantsNumber * 2);
+                literals = Arrays.copyOf(literals, constantsNumber * 2);
+            }
+            constants[constantsNumber] = value;
+            integers[constantsNumber] = exact;
+            literals[constantsNumber] = null;
+
+            return constantsNumber++;
+        }
+
+        /**
+         * Adds an operator to the program. An operator which has its own
+         * instruction is added as the instruction, the other ones are
+         * computed by their kernels.
+         *
+         * @param operator The index of the operator
+         */
+        private void emitOperator(final int operator) {
+            int instruction = table.get(operator).getInstruction();
+            boolean binary = table.get(operator).getArity() == 2;
+
+            if (instruction == Operator.NO_INSTRUCTION) {
+                code.push(binary ? BINARY : UNARY);
+                code.push(operator);
+                integer &= IntegerEvaluation.isSupported(table.get(operator));
+            } else {
+                code.push(instruction);
+            }
+            constantsTail = 0;
+
+            if (binary) {
+                depth--;
+            }
+        }
+
+        /**
+         * Adds a call of a function of {@code FunctionRegistry} or inlines a
+         * function defined by a user
+         *
+         * @param nameStart       The start of the function name
+         * @param nameEnd         The end of the function name
+         * @param argumentsNumber The number of arguments
+         * @throws InvalidInputExpressionException If there is no such function
+         */
+        private void emitCall(final int nameStart, final int nameEnd, final int argumentsNumber)
+                throws InvalidInputExpressionException {
+
+            int index = FunctionNames.find(expression, nameStart, nameEnd);
+            MathFunction function = index < 0 ? null : FunctionRegistry.getDefault().find(index, argumentsNumber);
+
+            if (function == null) {
+                Definition definition = definitions.find(expression.subSequence(nameStart, nameEnd).toString(),
+                                                         argumentsNumber);
+                if (definition == null) {
+                    throw error(nameStart, ErrorCode.UNKNOWN_FUNCTION);
+                }
+
+                inline(definition.getProgram(), argumentsNumber);
+                return;
+            }
+
+            emitFunction(function, argumentsNumber);
+        }
+
+        /**
+         * Adds a call of the function to the program. A call of a pure
+         * function which arguments are constants is computed at once and is
+         * replaced by the constant. A call of a function of one, two or
+         * three arguments gets the instruction of its arity, so the
+         * evaluation does not create an array of arguments.
+         *
+         * @param function        The function
+         * @param argumentsNumber The number of arguments
+         */
+        private void emitFunction(final MathFunction function, final int argumentsNumber) {
+            if (function.isPure() && constantsTail >= argumentsNumber && fold(function, argumentsNumber)) {
+                return;
+            }
+
+            functions.add(function);
+            integer = false;
+            switch (argumentsNumber) {
+                case 1:
+                    code.push(CALL1);
+                    code.push(functions.size() - 1);
+                    break;
+                case 2:
+                    code.push(CALL2);
+                    code.push(functions.size() - 1);
+                    break;
+                case 3:
+                    code.push(CALL3);
+                    code.push(functions.size() - 1);
+                    break;
+                default:
+                    code.push(CALL);
+                    code.push(functions.size() - 1);
+                    code.push(argumentsNumber);
+            }
+            constantsTail = 0;
+            increaseDepth(1 - argumentsNumber);
+        }
+
+        /**
+         * Adds the compiled body of a function defined by a user right after
+         * its arguments. The constants, the functions and the jump tables of
+         * the body are moved to the pools of the program, the jump targets
+         * are moved by the start of the body, the arguments are removed
+         * after the body is computed.
+         *
+         * @param body            The compiled body
+         * @param argumentsNumber The number of arguments
+         */
+        private void inline(final CompiledExpression body, final int argumentsNumber) {
+            int[] instructions = body.getCode();
+            int start = code.size();
+
+            for (int pc = 0; pc < instructions.length; pc++) {
+                int instruction = instructions[pc];
+                code.push(instruction);
+
+                switch (instruction) {
+                    case CONSTANT:
+                        int constant = instructions[++pc];
+                        int index = body.isInteger() ?
+                                addConstant(body.getConstant(constant), body.getInteger(constant)) :
+                                addConstant(body.getConstant(constant));
+                        literals[index] = body.getLiteral(constant);
+                        code.push(index);
+                        break;
+
+                    case CALL:
+                        integer = false;
+                        functions.add(body.getFunction(instructions[++pc]));
+                        code.push(functions.size() - 1);
+                        code.push(instructions[++pc]);
+                        break;
+
+                    case CALL1:
+                    case CALL2:
+                    case CALL3:
+                        integer = false;
+                        functions.add(body.getFunction(instructions[++pc]));
+                        code.push(functions.size() - 1);
+                        break;
+
+                    case BINARY:
+                    case UNARY:
+                        integer &= IntegerEvaluation.isSupported(table.get(instructions[pc + 1]));
+                        code.push(instructions[++pc]);
+                        break;
+
+                    case LOAD:
+                    case SLIDE:
+                        code.push(instructions[++pc]);
+                        break;
+
+                    case JUMP:
+                    case JUMP_IF_ZERO:
+                        code.push(instructions[++pc] + start);
+                        break;
+
+                    case CHOOSE:
+                        int[] jumpTable = body.getTable(instructions[++pc]).clone();
+                        for (int i = 0; i < jumpTable.length; i++) {
+                            jumpTable[i] += start;
+                        }
+                        tables.add(jumpTable);
+                        code.push(tables.size() - 1);
+                        break;
+
+                    default:
+                        // the instruction does not have operands
+                }
+            }
+
+            if (argumentsNumber > 0) {
+                code.push(SLIDE);
+                code.push(argumentsNumber);
+            }
+
+            maxDepth = Math.max(maxDepth, depth - argumentsNumber + body.getStackSize());
+            depth += 1 - argumentsNumber;
+            constantsTail = 0;
+        }
+
+        /**
+         * Compiles a {@code series(k, from, to, body)} or a {@code product(k,
+         * from, to, body)} call. The bounds and the body are compiled apart,
+         * the body gets the variable as one more parameter after the ones of
+         * the compiled body. The parameters are loaded as the arguments of
+         * the {@link Series}, so a series which does not use them is computed
+         * at once.
+         *
+         * @param nameStart The start of the name
+         * @param nameEnd   The end of the name
+         * @param open      The index of the opening symbol
+         * @return The index after the closing symbol
+         * @throws InvalidInputExpressionException If the call is not closed,
+         *                                         does not have four
+         *                                         arguments, or an argument
+         *                                         is invalid
+         */
+        private int compileSeries(final int nameStart, final int nameEnd, final int open)
+                throws InvalidInputExpressionException {
+
+            // the opening symbol, the three delimiters and the closing symbol
+            int[] bounds = new int[SERIES_ARGUMENTS + 1];
+            int found = 1;
+            int level = 0;
+            int end = open + 1;
+            bounds[0] = open;
+
+            for (; end < expression.length() && level >= 0; end++) {
+                char symbol = expression.charAt(end);
+
+                if (symbol == OPEN_EXP) {
+                    level++;
+
+                } else if (symbol == CLOSE_EXP) {
+                    level--;
+
+                } else if (symbol == DELIMITER && level == 0) {
+                    if (found < SERIES_ARGUMENTS) {
+                        bounds[found] = end;
+                    }
+                    found++;
+                }
+            }
+
+            if (level >= 0) {
+                throw error(nameStart, ErrorCode.NOT_CLOSED);
+
+            } else if (found != SERIES_ARGUMENTS) {
+                throw error(nameStart, ErrorCode.UNKNOWN_FUNCTION);
+            }
+            bounds[SERIES_ARGUMENTS] = end - 1;
+
+            int variable = skipWhitespace(open + 1);
+            int variableEnd = scanName(variable);
+            if (!Character.isLetter(expression.charAt(variable)) || skipWhitespace(variableEnd) != bounds[1]) {
+                throw error(nameStart, ErrorCode.WRONG_SERIES);
+            }
+
+            String[] bodyParameters = Arrays.copyOf(parameters, parameters.length + 1);
+            bodyParameters[parameters.length] = expression.subSequence(variable, variableEnd).toString();
+
+            MathFunction series = new Series(isName(Series.PRODUCT, nameStart, nameEnd),
+                    compilePart(bounds[1] + 1, bounds[2], parameters),
+                    compilePart(bounds[2] + 1, bounds[3], parameters),
+                    compilePart(bounds[3] + 1, bounds[4], bodyParameters),
+                    parameters.length);
+
+            for (int parameter = 0; parameter < parameters.length; parameter++) {
+                emitLoad(parameter);
+            }
+            emitFunction(series, parameters.length);
+
+            return end;
+        }
+
+        /**
+         * Compiles a part of the expression on its own
+         *
+         * @param start      The start of the part
+         * @param end        The end of the part
+         * @param parameters The names of the parameters of the part
+         * @return The compiled part
+         * @throws InvalidInputExpressionException If the part is invalid, the
+         *                                         position points to the
+         *                                         expression
+         */
+        private CompiledExpression compilePart(final int start, final int end, final String[] parameters)
+                throws InvalidInputExpressionException {
+
+            try {
+                return new Compilation(expression.subSequence(start, end), definitions, parameters).run();
+
+            } catch (InvalidInputExpressionException e) {
+                if (e.getErrorCode() == null) {
+                    throw e;
+                }
+
+                throw error(start + e.getPosition(), e.getErrorCode());
+            }
+        }
+
+        /**
+         * Adds a parameter of a compiled body to the program
+         *
+         * @param parameter The index of the parameter
+         */
+        private void emitLoad(final int parameter) {
+            code.push(LOAD);
+            code.push(depth - 1 - parameter);
+            constantsTail = 0;
+            increaseDepth(1);
+        }
+
+        /**
+         * Computes the call of a pure function which arguments are the last
+         * constants of the program and replaces them by the value
+         *
+         * @param function        The function
+         * @param argumentsNumber The number of arguments
+         * @return true if the call is computed, false if the function fails,
+         * so the error is left to the evaluation
+         */
+        private boolean fold(final MathFunction function, final int argumentsNumber) {
+            double value;
+
+            try {
+                value = function.apply(Arrays.copyOfRange(constants, constantsNumber - argumentsNumber,
+                                                          constantsNumber));
+
+            } catch (RuntimeException e) {
+                return false;
+            }
+
+            for (int i = 0; i < argumentsNumber; i++) {
+                code.pop();
+                code.pop();
+            }
+            constantsNumber -= argumentsNumber;
+            constantsTail -= argumentsNumber;
+            depth -= argumentsNumber;
+            emitConstant(value);
+
+            return true;
+        }
+
+        /**
+         * Changes the current size of the stack of the program
+         *
+         * @param delta The change
+         */
+        private void increaseDepth(final int delta) {
+            depth += delta;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        /**
+         * Creates an exception for the wrong part of the expression which
+         * lasts up to the end of the expression
+         *
+         * @param index     The index where the wrong part starts
+         * @param errorCode The reason
+         * @return The exception
+         */
+        private InvalidInputExpressionException error(final int index, final ErrorCode errorCode) {
+            return new InvalidInputExpressionException(errorCode, expression.toString(), index);
+        }
+    }
+
+    /**
+     * A growable stack of {@code int} values
+     */
+    static final class IntStack {
+        /**
+         * The values
+         */
+        private int[] values = new int[16];
+
+        /**
+         * The number of values
+         */
+        private int size;
+
+        void push(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int pop() {
+            return values[--size];
+        }
+
+        int peek() {
+            return values[size - 1];
+        }
+
+        int get(final int index) {
+            return values[index];
+        }
+
+        void set(final int index, final int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
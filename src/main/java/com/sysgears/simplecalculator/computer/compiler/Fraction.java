@@ -0,0 +1,93 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import java.math.BigInteger;
+
+/**
+ * Keeps the exact value of an expression as a fraction in its lowest
+ * terms. The denominator is always positive, so the sign is the sign of the
+ * numerator.
+ */
+public final class Fraction {
+    /**
+     * The numerator
+     */
+    private final BigInteger numerator;
+
+    /**
+     * The denominator, positive
+     */
+    private final BigInteger denominator;
+
+    /**
+     * Constructs an object
+     *
+     * @param numerator   The numerator
+     * @param denominator The denominator which is positive and has no common
+     *                    factor with the numerator
+     */
+    Fraction(final BigInteger numerator, final BigInteger denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    /**
+     * Returns the numerator
+     *
+     * @return The numerator
+     */
+    public BigInteger getNumerator() {
+        return numerator;
+    }
+
+    /**
+     * Returns the denominator
+     *
+     * @return The denominator, positive
+     */
+    public BigInteger getDenominator() {
+        return denominator;
+    }
+
+    /**
+     * Compares the numerators and the denominators, the fractions are in
+     * their lowest terms
+     *
+     * @param o The other object
+     * @return true if the fractions are equal
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        Fraction that = (Fraction) o;
+
+        return numerator.equals(that.numerator) && denominator.equals(that.denominator);
+    }
+
+    /**
+     * Returns the hashcode of the numerator and the denominator
+     *
+     * @return the hashcode
+     */
+    @Override
+    public int hashCode() {
+        return 31 * numerator.hashCode() + denominator.hashCode();
+    }
+
+    /**
+     * Returns the fraction as {@code numerator/denominator}, an integer
+     * without the denominator
+     *
+     * @return The string representation, i.e. {@code -3/4} or {@code 5}
+     */
+    @Override
+    public String toString() {
+        return denominator.equals(BigInteger.ONE) ? numerator.toString() : numerator + "/" + denominator;
+    }
+}
@@ -0,0 +1,463 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.registry.DomainFunctions;
+
+import java.math.BigInteger;
+
+import static com.sysgears.simplecalculator.computer.compiler.CompiledExpression.*;
+
+/**
+ * Evaluates a {@link CompiledExpression} which has only integer constants
+ * exactly. The ideas lie behind it are next:
+ * <p>
+ *     <ul>
+ *         <li>the program is evaluated on a stack of {@code long} values,
+ *         every operation checks the overflow by {@code Math.*Exact}</li>
+ *         <li>on an overflow the program is evaluated again on a stack of
+ *         {@code BigInteger} values</li>
+ *         <li>a division which leaves a remainder, a negative exponent and
+ *         a value which is too big for {@code double} give null, so the
+ *         expression is computed in {@code double} as before</li>
+ *     </ul>
+ * </p>
+ * The operators keep the semantics of the {@code double} evaluation, i.e.
+ * the power takes the sign of the base. Besides the operators which have
+ * their own instructions the remainder, the integer division and the
+ * factorial of {@link OperatorTable} are supported.
+ */
+final class IntegerEvaluation {
+    /**
+     * The greatest number of bits of an exact value, a greater value is
+     * out of the range of {@code double}
+     */
+    private static final int MAX_BITS = Double.MAX_EXPONENT + 1;
+
+    /**
+     * The greatest number which factorial fits {@code long}
+     */
+    private static final int MAX_LONG_FACTORIAL = 20;
+
+    /**
+     * The greatest number which factorial is finite in {@code double}
+     */
+    private static final int MAX_FACTORIAL = 170;
+
+    /**
+     * Constructs an object
+     */
+    private IntegerEvaluation() {
+    }
+
+    /**
+     * Checks whether an operator which does not have its own instruction
+     * can be computed on integers
+     *
+     * @param operator The operator
+     * @return true if the operator is supported
+     */
+    static boolean isSupported(final Operator operator) {
+        return operator == OperatorTable.REMAINDER || operator == OperatorTable.INTEGER_DIVIDE ||
+                operator == OperatorTable.FACTORIAL;
+    }
+
+    /**
+     * Evaluates an integer program, in {@code long} and on an overflow in
+     * {@code BigInteger}
+     *
+     * @param program The program which has only integer constants
+     * @return The exact value, null if the value is not an integer or it is
+     * out of the range of {@code double}
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    static BigInteger evaluate(final CompiledExpression program) throws InvalidInputExpressionException {
+        try {
+            return evaluateLong(program);
+
+        } catch (ArithmeticException e) {
+            return evaluateBig(program);
+        }
+    }
+
+    /**
+     * Evaluates the program on a stack of {@code long} values
+     *
+     * @param program The program
+     * @return The exact value, null if the value is not an integer
+     * @throws ArithmeticException             If a value overflows
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    private static BigInteger evaluateLong(final CompiledExpression program)
+            throws ArithmeticException, InvalidInputExpressionException {
+
+        int[] code = program.getCode();
+        Operator[] operators = program.getOperators();
+        long[] stack = new long[program.getStackSize()];
+        int top = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            long y;
+
+            switch (code[pc]) {
+                case CONSTANT:
+                    stack[++top] = program.getInteger(code[++pc]);
+                    break;
+
+                case ADD:
+                    top--;
+                    stack[top] = Math.addExact(stack[top], stack[top + 1]);
+                    break;
+
+                case SUBTRACT:
+                    top--;
+                    stack[top] = Math.subtractExact(stack[top], stack[top + 1]);
+                    break;
+
+                case MULTIPLY:
+                    top--;
+                    stack[top] = Math.multiplyExact(stack[top], stack[top + 1]);
+                    break;
+
+                case DIVIDE:
+                    y = checkZero(program, stack[--top + 1]);
+                    if (stack[top] % y != 0) {
+                        return null;
+                    }
+                    stack[top] = divide(stack[top], y);
+                    break;
+
+                case POWER:
+                    y = stack[--top + 1];
+                    if (y < 0) {
+                        return null;
+                    }
+                    stack[top] = power(stack[top], y);
+                    break;
+
+                case NEGATE:
+                    stack[top] = Math.negateExact(stack[top]);
+                    break;
+
+                case BINARY:
+                    Operator operator = operators[code[++pc]];
+                    y = checkZero(program, stack[--top + 1]);
+                    if (operator == OperatorTable.REMAINDER) {
+                        stack[top] = stack[top] % y;
+                    } else {
+                        divide(stack[top], y);
+                        stack[top] = Math.floorDiv(stack[top], y);
+                    }
+                    break;
+
+                case UNARY:
+                    pc++;
+                    if (stack[top] < 0) {
+                        return null;
+                    }
+                    stack[top] = factorial(stack[top]);
+                    break;
+
+                case LOAD:
+                    int source = top - code[++pc];
+                    if (source < 0) {
+                        // the parameters of a function body are not known
+                        return null;
+                    }
+                    stack[++top] = stack[source];
+                    break;
+
+                case SLIDE:
+                    stack[top - code[pc + 1]] = stack[top];
+                    top -= code[++pc];
+                    break;
+
+                case JUMP:
+                    pc = code[pc + 1] - 1;
+                    break;
+
+                case JUMP_IF_ZERO:
+                    pc = stack[top--] == 0 ? code[pc + 1] - 1 : pc + 1;
+                    break;
+
+                case CHOOSE:
+                    int[] table = program.getTable(code[pc + 1]);
+                    int branch = DomainFunctions.select(stack[top--], table.length - 1);
+                    if (branch < 0) {
+                        return null;
+                    }
+                    pc = table[branch] - 1;
+                    break;
+
+                default:
+                    return null;
+            }
+        }
+
+        return BigInteger.valueOf(stack[top]);
+    }
+
+    /**
+     * Evaluates the program on a stack of {@code BigInteger} values
+     *
+     * @param program The program
+     * @return The exact value, null if the value is not an integer or it is
+     * out of the range of {@code double}
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    private static BigInteger evaluateBig(final CompiledExpression program) throws InvalidInputExpressionException {
+        int[] code = program.getCode();
+        Operator[] operators = program.getOperators();
+        BigInteger[] stack = new BigInteger[program.getStackSize()];
+        int top = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            BigInteger y;
+
+            switch (code[pc]) {
+                case CONSTANT:
+                    stack[++top] = BigInteger.valueOf(program.getInteger(code[++pc]));
+                    break;
+
+                case ADD:
+                    top--;
+                    stack[top] = stack[top].add(stack[top + 1]);
+                    break;
+
+                case SUBTRACT:
+                    top--;
+                    stack[top] = stack[top].subtract(stack[top + 1]);
+                    break;
+
+                case MULTIPLY:
+                    top--;
+                    stack[top] = stack[top].multiply(stack[top + 1]);
+                    break;
+
+                case DIVIDE:
+                    y = checkZero(program, stack[--top + 1]);
+                    BigInteger[] quotient = stack[top].divideAndRemainder(y);
+                    if (quotient[1].signum() != 0) {
+                        return null;
+                    }
+                    stack[top] = quotient[0];
+                    break;
+
+                case POWER:
+                    y = stack[--top + 1];
+                    stack[top] = power(stack[top], y);
+                    break;
+
+                case NEGATE:
+                    stack[top] = stack[top].negate();
+                    break;
+
+                case BINARY:
+                    Operator operator = operators[code[++pc]];
+                    y = checkZero(program, stack[--top + 1]);
+                    if (operator == OperatorTable.REMAINDER) {
+                        // the sign of the remainder is the sign of the dividend like in double
+                        stack[top] = stack[top].subtract(stack[top].divide(y).multiply(y));
+                    } else {
+                        quotient = stack[top].divideAndRemainder(y);
+                        stack[top] = quotient[1].signum() != 0 && quotient[1].signum() != y.signum() ?
+                                quotient[0].subtract(BigInteger.ONE) : quotient[0];
+                    }
+                    break;
+
+                case UNARY:
+                    pc++;
+                    stack[top] = factorial(stack[top]);
+                    break;
+
+                case LOAD:
+                    int source = top - code[++pc];
+                    if (source < 0) {
+                        // the parameters of a function body are not known
+                        return null;
+                    }
+                    stack[++top] = stack[source];
+                    break;
+
+                case SLIDE:
+                    stack[top - code[pc + 1]] = stack[top];
+                    top -= code[++pc];
+                    break;
+
+                case JUMP:
+                    pc = code[pc + 1] - 1;
+                    break;
+
+                case JUMP_IF_ZERO:
+                    pc = stack[top--].signum() == 0 ? code[pc + 1] - 1 : pc + 1;
+                    break;
+
+                case CHOOSE:
+                    int[] table = program.getTable(code[pc + 1]);
+                    int branch = DomainFunctions.select(stack[top--].doubleValue(), table.length - 1);
+                    if (branch < 0) {
+                        return null;
+                    }
+                    pc = table[branch] - 1;
+                    break;
+
+                default:
+                    return null;
+            }
+
+            if (top >= 0 && (stack[top] == null || stack[top].bitLength() > MAX_BITS)) {
+                return null;
+            }
+        }
+
+        return stack[top];
+    }
+
+    /**
+     * Divides two values
+     *
+     * @param x The dividend
+     * @param y The divisor, not zero
+     * @return The quotient rounded towards zero
+     * @throws ArithmeticException If the quotient overflows
+     */
+    private static long divide(final long x, final long y) throws ArithmeticException {
+        if (x == Long.MIN_VALUE && y == -1) {
+            throw new ArithmeticException();
+        }
+
+        return x / y;
+    }
+
+    /**
+     * Computes the power which takes the sign of the base, {@code x^y =
+     * sign(x) * pow(x, y)}
+     *
+     * @param x The base
+     * @param y The exponent, not negative
+     * @return The power
+     * @throws ArithmeticException If the power overflows
+     */
+    private static long power(final long x, final long y) throws ArithmeticException {
+        long result = 1;
+        long base = x;
+
+        for (long exponent = y; exponent > 0; exponent >>= 1) {
+            if ((exponent & 1) != 0) {
+                result = Math.multiplyExact(result, base);
+            }
+            if (exponent > 1) {
+                base = Math.multiplyExact(base, base);
+            }
+        }
+
+        return x < 0 ? Math.negateExact(result) : result;
+    }
+
+    /**
+     * Computes the power which takes the sign of the base
+     *
+     * @param x The base
+     * @param y The exponent
+     * @return The power, null if the exponent is negative or the power is
+     * out of the range of {@code double}
+     */
+    private static BigInteger power(final BigInteger x, final BigInteger y) {
+        if (y.signum() < 0) {
+            return null;
+        }
+
+        BigInteger result;
+        if (x.abs().compareTo(BigInteger.ONE) <= 0) {
+            result = x.signum() == 0 ? (y.signum() == 0 ? BigInteger.ONE : BigInteger.ZERO) :
+                    x.signum() < 0 && y.testBit(0) ? x : BigInteger.ONE;
+
+        } else if (y.bitLength() > Integer.SIZE - 1 || (x.abs().bitLength() - 1) * y.longValue() > MAX_BITS) {
+            return null;
+
+        } else {
+            result = x.pow(y.intValue());
+        }
+
+        return x.signum() < 0 ? result.negate() : result;
+    }
+
+    /**
+     * Computes the factorial
+     *
+     * @param value The operand, not negative
+     * @return The factorial
+     * @throws ArithmeticException If the factorial overflows
+     */
+    private static long factorial(final long value) throws ArithmeticException {
+        if (value > MAX_LONG_FACTORIAL) {
+            throw new ArithmeticException();
+        }
+
+        long result = 1;
+        for (long i = 2; i <= value; i++) {
+            result *= i;
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the factorial
+     *
+     * @param value The operand
+     * @return The factorial, null if the operand is negative or the
+     * factorial is out of the range of {@code double}
+     */
+    private static BigInteger factorial(final BigInteger value) {
+        if (value.signum() < 0 || value.compareTo(BigInteger.valueOf(MAX_FACTORIAL)) > 0) {
+            return null;
+        }
+
+        BigInteger result = BigInteger.ONE;
+        for (int i = 2; i <= value.intValue(); i++) {
+            result = result.multiply(BigInteger.valueOf(i));
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the divisor is zero
+     *
+     * @param program The program
+     * @param value   The divisor
+     * @return The divisor
+     * @throws InvalidInputExpressionException If the divisor is zero
+     */
+    private static long checkZero(final CompiledExpression program, final long value)
+            throws InvalidInputExpressionException {
+
+        if (value == 0) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, program.getExpression(), 0);
+        }
+
+        return value;
+    }
+
+    /**
+     * Checks whether the divisor is zero
+     *
+     * @param program The program
+     * @param value   The divisor
+     * @return The divisor
+     * @throws InvalidInputExpressionException If the divisor is zero
+     */
+    private static BigInteger checkZero(final CompiledExpression program, final BigInteger value)
+            throws InvalidInputExpressionException {
+
+        if (value.signum() == 0) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, program.getExpression(), 0);
+        }
+
+        return value;
+    }
+}
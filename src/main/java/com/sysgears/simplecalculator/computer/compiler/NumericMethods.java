@@ -0,0 +1,296 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+
+import java.util.PriorityQueue;
+
+/**
+ * Finds roots and integrals of a {@link CompiledExpression} of one
+ * variable. Every sample evaluates the program on the same stack and only
+ * the variable changes, so a sample does not parse the expression and does
+ * not allocate. The methods are next:
+ * <p>
+ *     <ul>
+ *         <li>a root is found by the Brent's method which combines the
+ *         inverse quadratic interpolation, the secant and the bisection, so
+ *         it converges as fast as the secant on a smooth function and never
+ *         slower than the bisection</li>
+ *         <li>an integral is computed by the adaptive 15-point
+ *         Gauss-Kronrod rule: the interval with the greatest error estimate
+ *         is bisected until the total error is small enough</li>
+ *     </ul>
+ * </p>
+ */
+final class NumericMethods {
+    /**
+     * The greatest number of iterations of the Brent's method
+     */
+    private static final int MAX_ITERATIONS = 200;
+
+    /**
+     * The greatest number of the intervals of an integral
+     */
+    private static final int MAX_INTERVALS = 2000;
+
+    /**
+     * The relative tolerance of an integral
+     */
+    private static final double RELATIVE_TOLERANCE = 1e-12;
+
+    /**
+     * The absolute tolerance of an integral
+     */
+    private static final double ABSOLUTE_TOLERANCE = 1e-14;
+
+    /**
+     * The Kronrod nodes on [0, 1], the odd ones are the Gauss nodes, the
+     * last one is the center
+     */
+    private static final double[] NODES = {
+            0.991455371120812639206854697526329, 0.949107912342758524526189684047851,
+            0.864864423359769072789712788640926, 0.741531185599394439863864773280788,
+            0.586087235467691130294144845693013, 0.405845151377397166906606412076961,
+            0.207784955007898467600689403773245, 0};
+
+    /**
+     * The Kronrod weights of the nodes
+     */
+    private static final double[] KRONROD_WEIGHTS = {
+            0.022935322010529224963732008058970, 0.063092092629978553290700663189204,
+            0.104790010322250183839876322541518, 0.140653259715525918745189590510238,
+            0.169004726639267902826583426598550, 0.190350578064785409913256402421014,
+            0.204432940075298892414161999234649, 0.209482141084727828012999174891714};
+
+    /**
+     * The Gauss weights of the nodes 1, 3, 5 and 7
+     */
+    private static final double[] GAUSS_WEIGHTS = {
+            0.129484966168869693270611432679082, 0.279705391489276667901467771423780,
+            0.381830050505118944950369775488975, 0.417959183673469387755102040816327};
+
+    /**
+     * The compiled expression which reads the variable as its parameter
+     */
+    private final CompiledExpression program;
+
+    /**
+     * The stack which is reused by every sample
+     */
+    private final double[] stack;
+
+    /**
+     * Constructs an object
+     *
+     * @param program The compiled expression which reads the variable as
+     *                its parameter
+     */
+    NumericMethods(final CompiledExpression program) {
+        this.program = program;
+        this.stack = new double[Math.max(program.getStackSize(), 1)];
+    }
+
+    /**
+     * Finds a root between the bounds where the expression changes its
+     * sign
+     *
+     * @param lo The lower bound
+     * @param hi The upper bound
+     * @return The root
+     * @throws InvalidInputExpressionException If the expression does not
+     *                                         change its sign between the
+     *                                         bounds, or it cannot be
+     *                                         computed
+     */
+    double solve(final double lo, final double hi) throws InvalidInputExpressionException {
+        double a = lo;
+        double b = hi;
+        double fa = sample(a);
+        double fb = sample(b);
+
+        if (fa == 0) {
+            return a;
+
+        } else if (fb == 0) {
+            return b;
+
+        } else if (Double.isNaN(fa) || Double.isNaN(fb) || (fa > 0) == (fb > 0)) {
+            throw new InvalidInputExpressionException(ErrorCode.NO_ROOT, program.getExpression(), 0);
+        }
+
+        double c = a;
+        double fc = fa;
+        double d = b - a;
+        double e = d;
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            if ((fb > 0) == (fc > 0)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            // b is the best estimate, c is on the other side of the root
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+
+            double tolerance = 2 * Math.ulp(b) + Double.MIN_NORMAL;
+            double middle = (c - b) / 2;
+
+            if (Math.abs(middle) <= tolerance || fb == 0) {
+                return b;
+            }
+
+            if (Math.abs(e) >= tolerance && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa;
+                double p;
+                double q;
+
+                if (a == c) {
+                    // the secant
+                    p = 2 * middle * s;
+                    q = 1 - s;
+
+                } else {
+                    // the inverse quadratic interpolation
+                    double r = fb / fc;
+                    q = fa / fc;
+                    p = s * (2 * middle * q * (q - r) - (b - a) * (r - 1));
+                    q = (q - 1) * (r - 1) * (s - 1);
+                }
+
+                if (p > 0) {
+                    q = -q;
+                } else {
+                    p = -p;
+                }
+
+                if (2 * p < Math.min(3 * middle * q - Math.abs(tolerance * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+
+                } else {
+                    d = middle;
+                    e = d;
+                }
+
+            } else {
+                d = middle;
+                e = d;
+            }
+
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tolerance ? d : Math.copySign(tolerance, middle);
+            fb = sample(b);
+
+            if (Double.isNaN(fb)) {
+                throw new InvalidInputExpressionException(ErrorCode.NO_ROOT, program.getExpression(), 0);
+            }
+        }
+
+        return b;
+    }
+
+    /**
+     * Computes the integral between the bounds
+     *
+     * @param a The lower bound
+     * @param b The upper bound
+     * @return The integral, negative if the lower bound is greater than
+     * the upper one
+     * @throws InvalidInputExpressionException If the integral does not
+     *                                         converge, or the expression
+     *                                         cannot be computed
+     */
+    double integrate(final double a, final double b) throws InvalidInputExpressionException {
+        if (a == b) {
+            return 0;
+        }
+
+        // an interval is {start, end, integral, error}
+        PriorityQueue<double[]> intervals = new PriorityQueue<>((i1, i2) -> Double.compare(i2[3], i1[3]));
+        double[] whole = kronrod(a, b);
+        intervals.add(whole);
+        double integral = whole[2];
+        double error = whole[3];
+
+        while (!(error <= Math.max(ABSOLUTE_TOLERANCE, RELATIVE_TOLERANCE * Math.abs(integral))) ||
+                Double.isInfinite(integral)) {
+
+            double[] worst = intervals.poll();
+            double middle = (worst[0] + worst[1]) / 2;
+
+            if (intervals.size() >= MAX_INTERVALS || Double.isNaN(error) || Double.isInfinite(integral) ||
+                    middle == worst[0] || middle == worst[1]) {
+
+                throw new InvalidInputExpressionException(ErrorCode.DIVERGENT_INTEGRAL, program.getExpression(), 0);
+            }
+
+            double[] left = kronrod(worst[0], middle);
+            double[] right = kronrod(middle, worst[1]);
+            intervals.add(left);
+            intervals.add(right);
+            integral += left[2] + right[2] - worst[2];
+            error += left[3] + right[3] - worst[3];
+        }
+
+        // the running sum loses the last bits, so the result is summed again
+        double result = 0;
+        for (double[] interval : intervals) {
+            result += interval[2];
+        }
+
+        return result;
+    }
+
+    /**
+     * Applies the 15-point Kronrod rule and the embedded 7-point Gauss rule
+     * to an interval
+     *
+     * @param a The start of the interval
+     * @param b The end of the interval
+     * @return The interval, the Kronrod integral and the difference between
+     * the rules as the error estimate
+     * @throws InvalidInputExpressionException If the expression cannot be
+     *                                         computed
+     */
+    private double[] kronrod(final double a, final double b) throws InvalidInputExpressionException {
+        double center = (a + b) / 2;
+        double half = (b - a) / 2;
+        double fc = sample(center);
+        double kronrod = fc * KRONROD_WEIGHTS[NODES.length - 1];
+        double gauss = fc * GAUSS_WEIGHTS[GAUSS_WEIGHTS.length - 1];
+
+        for (int node = 0; node < NODES.length - 1; node++) {
+            double sum = sample(center - half * NODES[node]) + sample(center + half * NODES[node]);
+            kronrod += KRONROD_WEIGHTS[node] * sum;
+
+            if (node % 2 == 1) {
+                gauss += GAUSS_WEIGHTS[node / 2] * sum;
+            }
+        }
+
+        return new double[]{a, b, kronrod * half, Math.abs((kronrod - gauss) * half)};
+    }
+
+    /**
+     * Computes the expression for a value of the variable
+     *
+     * @param x The value of the variable
+     * @return The value of the expression
+     * @throws InvalidInputExpressionException If the expression cannot be
+     *                                         computed
+     */
+    private double sample(final double x) throws InvalidInputExpressionException {
+        stack[0] = x;
+
+        return program.evaluate(stack, 1);
+    }
+}
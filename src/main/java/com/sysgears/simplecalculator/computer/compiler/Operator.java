@@ -0,0 +1,220 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Declares an operator of {@link OperatorTable}: its symbol, its position
+ * relative to the operands, its precedence, its associativity and its
+ * primitive kernel. A binary operator stands between its operands, a unary
+ * one stands either before its operand, like the sign, or after it, like
+ * the factorial. The kernel signals that the operands are out of its
+ * domain by {@code ArithmeticException}, i.e. on a division by zero.
+ */
+public final class Operator {
+    /**
+     * The position of an operator relative to its operands
+     */
+    public enum Position {
+        /**
+         * Before the only operand, i.e. -2
+         */
+        PREFIX,
+
+        /**
+         * Between two operands, i.e. 2*3
+         */
+        INFIX,
+
+        /**
+         * After the only operand, i.e. 3!
+         */
+        POSTFIX
+    }
+
+    /**
+     * The order in which the operators of the same precedence are computed
+     */
+    public enum Associativity {
+        /**
+         * From left to right, i.e. 8/4/2 = (8/4)/2
+         */
+        LEFT,
+
+        /**
+         * From right to left, i.e. 2^3^2 = 2^(3^2)
+         */
+        RIGHT
+    }
+
+    /**
+     * The marker of an operator which does not have its own instruction
+     */
+    static final int NO_INSTRUCTION = -1;
+
+    /**
+     * The marker of an operator which does not change its operand, so
+     * nothing is added to the program
+     */
+    static final int IDENTITY = -2;
+
+    /**
+     * The symbol of the operator
+     */
+    private final char symbol;
+
+    /**
+     * The position of the operator
+     */
+    private final Position position;
+
+    /**
+     * The precedence of the operator as higher the value as higher the
+     * precedence
+     */
+    private final int precedence;
+
+    /**
+     * The associativity of the operator
+     */
+    private final Associativity associativity;
+
+    /**
+     * The kernel of a binary operator, null for a unary one
+     */
+    private final DoubleBinaryOperator binaryKernel;
+
+    /**
+     * The kernel of a unary operator, null for a binary one
+     */
+    private final DoubleUnaryOperator unaryKernel;
+
+    /**
+     * The instruction of {@code CompiledExpression} which computes the
+     * operator in place of the kernel, {@code NO_INSTRUCTION} if there is no
+     * such an instruction
+     */
+    private final int instruction;
+
+    /**
+     * Constructs a binary operator
+     *
+     * @param symbol        The symbol of the operator
+     * @param precedence    The precedence of the operator
+     * @param associativity The associativity of the operator
+     * @param kernel        The kernel
+     */
+    public Operator(final char symbol, final int precedence, final Associativity associativity,
+                    final DoubleBinaryOperator kernel) {
+        this(symbol, Position.INFIX, precedence, associativity, kernel, null, NO_INSTRUCTION);
+    }
+
+    /**
+     * Constructs a unary operator
+     *
+     * @param symbol     The symbol of the operator
+     * @param position   The position of the operator, either {@code PREFIX}
+     *                   or {@code POSTFIX}
+     * @param precedence The precedence of the operator
+     * @param kernel     The kernel
+     * @throws IllegalArgumentException If the position is {@code INFIX}
+     */
+    public Operator(final char symbol, final Position position, final int precedence, final DoubleUnaryOperator kernel)
+            throws IllegalArgumentException {
+
+        this(symbol, position, precedence, Associativity.RIGHT, null, kernel, NO_INSTRUCTION);
+
+        if (position == Position.INFIX) {
+            throw new IllegalArgumentException("The unary operator " + symbol + " cannot be infix");
+        }
+    }
+
+    /**
+     * Constructs an operator which has its own instruction
+     *
+     * @param symbol        The symbol of the operator
+     * @param position      The position of the operator
+     * @param precedence    The precedence of the operator
+     * @param associativity The associativity of the operator
+     * @param binaryKernel  The kernel of a binary operator
+     * @param unaryKernel   The kernel of a unary operator
+     * @param instruction   The instruction
+     */
+    Operator(final char symbol, final Position position, final int precedence, final Associativity associativity,
+             final DoubleBinaryOperator binaryKernel, final DoubleUnaryOperator unaryKernel, final int instruction) {
+        this.symbol = symbol;
+        this.position = position;
+        this.precedence = precedence;
+        this.associativity = associativity;
+        this.binaryKernel = binaryKernel;
+        this.unaryKernel = unaryKernel;
+        this.instruction = instruction;
+    }
+
+    public char getSymbol() {
+        return symbol;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    public int getPrecedence() {
+        return precedence;
+    }
+
+    public Associativity getAssociativity() {
+        return associativity;
+    }
+
+    /**
+     * Returns the number of operands
+     *
+     * @return 2 for an infix operator, 1 for the other ones
+     */
+    public int getArity() {
+        return position == Position.INFIX ? 2 : 1;
+    }
+
+    /**
+     * Computes a binary operator
+     *
+     * @param x The left operand
+     * @param y The right operand
+     * @return The computed value
+     * @throws ArithmeticException If the operands are out of the domain
+     */
+    public double apply(final double x, final double y) throws ArithmeticException {
+        return binaryKernel.applyAsDouble(x, y);
+    }
+
+    /**
+     * Computes a unary operator
+     *
+     * @param x The operand
+     * @return The computed value
+     * @throws ArithmeticException If the operand is out of the domain
+     */
+    public double apply(final double x) throws ArithmeticException {
+        return unaryKernel.applyAsDouble(x);
+    }
+
+    /**
+     * Returns the instruction of the operator
+     *
+     * @return The instruction, {@code NO_INSTRUCTION} or {@code IDENTITY}
+     */
+    int getInstruction() {
+        return instruction;
+    }
+
+    /**
+     * Returns the symbol and the position of the operator
+     *
+     * @return The string representation
+     */
+    @Override
+    public String toString() {
+        return symbol + " " + position.name().toLowerCase();
+    }
+}
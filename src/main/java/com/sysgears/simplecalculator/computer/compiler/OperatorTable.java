@@ -0,0 +1,327 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.compiler.Operator.Associativity;
+import com.sysgears.simplecalculator.computer.compiler.Operator.Position;
+import com.sysgears.simplecalculator.computer.registry.Derivatives;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the operators which {@link ExpressionCompiler} recognizes. The
+ * table is a declaration, so a new operator is added by listing it, not by
+ * changing the compiler. The operators are looked up by arrays indexed by
+ * the symbol, one array for every position, so a lookup does not depend on
+ * the number of operators.
+ * <p>
+ *     A symbol must be an ASCII symbol which is not a digit, a letter, a
+ *     point, a parenthesis or the delimiter of arguments. A symbol cannot be
+ *     both infix and postfix, since both of them follow an operand. The
+ *     default table contains:
+ *     <ul>
+ *         <li>'+' and '-' signs</li>
+ *         <li>'+', '-', '*', '/' and the power '^' which keeps the sign of
+ *         the base like {@code operators.Operators.POWER}</li>
+ *         <li>'%' the remainder, '\' the integer division rounded towards
+ *         the negative infinity and '!' the factorial</li>
+ *     </ul>
+ * </p>
+ */
+public final class OperatorTable {
+    /**
+     * The number of ASCII symbols
+     */
+    private static final int SYMBOLS = 128;
+
+    /**
+     * The greatest number which factorial is finite
+     */
+    private static final int MAX_FACTORIAL = 170;
+
+    /**
+     * The factorials of the integers up to {@code MAX_FACTORIAL}
+     */
+    private static final double[] FACTORIALS = new double[MAX_FACTORIAL + 1];
+
+    static {
+        FACTORIALS[0] = 1;
+        for (int i = 1; i <= MAX_FACTORIAL; i++) {
+            FACTORIALS[i] = FACTORIALS[i - 1] * i;
+        }
+    }
+
+    /**
+     * The plus sign
+     */
+    public static final Operator PLUS = new Operator('+', Position.PREFIX, 25, Associativity.RIGHT, null,
+                                                     x -> x, Operator.IDENTITY);
+
+    /**
+     * The minus sign
+     */
+    public static final Operator NEGATE = new Operator('-', Position.PREFIX, 25, Associativity.RIGHT, null,
+                                                       x -> -x, CompiledExpression.NEGATE);
+
+    /**
+     * An add operator
+     */
+    public static final Operator ADD = new Operator('+', Position.INFIX, 10, Associativity.LEFT,
+                                                    (x, y) -> x + y, null, CompiledExpression.ADD);
+
+    /**
+     * A subtract operator
+     */
+    public static final Operator SUBTRACT = new Operator('-', Position.INFIX, 10, Associativity.LEFT,
+                                                         (x, y) -> x - y, null, CompiledExpression.SUBTRACT);
+
+    /**
+     * A multiply operator
+     */
+    public static final Operator MULTIPLY = new Operator('*', Position.INFIX, 20, Associativity.LEFT,
+                                                         (x, y) -> x * y, null, CompiledExpression.MULTIPLY);
+
+    /**
+     * A divide operator
+     */
+    public static final Operator DIVIDE = new Operator('/', Position.INFIX, 20, Associativity.LEFT,
+                                                       (x, y) -> x / checkZero(y), null, CompiledExpression.DIVIDE);
+
+    /**
+     * A power operator, the sign is taken from the base
+     */
+    public static final Operator POWER = new Operator('^', Position.INFIX, 30, Associativity.RIGHT,
+                                                      (x, y) -> (x < 0 ? -1 : 1) * Math.pow(x, y), null,
+                                                      CompiledExpression.POWER);
+
+    /**
+     * A remainder operator
+     */
+    public static final Operator REMAINDER = new Operator('%', 20, Associativity.LEFT,
+                                                          (x, y) -> x % checkZero(y));
+
+    /**
+     * An integer divide operator, the quotient is rounded towards the
+     * negative infinity
+     */
+    public static final Operator INTEGER_DIVIDE = new Operator('\\', 20, Associativity.LEFT,
+                                                               (x, y) -> Math.floor(x / checkZero(y)));
+
+    /**
+     * A factorial operator, NaN for a negative or a fractional operand
+     */
+    public static final Operator FACTORIAL = new Operator('!', Position.POSTFIX, 40, OperatorTable::factorial);
+
+    /**
+     * The default table
+     */
+    private static final OperatorTable DEFAULT = new OperatorTable(PLUS, NEGATE, ADD, SUBTRACT, MULTIPLY, DIVIDE,
+                                                                   POWER, REMAINDER, INTEGER_DIVIDE, FACTORIAL);
+
+    /**
+     * The operators by their indexes
+     */
+    private final Operator[] operators;
+
+    /**
+     * The indexes of the prefix operators by their symbols, -1 if there is
+     * no such an operator
+     */
+    private final int[] prefix = new int[SYMBOLS];
+
+    /**
+     * The indexes of the infix operators by their symbols
+     */
+    private final int[] infix = new int[SYMBOLS];
+
+    /**
+     * The indexes of the postfix operators by their symbols
+     */
+    private final int[] postfix = new int[SYMBOLS];
+
+    /**
+     * Constructs an object
+     *
+     * @param operators The operators
+     * @throws IllegalArgumentException If a symbol is not allowed, or it is
+     *                                  declared twice for the same position,
+     *                                  or it is both infix and postfix
+     */
+    public OperatorTable(final Operator... operators) throws IllegalArgumentException {
+        this.operators = operators.clone();
+        Arrays.fill(prefix, -1);
+        Arrays.fill(infix, -1);
+        Arrays.fill(postfix, -1);
+
+        for (int index = 0; index < operators.length; index++) {
+            char symbol = operators[index].getSymbol();
+
+            if (symbol >= SYMBOLS || Character.isLetterOrDigit(symbol) || symbol == '.' ||
+                    symbol == ExpressionCompiler.OPEN_EXP || symbol == ExpressionCompiler.CLOSE_EXP ||
+                    symbol == ExpressionCompiler.DELIMITER) {
+
+                throw new IllegalArgumentException("The symbol " + symbol + " cannot be an operator");
+            }
+
+            int[] symbols = getSymbols(operators[index].getPosition());
+            if (symbols[symbol] != -1) {
+                throw new IllegalArgumentException("The operator " + operators[index] + " is declared twice");
+            }
+            symbols[symbol] = index;
+
+            if (infix[symbol] != -1 && postfix[symbol] != -1) {
+                throw new IllegalArgumentException("The symbol " + symbol + " cannot be both infix and postfix");
+            }
+        }
+    }
+
+    /**
+     * Returns the default table
+     *
+     * @return The default table
+     */
+    public static OperatorTable getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Finds a prefix operator
+     *
+     * @param symbol The symbol
+     * @return The operator index, -1 if there is no such an operator
+     */
+    public int findPrefix(final char symbol) {
+        return symbol < SYMBOLS ? prefix[symbol] : -1;
+    }
+
+    /**
+     * Finds an infix operator
+     *
+     * @param symbol The symbol
+     * @return The operator index, -1 if there is no such an operator
+     */
+    public int findInfix(final char symbol) {
+        return symbol < SYMBOLS ? infix[symbol] : -1;
+    }
+
+    /**
+     * Finds a postfix operator
+     *
+     * @param symbol The symbol
+     * @return The operator index, -1 if there is no such an operator
+     */
+    public int findPostfix(final char symbol) {
+        return symbol < SYMBOLS ? postfix[symbol] : -1;
+    }
+
+    /**
+     * Returns the operator
+     *
+     * @param index The operator index
+     * @return The operator
+     */
+    Operator get(final int index) {
+        return operators[index];
+    }
+
+    /**
+     * Returns the operators by their indexes. The array is shared, it must
+     * not be changed.
+     *
+     * @return The operators
+     */
+    Operator[] getOperators() {
+        return operators;
+    }
+
+    /**
+     * Returns all the operators
+     *
+     * @return The unmodifiable list of the operators
+     */
+    public List<Operator> asList() {
+        return Collections.unmodifiableList(Arrays.asList(operators));
+    }
+
+    /**
+     * Computes a partial derivative of an operator which is computed by its
+     * kernel. The remainder, the integer division and the factorial have
+     * exact rules, the other operators are approximated by a central
+     * difference.
+     *
+     * @param operator The operator
+     * @param x        The left or the only operand
+     * @param y        The right operand, ignored by a unary operator
+     * @param value    The value of the operator for the operands
+     * @param operand  The index of the operand
+     * @return The partial derivative, NaN for the factorial which is
+     * defined only for integers
+     * @throws ArithmeticException If the kernel fails near the operands
+     */
+    static double derivative(final Operator operator, final double x, final double y, final double value,
+                             final int operand) throws ArithmeticException {
+
+        if (operator == REMAINDER) {
+            return operand == 0 ? 1 : -(x - value) / y;
+
+        } else if (operator == INTEGER_DIVIDE) {
+            return 0;
+
+        } else if (operator == FACTORIAL) {
+            return Double.NaN;
+
+        } else if (operator.getArity() == 1) {
+            return Derivatives.difference(operator::apply, x);
+        }
+
+        return operand == 0 ? Derivatives.difference(t -> operator.apply(t, y), x) :
+                Derivatives.difference(t -> operator.apply(x, t), y);
+    }
+
+    /**
+     * Returns the lookup array of the position
+     *
+     * @param position The position
+     * @return The array of indexes by symbols
+     */
+    private int[] getSymbols(final Position position) {
+        switch (position) {
+            case PREFIX:
+                return prefix;
+            case INFIX:
+                return infix;
+            default:
+                return postfix;
+        }
+    }
+
+    /**
+     * Checks whether the divisor is zero
+     *
+     * @param value The divisor
+     * @return The divisor
+     * @throws ArithmeticException If the divisor is zero
+     */
+    private static double checkZero(final double value) throws ArithmeticException {
+        if (value == 0) {
+            throw new ArithmeticException();
+        }
+
+        return value;
+    }
+
+    /**
+     * Computes the factorial
+     *
+     * @param value The operand
+     * @return The factorial, NaN if the operand is negative or fractional,
+     * the infinity if the factorial is too big for {@code double}
+     */
+    private static double factorial(final double value) {
+        if (value < 0 || value != Math.floor(value)) {
+            return Double.NaN;
+        }
+
+        return value > MAX_FACTORIAL ? Double.POSITIVE_INFINITY : FACTORIALS[(int) value];
+    }
+}
@@ -0,0 +1,817 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.registry.DomainFunctions;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+import static com.sysgears.simplecalculator.computer.compiler.CompiledExpression.*;
+
+/**
+ * Evaluates a {@link CompiledExpression} exactly on fractions. The ideas lie
+ * behind it are next:
+ * <p>
+ *     <ul>
+ *         <li>a fraction is a pair of {@code long} values, the numerator and
+ *         the positive denominator, which is kept in its lowest terms by
+ *         the greatest common divisor, so the typical small denominators
+ *         stay small</li>
+ *         <li>the sum divides by the common divisor of the denominators
+ *         first, the product cancels the factors crosswise first, so an
+ *         intermediate value is not greater than it must be</li>
+ *         <li>every operation checks the overflow by {@code Math.*Exact},
+ *         on an overflow the program is evaluated again on fractions of
+ *         {@code BigInteger} values</li>
+ *     </ul>
+ * </p>
+ * A number of the expression is taken by its decimal text, so {@code 0.1}
+ * is exactly 1/10. The operators keep the semantics of the {@code double}
+ * evaluation, i.e. the power takes the sign of the base. A program which
+ * calls a function, has a fractional exponent or an operator which is not
+ * supported is not computed.
+ */
+final class RationalEvaluation {
+    /**
+     * The greatest number of bits of a numerator or a denominator
+     */
+    private static final int MAX_BITS = Double.MAX_EXPONENT + 1;
+
+    /**
+     * The greatest number which factorial fits {@code long}
+     */
+    private static final int MAX_LONG_FACTORIAL = 20;
+
+    /**
+     * The greatest number which factorial is finite in {@code double}
+     */
+    private static final int MAX_FACTORIAL = 170;
+
+    /**
+     * The greatest number of digits of a number of the expression which is
+     * computed in {@code long}
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * The greatest integer from which all the integers are exact in {@code
+     * double}, 2^53
+     */
+    private static final double MAX_EXACT_DOUBLE = 9007199254740992.0;
+
+    /**
+     * Constructs an object
+     */
+    private RationalEvaluation() {
+    }
+
+    /**
+     * Evaluates a program, on {@code long} fractions and on an overflow on
+     * {@code BigInteger} ones
+     *
+     * @param program The program
+     * @return The exact value, null if the program cannot be computed on
+     * fractions, or a fraction is too big
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    static Fraction evaluate(final CompiledExpression program) throws InvalidInputExpressionException {
+        try {
+            return evaluateLong(program);
+
+        } catch (ArithmeticException e) {
+            return evaluateBig(program);
+        }
+    }
+
+    /**
+     * Evaluates the program on fractions of {@code long} values
+     *
+     * @param program The program
+     * @return The exact value, null if the program cannot be computed on
+     * fractions
+     * @throws ArithmeticException             If a value overflows
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    private static Fraction evaluateLong(final CompiledExpression program)
+            throws ArithmeticException, InvalidInputExpressionException {
+
+        int[] code = program.getCode();
+        Operator[] operators = program.getOperators();
+        long[] numerators = new long[program.getStackSize()];
+        long[] denominators = new long[program.getStackSize()];
+        int top = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            long x;
+            long y;
+
+            switch (code[pc]) {
+                case CONSTANT:
+                    if (!constant(program, code[++pc], numerators, denominators, ++top)) {
+                        return null;
+                    }
+                    break;
+
+                case ADD:
+                    top--;
+                    add(numerators, denominators, top, numerators[top + 1]);
+                    break;
+
+                case SUBTRACT:
+                    top--;
+                    add(numerators, denominators, top, Math.negateExact(numerators[top + 1]));
+                    break;
+
+                case MULTIPLY:
+                    top--;
+                    multiply(numerators, denominators, top, numerators[top + 1], denominators[top + 1]);
+                    break;
+
+                case DIVIDE:
+                    top--;
+                    y = checkZero(program, numerators[top + 1]);
+                    x = denominators[top + 1];
+                    multiply(numerators, denominators, top, y < 0 ? Math.negateExact(x) : x,
+                             y < 0 ? Math.negateExact(y) : y);
+                    break;
+
+                case POWER:
+                    top--;
+                    if (denominators[top + 1] != 1 || !power(numerators, denominators, top, numerators[top + 1])) {
+                        return null;
+                    }
+                    break;
+
+                case NEGATE:
+                    numerators[top] = Math.negateExact(numerators[top]);
+                    break;
+
+                case BINARY:
+                    Operator operator = operators[code[++pc]];
+                    top--;
+                    if (operator != OperatorTable.REMAINDER && operator != OperatorTable.INTEGER_DIVIDE) {
+                        return null;
+                    }
+                    // the quotient of a/b and c/d is ad/bc
+                    x = Math.multiplyExact(numerators[top], denominators[top + 1]);
+                    y = Math.multiplyExact(denominators[top], checkZero(program, numerators[top + 1]));
+                    if (y == -1) {
+                        x = Math.negateExact(x);
+                        y = 1;
+                    }
+
+                    if (operator == OperatorTable.REMAINDER) {
+                        add(numerators, denominators, top, Math.negateExact(
+                                Math.multiplyExact(x / y, numerators[top + 1])), denominators[top + 1]);
+                    } else {
+                        numerators[top] = Math.floorDiv(x, y);
+                        denominators[top] = 1;
+                    }
+                    break;
+
+                case UNARY:
+                    if (operators[code[++pc]] != OperatorTable.FACTORIAL || denominators[top] != 1 ||
+                            numerators[top] < 0) {
+                        return null;
+                    }
+                    numerators[top] = factorial(numerators[top]);
+                    break;
+
+                case LOAD:
+                    int source = top - code[++pc];
+                    if (source < 0) {
+                        // the parameters of a function body are not known
+                        return null;
+                    }
+                    top++;
+                    numerators[top] = numerators[source];
+                    denominators[top] = denominators[source];
+                    break;
+
+                case SLIDE:
+                    numerators[top - code[pc + 1]] = numerators[top];
+                    denominators[top - code[pc + 1]] = denominators[top];
+                    top -= code[++pc];
+                    break;
+
+                case JUMP:
+                    pc = code[pc + 1] - 1;
+                    break;
+
+                case JUMP_IF_ZERO:
+                    pc = numerators[top--] == 0 ? code[pc + 1] - 1 : pc + 1;
+                    break;
+
+                case CHOOSE:
+                    int[] table = program.getTable(code[pc + 1]);
+                    int branch = DomainFunctions.select((double) numerators[top] / denominators[top],
+                                                        table.length - 1);
+                    top--;
+                    if (branch < 0) {
+                        return null;
+                    }
+                    pc = table[branch] - 1;
+                    break;
+
+                default:
+                    return null;
+            }
+        }
+
+        return new Fraction(BigInteger.valueOf(numerators[top]), BigInteger.valueOf(denominators[top]));
+    }
+
+    /**
+     * Evaluates the program on fractions of {@code BigInteger} values
+     *
+     * @param program The program
+     * @return The exact value, null if the program cannot be computed on
+     * fractions, or a fraction is too big
+     * @throws InvalidInputExpressionException If the expression divides by
+     *                                         zero
+     */
+    private static Fraction evaluateBig(final CompiledExpression program) throws InvalidInputExpressionException {
+        int[] code = program.getCode();
+        Operator[] operators = program.getOperators();
+        BigInteger[] numerators = new BigInteger[program.getStackSize()];
+        BigInteger[] denominators = new BigInteger[program.getStackSize()];
+        int top = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            BigInteger x;
+            BigInteger y;
+
+            switch (code[pc]) {
+                case CONSTANT:
+                    if (!constant(program, code[++pc], numerators, denominators, ++top)) {
+                        return null;
+                    }
+                    break;
+
+                case ADD:
+                    top--;
+                    add(numerators, denominators, top, numerators[top + 1], denominators[top + 1]);
+                    break;
+
+                case SUBTRACT:
+                    top--;
+                    add(numerators, denominators, top, numerators[top + 1].negate(), denominators[top + 1]);
+                    break;
+
+                case MULTIPLY:
+                    top--;
+                    multiply(numerators, denominators, top, numerators[top + 1], denominators[top + 1]);
+                    break;
+
+                case DIVIDE:
+                    top--;
+                    y = checkZero(program, numerators[top + 1]);
+                    x = denominators[top + 1];
+                    multiply(numerators, denominators, top, y.signum() < 0 ? x.negate() : x, y.abs());
+                    break;
+
+                case POWER:
+                    top--;
+                    if (!denominators[top + 1].equals(BigInteger.ONE) ||
+                            !power(numerators, denominators, top, numerators[top + 1])) {
+                        return null;
+                    }
+                    break;
+
+                case NEGATE:
+                    numerators[top] = numerators[top].negate();
+                    break;
+
+                case BINARY:
+                    Operator operator = operators[code[++pc]];
+                    top--;
+                    if (operator != OperatorTable.REMAINDER && operator != OperatorTable.INTEGER_DIVIDE) {
+                        return null;
+                    }
+                    x = numerators[top].multiply(denominators[top + 1]);
+                    y = denominators[top].multiply(checkZero(program, numerators[top + 1]));
+
+                    if (operator == OperatorTable.REMAINDER) {
+                        add(numerators, denominators, top, x.divide(y).multiply(numerators[top + 1]).negate(),
+                            denominators[top + 1]);
+                    } else {
+                        BigInteger[] quotient = x.divideAndRemainder(y);
+                        numerators[top] = quotient[1].signum() != 0 && quotient[1].signum() != y.signum() ?
+                                quotient[0].subtract(BigInteger.ONE) : quotient[0];
+                        denominators[top] = BigInteger.ONE;
+                    }
+                    break;
+
+                case UNARY:
+                    if (operators[code[++pc]] != OperatorTable.FACTORIAL ||
+                            !denominators[top].equals(BigInteger.ONE) || numerators[top].signum() < 0 ||
+                            numerators[top].compareTo(BigInteger.valueOf(MAX_FACTORIAL)) > 0) {
+                        return null;
+                    }
+                    BigInteger factorial = BigInteger.ONE;
+                    for (int i = 2; i <= numerators[top].intValue(); i++) {
+                        factorial = factorial.multiply(BigInteger.valueOf(i));
+                    }
+                    numerators[top] = factorial;
+                    break;
+
+                case LOAD:
+                    int source = top - code[++pc];
+                    if (source < 0) {
+                        return null;
+                    }
+                    top++;
+                    numerators[top] = numerators[source];
+                    denominators[top] = denominators[source];
+                    break;
+
+                case SLIDE:
+                    numerators[top - code[pc + 1]] = numerators[top];
+                    denominators[top - code[pc + 1]] = denominators[top];
+                    top -= code[++pc];
+                    break;
+
+                case JUMP:
+                    pc = code[pc + 1] - 1;
+                    break;
+
+                case JUMP_IF_ZERO:
+                    pc = numerators[top--].signum() == 0 ? code[pc + 1] - 1 : pc + 1;
+                    break;
+
+                case CHOOSE:
+                    int[] table = program.getTable(code[pc + 1]);
+                    int branch = DomainFunctions.select(
+                            new BigDecimal(numerators[top]).divide(new BigDecimal(denominators[top]),
+                                                                   MathContext.DECIMAL64).doubleValue(),
+                            table.length - 1);
+                    top--;
+                    if (branch < 0) {
+                        return null;
+                    }
+                    pc = table[branch] - 1;
+                    break;
+
+                default:
+                    return null;
+            }
+
+            if (top >= 0 && (numerators[top].bitLength() > MAX_BITS || denominators[top].bitLength() > MAX_BITS)) {
+                return null;
+            }
+        }
+
+        return new Fraction(numerators[top], denominators[top]);
+    }
+
+    /**
+     * Pushes a constant, a number of the expression is taken by its text
+     *
+     * @param program      The program
+     * @param index        The index in the constants pool
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot
+     * @return false if a computed constant is not an exact integer
+     * @throws ArithmeticException If the number does not fit {@code long}
+     */
+    private static boolean constant(final CompiledExpression program, final int index, final long[] numerators,
+                                    final long[] denominators, final int slot) throws ArithmeticException {
+
+        String literal = program.getLiteral(index);
+
+        if (literal == null) {
+            double value = program.getConstant(index);
+            if (value != Math.rint(value) || Math.abs(value) > MAX_EXACT_DOUBLE) {
+                return false;
+            }
+            numerators[slot] = (long) value;
+            denominators[slot] = 1;
+            return true;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        int i = 0;
+
+        for (; i < literal.length() && literal.charAt(i) != 'e' && literal.charAt(i) != 'E'; i++) {
+            char c = literal.charAt(i);
+
+            if (c == '.') {
+                fraction = true;
+            } else {
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction) {
+                    scale++;
+                }
+            }
+        }
+
+        if (digits > MAX_LONG_DIGITS) {
+            throw new ArithmeticException();
+        }
+
+        if (i < literal.length()) {
+            int exponent = Integer.parseInt(literal.substring(literal.charAt(i + 1) == '+' ? i + 2 : i + 1));
+            if (Math.abs(exponent) > MAX_LONG_DIGITS) {
+                throw new ArithmeticException();
+            }
+            scale -= exponent;
+        }
+
+        long power = 1;
+        for (int k = 0; k < Math.abs(scale); k++) {
+            power = Math.multiplyExact(power, 10);
+        }
+
+        numerators[slot] = scale < 0 ? Math.multiplyExact(mantissa, power) : mantissa;
+        denominators[slot] = scale < 0 ? 1 : power;
+        normalize(numerators, denominators, slot);
+
+        return true;
+    }
+
+    /**
+     * Pushes a constant, a number of the expression is taken by its text
+     *
+     * @param program      The program
+     * @param index        The index in the constants pool
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot
+     * @return false if a computed constant is not an exact integer
+     */
+    private static boolean constant(final CompiledExpression program, final int index,
+                                    final BigInteger[] numerators, final BigInteger[] denominators,
+                                    final int slot) {
+
+        String literal = program.getLiteral(index);
+
+        if (literal == null) {
+            double value = program.getConstant(index);
+            if (value != Math.rint(value) || Math.abs(value) > MAX_EXACT_DOUBLE) {
+                return false;
+            }
+            numerators[slot] = BigInteger.valueOf((long) value);
+            denominators[slot] = BigInteger.ONE;
+            return true;
+        }
+
+        BigDecimal value = new BigDecimal(literal);
+        if (Math.abs(value.scale()) > MAX_BITS) {
+            return false;
+        }
+
+        BigInteger power = BigInteger.TEN.pow(Math.abs(value.scale()));
+        numerators[slot] = value.scale() < 0 ? value.unscaledValue().multiply(power) : value.unscaledValue();
+        denominators[slot] = value.scale() < 0 ? BigInteger.ONE : power;
+
+        BigInteger divisor = numerators[slot].gcd(denominators[slot]);
+        numerators[slot] = numerators[slot].divide(divisor);
+        denominators[slot] = denominators[slot].divide(divisor);
+
+        return true;
+    }
+
+    /**
+     * Adds a fraction to the slot, {@code a/b + c/d = (a*(d/g) + c*(b/g)) /
+     * (b/g*d)} where g is the greatest common divisor of the denominators,
+     * then only g can have a common factor with the numerator
+     *
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot of the first addend, the denominator of
+     *                     the second one is above it
+     * @param c            The numerator of the second addend
+     * @throws ArithmeticException If a value overflows
+     */
+    private static void add(final long[] numerators, final long[] denominators, final int slot, final long c)
+            throws ArithmeticException {
+
+        add(numerators, denominators, slot, c, denominators[slot + 1]);
+    }
+
+    /**
+     * Adds a fraction to the slot
+     *
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot of the first addend
+     * @param c            The numerator of the second addend
+     * @param d            The denominator of the second addend
+     * @throws ArithmeticException If a value overflows
+     */
+    private static void add(final long[] numerators, final long[] denominators, final int slot, final long c,
+                            final long d) throws ArithmeticException {
+
+        long a = numerators[slot];
+        long b = denominators[slot];
+        long g = gcd(b, d);
+
+        if (g == 1) {
+            numerators[slot] = Math.addExact(Math.multiplyExact(a, d), Math.multiplyExact(c, b));
+            denominators[slot] = Math.multiplyExact(b, d);
+
+        } else {
+            long t = Math.addExact(Math.multiplyExact(a, d / g), Math.multiplyExact(c, b / g));
+            long h = gcd(t, g);
+            numerators[slot] = t / h;
+            denominators[slot] = Math.multiplyExact(b / g, d / h);
+        }
+
+        if (numerators[slot] == 0) {
+            denominators[slot] = 1;
+        }
+    }
+
+    /**
+     * Multiplies the slot by a fraction, {@code a/b * c/d} where a and d,
+     * c and b are divided by their common divisors first
+     *
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot of the first factor
+     * @param c            The numerator of the second factor
+     * @param d            The denominator of the second factor, positive
+     * @throws ArithmeticException If a value overflows
+     */
+    private static void multiply(final long[] numerators, final long[] denominators, final int slot, final long c,
+                                 final long d) throws ArithmeticException {
+
+        long a = numerators[slot];
+        long b = denominators[slot];
+        long g1 = gcd(a, d);
+        long g2 = gcd(c, b);
+
+        numerators[slot] = Math.multiplyExact(a / g1, c / g2);
+        denominators[slot] = numerators[slot] == 0 ? 1 : Math.multiplyExact(b / g2, d / g1);
+    }
+
+    /**
+     * Raises the slot to an integer power which takes the sign of the base
+     *
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot of the base
+     * @param exponent     The exponent
+     * @return false if the base is zero and the exponent is negative
+     * @throws ArithmeticException If a value overflows
+     */
+    private static boolean power(final long[] numerators, final long[] denominators, final int slot,
+                                 final long exponent) throws ArithmeticException {
+
+        long a = numerators[slot];
+
+        if (a == 0 && exponent < 0) {
+            return false;
+        }
+
+        long numerator = power(a, Math.abs(exponent));
+        long denominator = power(denominators[slot], Math.abs(exponent));
+
+        if (a < 0) {
+            numerator = Math.negateExact(numerator);
+        }
+
+        if (exponent < 0) {
+            numerators[slot] = numerator < 0 ? -denominator : denominator;
+            denominators[slot] = numerator < 0 ? Math.negateExact(numerator) : numerator;
+        } else {
+            numerators[slot] = numerator;
+            denominators[slot] = denominator;
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes an integer power by squaring
+     *
+     * @param base     The base
+     * @param exponent The exponent, not negative
+     * @return The power
+     * @throws ArithmeticException If the power overflows
+     */
+    private static long power(final long base, final long exponent) throws ArithmeticException {
+        long result = 1;
+        long square = base;
+
+        for (long e = exponent; e > 0; e >>= 1) {
+            if ((e & 1) != 0) {
+                result = Math.multiplyExact(result, square);
+            }
+            if (e > 1) {
+                square = Math.multiplyExact(square, square);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the factorial
+     *
+     * @param value The operand, not negative
+     * @return The factorial
+     * @throws ArithmeticException If the factorial overflows
+     */
+    private static long factorial(final long value) throws ArithmeticException {
+        if (value > MAX_LONG_FACTORIAL) {
+            throw new ArithmeticException();
+        }
+
+        long result = 1;
+        for (long i = 2; i <= value; i++) {
+            result *= i;
+        }
+
+        return result;
+    }
+
+    /**
+     * Divides a fraction by the greatest common divisor of its numerator
+     * and denominator
+     *
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot
+     * @throws ArithmeticException If the divisor does not fit {@code long}
+     */
+    private static void normalize(final long[] numerators, final long[] denominators, final int slot)
+            throws ArithmeticException {
+
+        long g = gcd(numerators[slot], denominators[slot]);
+        numerators[slot] /= g;
+        denominators[slot] /= g;
+    }
+
+    /**
+     * Finds the greatest common divisor by the Euclid's algorithm
+     *
+     * @param x The first value
+     * @param y The second value
+     * @return The positive divisor, the other value if one of them is zero
+     * @throws ArithmeticException If the divisor is 2^63
+     */
+    private static long gcd(final long x, final long y) throws ArithmeticException {
+        long a = x;
+        long b = y;
+
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+
+        if (a == Long.MIN_VALUE) {
+            throw new ArithmeticException();
+        }
+
+        return a == 0 ? 1 : Math.abs(a);
+    }
+
+    /**
+     * Adds a fraction to the slot
+     *
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot of the first addend
+     * @param c            The numerator of the second addend
+     * @param d            The denominator of the second addend
+     */
+    private static void add(final BigInteger[] numerators, final BigInteger[] denominators, final int slot,
+                            final BigInteger c, final BigInteger d) {
+
+        BigInteger a = numerators[slot];
+        BigInteger b = denominators[slot];
+        BigInteger g = b.gcd(d);
+        BigInteger t = a.multiply(d.divide(g)).add(c.multiply(b.divide(g)));
+        BigInteger h = t.gcd(g);
+
+        numerators[slot] = t.divide(h);
+        denominators[slot] = t.signum() == 0 ? BigInteger.ONE : b.divide(g).multiply(d.divide(h));
+    }
+
+    /**
+     * Multiplies the slot by a fraction
+     *
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot of the first factor
+     * @param c            The numerator of the second factor
+     * @param d            The denominator of the second factor, positive
+     */
+    private static void multiply(final BigInteger[] numerators, final BigInteger[] denominators, final int slot,
+                                 final BigInteger c, final BigInteger d) {
+
+        BigInteger a = numerators[slot];
+        BigInteger b = denominators[slot];
+        BigInteger g1 = a.gcd(d);
+        BigInteger g2 = c.gcd(b);
+
+        if (a.signum() == 0 || c.signum() == 0) {
+            numerators[slot] = BigInteger.ZERO;
+            denominators[slot] = BigInteger.ONE;
+        } else {
+            numerators[slot] = a.divide(g1).multiply(c.divide(g2));
+            denominators[slot] = b.divide(g2).multiply(d.divide(g1));
+        }
+    }
+
+    /**
+     * Raises the slot to an integer power which takes the sign of the base
+     *
+     * @param numerators   The numerators of the stack
+     * @param denominators The denominators of the stack
+     * @param slot         The slot of the base
+     * @param exponent     The exponent
+     * @return false if the base is zero and the exponent is negative, or
+     * the power is too big
+     */
+    private static boolean power(final BigInteger[] numerators, final BigInteger[] denominators, final int slot,
+                                 final BigInteger exponent) {
+
+        BigInteger a = numerators[slot];
+        BigInteger b = denominators[slot];
+        int bits = Math.max(a.abs().bitLength(), b.bitLength()) - 1;
+        BigInteger numerator;
+        BigInteger denominator;
+
+        if (a.signum() == 0 && exponent.signum() < 0) {
+            return false;
+
+        } else if (bits == 0) {
+            // the base is either 0, 1 or -1
+            numerator = exponent.signum() == 0 ? BigInteger.ONE : exponent.testBit(0) ? a : a.abs();
+            denominator = BigInteger.ONE;
+
+        } else if (exponent.bitLength() >= Integer.SIZE - 1 ||
+                (long) bits * exponent.abs().longValue() > MAX_BITS) {
+            return false;
+
+        } else {
+            int e = exponent.abs().intValue();
+            numerator = a.pow(e);
+            denominator = b.pow(e);
+        }
+
+        if (a.signum() < 0) {
+            numerator = numerator.negate();
+        }
+
+        if (exponent.signum() < 0) {
+            numerators[slot] = numerator.signum() < 0 ? denominator.negate() : denominator;
+            denominators[slot] = numerator.abs();
+        } else {
+            numerators[slot] = numerator;
+            denominators[slot] = denominator;
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the divisor is zero
+     *
+     * @param program The program
+     * @param value   The divisor
+     * @return The divisor
+     * @throws InvalidInputExpressionException If the divisor is zero
+     */
+    private static long checkZero(final CompiledExpression program, final long value)
+            throws InvalidInputExpressionException {
+
+        if (value == 0) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, program.getExpression(), 0);
+        }
+
+        return value;
+    }
+
+    /**
+     * Checks whether the divisor is zero
+     *
+     * @param program The program
+     * @param value   The divisor
+     * @return The divisor
+     * @throws InvalidInputExpressionException If the divisor is zero
+     */
+    private static BigInteger checkZero(final CompiledExpression program, final BigInteger value)
+            throws InvalidInputExpressionException {
+
+        if (value.signum() == 0) {
+            throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, program.getExpression(), 0);
+        }
+
+        return value;
+    }
+}
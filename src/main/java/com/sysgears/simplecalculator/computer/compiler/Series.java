@@ -0,0 +1,246 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.registry.MathFunction;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Computes a series which {@link ExpressionCompiler} compiles from {@code
+ * series(k, from, to, body)}, the sum of the body for k = from, from + 1,
+ * ... up to {@code to}, or from {@code product(k, from, to, body)}, the
+ * product of the body. The bounds and the body are compiled once, the body
+ * is then evaluated in a counted loop on one stack which only the variable
+ * changes, so a term does not allocate. A long series is split into chunks
+ * which are computed in parallel, so the order of the operations and thus
+ * the last bits of the result can differ from the ones of the sequential
+ * loop.
+ * <p>
+ *     The series is called like a function which arguments are the
+ *     parameters of the enclosing {@code Definition}, if there is one: the
+ *     bounds and the body read them from the bottom of their stacks, the
+ *     body reads the variable right above them. An empty series is 0, an
+ *     empty product is 1, a bound which is not finite gives NaN.
+ * </p>
+ */
+final class Series implements MathFunction {
+    /**
+     * The name of the sum series
+     */
+    static final String SUM = "series";
+
+    /**
+     * The name of the product series
+     */
+    static final String PRODUCT = "product";
+
+    /**
+     * The number of terms from which a series is computed in parallel
+     */
+    static final long PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * The number of terms which one parallel task computes
+     */
+    private static final long CHUNK_SIZE = 1 << 12;
+
+    /**
+     * true for the product series, false for the sum one
+     */
+    private final boolean product;
+
+    /**
+     * The lower bound
+     */
+    private final CompiledExpression from;
+
+    /**
+     * The upper bound
+     */
+    private final CompiledExpression to;
+
+    /**
+     * The body which reads the variable above the parameters
+     */
+    private final CompiledExpression body;
+
+    /**
+     * The number of parameters of the enclosing definition
+     */
+    private final int parameters;
+
+    /**
+     * Constructs an object
+     *
+     * @param product    true for the product series, false for the sum one
+     * @param from       The lower bound
+     * @param to         The upper bound
+     * @param body       The body which reads the variable above the
+     *                   parameters
+     * @param parameters The number of parameters of the enclosing definition
+     */
+    Series(final boolean product, final CompiledExpression from, final CompiledExpression to,
+           final CompiledExpression body, final int parameters) {
+        this.product = product;
+        this.from = from;
+        this.to = to;
+        this.body = body;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Checks whether the name is the name of a series
+     *
+     * @param name The name
+     * @return true if it is either {@code series} or {@code product}
+     */
+    static boolean isSeries(final String name) {
+        return SUM.equals(name) || PRODUCT.equals(name);
+    }
+
+    @Override
+    public String getName() {
+        return product ? PRODUCT : SUM;
+    }
+
+    @Override
+    public int getArity() {
+        return parameters;
+    }
+
+    @Override
+    public boolean isPure() {
+        return from.isPure() && to.isPure() && body.isPure();
+    }
+
+    /**
+     * Computes the series
+     *
+     * @param arguments The parameters of the enclosing definition
+     * @return The sum or the product of the terms
+     * @throws InvalidInputExpressionException If a bound or a term cannot be
+     *                                         computed
+     */
+    @Override
+    public double apply(final double[] arguments) throws InvalidInputExpressionException {
+        double first = from.evaluate(arguments);
+        double last = to.evaluate(arguments);
+
+        long terms = count(first, last);
+
+        if (terms < 0) {
+            return Double.NaN;
+        }
+
+        if (terms < PARALLEL_THRESHOLD) {
+            return compute(arguments, first, 0, terms);
+        }
+
+        long chunks = (terms + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        LongStream partial = LongStream.range(0, chunks).parallel();
+
+        return product ?
+                partial.mapToDouble(chunk -> compute(arguments, first, chunk * CHUNK_SIZE,
+                                                     Math.min(terms, (chunk + 1) * CHUNK_SIZE))).
+                        reduce(1, (v1, v2) -> v1 * v2) :
+                partial.mapToDouble(chunk -> compute(arguments, first, chunk * CHUNK_SIZE,
+                                                     Math.min(terms, (chunk + 1) * CHUNK_SIZE))).
+                        reduce(0, (v1, v2) -> v1 + v2);
+    }
+
+    /**
+     * Computes a partial derivative by a parameter of the enclosing
+     * definition: the sum of the derivatives of the terms, or the
+     * derivative of the product by the product rule. The bounds are step
+     * functions of the parameters, so they do not add to the derivative.
+     * The terms are computed one after another on dual numbers.
+     *
+     * @param arguments The parameters of the enclosing definition
+     * @param value     The value of the series
+     * @param index     The index of the parameter
+     * @return The partial derivative
+     * @throws InvalidInputExpressionException If a bound or a term cannot be
+     *                                         computed
+     */
+    @Override
+    public double derivative(final double[] arguments, final double value, final int index)
+            throws InvalidInputExpressionException {
+
+        double first = from.evaluate(arguments);
+        double last = to.evaluate(arguments);
+
+        long terms = count(first, last);
+
+        if (terms < 0) {
+            return Double.NaN;
+        }
+        double[] point = Arrays.copyOf(arguments, parameters + 1);
+        double result = product ? 1 : 0;
+        double tangent = 0;
+
+        for (long term = 0; term < terms; term++) {
+            point[parameters] = first + term;
+            double[] gradient = body.gradient(point);
+
+            if (product) {
+                tangent = tangent * gradient[0] + result * gradient[index + 1];
+                result *= gradient[0];
+            } else {
+                tangent += gradient[index + 1];
+            }
+        }
+
+        return tangent;
+    }
+
+    /**
+     * Computes a range of the terms in a counted loop
+     *
+     * @param arguments The parameters of the enclosing definition
+     * @param first     The value of the variable at the term 0
+     * @param start     The first term of the range
+     * @param end       The end of the range, exclusive
+     * @return The sum or the product of the terms of the range
+     * @throws InvalidInputExpressionException If a term cannot be computed
+     */
+    private double compute(final double[] arguments, final double first, final long start, final long end)
+            throws InvalidInputExpressionException {
+
+        double[] stack = new double[Math.max(body.getStackSize(), parameters + 1)];
+        System.arraycopy(arguments, 0, stack, 0, parameters);
+        double result = product ? 1 : 0;
+
+        for (long term = start; term < end; term++) {
+            stack[parameters] = first + term;
+
+            if (product) {
+                result *= body.evaluate(stack, parameters + 1);
+            } else {
+                result += body.evaluate(stack, parameters + 1);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Counts the terms between the bounds
+     *
+     * @param first The lower bound
+     * @param last  The upper bound
+     * @return The number of terms, -1 if a bound is not finite
+     */
+    private static long count(final double first, final double last) {
+        if (Double.isNaN(first) || Double.isNaN(last) || Double.isInfinite(first) || Double.isInfinite(last)) {
+            return -1;
+        }
+
+        return last < first ? 0 : (long) Math.floor(last - first) + 1;
+    }
+
+    @Override
+    public String toString() {
+        return getName() + "/" + parameters;
+    }
+}
@@ -0,0 +1,501 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.operators.Operators;
+import com.sysgears.simplecalculator.monitoring.ComputationEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * Calculates a received math expression without recursion. The whitespace
+ * between the parts of an expression is skipped, but it cannot split a
+ * number or a name. The ideas lie behind the algorithm are next:
+ * <p>
+ *     <ul>
+ *         <li>compile the expression into a postfix program by
+ *         {@link ExpressionCompiler}</li>
+ *         <li>evaluate the program on an explicit stack by
+ *         {@link CompiledExpression}</li>
+ *     </ul>
+ * </p>
+ * It supports the same operators as {@code function2.FunctionComputer}
+ * and the same functions, i.e. the ones of {@code FunctionRegistry}.
+ * Unlike the other computers it handles any nesting depth.
+ */
+public class StackComputer implements Computer {
+    /**
+     * The number of samples from which a sweep is computed in parallel
+     */
+    static final int SWEEP_PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * The number of samples which one parallel task of a sweep computes
+     */
+    private static final int SWEEP_CHUNK_SIZE = 1 << 11;
+
+    /**
+     * The greatest finite value of {@code double}
+     */
+    private static final BigDecimal MAX_DOUBLE = new BigDecimal(Double.MAX_VALUE);
+
+    /**
+     * The expression compiler
+     */
+    private final ExpressionCompiler compiler;
+
+    /**
+     * The functions which are defined during the session
+     */
+    private final Definitions definitions;
+
+    /**
+     * The number of significant digits of a result, null if a result is
+     * computed in {@code double}
+     */
+    private final MathContext precision;
+
+    /**
+     * Whether a result is computed exactly on fractions when it is possible
+     */
+    private final boolean fractions;
+
+    /**
+     * Constructs an object which recognizes the operators of the default
+     * {@code OperatorTable}
+     */
+    public StackComputer() {
+        this(OperatorTable.getDefault());
+    }
+
+    /**
+     * Constructs an object
+     *
+     * @param table The operators which are recognized
+     */
+    public StackComputer(final OperatorTable table) {
+        this(new Definitions(table));
+    }
+
+    /**
+     * Constructs an object which shares the functions defined by a user
+     *
+     * @param definitions The functions which are defined by a user
+     */
+    public StackComputer(final Definitions definitions) {
+        this(definitions, null);
+    }
+
+    /**
+     * Constructs an object which computes the results with the specified
+     * number of significant digits, see {@link
+     * CompiledExpression#evaluateDecimal}
+     *
+     * @param precision The number of digits and the rounding mode
+     * @throws IllegalArgumentException If the precision is unlimited
+     */
+    public StackComputer(final MathContext precision) throws IllegalArgumentException {
+        this(new Definitions(OperatorTable.getDefault()), precision);
+    }
+
+    /**
+     * Constructs an object which shares the functions defined by a user
+     * and computes the results with the specified number of significant
+     * digits
+     *
+     * @param definitions The functions which are defined by a user
+     * @param precision   The number of digits and the rounding mode, null
+     *                    to compute the results in {@code double}
+     * @throws IllegalArgumentException If the precision is unlimited
+     */
+    public StackComputer(final Definitions definitions, final MathContext precision)
+            throws IllegalArgumentException {
+
+        this(definitions, precision, false);
+    }
+
+    /**
+     * Constructs an object which shares the functions defined by a user,
+     * computes the results with the specified number of significant digits
+     * and, if it is asked, exactly on fractions, see {@link
+     * CompiledExpression#evaluateFraction}. I.e. 1/3+1/6 is 1/2 and 0.1+0.2
+     * is 3/10.
+     *
+     * @param definitions The functions which are defined by a user
+     * @param precision   The number of digits and the rounding mode, null
+     *                    to compute the results in {@code double}
+     * @param fractions   Whether an expression without functions is
+     *                    computed on fractions
+     * @throws IllegalArgumentException If the precision is unlimited
+     */
+    public StackComputer(final Definitions definitions, final MathContext precision, final boolean fractions)
+            throws IllegalArgumentException {
+
+        if (precision != null && precision.getPrecision() == 0) {
+            throw new IllegalArgumentException("Precision must be limited");
+        }
+
+        this.definitions = definitions;
+        this.compiler = new ExpressionCompiler(definitions);
+        this.precision = precision;
+        this.fractions = fractions;
+    }
+
+    /**
+     * Computes the expression and records a {@link ComputationEvent}
+     *
+     * @param expression The string contains a math expression. Can be empty
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format, or it is null
+     */
+    @Override
+    public String compute(final String expression) throws InvalidInputExpressionException {
+        return ComputationEvent.compute(this, this::computeExpression, expression);
+    }
+
+    /**
+     * Computes the expression straight from the range of characters and
+     * records a {@link ComputationEvent}. The whitespace between the
+     * symbols is skipped while the expression is compiled, so the range is
+     * not copied. Like the default of {@code Computer} a whitespace cannot
+     * split a number or a name.
+     *
+     * @param expression The characters contain a math expression
+     * @param start      The index of the first character of the expression
+     * @param end        The index after the last character of the
+     *                   expression
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the range has an invalid
+     *                                         format, or it is null
+     * @throws IndexOutOfBoundsException       If the range is out of the
+     *                                         characters
+     */
+    @Override
+    public String compute(final CharSequence expression, final int start, final int end)
+            throws InvalidInputExpressionException, IndexOutOfBoundsException {
+
+        CharSequence range = expression == null || start == 0 && end == expression.length() ? expression :
+                CharBuffer.wrap(expression, start, end);
+
+        return ComputationEvent.compute(this, this::computeExpression, range);
+    }
+
+    /**
+     * Defines a function which is compiled once and is inlined into the
+     * next expressions
+     *
+     * @param definition The string contains a function definition
+     * @return The string contains the defined function
+     * @throws InvalidInputExpressionException If the definition is invalid,
+     *                                         or the name is already defined
+     */
+    @Override
+    public String define(final String definition) throws InvalidInputExpressionException {
+        return definitions.define(definition).toString();
+    }
+
+    /**
+     * Checks whether a function is defined by {@code define()}
+     *
+     * @param name      The function name
+     * @param arguments The number of arguments, -1 if it can be any
+     * @return true if the function is defined
+     */
+    @Override
+    public boolean isDefined(final String name, final int arguments) {
+        return arguments < 0 ? definitions.find(name) != null : definitions.find(name, arguments) != null;
+    }
+
+    /**
+     * Returns the operators which the expressions can contain
+     *
+     * @return The operators
+     */
+    public OperatorTable getOperators() {
+        return definitions.getTable();
+    }
+
+    /**
+     * Computes the expression for evenly spaced values of the variable,
+     * i.e. {@code sweep("x^2", "x", 0, 1, 5)} gives the values at 0, 0.25,
+     * 0.5, 0.75 and 1. The expression is compiled once, the samples are
+     * computed in parallel when there are many of them.
+     *
+     * @param expression The string contains a math expression which uses
+     *                   the variable
+     * @param variable   The name of the variable
+     * @param start      The first value of the variable
+     * @param end        The last value of the variable
+     * @param steps      The number of samples
+     * @return The samples, a sample which cannot be computed, i.e. a
+     * division by zero, is NaN
+     * @throws InvalidInputExpressionException If the expression or the
+     *                                         variable name is invalid
+     */
+    public double[] sweep(final String expression, final String variable, final double start, final double end,
+                          final int steps) throws InvalidInputExpressionException {
+
+        double[] samples = new double[Math.max(steps, 0)];
+        sweep(expression, variable, start, end, steps, DoubleBuffer.wrap(samples));
+
+        return samples;
+    }
+
+    /**
+     * Computes the expression for evenly spaced values of the variable into
+     * the buffer from its position, which is then moved after the samples.
+     * A direct buffer keeps the samples off the heap.
+     *
+     * @param expression The string contains a math expression which uses
+     *                   the variable
+     * @param variable   The name of the variable
+     * @param start      The first value of the variable
+     * @param end        The last value of the variable
+     * @param steps      The number of samples
+     * @param target     The buffer for the samples
+     * @throws InvalidInputExpressionException If the expression or the
+     *                                         variable name is invalid
+     * @throws BufferOverflowException         If the buffer does not have
+     *                                         room for the samples
+     */
+    public void sweep(final String expression, final String variable, final double start, final double end,
+                      final int steps, final DoubleBuffer target) throws InvalidInputExpressionException {
+
+        if (steps < 0) {
+            throw new IllegalArgumentException("Steps must not be negative");
+
+        } else if (target.remaining() < steps) {
+            throw new BufferOverflowException();
+        }
+
+        CompiledExpression program = compile(expression, variable);
+        double step = steps > 1 ? (end - start) / (steps - 1) : 0;
+        int offset = target.position();
+
+        if (steps < SWEEP_PARALLEL_THRESHOLD) {
+            sweep(program, start, step, 0, steps, target, offset);
+
+        } else {
+            IntStream.range(0, (steps + SWEEP_CHUNK_SIZE - 1) / SWEEP_CHUNK_SIZE).parallel().forEach(
+                    chunk -> sweep(program, start, step, chunk * SWEEP_CHUNK_SIZE,
+                                   Math.min(steps, (chunk + 1) * SWEEP_CHUNK_SIZE), target, offset));
+        }
+        target.position(offset + steps);
+    }
+
+    /**
+     * Finds a root of the expression between the bounds by the Brent's
+     * method, i.e. {@code solve("x^2-2", "x", 0, 2)} gives the square root
+     * of 2. The expression is compiled once.
+     *
+     * @param expression The string contains a math expression which uses
+     *                   the variable
+     * @param variable   The name of the variable
+     * @param lo         The lower bound
+     * @param hi         The upper bound, the expression must have the
+     *                   opposite sign at the bounds
+     * @return The root
+     * @throws InvalidInputExpressionException If the expression or the
+     *                                         variable name is invalid, or
+     *                                         the expression does not change
+     *                                         its sign between the bounds
+     */
+    public double solve(final String expression, final String variable, final double lo, final double hi)
+            throws InvalidInputExpressionException {
+
+        return new NumericMethods(compile(expression, variable)).solve(lo, hi);
+    }
+
+    /**
+     * Computes the integral of the expression between the bounds by the
+     * adaptive Gauss-Kronrod rule, i.e. {@code integrate("sin(x)", "x", 0,
+     * 3.141592653589793)} gives 2. The expression is compiled once.
+     *
+     * @param expression The string contains a math expression which uses
+     *                   the variable
+     * @param variable   The name of the variable
+     * @param a          The lower bound
+     * @param b          The upper bound
+     * @return The integral
+     * @throws IllegalArgumentException        If a bound is not finite
+     * @throws InvalidInputExpressionException If the expression or the
+     *                                         variable name is invalid, or
+     *                                         the integral does not converge
+     */
+    public double integrate(final String expression, final String variable, final double a, final double b)
+            throws IllegalArgumentException, InvalidInputExpressionException {
+
+        if (Double.isNaN(a) || Double.isNaN(b) || Double.isInfinite(a) || Double.isInfinite(b)) {
+            throw new IllegalArgumentException("Bounds must be finite");
+        }
+
+        return new NumericMethods(compile(expression, variable)).integrate(a, b);
+    }
+
+    /**
+     * Compiles an expression of one variable
+     *
+     * @param expression The string contains a math expression which uses
+     *                   the variable
+     * @param variable   The name of the variable
+     * @return The compiled expression which reads the variable as its
+     * parameter
+     * @throws InvalidInputExpressionException If the expression or the
+     *                                         variable name is invalid
+     */
+    private CompiledExpression compile(final String expression, final String variable)
+            throws InvalidInputExpressionException {
+
+        if (expression == null) {
+            throw new InvalidInputExpressionException(ErrorCode.NULL_EXPRESSION, null, -1);
+
+        } else if (variable == null || !variable.matches("[a-zA-Z][a-zA-Z0-9]*")) {
+            throw new InvalidInputExpressionException(ErrorCode.WRONG_VARIABLE, variable, 0);
+        }
+
+        return ExpressionCompiler.compileBody(expression, definitions, new String[]{variable});
+    }
+
+    /**
+     * Computes a range of the samples of a sweep on one stack which only
+     * the variable changes. The samples are put by their absolute indexes,
+     * so several ranges are computed into the same buffer at once.
+     *
+     * @param program The compiled expression which reads the variable as
+     *                its parameter
+     * @param start   The first value of the variable
+     * @param step    The distance between the values of the variable
+     * @param from    The first sample of the range
+     * @param to      The end of the range, exclusive
+     * @param target  The buffer for the samples
+     * @param offset  The index of the sample 0 in the buffer
+     */
+    private static void sweep(final CompiledExpression program, final double start, final double step,
+                              final int from, final int to, final DoubleBuffer target, final int offset) {
+        double[] stack = new double[Math.max(program.getStackSize(), 1)];
+
+        for (int i = from; i < to; i++) {
+            stack[0] = start + i * step;
+
+            double value;
+            try {
+                value = program.evaluate(stack, 1);
+
+            } catch (InvalidInputExpressionException e) {
+                value = Double.NaN;
+            }
+            target.put(offset + i, value);
+        }
+    }
+
+    /**
+     * Validates an incoming string. Computes the expression, an expression
+     * of integers exactly, an expression of fractions exactly if it is asked
+     * and another one with the precision if it is set.
+     *
+     * @param expression The characters contain a math expression. Can be
+     *                   empty or have only whitespace
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format, or it is null
+     */
+    private String computeExpression(final CharSequence expression) throws InvalidInputExpressionException {
+        if (expression == null) {
+            throw new InvalidInputExpressionException(ErrorCode.NULL_EXPRESSION, null, -1);
+
+        } else if (isBlank(expression)) {
+            return "";
+        }
+
+        CompiledExpression program = compiler.compile(expression);
+        BigInteger exact = program.evaluateExact();
+
+        if (exact != null) {
+            return exact.toString();
+        }
+
+        Fraction fraction = fractions ? program.evaluateFraction() : null;
+
+        if (fraction != null) {
+            return fraction.toString();
+        }
+
+        BigDecimal decimal = precision != null ? program.evaluateDecimal(precision) : null;
+
+        if (decimal != null) {
+            // only the result must be in the range of double, like it is without the precision
+            if (decimal.abs().compareTo(MAX_DOUBLE) > 0) {
+                throw new InvalidInputExpressionException(ErrorCode.INFINITY, expression.toString(), 0);
+            }
+            return decimal.stripTrailingZeros().toPlainString();
+        }
+
+        return Operators.convertFromENotation(check(expression, program.evaluate()));
+    }
+
+    /**
+     * Computes the expression without throwing an exception on invalid
+     * input. Unlike {@code compute()} the expression cannot be empty.
+     *
+     * @param expression The string contains a math expression
+     * @return The value or the reason why the expression cannot be computed
+     */
+    public ComputationResult evaluate(final String expression) {
+        try {
+            if (expression == null) {
+                throw new InvalidInputExpressionException(ErrorCode.NULL_EXPRESSION, null, -1);
+            }
+
+            return ComputationResult.valid(check(expression, compiler.compile(expression).evaluate()));
+
+        } catch (InvalidInputExpressionException e) {
+            return ComputationResult.invalid(e);
+        }
+    }
+
+    /**
+     * Checks whether the result is a finite number
+     *
+     * @param expression The expression
+     * @param result     The result of the expression
+     * @return The result
+     * @throws InvalidInputExpressionException If the result is either NaN
+     *                                         or infinite
+     */
+    private static double check(final CharSequence expression, final double result)
+            throws InvalidInputExpressionException {
+
+        if (Double.isNaN(result)) {
+            throw new InvalidInputExpressionException(ErrorCode.NOT_A_NUMBER, expression.toString(), 0);
+
+        } else if (Double.isInfinite(result)) {
+            throw new InvalidInputExpressionException(ErrorCode.INFINITY, expression.toString(), 0);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the expression is empty or has only whitespace
+     *
+     * @param expression The expression
+     * @return true if there is no symbol to compute
+     */
+    private static boolean isBlank(final CharSequence expression) {
+        for (int i = 0; i < expression.length(); i++) {
+            if (!Character.isWhitespace(expression.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
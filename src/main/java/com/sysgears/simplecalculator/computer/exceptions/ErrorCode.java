@@ -0,0 +1,159 @@
+package com.sysgears.simplecalculator.computer.exceptions;
+
+/**
+ * Contains the reasons why an expression cannot be computed. Every code
+ * keeps the message template which is filled by the wrong part of the
+ * expression only when the message is read.
+ */
+public enum ErrorCode {
+    /**
+     * The expression is null
+     */
+    NULL_EXPRESSION("Incoming string cannot be null"),
+
+    /**
+     * There are two signs in a row
+     */
+    TWO_SIGNS("Incoming string cannot contain either '++' or '--'"),
+
+    /**
+     * An operand is missing
+     */
+    MISSING_OPERAND("Input data is invalid cause this part '%s' misses an operand."),
+
+    /**
+     * A symbol is not allowed in the place
+     */
+    UNEXPECTED_SYMBOL("Input data is invalid cause this part '%s' contains an unexpected symbol."),
+
+    /**
+     * A number cannot be parsed
+     */
+    WRONG_NUMBER("Input data is invalid cause this part '%s' contains a wrong number."),
+
+    /**
+     * A parenthesis is not closed
+     */
+    NOT_CLOSED("Input data is invalid cause this part '%s' does not have the closing symbol: ')'."),
+
+    /**
+     * A parenthesis is not opened
+     */
+    NOT_OPENED("Input data is invalid cause this part '%s' does not have the opening symbol: '('."),
+
+    /**
+     * A name is not followed by the arguments
+     */
+    NOT_FUNCTION_CALL("Input data is invalid cause this part '%s' is not a function call."),
+
+    /**
+     * An arguments delimiter is outside of a function call
+     */
+    MISPLACED_DELIMITER("Input data is invalid cause this part '%s' contains a delimiter outside of a function."),
+
+    /**
+     * There is no function with the name and the number of arguments
+     */
+    UNKNOWN_FUNCTION("Input data is invalid cause this part '%s' contains an unknown function or a wrong number " +
+            "of arguments."),
+
+    /**
+     * A function cannot be calculated
+     */
+    FUNCTION_FAILURE("Input data is invalid cause the function %s cannot be calculated."),
+
+    /**
+     * A division by zero
+     */
+    DIVISION_BY_ZERO("Input data is invalid cause this part %s tries to divide by zero."),
+
+    /**
+     * The result is not a number
+     */
+    NOT_A_NUMBER("Input data is invalid cause the result of calculation: NaN is not a number."),
+
+    /**
+     * The result is infinite
+     */
+    INFINITY("Input data is invalid cause the result of calculation is Infinity."),
+
+    /**
+     * A function definition has a wrong format
+     */
+    WRONG_DEFINITION("Input data is invalid cause this part '%s' is not a function definition like: " +
+            "def f(x, y) = x * y."),
+
+    /**
+     * A function with the name is already defined
+     */
+    DEFINED_FUNCTION("Input data is invalid cause the function '%s' is already defined."),
+
+    /**
+     * The engine does not support function definitions
+     */
+    DEFINITIONS_NOT_SUPPORTED("Input data is invalid cause the engine does not support function definitions."),
+
+    /**
+     * A cell name is taken by a function
+     */
+    WRONG_CELL_NAME("Input data is invalid cause the name '%s' is taken by a function."),
+
+    /**
+     * A cell refers to itself directly or through other cells
+     */
+    CYCLIC_REFERENCE("Input data is invalid cause the cell '%s' refers to itself."),
+
+    /**
+     * A cell refers to a cell which is not assigned
+     */
+    UNKNOWN_CELL("Input data is invalid cause the cell '%s' is not assigned."),
+
+    /**
+     * A cell refers to a cell which cannot be computed
+     */
+    INVALID_CELL("Input data is invalid cause the cell '%s' cannot be computed."),
+
+    /**
+     * A series does not start from the name of its variable
+     */
+    WRONG_SERIES("Input data is invalid cause this part '%s' is not a series like: series(k, 1, 10, k^2)."),
+
+    /**
+     * A sweep variable is not a name
+     */
+    WRONG_VARIABLE("Input data is invalid cause this part '%s' is not a variable name like: x."),
+
+    /**
+     * An expression does not change its sign between the bounds of a root
+     */
+    NO_ROOT("Input data is invalid cause the expression '%s' does not change its sign between the bounds."),
+
+    /**
+     * An integral does not reach the required accuracy
+     */
+    DIVERGENT_INTEGRAL("Input data is invalid cause the integral of '%s' does not converge.");
+
+    /**
+     * The message template, {@code %s} is replaced by the wrong part
+     */
+    private final String template;
+
+    /**
+     * Constructs an object
+     *
+     * @param template The message template
+     */
+    ErrorCode(final String template) {
+        this.template = template;
+    }
+
+    /**
+     * Builds the message
+     *
+     * @param wrongPart The wrong part of the expression
+     * @return The message
+     */
+    public String format(final String wrongPart) {
+        return template.contains("%s") ? String.format(template, wrongPart) : template;
+    }
+}
@@ -4,11 +4,47 @@ package com.sysgears.simplecalculator.computer.exceptions;
  * Thrown to indicate that the application has attempted to calculate
  * an math expression, but that the expression string does not have the
  * appropriate format.
+ * <p>
+ *     The exception is thrown on invalid user input which is an expected
+ *     case, so it does not capture a stack trace. The exceptions created
+ *     with an {@link ErrorCode} keep only the code and the position of the
+ *     wrong part, the message and the wrong part itself are built when they
+ *     are read for the first time.
+ * </p>
  */
 public class InvalidInputExpressionException extends RuntimeException {
+    /**
+     * The reason, null if the exception is created with a message
+     */
+    private final ErrorCode errorCode;
+
+    /**
+     * The expression, null if the exception is created with a message
+     */
+    private final String expression;
+
+    /**
+     * The start of the wrong part in the expression, -1 if it is unknown
+     */
+    private final int position;
+
+    /**
+     * The end of the wrong part in the expression, exclusive
+     */
+    private final int end;
+
+    /**
+     * The message, null until it is built
+     */
+    private String message;
+
     private String wrongPart;
 
     public String getWrongPart() {
+        if (wrongPart == null && expression != null) {
+            wrongPart = expression.substring(position, end);
+        }
+
         return wrongPart;
     }
 
@@ -19,7 +55,7 @@ public class InvalidInputExpressionException extends RuntimeException {
      * @param message The string contains an error description
      */
     public InvalidInputExpressionException(final String message) {
-        super(message);
+        this(message, null);
     }
 
     /**
@@ -29,7 +65,83 @@ public class InvalidInputExpressionException extends RuntimeException {
      * @param message The string contains an error description
      */
     public InvalidInputExpressionException(final String message, final String wrongPart) {
-        super(message);
+        super(null, null, false, false);
+        this.message = message;
         this.wrongPart = wrongPart;
+        this.errorCode = null;
+        this.expression = null;
+        this.position = -1;
+        this.end = -1;
+    }
+
+    /**
+     * Constructs an object which builds its message lazily
+     *
+     * @param errorCode  The reason
+     * @param expression The expression
+     * @param position   The start of the wrong part
+     * @param end        The end of the wrong part, exclusive
+     */
+    public InvalidInputExpressionException(final ErrorCode errorCode, final String expression, final int position,
+                                           final int end) {
+        super(null, null, false, false);
+        this.errorCode = errorCode;
+        this.expression = expression == null ? "" : expression;
+        this.position = Math.min(Math.max(position, 0), this.expression.length());
+        this.end = Math.min(Math.max(end, this.position), this.expression.length());
+    }
+
+    /**
+     * Constructs an object which builds its message lazily. The wrong part
+     * lasts up to the end of the expression.
+     *
+     * @param errorCode  The reason
+     * @param expression The expression
+     * @param position   The start of the wrong part
+     */
+    public InvalidInputExpressionException(final ErrorCode errorCode, final String expression, final int position) {
+        this(errorCode, expression, position, expression == null ? 0 : expression.length());
+    }
+
+    /**
+     * Returns the reason
+     *
+     * @return The reason, null if the exception is created with a message
+     */
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * Returns the start of the wrong part in the expression
+     *
+     * @return The position, -1 if it is unknown
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the end of the wrong part in the expression
+     *
+     * @return The exclusive end, -1 if it is unknown
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the message. Builds it at the first call if the exception is
+     * created with an {@code ErrorCode}.
+     *
+     * @return The message
+     */
+    @Override
+    public String getMessage() {
+        if (message == null && errorCode != null) {
+            message = errorCode.format(getWrongPart());
+        }
+
+        return message;
     }
 }
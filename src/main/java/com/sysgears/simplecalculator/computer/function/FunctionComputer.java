@@ -1,7 +1,9 @@
 package com.sysgears.simplecalculator.computer.function;
 
 import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.NumberParser;
 import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.monitoring.ComputationEvent;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -61,8 +63,7 @@ public class FunctionComputer implements Computer {
     private final Pattern FUNCTIONS_PATTERN = Pattern.compile(Functions.getRegExp());
 
     /**
-     * Validates an incoming string. Removes all unnecessary characters.
-     * Computes the expression.
+     * Computes the expression and records a {@link ComputationEvent}
      *
      * @param expression The string contains a math expression. Can be empty
      * @return The string contains the calculated expression
@@ -71,6 +72,19 @@ public class FunctionComputer implements Computer {
      */
     @Override
     public String compute(final String expression) throws InvalidInputExpressionException {
+        return ComputationEvent.compute(this, this::computeExpression, expression);
+    }
+
+    /**
+     * Validates an incoming string. Removes all unnecessary characters.
+     * Computes the expression.
+     *
+     * @param expression The string contains a math expression. Can be empty
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format, or it is null
+     */
+    private String computeExpression(final String expression) throws InvalidInputExpressionException {
         if (expression == null) {
             throw new InvalidInputExpressionException("Incoming string cannot be null");
         }
@@ -103,14 +117,22 @@ public class FunctionComputer implements Computer {
             String arguments = result.substring(m.group().length(), result.length() - 1);
 
             try {
-                Double[] args = Stream.of(splitByDelimiter(arguments, ARGUMENTS_DELIMITER)).
-                                            map(e -> computeFunction(removeEnclosingSymbols(e))).
-                                            map(Double::valueOf).
-                                            collect(Collectors.toList()).
-                                            toArray(new Double[0]);
+                Functions function = Functions.valueOf(m.group(1).toUpperCase());
+                String value;
+
+                if (function.isSelector()) {
+                    value = computeSelected(function, splitByDelimiter(arguments, ARGUMENTS_DELIMITER));
+
+                } else {
+                    Double[] args = Stream.of(splitByDelimiter(arguments, ARGUMENTS_DELIMITER)).
+                                                map(e -> computeFunction(removeEnclosingSymbols(e))).
+                                                map(NumberParser::parse).
+                                                collect(Collectors.toList()).
+                                                toArray(new Double[0]);
+                    value = function.calculate(args).toString();
+                }
 
-                result = result.replaceAll(Pattern.quote(m.group() + arguments + CLOSE_EXP),
-                                            Functions.valueOf(m.group(1).toUpperCase()).calculate(args).toString());
+                result = result.replaceAll(Pattern.quote(m.group() + arguments + CLOSE_EXP), value);
 
             } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
                 throw new InvalidInputExpressionException(String.format("Input data is invalid cause this part " +
@@ -125,6 +147,27 @@ public class FunctionComputer implements Computer {
         return result;
     }
 
+    /**
+     * Computes a selector, i.e. {@code if} or {@code choose}. Only the first
+     * argument and the selected one are computed.
+     *
+     * @param function  The selector
+     * @param arguments The arguments which are not computed
+     * @return The string contains the value of the selected argument, NaN
+     * if no argument is selected
+     * @throws InvalidInputExpressionException If the number of arguments is
+     *                                         wrong
+     */
+    private String computeSelected(final Functions function, final String[] arguments)
+            throws InvalidInputExpressionException {
+
+        int index = function.select(NumberParser.parse(computeFunction(removeEnclosingSymbols(arguments[0]))),
+                                    arguments.length);
+
+        return index < 0 ? String.valueOf(Double.NaN) :
+                Double.toString(NumberParser.parse(computeFunction(removeEnclosingSymbols(arguments[index]))));
+    }
+
     /**
      * Breaks an argument string by delimiter and combines arguments into a
      * String array.
@@ -94,6 +94,51 @@ public enum Functions {
         public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
             return convertNegativeZero(Stream.of(arguments).reduce((v1, v2) -> v1 + v2).orElse(0.0));
         }
+    },
+    /**
+     * A condition function, if(c, a, b) gives a if c is not 0, otherwise b
+     */
+    IF("if", 3) {
+        @Override
+        public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
+            checkArguments(arguments.length);
+
+            return arguments[select(arguments[0], arguments.length)];
+        }
+
+        @Override
+        public boolean isSelector() {
+            return true;
+        }
+
+        @Override
+        public int select(final Double first, final int argumentsNumber) throws InvalidInputExpressionException {
+            checkArguments(argumentsNumber);
+
+            return first != 0 ? 1 : 2;
+        }
+    },
+    /**
+     * A selection function, choose(i, a1, ..., an) gives ai, i counts
+     * from 1
+     */
+    CHOOSE("choose") {
+        @Override
+        public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
+            int index = select(arguments[0], arguments.length);
+
+            return index < 0 ? Double.NaN : arguments[index];
+        }
+
+        @Override
+        public boolean isSelector() {
+            return true;
+        }
+
+        @Override
+        public int select(final Double first, final int argumentsNumber) {
+            return first >= 1 && first < argumentsNumber && first == Math.floor(first) ? first.intValue() : -1;
+        }
     };
 
     /**
@@ -138,12 +183,46 @@ public enum Functions {
      *                                         invalid format
      */
     public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
-        if (argumentsNumber != null && argumentsNumber != arguments.length) {
+        checkArguments(arguments.length);
+
+        return 0.0;
+    }
+
+    /**
+     * Checks whether number of arguments is right
+     *
+     * @param arguments The number of arguments
+     * @throws InvalidInputExpressionException If the number is wrong
+     */
+    void checkArguments(final int arguments) throws InvalidInputExpressionException {
+        if (argumentsNumber != null && argumentsNumber != arguments) {
             throw new InvalidInputExpressionException("Input data is invalid cause this part cause the function " +
-                    this + " contains " + arguments.length + " arguments instead of " + this.argumentsNumber);
+                    this + " contains " + arguments + " arguments instead of " + this.argumentsNumber);
         }
+    }
 
-        return 0.0;
+    /**
+     * Checks whether the function returns one of its arguments which is
+     * selected by the first one, so the other arguments are not computed
+     *
+     * @return true if the function is a selector
+     */
+    public boolean isSelector() {
+        return false;
+    }
+
+    /**
+     * Selects the argument which a selector returns
+     *
+     * @param first           The value of the first argument
+     * @param argumentsNumber The number of arguments
+     * @return The index of the selected argument, -1 if no argument is
+     * selected
+     * @throws InvalidInputExpressionException If the number of arguments is
+     *                                         wrong
+     */
+    public int select(final Double first, final int argumentsNumber) throws InvalidInputExpressionException {
+        return -1;
     }
 
     /**
@@ -1,12 +1,15 @@
 package com.sysgears.simplecalculator.computer.function2;
 
 import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.NumberParser;
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
 import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.monitoring.ComputationEvent;
+import com.sysgears.simplecalculator.monitoring.PhaseTimer;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
 /**
  * Calculates a received math expression. An incoming string cannot
@@ -18,9 +21,20 @@ import java.util.stream.Stream;
  *         <li>recursively computes all the functions</li>
  *     </ul>
  * </p>
+ * The arguments of a big call are parsed, or computed by {@code
+ * computeFunction()}, in parallel.
+ * The {@link Phase}s are timed by a {@link PhaseTimer} of the engine.
  */
 @SuppressWarnings("Duplicates")
 public class FunctionComputer implements Computer {
+    /**
+     * The timed phases
+     */
+    enum Phase {
+        CONVERSION_TO_FUNCTIONS,
+        FUNCTIONS_COMPUTATION
+    }
+
     /**
      * A pattern for the opening of a parentheses expression.
      * Cannot contain more than one symbol
@@ -39,36 +53,64 @@ public class FunctionComputer implements Computer {
      */
     static final String DELIMITER = ",";
 
+    /**
+     * The length of the arguments of a call from which they are computed in
+     * parallel
+     */
+    private static final int PARALLEL_LENGTH = 1 << 16;
+
     /**
      * A pattern for a valid number
      */
     private final String NUMBER_EXP = "-?\\d+([.]\\d+)?";
 
     /**
-     * A compiled pattern for all the functions
+     * The phase timer of the engine
      */
-    private final Pattern FUNCTIONS_PATTERN = Pattern.compile(Functions.getRegExp());
+    private final PhaseTimer<Phase> timer = PhaseTimer.forEngine(getClass().getName(), Phase.class);
 
     /**
-     * Validates an incoming string. Computes the expression.
+     * Computes the expression and records a {@link ComputationEvent}
      *
-     * @param expression The string contains a math expression
+     * @param expression The string contains a math expression. Can be empty
      * @return The string contains the calculated expression
      * @throws InvalidInputExpressionException If the incoming string has an
      *                                         invalid format, or it is null
      */
     @Override
     public String compute(final String expression) throws InvalidInputExpressionException {
+        return ComputationEvent.compute(this, this::computeExpression, expression);
+    }
+
+    /**
+     * Validates an incoming string. Computes the expression.
+     *
+     * @param expression The string contains a math expression
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format, or it is null
+     */
+    private String computeExpression(final String expression) throws InvalidInputExpressionException {
         String result = "";
 
         if (expression == null) {
-            throw new InvalidInputExpressionException("Incoming string cannot be null");
+            throw new InvalidInputExpressionException(ErrorCode.NULL_EXPRESSION, null, -1);
 
         } else if (expression.contains("++") || expression.contains("--")) {
-            throw new InvalidInputExpressionException("Incoming string cannot contain either '++' or '--'");
+            int plus = expression.indexOf("++");
+            int minus = expression.indexOf("--");
+            int position = plus == -1 ? minus : minus == -1 ? plus : Math.min(plus, minus);
+
+            throw new InvalidInputExpressionException(ErrorCode.TWO_SIGNS, expression, position, position + 2);
 
         } else if (!expression.isEmpty()) {
-            result = computeFunction2(Operators.convertToFunctions(expression));
+            long start = timer.start();
+            String functions = Operators.convertToFunctions(expression);
+            timer.stop(Phase.CONVERSION_TO_FUNCTIONS, start);
+
+            start = timer.start();
+            result = computeFunction2(functions);
+            timer.stop(Phase.FUNCTIONS_COMPUTATION, start);
 
             if (!(result.isEmpty() || result.matches(NUMBER_EXP))) {
                 throw new InvalidInputExpressionException("Input data is invalid cause the result of calculation: " +
@@ -92,26 +134,28 @@ public class FunctionComputer implements Computer {
     String computeFunction(final String expression) throws InvalidInputExpressionException {
         String result = removeEnclosingSymbols(expression);
 
-        for (Matcher m = FUNCTIONS_PATTERN.matcher(result); m.find(); m = FUNCTIONS_PATTERN.matcher(result)) {
-            String arguments = result.substring(m.group().length(), result.length() - 1);
+        for (int start = FunctionNames.findCall(result, 0); start >= 0; start = FunctionNames.findCall(result, 0)) {
+            String call = result.substring(start, FunctionNames.matchCall(result, start) + 1);
+            String arguments = result.substring(call.length(), result.length() - 1);
 
             try {
-                // Take arguments. Compute arguments if they are functions.
-                Double[] argsValues = Operators.splitByDelimiter(arguments, DELIMITER).
-                                            map(argument -> Double.valueOf(computeFunction(argument))).
-                                            collect(Collectors.toList()).
-                                            toArray(new Double[0]);
+                // Take arguments. Compute arguments if they are functions, long ones in parallel.
+                List<String> argsList = Operators.splitByDelimiter(arguments, DELIMITER).collect(Collectors.toList());
+                double[] argsValues = (argsList.size() > 1 && arguments.length() >= PARALLEL_LENGTH ?
+                                            argsList.parallelStream() : argsList.stream()).
+                                            mapToDouble(argument -> NumberParser.parse(computeFunction(argument))).
+                                            toArray();
 
-                result = result.replaceAll(Pattern.quote(m.group() + arguments + CLOSE_EXP),
-                                            Functions.calculate(m.group(1), argsValues));
+                result = result.replace(call + arguments + CLOSE_EXP,
+                                        Functions.calculate(call.substring(0, call.length() - 1), argsValues));
 
             } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
-                throw new InvalidInputExpressionException("Input data is invalid cause this part " + m.group() +
-                                    arguments + CLOSE_EXP + " has a wrong argument.", m.group() + arguments + CLOSE_EXP);
+                throw new InvalidInputExpressionException("Input data is invalid cause this part " + call +
+                                    arguments + CLOSE_EXP + " has a wrong argument.", call + arguments + CLOSE_EXP);
 
             } catch (ArithmeticException e) {
-                throw new InvalidInputExpressionException("Input data is invalid cause this part " + m.group() +
-                                arguments + CLOSE_EXP + " tries to divide by zero.", m.group() + arguments + CLOSE_EXP);
+                throw new InvalidInputExpressionException("Input data is invalid cause this part " + call +
+                                arguments + CLOSE_EXP + " tries to divide by zero.", call + arguments + CLOSE_EXP);
             }
         }
 
@@ -145,13 +189,18 @@ public class FunctionComputer implements Computer {
 
     /**
      * Non-recursively computes functions starting from the innermost one.
+     * All the arguments are computed before a call, so a division by zero
+     * fails the expression even in a branch of {@code if} which is not
+     * selected.
      *
      * @param expression The string contains a math expression with only
      *                   functions
      * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If a function divides by zero or
+     *                                         an argument is not a number
      */
 
-    String computeFunction2(final String expression) {
+    String computeFunction2(final String expression) throws InvalidInputExpressionException {
         String result = expression;
 
         while (result.contains(OPEN_EXP)) {
@@ -163,23 +212,67 @@ public class FunctionComputer implements Computer {
             if (result.charAt(funcInd) == DELIMITER.charAt(0) || result.charAt(funcInd) == OPEN_EXP.charAt(0)) {
                 funcInd++;
             }
+            funcInd = Math.min(funcInd, openInd);
 
-            Double[] args = Stream.of(result.substring(openInd + 1, closeInd).split(DELIMITER)).
-                                    map(Double::valueOf).
-                                    collect(Collectors.toList()).toArray(new Double[0]);
+            String calculate;
+            try {
+                double[] args = parseArguments(result, openInd + 1, closeInd);
+                String function = result.substring(funcInd, openInd);
 
-            String calculate = Functions.calculate(result.substring(funcInd, openInd), args);
-            result = result.replace(result.substring(funcInd, closeInd + 1), calculate);
+                // parentheses without a function around a number, i.e. (3)
+                calculate = function.isEmpty() && args.length == 1 ? String.valueOf(args[0]) :
+                        Functions.calculate(function, args);
 
-            if (funcInd > 0 && result.charAt(--funcInd) == OPEN_EXP.charAt(0) &&
-                    result.charAt(funcInd + calculate.length()) == CLOSE_EXP.charAt(0) &&
-                    (result.charAt(funcInd - 1) == OPEN_EXP.charAt(0) || result.charAt(funcInd - 1) == DELIMITER.charAt(0))) {
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                String part = result.substring(funcInd, closeInd + 1);
+                throw new InvalidInputExpressionException("Input data is invalid cause this part " + part +
+                                                          " has a wrong argument.", part);
 
-                result = result.replace(result.substring(funcInd, funcInd + calculate.length()),
-                        removeEnclosingSymbols(result.substring(funcInd, funcInd + calculate.length())));
+            } catch (ArithmeticException e) {
+                throw new InvalidInputExpressionException(ErrorCode.DIVISION_BY_ZERO, result, funcInd, closeInd + 1);
             }
+            // only this call is replaced, an equal one to the left can be in other parentheses
+            result = result.substring(0, funcInd) + calculate + result.substring(closeInd + 1);
         }
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Parses the numbers which are separated by {@code DELIMITER} straight
+     * from the expression, the empty arguments at the end are skipped like
+     * {@code String.split()} does. Many arguments are parsed in parallel.
+     *
+     * @param expression The string contains the arguments
+     * @param start      The index of the first argument
+     * @param end        The index after the last argument
+     * @return The values of the arguments
+     * @throws NumberFormatException If an argument is not a number
+     */
+    static double[] parseArguments(final String expression, final int start, final int end)
+            throws NumberFormatException {
+
+        int count = 1;
+        for (int i = expression.indexOf(DELIMITER, start); i >= 0 && i < end;
+             i = expression.indexOf(DELIMITER, i + 1)) {
+            count++;
+        }
+
+        // an argument i lasts from bounds[i] up to the delimiter at bounds[i + 1] - 1
+        int[] bounds = new int[count + 1];
+        bounds[0] = start;
+        for (int i = 1; i < count; i++) {
+            bounds[i] = expression.indexOf(DELIMITER, bounds[i - 1]) + 1;
+        }
+        bounds[count] = end + 1;
+
+        int size = count;
+        while (count > 1 && size > 0 && bounds[size] - 1 == bounds[size - 1]) {
+            size--;
+        }
+
+        return (size >= Functions.PARALLEL_THRESHOLD ? IntStream.range(0, size).parallel() : IntStream.range(0, size)).
+                mapToDouble(i -> NumberParser.parse(expression, bounds[i], bounds[i + 1] - 1)).
+                toArray();
+    }
+}
@@ -0,0 +1,193 @@
+package com.sysgears.simplecalculator.computer.function2;
+
+import com.sysgears.simplecalculator.computer.registry.FunctionRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.sysgears.simplecalculator.computer.function2.FunctionComputer.OPEN_EXP;
+
+/**
+ * Recognizes the names of all the functions of {@code FunctionRegistry},
+ * i.e. the User's {@link Functions}, the {@code Math} ones and the ones of
+ * the providers, by a character trie which is built once. A name is resolved
+ * to its index in time proportional to the name length, the expression is
+ * never copied and there is no backtracking. The indexes are the ones of the
+ * registry, so the indexes of the User's functions are their ordinals.
+ */
+public final class FunctionNames {
+    /**
+     * The number of symbols which can be a part of a name: digits and ASCII
+     * letters
+     */
+    private static final int ALPHABET = 10 + 26 + 26;
+
+    /**
+     * All the function names by their indexes
+     */
+    private static final String[] NAMES;
+
+    /**
+     * The transitions of the trie, {@code ALPHABET} cells per node, 0 means
+     * there is no transition since the root cannot be a target
+     */
+    private static final int[] NEXT;
+
+    /**
+     * The function index of every node, -1 if no name ends at the node
+     */
+    private static final int[] FUNCTIONS;
+
+    static {
+        FunctionRegistry registry = FunctionRegistry.getDefault();
+        List<String> names = new ArrayList<>();
+
+        for (int index = 0; index < registry.size(); index++) {
+            names.add(registry.getName(index));
+        }
+
+        int[] next = new int[ALPHABET];
+        int[] functions = {-1};
+        int nodes = 1;
+
+        for (int index = 0; index < names.size(); index++) {
+            int node = 0;
+
+            for (char symbol : names.get(index).toCharArray()) {
+                int cell = node * ALPHABET + getSymbolIndex(symbol);
+
+                if (next[cell] == 0) {
+                    if (nodes == functions.length) {
+                        functions = Arrays.copyOf(functions, nodes * 2);
+                        next = Arrays.copyOf(next, nodes * 2 * ALPHABET);
+                    }
+                    functions[nodes] = -1;
+                    next[cell] = nodes++;
+                }
+                node = next[cell];
+            }
+            functions[node] = index;
+        }
+
+        NAMES = names.toArray(new String[0]);
+        NEXT = Arrays.copyOf(next, nodes * ALPHABET);
+        FUNCTIONS = Arrays.copyOf(functions, nodes);
+    }
+
+    /**
+     * There is no need to create an object
+     */
+    private FunctionNames() {
+    }
+
+    /**
+     * Finds the function which name is the part of the expression
+     *
+     * @param expression The expression
+     * @param start      The start of the name
+     * @param end        The end of the name, exclusive
+     * @return The function index, -1 if there is no such a function
+     */
+    public static int find(final CharSequence expression, final int start, final int end) {
+        int node = 0;
+
+        for (int i = start; i < end && node >= 0; i++) {
+            node = move(node, expression.charAt(i));
+        }
+
+        return node < 0 ? -1 : FUNCTIONS[node];
+    }
+
+    /**
+     * Checks whether a function call starts from the specified index, i.e.
+     * a known name is followed by {@code OPEN_EXP}
+     *
+     * @param expression The expression
+     * @param start      The index of the first letter
+     * @return The index of {@code OPEN_EXP} after the name, -1 if there is
+     * no call
+     */
+    public static int matchCall(final CharSequence expression, final int start) {
+        int node = 0;
+        int i = start;
+
+        while (i < expression.length() && node >= 0 && expression.charAt(i) != OPEN_EXP.charAt(0)) {
+            node = move(node, expression.charAt(i++));
+        }
+
+        return node > 0 && i < expression.length() && FUNCTIONS[node] >= 0 ? i : -1;
+    }
+
+    /**
+     * Finds the first function call which starts either from the specified
+     * index or after a symbol which cannot be a part of a name
+     *
+     * @param expression The expression
+     * @param from       The index to start from
+     * @return The index of the first letter of the call, -1 if there is no
+     * call
+     */
+    public static int findCall(final CharSequence expression, final int from) {
+        for (int i = from; i < expression.length(); i++) {
+            if ((i == from || getSymbolIndex(expression.charAt(i - 1)) < 0) && matchCall(expression, i) >= 0) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the name of the function
+     *
+     * @param index The function index
+     * @return The name
+     */
+    public static String getName(final int index) {
+        return NAMES[index];
+    }
+
+    /**
+     * Returns the number of functions
+     *
+     * @return The number of functions
+     */
+    public static int size() {
+        return NAMES.length;
+    }
+
+    /**
+     * Moves from the node by the symbol
+     *
+     * @param node   The node
+     * @param symbol The symbol
+     * @return The next node, -1 if there is no transition
+     */
+    private static int move(final int node, final char symbol) {
+        int index = getSymbolIndex(symbol);
+        int next = index < 0 ? 0 : NEXT[node * ALPHABET + index];
+
+        return next == 0 ? -1 : next;
+    }
+
+    /**
+     * Returns the index of the symbol in the alphabet
+     *
+     * @param symbol The symbol
+     * @return The index, -1 if the symbol cannot be a part of a name
+     */
+    private static int getSymbolIndex(final char symbol) {
+        if (symbol >= '0' && symbol <= '9') {
+            return symbol - '0';
+
+        } else if (symbol >= 'a' && symbol <= 'z') {
+            return 10 + symbol - 'a';
+
+        } else if (symbol >= 'A' && symbol <= 'Z') {
+            return 36 + symbol - 'A';
+        }
+
+        return -1;
+    }
+}
@@ -1,14 +1,16 @@
 package com.sysgears.simplecalculator.computer.function2;
 
 import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.registry.FunctionRegistry;
+import com.sysgears.simplecalculator.computer.registry.MathFunction;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -22,6 +24,12 @@ import static com.sysgears.simplecalculator.computer.function2.FunctionComputer.
  * However, it lead to round-off errors, and this type is constrained by
  * number size. So, it can be changed to {@code BigDecimal} so as to solve
  * problems above.
+ * <p>
+ *     The variadic functions reduce primitive arrays. A call of at least
+ *     {@code PARALLEL_THRESHOLD} arguments is reduced in parallel, so the
+ *     order of the operations and thus the last bits of the result can
+ *     differ from the ones of the sequential reduction.
+ * </p>
  */
 public enum Functions {
     /**
@@ -39,12 +47,9 @@ public enum Functions {
          *
          * @param arguments The arguments
          * @return The computed value
-         * @throws InvalidInputExpressionException If the incoming string has an
-         *                                         invalid format
          */
         @Override
-        public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
-            super.calculate(arguments);
+        double compute(final double[] arguments) {
             return convertNegativeZero(IntStream.range(1 - arguments.length, 1).mapToDouble(i -> arguments[-i]).
                                                  reduce((v1, v2) -> (v1 < 0 ? -1 : 1) * Math.pow(v2, v1)).orElse(0.0));
         }
@@ -53,9 +58,32 @@ public enum Functions {
      * A divide function
      */
     DIVIDE("divide") {
+        /**
+         * Divides the first argument by the product of the other ones when
+         * the call is big, the sequential division is used if the product
+         * overflows
+         *
+         * @param arguments The arguments
+         * @return The computed value
+         * @throws ArithmeticException If a divisor is zero
+         */
         @Override
-        public Double calculate(final Double... arguments) throws ArithmeticException, InvalidInputExpressionException {
-            return convertNegativeZero(Stream.of(arguments).reduce((v1, v2) -> v1 / checkZero(v2)).orElse(0.0));
+        double compute(final double[] arguments) throws ArithmeticException {
+            if (arguments.length >= PARALLEL_THRESHOLD) {
+                double divisor = IntStream.range(1, arguments.length).parallel().
+                                           mapToDouble(i -> checkZero(arguments[i])).reduce(1, (v1, v2) -> v1 * v2);
+
+                if (divisor != 0 && !Double.isInfinite(divisor)) {
+                    return convertNegativeZero(arguments[0] / divisor);
+                }
+            }
+
+            double result = arguments.length == 0 ? 0 : arguments[0];
+            for (int i = 1; i < arguments.length; i++) {
+                result /= checkZero(arguments[i]);
+            }
+
+            return convertNegativeZero(result);
         }
 
         /**
@@ -79,8 +107,17 @@ public enum Functions {
      */
     MULTIPLY("multiply") {
         @Override
-        public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
-            return convertNegativeZero(Stream.of(arguments).reduce((v1, v2) -> v1 * v2).orElse(0.0));
+        double compute(final double[] arguments) {
+            if (arguments.length >= PARALLEL_THRESHOLD) {
+                return convertNegativeZero(Arrays.stream(arguments).parallel().reduce(1, (v1, v2) -> v1 * v2));
+            }
+
+            double result = arguments.length == 0 ? 0 : arguments[0];
+            for (int i = 1; i < arguments.length; i++) {
+                result *= arguments[i];
+            }
+
+            return convertNegativeZero(result);
         }
     },
     /**
@@ -88,8 +125,18 @@ public enum Functions {
      */
     SUBTRACT("subtract") {
         @Override
-        public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
-            return convertNegativeZero(Stream.of(arguments).reduce((v1, v2) -> v1 - v2).orElse(0.0));
+        double compute(final double[] arguments) {
+            if (arguments.length >= PARALLEL_THRESHOLD) {
+                return convertNegativeZero(arguments[0] - Arrays.stream(arguments, 1, arguments.length).parallel().
+                                                                 reduce(0, (v1, v2) -> v1 + v2));
+            }
+
+            double result = arguments.length == 0 ? 0 : arguments[0];
+            for (int i = 1; i < arguments.length; i++) {
+                result -= arguments[i];
+            }
+
+            return convertNegativeZero(result);
         }
     },
     /**
@@ -97,11 +144,26 @@ public enum Functions {
      */
     SUM("sum") {
         @Override
-        public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
-            return convertNegativeZero(Stream.of(arguments).reduce((v1, v2) -> v1 + v2).orElse(0.0));
+        double compute(final double[] arguments) {
+            if (arguments.length >= PARALLEL_THRESHOLD) {
+                return convertNegativeZero(Arrays.stream(arguments).parallel().reduce(0, (v1, v2) -> v1 + v2));
+            }
+
+            double result = 0;
+            for (double argument : arguments) {
+                result += argument;
+            }
+
+            return convertNegativeZero(result);
         }
     };
 
+    /**
+     * The number of arguments from which a variadic function is reduced in
+     * parallel
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
     /**
      * The string representation of the function
      */
@@ -117,6 +179,11 @@ public enum Functions {
      */
     private final static Map<String, List<String>> mathFunctions = getMathClassFunctions();
 
+    /**
+     * The User's functions by their ordinals
+     */
+    private final static Functions[] USER_FUNCTIONS = values();
+
     /**
      * Constructs an object with virtually endless number of arguments
      *
@@ -139,8 +206,38 @@ public enum Functions {
     }
 
     /**
-     * Contains the calculating logic of the function. Checks whether
-     * number of arguments is right.
+     * Calculates the function of boxed arguments. Checks whether number of
+     * arguments is right.
+     *
+     * @param arguments The arguments
+     * @return The computed value
+     * @throws ArithmeticException             If an arithmetic error is happen
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format
+     */
+    public Double calculate(final Double... arguments) throws InvalidInputExpressionException {
+        return calculate(Stream.of(arguments).mapToDouble(Double::doubleValue).toArray());
+    }
+
+    /**
+     * Calculates the function of primitive arguments. Checks whether number
+     * of arguments is right.
+     *
+     * @param arguments The arguments
+     * @return The computed value
+     * @throws ArithmeticException             If an arithmetic error is happen
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format
+     */
+    public double calculate(final double[] arguments) throws InvalidInputExpressionException {
+        checkArguments(arguments.length);
+
+        return compute(arguments);
+    }
+
+    /**
+     * Contains the calculating logic of the function, the number of
+     * arguments is already checked
      *
      * @param arguments The arguments
      * @return The computed value
@@ -148,13 +245,19 @@ public enum Functions {
      * @throws InvalidInputExpressionException If the incoming string has an
      *                                         invalid format
      */
-    Double calculate(final Double... arguments) throws InvalidInputExpressionException {
-        if (argumentsNumber != null && argumentsNumber != arguments.length) {
+    abstract double compute(final double[] arguments) throws InvalidInputExpressionException;
+
+    /**
+     * Checks whether number of arguments is right
+     *
+     * @param arguments The number of arguments
+     * @throws InvalidInputExpressionException If the number is wrong
+     */
+    void checkArguments(final int arguments) throws InvalidInputExpressionException {
+        if (argumentsNumber != null && argumentsNumber != arguments) {
             throw new InvalidInputExpressionException("Input data is invalid cause this part cause the function " +
-                            this + " contains " + arguments.length + " arguments instead of " + this.argumentsNumber);
+                            this + " contains " + arguments + " arguments instead of " + this.argumentsNumber);
         }
-
-        return 0.0;
     }
 
     /**
@@ -178,7 +281,8 @@ public enum Functions {
     /**
      * Calculates a function. Firstly, tries to find a function in {@code Functions}.
      * If it is found, calculates the function. If it is not found, tries to use
-     * {@code Math} functions.
+     * the other functions of {@code FunctionRegistry}, i.e. the {@code Math}
+     * ones and the ones of the providers.
      *
      * @param function  The string representation of the function
      * @param arguments The function arguments
@@ -190,31 +294,39 @@ public enum Functions {
     public static String calculate(final String function, Double... arguments) throws InvalidInputExpressionException,
             ArithmeticException {
 
-        String value = "";
-
-        if (Stream.of(values()).anyMatch(f -> f.getImage().equals(function))) {
-            value = valueOf(function.toUpperCase()).calculate(arguments).toString();
+        return calculate(function, Stream.of(arguments).mapToDouble(Double::doubleValue).toArray());
+    }
 
-        } else if (mathFunctions.containsKey(function)) {
-            List<String> args = mathFunctions.get(function);
-            if (arguments.length == args.size()) {
-                try {
-                    Class<?>[] a = new Class[args.size()];
-                    for (int i = 0; i < a.length; i++) {
-                        a[i] = double.class;
-                    }
+    /**
+     * Calculates a function of primitive arguments like {@code
+     * calculate(String, Double...)} does
+     *
+     * @param function  The string representation of the function
+     * @param arguments The function arguments
+     * @return The string contains the computed value
+     * @throws ArithmeticException             If an arithmetic error is happen
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format
+     */
+    public static String calculate(final String function, final double[] arguments)
+            throws InvalidInputExpressionException, ArithmeticException {
 
-                    value = Math.class.getMethod(function, a).invoke(Functions.class, (Object[]) arguments).toString();
+        String value = "";
+        int index = FunctionNames.find(function, 0, function.length());
 
-                } catch (Exception e) {
-                    throw new InvalidInputExpressionException("Input data is invalid cause this part contains " +
-                                                                "an unknown function");
-                }
+        if (index >= 0 && index < USER_FUNCTIONS.length) {
+            value = String.valueOf(USER_FUNCTIONS[index].calculate(arguments));
 
-            } else {
+        } else if (index >= 0) {
+            MathFunction mathFunction = FunctionRegistry.getDefault().find(index, arguments.length);
+            if (mathFunction == null) {
                 throw new InvalidInputExpressionException("Input data is invalid cause this part cause the function " +
-                        function + " contains " + arguments.length + " arguments instead of " + args.size());
+                        function + " contains " + arguments.length + " arguments instead of " +
+                        FunctionRegistry.getDefault().getOverloads(index).stream().
+                                map(f -> String.valueOf(f.getArity())).collect(Collectors.joining(" or ")));
             }
+
+            value = String.valueOf(mathFunction.apply(arguments));
         }
 
         return value;
@@ -230,15 +342,14 @@ public enum Functions {
     }
 
     /**
-     * Builds a RegExp string contains all the functions
+     * Returns all the {@code Math} functions which can be used in an
+     * expression
      *
-     * @return The RegExp string contains all the functions
+     * @return The unmodifiable map contains functions as keys and the types
+     * of their arguments as values
      */
-    static String getRegExp() {
-        List<String> functions = new LinkedList<>(mathFunctions.keySet());
-        functions.addAll(Stream.of(values()).map(Functions::getImage).collect(Collectors.toList()));
-
-        return functions.stream().map(Pattern::quote).collect(Collectors.joining("|", "(", ")\\" + OPEN_EXP));
+    public static Map<String, List<String>> getMathFunctions() {
+        return Collections.unmodifiableMap(mathFunctions);
     }
 
     /**
@@ -267,12 +378,17 @@ public enum Functions {
     }
 
     /**
-     * Builds and returns a string representation of the Math functions list
+     * Builds and returns a string representation of the Math functions list,
+     * it also contains the functions of the providers of {@code
+     * FunctionRegistry}
      *
      * @return The string with the description of all the Math functions
      */
     public static String getMathList() {
-        return mathFunctions.keySet().stream().
-                map(e -> "\t" + e + IntStream.range(1, mathFunctions.get(e).size() + 1).mapToObj(i -> "x" + i).
-                        collect(Collectors.joining(", ", OPEN_EXP, CLOSE_EXP))).collect(Collectors.joining(System.lineSeparator()));
-    }}
+        return FunctionRegistry.getDefault().getFunctions().stream().skip(USER_FUNCTIONS.length).
+                map(e -> "\t" + e.getName() + (e.getArity() == MathFunction.VARIADIC ? OPEN_EXP + "x1, x2 ... xN" + CLOSE_EXP :
+                        IntStream.range(1, e.getArity() + 1).mapToObj(i -> "x" + i).
+                                collect(Collectors.joining(", ", OPEN_EXP, CLOSE_EXP)))).
+                collect(Collectors.joining(System.lineSeparator()));
+    }
+}
@@ -67,13 +67,16 @@ public class ComputerBruteForce extends OperatorsComputer {
         String result = expression;
 
         if (hasFunction(result)) {
-            result = compute(result);
+            result = computeExpression(result);
         }
 
         if (hasEnclosedExpression(result)) {
+            long start = timer.start();
             result = openEnclosedExpression(result);
+            timer.stop(Phase.PARENTHESES_OPENING, start);
         }
-        
+
+        long start = timer.start();
         for (Operators operator : Operators.values()) {
             while (containsOperator(result, operator)) {
                 String binaryExpression = getBinaryExpression(result, operator);
@@ -82,6 +85,7 @@ public class ComputerBruteForce extends OperatorsComputer {
                                                                 computeBinaryExpression(binaryExpression, operator)));
             }
         }
+        timer.stop(Phase.BINARY_REDUCTION, start);
 
         return result;
     }
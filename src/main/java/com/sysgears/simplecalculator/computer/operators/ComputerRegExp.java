@@ -81,9 +81,12 @@ public class ComputerRegExp extends OperatorsComputer {
         }
 
         if (hasEnclosedExpression(expression)) {
+            long start = timer.start();
             result = openEnclosedExpression(result);
+            timer.stop(Phase.PARENTHESES_OPENING, start);
         }
 
+        long start = timer.start();
         for (Operators operator : Operators.getOperatorsByPrecedence()) {
             Pattern pattern = Pattern.compile(NUMBER_EXP + "[" + operator.getRegExpRepresentation() + "]" + NUMBER_EXP);
 
@@ -92,6 +95,7 @@ public class ComputerRegExp extends OperatorsComputer {
                                             computeBinaryExpression(matcher.group(), operator));
             }
         }
+        timer.stop(Phase.BINARY_REDUCTION, start);
 
         return result.equals(OPEN_EXP + CLOSE_EXP) ? "" : result;
     }
@@ -1,7 +1,10 @@
 package com.sysgears.simplecalculator.computer.operators;
 
 import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.NumberParser;
 import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.monitoring.ComputationEvent;
+import com.sysgears.simplecalculator.monitoring.PhaseTimer;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -24,9 +27,22 @@ import java.util.stream.Stream;
  *         <li>all possible operators are stored in {@code Operators}</li>
  *     </ul>
  * </p>
- * Contains common logic and interface contract for computing algorithms
+ * Contains common logic and interface contract for computing algorithms.
+ * The {@link Phase}s are timed by a {@link PhaseTimer} of the engine.
  */
 public abstract class OperatorsComputer implements Computer {
+    /**
+     * The timed phases. Functions and parentheses are computed recursively,
+     * so their time includes the time of the enclosed phases. E-notation
+     * conversion and binary reduction do not enclose other phases.
+     */
+    enum Phase {
+        E_NOTATION_CONVERSION,
+        FUNCTION_EXPANSION,
+        PARENTHESES_OPENING,
+        BINARY_REDUCTION
+    }
+
     /**
      * A pattern for the opening of a parentheses expression
      * Cannot contain more than one symbol
@@ -74,8 +90,12 @@ public abstract class OperatorsComputer implements Computer {
     private final Pattern FUNCTIONS_PATTERN = Pattern.compile(Operators.getFunctionsRegExp() + "\\" + OPEN_EXP);
 
     /**
-     * Validates an incoming string. Converts numbers from E-notation to the
-     * decimal one. Computes the expression.
+     * The phase timer of the engine
+     */
+    final PhaseTimer<Phase> timer = PhaseTimer.forEngine(getClass().getName(), Phase.class);
+
+    /**
+     * Computes the expression and records a {@link ComputationEvent}
      *
      * @param expression The string contains a math expression. Can be empty
      * @return The string contains the calculated expression
@@ -84,11 +104,32 @@ public abstract class OperatorsComputer implements Computer {
      */
     @Override
     public String compute(final String expression) throws InvalidInputExpressionException {
+        return ComputationEvent.compute(this, this::computeExpression, expression);
+    }
+
+    /**
+     * Validates an incoming string. Converts numbers from E-notation to the
+     * decimal one. Computes the expression.
+     *
+     * @param expression The string contains a math expression. Can be empty
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format, or it is null
+     */
+    String computeExpression(final String expression) throws InvalidInputExpressionException {
         if (expression == null) {
             throw new InvalidInputExpressionException("Incoming string cannot be null");
         }
 
-        String result = computeArithmeticExpression(computeFunctions(convertFromENotation(expression)));
+        long start = timer.start();
+        String converted = convertFromENotation(expression);
+        timer.stop(Phase.E_NOTATION_CONVERSION, start);
+
+        start = timer.start();
+        String expanded = computeFunctions(converted);
+        timer.stop(Phase.FUNCTION_EXPANSION, start);
+
+        String result = computeArithmeticExpression(expanded);
 
         if (!(result.isEmpty() || result.matches(NUMBER_EXP))) {
             throw new InvalidInputExpressionException(String.format("Input data is invalid cause " +
@@ -121,7 +162,7 @@ public abstract class OperatorsComputer implements Computer {
 
             try {
                 Double[] functionArguments = Stream.of(splitArgumentsByDelimiter(enclosedExpression)).
-                        map(e -> Double.valueOf(computeArithmeticExpression(e))).
+                        map(e -> NumberParser.parse(computeArithmeticExpression(e))).
                         collect(Collectors.toList()).
                         toArray(new Double[0]);
 
@@ -272,13 +313,12 @@ public abstract class OperatorsComputer implements Computer {
         String result = expression;
 
         try {
-            String leftOperand = result.substring(0, result.lastIndexOf(operator.getRepresentation()));
-            String rightOperand = result.substring(result.lastIndexOf((operator.getRepresentation())) + 1);
+            int index = result.lastIndexOf(operator.getRepresentation());
 
-            result = Operators.convertFromENotation(
-                                operator.calculate(Double.parseDouble(leftOperand), Double.parseDouble(rightOperand)));
+            result = Operators.convertFromENotation(operator.calculate(NumberParser.parse(result, 0, index),
+                                                    NumberParser.parse(result, index + 1, result.length())));
 
-        } catch (NumberFormatException | StringIndexOutOfBoundsException | ArithmeticException e) {
+        } catch (NumberFormatException | IndexOutOfBoundsException | ArithmeticException e) {
             throw new InvalidInputExpressionException(String.format("Input data is invalid because of " +
                     "this part of expression: '%s'", result));
         }
@@ -317,14 +357,14 @@ public abstract class OperatorsComputer implements Computer {
      *                                         invalid format
      */
     String convertFromENotation(final String expression) throws InvalidInputExpressionException {
-        String result = expression;
+        StringBuilder result = new StringBuilder(expression.length());
+        int last = 0;
 
         try {
-            for (Matcher matcher = E_NOTATION_PATTERN.matcher(result); matcher.find();
-                 matcher = E_NOTATION_PATTERN.matcher(result)) {
-
-                result = result.replace(matcher.group(),
-                                        Operators.convertFromENotation(Double.parseDouble(matcher.group())));
+            for (Matcher matcher = E_NOTATION_PATTERN.matcher(expression); matcher.find(); last = matcher.end()) {
+                result.append(expression, last, matcher.start()).
+                        append(Operators.convertFromENotation(
+                                NumberParser.parse(expression, matcher.start(), matcher.end())));
             }
 
         } catch (NumberFormatException e) {
@@ -332,6 +372,6 @@ public abstract class OperatorsComputer implements Computer {
                                                         "E-notation");
         }
 
-        return result;
+        return result.append(expression, last, expression.length()).toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Contains the implementations of {@link MathFunction} for every kind of
+ * arity. Each of them overrides the {@code apply} overload of its arity,
+ * so it is called without creating an array.
+ */
+final class ArityFunctions {
+    /**
+     * There is no need to create an object
+     */
+    private ArityFunctions() {
+    }
+
+    /**
+     * Keeps the declaration of a function
+     */
+    abstract static class AbstractFunction implements MathFunction {
+        /**
+         * The name of the function
+         */
+        private final String name;
+
+        /**
+         * The number of arguments
+         */
+        private final int arity;
+
+        /**
+         * Whether the function is pure
+         */
+        private final boolean pure;
+
+        /**
+         * Constructs an object
+         *
+         * @param name  The name of the function
+         * @param arity The number of arguments
+         * @param pure  true if the function is pure
+         */
+        AbstractFunction(final String name, final int arity, final boolean pure) {
+            this.name = name;
+            this.arity = arity;
+            this.pure = pure;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getArity() {
+            return arity;
+        }
+
+        @Override
+        public boolean isPure() {
+            return pure;
+        }
+
+        /**
+         * Returns the name and the arity of the function
+         *
+         * @return The string representation
+         */
+        @Override
+        public String toString() {
+            return name + "/" + (arity == VARIADIC ? "n" : String.valueOf(arity));
+        }
+    }
+
+    /**
+     * A function of one argument
+     */
+    static final class Unary extends AbstractFunction {
+        /**
+         * The implementation
+         */
+        private final DoubleUnaryOperator operator;
+
+        /**
+         * Constructs an object
+         *
+         * @param name     The name of the function
+         * @param pure     true if the function is pure
+         * @param operator The implementation
+         */
+        Unary(final String name, final boolean pure, final DoubleUnaryOperator operator) {
+            super(name, 1, pure);
+            this.operator = operator;
+        }
+
+        @Override
+        public double apply(final double[] arguments) {
+            return operator.applyAsDouble(arguments[0]);
+        }
+
+        @Override
+        public double apply(final double x) {
+            return operator.applyAsDouble(x);
+        }
+    }
+
+    /**
+     * A function of two arguments
+     */
+    static final class Binary extends AbstractFunction {
+        /**
+         * The implementation
+         */
+        private final DoubleBinaryOperator operator;
+
+        /**
+         * Constructs an object
+         *
+         * @param name     The name of the function
+         * @param pure     true if the function is pure
+         * @param operator The implementation
+         */
+        Binary(final String name, final boolean pure, final DoubleBinaryOperator operator) {
+            super(name, 2, pure);
+            this.operator = operator;
+        }
+
+        @Override
+        public double apply(final double[] arguments) {
+            return operator.applyAsDouble(arguments[0], arguments[1]);
+        }
+
+        @Override
+        public double apply(final double x, final double y) {
+            return operator.applyAsDouble(x, y);
+        }
+    }
+
+    /**
+     * A function of three arguments
+     */
+    static final class Ternary extends AbstractFunction {
+        /**
+         * The implementation
+         */
+        private final MathFunction.DoubleTernaryOperator operator;
+
+        /**
+         * Constructs an object
+         *
+         * @param name     The name of the function
+         * @param pure     true if the function is pure
+         * @param operator The implementation
+         */
+        Ternary(final String name, final boolean pure, final MathFunction.DoubleTernaryOperator operator) {
+            super(name, 3, pure);
+            this.operator = operator;
+        }
+
+        @Override
+        public double apply(final double[] arguments) {
+            return operator.applyAsDouble(arguments[0], arguments[1], arguments[2]);
+        }
+
+        @Override
+        public double apply(final double x, final double y, final double z) {
+            return operator.applyAsDouble(x, y, z);
+        }
+    }
+
+    /**
+     * A function of any number of arguments
+     */
+    static final class Variadic extends AbstractFunction {
+        /**
+         * The implementation
+         */
+        private final ToDoubleFunction<double[]> function;
+
+        /**
+         * Constructs an object
+         *
+         * @param name     The name of the function
+         * @param pure     true if the function is pure
+         * @param function The implementation
+         */
+        Variadic(final String name, final boolean pure, final ToDoubleFunction<double[]> function) {
+            super(name, VARIADIC, pure);
+            this.function = function;
+        }
+
+        @Override
+        public double apply(final double[] arguments) {
+            return function.applyAsDouble(arguments);
+        }
+    }
+
+    /**
+     * A static method of {@code double} arguments which returns {@code
+     * double}, i.e. a {@code Math} function. The method is called through
+     * a method handle, so the arguments are not boxed.
+     */
+    static final class MethodFunction extends AbstractFunction {
+        /**
+         * The handle of the method
+         */
+        private final MethodHandle handle;
+
+        /**
+         * The handle which takes the arguments as an array
+         */
+        private final MethodHandle spreader;
+
+        /**
+         * Constructs an object
+         *
+         * @param name   The name of the function
+         * @param pure   true if the function is pure
+         * @param handle The handle of the method
+         */
+        MethodFunction(final String name, final boolean pure, final MethodHandle handle) {
+            super(name, handle.type().parameterCount(), pure);
+            this.handle = handle;
+            this.spreader = handle.asSpreader(double[].class, handle.type().parameterCount());
+        }
+
+        @Override
+        public double apply(final double[] arguments) {
+            try {
+                return (double) spreader.invokeExact(arguments);
+
+            } catch (RuntimeException | Error e) {
+                throw e;
+
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public double apply(final double x) {
+            try {
+                return (double) handle.invokeExact(x);
+
+            } catch (RuntimeException | Error e) {
+                throw e;
+
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public double apply(final double x, final double y) {
+            try {
+                return (double) handle.invokeExact(x, y);
+
+            } catch (RuntimeException | Error e) {
+                throw e;
+
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public double apply(final double x, final double y, final double z) {
+            try {
+                return (double) handle.invokeExact(x, y, z);
+
+            } catch (RuntimeException | Error e) {
+                throw e;
+
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
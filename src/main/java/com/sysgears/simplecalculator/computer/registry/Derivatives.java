@@ -0,0 +1,296 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Keeps the partial derivatives of the standard functions and of the ones
+ * of {@link DomainFunctions}, they are found by the name and the arity of a
+ * function. The derivative of a function which is not known here is
+ * approximated by a central difference, a provider can override {@link
+ * MathFunction#derivative} to give the exact one. The ideas that lie behind
+ * the rules are next:
+ * <p>
+ *     <ul>
+ *         <li>a rule gets the value of the function as well, so i.e. the
+ *         derivative of {@code exp} is the value itself</li>
+ *         <li>a function which is constant between its steps, i.e. {@code
+ *         floor}, has the zero derivative</li>
+ *         <li>a function which selects one of its arguments, i.e. {@code
+ *         max}, passes the derivative of the selected one</li>
+ *         <li>{@code power} keeps the sign of the exponents like the
+ *         function itself, so the sign is a constant factor</li>
+ *     </ul>
+ * </p>
+ */
+public final class Derivatives {
+    /**
+     * The relative step of a central difference, the cube root of the
+     * machine epsilon gives the least sum of the truncation and the
+     * rounding errors
+     */
+    private static final double STEP = Math.cbrt(Math.ulp(1.0));
+
+    /**
+     * The rules by the name and the arity of a function, i.e. {@code sin/1}
+     */
+    private static final Map<String, Rule> RULES = new HashMap<>();
+
+    static {
+        RULES.put("power/-1", Derivatives::power);
+        RULES.put("divide/-1", Derivatives::divide);
+        RULES.put("multiply/-1", Derivatives::multiply);
+        RULES.put("subtract/-1", (a, v, i) -> i == 0 ? 1 : -1);
+        RULES.put("sum/-1", (a, v, i) -> 1);
+
+        RULES.put("IEEEremainder/2", (a, v, i) -> i == 0 ? 1 : -(a[0] - v) / a[1]);
+        RULES.put("abs/1", (a, v, i) -> Math.signum(a[0]));
+        RULES.put("acos/1", (a, v, i) -> -1 / Math.sqrt(1 - a[0] * a[0]));
+        RULES.put("asin/1", (a, v, i) -> 1 / Math.sqrt(1 - a[0] * a[0]));
+        RULES.put("atan/1", (a, v, i) -> 1 / (1 + a[0] * a[0]));
+        RULES.put("atan2/2", (a, v, i) -> (i == 0 ? a[1] : -a[0]) / (a[0] * a[0] + a[1] * a[1]));
+        RULES.put("cbrt/1", (a, v, i) -> 1 / (3 * v * v));
+        RULES.put("ceil/1", (a, v, i) -> 0);
+        RULES.put("copySign/2", (a, v, i) -> i == 0 ? Math.signum(a[0]) * Math.copySign(1, a[1]) : 0);
+        RULES.put("cos/1", (a, v, i) -> -Math.sin(a[0]));
+        RULES.put("cosh/1", (a, v, i) -> Math.sinh(a[0]));
+        RULES.put("exp/1", (a, v, i) -> v);
+        RULES.put("expm1/1", (a, v, i) -> v + 1);
+        RULES.put("floor/1", (a, v, i) -> 0);
+        RULES.put("fma/3", (a, v, i) -> i == 0 ? a[1] : i == 1 ? a[0] : 1);
+        RULES.put("hypot/2", (a, v, i) -> a[i] / v);
+        RULES.put("log/1", (a, v, i) -> 1 / a[0]);
+        RULES.put("log10/1", (a, v, i) -> 1 / (a[0] * Math.log(10)));
+        RULES.put("log1p/1", (a, v, i) -> 1 / (1 + a[0]));
+        RULES.put("max/2", Derivatives::selected);
+        RULES.put("min/2", Derivatives::selected);
+        RULES.put("nextAfter/2", (a, v, i) -> i == 0 ? 1 : 0);
+        RULES.put("nextDown/1", (a, v, i) -> 1);
+        RULES.put("nextUp/1", (a, v, i) -> 1);
+        RULES.put("pow/2", (a, v, i) -> i == 0 ? monomial(a[0], a[1]) : powerExponent(a[0], v));
+        RULES.put("rint/1", (a, v, i) -> 0);
+        RULES.put("signum/1", (a, v, i) -> 0);
+        RULES.put("sin/1", (a, v, i) -> Math.cos(a[0]));
+        RULES.put("sinh/1", (a, v, i) -> Math.cosh(a[0]));
+        RULES.put("sqrt/1", (a, v, i) -> 1 / (2 * v));
+        RULES.put("tan/1", (a, v, i) -> 1 + v * v);
+        RULES.put("tanh/1", (a, v, i) -> 1 - v * v);
+        RULES.put("toDegrees/1", (a, v, i) -> 180 / Math.PI);
+        RULES.put("toRadians/1", (a, v, i) -> Math.PI / 180);
+        RULES.put("ulp/1", (a, v, i) -> 0);
+
+        RULES.put("clamp/3", Derivatives::clamp);
+        RULES.put("lerp/3", (a, v, i) -> i == 0 ? 1 - a[2] : i == 1 ? a[2] : a[1] - a[0]);
+        RULES.put("if/3", (a, v, i) -> i == 0 ? 0 : (i == 1) == (a[0] != 0) ? 1 : 0);
+        RULES.put("choose/-1", (a, v, i) -> i > 0 && DomainFunctions.select(a[0], a.length - 1) == i - 1 ? 1 : 0);
+        RULES.put("max/-1", Derivatives::selected);
+        RULES.put("min/-1", Derivatives::selected);
+    }
+
+    /**
+     * Constructs an object
+     */
+    private Derivatives() {
+    }
+
+    /**
+     * Computes a partial derivative of a function, either by its rule or
+     * by a central difference
+     *
+     * @param function  The function
+     * @param arguments The arguments
+     * @param value     The value of the function for the arguments
+     * @param index     The index of the argument
+     * @return The partial derivative
+     * @throws ArithmeticException If the function fails near the arguments
+     */
+    static double derivative(final MathFunction function, final double[] arguments, final double value,
+                             final int index) throws ArithmeticException {
+
+        Rule rule = RULES.get(function.getName() + "/" + function.getArity());
+        if (rule != null) {
+            return rule.derivative(arguments, value, index);
+        }
+
+        double[] shifted = arguments.clone();
+        return difference(x -> {
+            shifted[index] = x;
+            return function.apply(shifted);
+        }, arguments[index]);
+    }
+
+    /**
+     * Approximates the derivative of a function of one argument by a
+     * central difference
+     *
+     * @param function The function
+     * @param x        The argument
+     * @return The approximated derivative
+     * @throws ArithmeticException If the function fails near the argument
+     */
+    public static double difference(final DoubleUnaryOperator function, final double x) throws ArithmeticException {
+        double step = STEP * Math.max(1, Math.abs(x));
+
+        return (function.applyAsDouble(x + step) - function.applyAsDouble(x - step)) / (2 * step);
+    }
+
+    /**
+     * Computes the derivative of the power operator {@code x^y = sign(x) *
+     * pow(x, y)} by the base
+     *
+     * @param x The base
+     * @param y The exponent
+     * @return The partial derivative
+     */
+    public static double powerBase(final double x, final double y) {
+        return (x < 0 ? -1 : 1) * monomial(x, y);
+    }
+
+    /**
+     * Computes the derivative of {@code Math.pow(x, y)} by the base, {@code
+     * y * x^(y - 1)}
+     *
+     * @param x The base
+     * @param y The exponent
+     * @return The partial derivative, 0 for the zero exponent
+     */
+    private static double monomial(final double x, final double y) {
+        return y == 0 ? 0 : y * Math.pow(x, y - 1);
+    }
+
+    /**
+     * Computes the derivative of a power by the exponent, {@code d(x^y)/dy
+     * = x^y * ln(x)}
+     *
+     * @param x     The base
+     * @param value The value of the power
+     * @return The partial derivative, NaN for a negative base
+     */
+    public static double powerExponent(final double x, final double value) {
+        return value == 0 ? 0 : value * Math.log(x);
+    }
+
+    /**
+     * Computes a partial derivative of {@code power(a0, a1, ..., an) =
+     * a0^(a1^(...^an))} where the sign of every power is taken from its
+     * exponent. The powers are computed from the right, the chain rule is
+     * applied from the left.
+     *
+     * @param arguments The arguments
+     * @param value     The value of the function
+     * @param index     The index of the argument
+     * @return The partial derivative
+     */
+    private static double power(final double[] arguments, final double value, final int index) {
+        int last = arguments.length - 1;
+        double[] exponents = new double[arguments.length];
+        exponents[last] = arguments[last];
+
+        for (int k = last - 1; k >= 0; k--) {
+            exponents[k] = (exponents[k + 1] < 0 ? -1 : 1) * Math.pow(arguments[k], exponents[k + 1]);
+        }
+
+        double result = 1;
+        for (int k = 0; k < index; k++) {
+            result *= powerExponent(arguments[k], exponents[k]);
+        }
+
+        return index == last ? result :
+                result * (exponents[index + 1] < 0 ? -1 : 1) * monomial(arguments[index], exponents[index + 1]);
+    }
+
+    /**
+     * Computes a partial derivative of {@code divide(a0, a1, ..., an) = a0 /
+     * (a1 * ... * an)}
+     *
+     * @param arguments The arguments
+     * @param value     The value of the function
+     * @param index     The index of the argument
+     * @return The partial derivative
+     */
+    private static double divide(final double[] arguments, final double value, final int index) {
+        if (index > 0) {
+            return -value / arguments[index];
+        }
+
+        double result = 1;
+        for (int k = 1; k < arguments.length; k++) {
+            result /= arguments[k];
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes a partial derivative of a product, i.e. the product of the
+     * other arguments, so a zero argument does not need a division
+     *
+     * @param arguments The arguments
+     * @param value     The value of the function
+     * @param index     The index of the argument
+     * @return The partial derivative
+     */
+    private static double multiply(final double[] arguments, final double value, final int index) {
+        double result = 1;
+
+        for (int k = 0; k < arguments.length; k++) {
+            if (k != index) {
+                result *= arguments[k];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes a partial derivative of a function which gives one of its
+     * arguments, i.e. {@code min} and {@code max}, the first argument which
+     * equals the value is the selected one
+     *
+     * @param arguments The arguments
+     * @param value     The value of the function
+     * @param index     The index of the argument
+     * @return 1 for the selected argument, 0 for the other ones
+     */
+    private static double selected(final double[] arguments, final double value, final int index) {
+        for (int k = 0; k < arguments.length; k++) {
+            if (arguments[k] == value) {
+                return k == index ? 1 : 0;
+            }
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * Computes a partial derivative of {@code clamp(x, min, max)}, the
+     * value is either x or one of the bounds
+     *
+     * @param arguments The arguments
+     * @param value     The value of the function
+     * @param index     The index of the argument
+     * @return 1 for the argument which gives the value, 0 for the other ones
+     */
+    private static double clamp(final double[] arguments, final double value, final int index) {
+        int selected = arguments[0] < arguments[1] ? 1 : arguments[0] > arguments[2] ? 2 : 0;
+
+        return selected == index ? 1 : 0;
+    }
+
+    /**
+     * A partial derivative of a function
+     */
+    @FunctionalInterface
+    private interface Rule {
+        /**
+         * Computes the partial derivative
+         *
+         * @param arguments The arguments
+         * @param value     The value of the function
+         * @param index     The index of the argument
+         * @return The partial derivative
+         */
+        double derivative(double[] arguments, double value, int index);
+    }
+}
@@ -0,0 +1,100 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Provides the functions which are often needed in domain formulas but
+ * are not a part of {@code Math}. It is registered as a service, i.e. it is
+ * found by {@link java.util.ServiceLoader} like the providers of any other
+ * library:
+ * <p>
+ *     <ul>
+ *         <li>clamp(x, min, max) limits x to the range [min, max]</li>
+ *         <li>lerp(a, b, t) interpolates linearly between a and b, t = 0
+ *         gives a and t = 1 gives b</li>
+ *         <li>if(c, a, b) gives a if c is not 0, otherwise b</li>
+ *         <li>choose(i, a1, ..., an) gives the argument ai, i counts from 1</li>
+ *         <li>min(a1, ..., an) and max(a1, ..., an) of any number of
+ *         arguments</li>
+ *     </ul>
+ * </p>
+ * The functions here compute all their arguments. An engine which can skip
+ * the arguments which are not selected, like {@code compiler.StackComputer},
+ * compiles {@code if} and {@code choose} into jumps instead of calls.
+ */
+public class DomainFunctions implements FunctionProvider {
+    @Override
+    public Collection<MathFunction> getFunctions() {
+        return Arrays.asList(
+                MathFunction.of("clamp", DomainFunctions::clamp),
+                MathFunction.of("lerp", DomainFunctions::lerp),
+                MathFunction.of("if", DomainFunctions::condition),
+                MathFunction.variadic("choose", true, DomainFunctions::choose),
+                MathFunction.variadic("min", true, arguments -> Arrays.stream(arguments).min().orElse(Double.NaN)),
+                MathFunction.variadic("max", true, arguments -> Arrays.stream(arguments).max().orElse(Double.NaN)));
+    }
+
+    /**
+     * Limits the value to the range
+     *
+     * @param x   The value
+     * @param min The lower bound
+     * @param max The upper bound
+     * @return The limited value, NaN if the lower bound is greater than
+     * the upper one like {@code Math} functions do out of their domain
+     */
+    static double clamp(final double x, final double min, final double max) {
+        return min > max ? Double.NaN : Math.min(Math.max(x, min), max);
+    }
+
+    /**
+     * Interpolates linearly between two values. The result is exact at
+     * both ends of the range.
+     *
+     * @param a The value at 0
+     * @param b The value at 1
+     * @param t The position
+     * @return The interpolated value
+     */
+    static double lerp(final double a, final double b, final double t) {
+        return t == 1 ? b : a + t * (b - a);
+    }
+
+    /**
+     * Selects one of two values
+     *
+     * @param condition The condition, 0 is false
+     * @param a         The value if the condition is true
+     * @param b         The value if the condition is false
+     * @return The selected value
+     */
+    static double condition(final double condition, final double a, final double b) {
+        return condition != 0 ? a : b;
+    }
+
+    /**
+     * Selects a value by its position
+     *
+     * @param arguments The position which counts from 1 and the values
+     * @return The selected value, NaN if there are no arguments, or the
+     * position is not an integer, or it is out of the values
+     */
+    public static double choose(final double... arguments) {
+        int index = arguments.length == 0 ? -1 : select(arguments[0], arguments.length - 1);
+
+        return index < 0 ? Double.NaN : arguments[index + 1];
+    }
+
+    /**
+     * Finds the value which {@code choose} selects
+     *
+     * @param position The position which counts from 1
+     * @param values   The number of values
+     * @return The index of the value which counts from 0, -1 if the
+     * position is not an integer or it is out of the values
+     */
+    public static int select(final double position, final int values) {
+        return position >= 1 && position <= values && position == Math.floor(position) ? (int) position - 1 : -1;
+    }
+}
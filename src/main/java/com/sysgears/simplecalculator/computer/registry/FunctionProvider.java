@@ -0,0 +1,20 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import java.util.Collection;
+
+/**
+ * Contributes functions to {@link FunctionRegistry}. Providers are found
+ * by {@link java.util.ServiceLoader}, so a library adds its functions by
+ * listing its provider in the {@code
+ * META-INF/services/com.sysgears.simplecalculator.computer.registry.FunctionProvider}
+ * file. A provider must have a public constructor without arguments.
+ */
+public interface FunctionProvider {
+    /**
+     * Returns the functions of the provider. It is called once, when the
+     * registry is built.
+     *
+     * @return The functions
+     */
+    Collection<MathFunction> getFunctions();
+}
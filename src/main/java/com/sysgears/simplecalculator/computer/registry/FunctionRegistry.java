@@ -0,0 +1,256 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps all the functions which can be called from expressions. The
+ * registry is built once from the {@link FunctionProvider}s and is never
+ * changed afterwards, so it can be read from any thread without locks.
+ * The ideas that lie behind it are next:
+ * <p>
+ *     <ul>
+ *         <li>the standard functions, i.e. the User's functions and the
+ *         {@code Math} ones, come first, then the functions of the
+ *         providers which are found by {@link ServiceLoader}</li>
+ *         <li>every name gets an index in the order of registration, a
+ *         name can have several overloads of different arities and one
+ *         variadic overload</li>
+ *         <li>a provider can replace a {@code Math} function of the same
+ *         name and arity, so a method which a newer JDK adds, like {@code
+ *         Math.clamp()}, does not collide with a provided function</li>
+ *         <li>the overloads are kept in arrays by the index and the arity,
+ *         so an engine resolves a call once, when it reads the expression,
+ *         and then calls the function directly</li>
+ *     </ul>
+ * </p>
+ */
+public final class FunctionRegistry {
+    /**
+     * A pattern for a function name
+     */
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z][a-zA-Z0-9]*");
+
+    /**
+     * The registry of the standard functions and the ones of the class path
+     */
+    private static final FunctionRegistry DEFAULT = new FunctionRegistry(getProviders());
+
+    /**
+     * The names of the functions by their indexes
+     */
+    private final String[] names;
+
+    /**
+     * The indexes of the functions by their names
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * The overloads of a fixed arity by the index and the arity, an array
+     * is not longer than the greatest arity of the name
+     */
+    private final MathFunction[][] overloads;
+
+    /**
+     * The variadic overloads by the index, null if a name does not have it
+     */
+    private final MathFunction[] variadic;
+
+    /**
+     * All the functions in the order of registration
+     */
+    private final List<MathFunction> functions;
+
+    /**
+     * Constructs an object
+     *
+     * @param providers The providers of the functions
+     * @throws IllegalStateException If a function has a wrong name or
+     *                               arity, or it is registered twice and
+     *                               the first one is not a {@code Math}
+     *                               function
+     */
+    FunctionRegistry(final Iterable<FunctionProvider> providers) throws IllegalStateException {
+        Map<String, List<MathFunction>> byName = new LinkedHashMap<>();
+        List<MathFunction> all = new ArrayList<>();
+
+        for (FunctionProvider provider : providers) {
+            for (MathFunction function : provider.getFunctions()) {
+                if (!NAME.matcher(function.getName()).matches() || function.getArity() < MathFunction.VARIADIC) {
+                    throw new IllegalStateException("The function " + function.getName() + " of " +
+                            provider.getClass().getName() + " has a wrong name or arity");
+                }
+
+                List<MathFunction> same = byName.computeIfAbsent(function.getName(), name -> new ArrayList<>());
+                MathFunction registered = same.stream().filter(f -> f.getArity() == function.getArity()).
+                        findFirst().orElse(null);
+
+                if (registered instanceof ArityFunctions.MethodFunction) {
+                    // the provided function replaces the Math one and takes the place of a provided one
+                    same.remove(registered);
+                    all.remove(registered);
+                    if (same.isEmpty()) {
+                        byName.remove(function.getName());
+                        same = byName.computeIfAbsent(function.getName(), name -> new ArrayList<>());
+                    }
+
+                } else if (registered != null) {
+                    throw new IllegalStateException("The function " + function.getName() + " of " +
+                            function.getArity() + " arguments is registered twice");
+                }
+
+                same.add(function);
+                all.add(function);
+            }
+        }
+
+        this.names = byName.keySet().toArray(new String[0]);
+        this.overloads = new MathFunction[names.length][];
+        this.variadic = new MathFunction[names.length];
+
+        Map<String, Integer> map = new HashMap<>();
+        for (int index = 0; index < names.length; index++) {
+            map.put(names[index], index);
+            overloads[index] = new MathFunction[0];
+
+            for (MathFunction function : byName.get(names[index])) {
+                if (function.getArity() == MathFunction.VARIADIC) {
+                    variadic[index] = function;
+
+                } else {
+                    if (function.getArity() >= overloads[index].length) {
+                        overloads[index] = Arrays.copyOf(overloads[index], function.getArity() + 1);
+                    }
+                    overloads[index][function.getArity()] = function;
+                }
+            }
+        }
+
+        this.indexes = Collections.unmodifiableMap(map);
+        this.functions = Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Returns the registry of the standard functions and the functions of
+     * all the providers on the class path
+     *
+     * @return The registry
+     */
+    public static FunctionRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the index of the function name
+     *
+     * @param name The function name
+     * @return The index, -1 if there is no such a function
+     */
+    public int indexOf(final String name) {
+        Integer index = indexes.get(name);
+
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Finds the overload of the function for the number of arguments. An
+     * overload of the exact arity is preferred to the variadic one.
+     *
+     * @param name      The function name
+     * @param arguments The number of arguments
+     * @return The function, null if there is no such a function
+     */
+    public MathFunction find(final String name, final int arguments) {
+        int index = indexOf(name);
+
+        return index < 0 ? null : find(index, arguments);
+    }
+
+    /**
+     * Finds the overload of the function for the number of arguments
+     *
+     * @param index     The index of the function name
+     * @param arguments The number of arguments
+     * @return The function, null if the function does not take such a
+     * number of arguments
+     */
+    public MathFunction find(final int index, final int arguments) {
+        MathFunction[] fixed = overloads[index];
+
+        return arguments < fixed.length && fixed[arguments] != null ? fixed[arguments] : variadic[index];
+    }
+
+    /**
+     * Returns all the overloads of the function
+     *
+     * @param index The index of the function name
+     * @return The overloads
+     */
+    public List<MathFunction> getOverloads(final int index) {
+        List<MathFunction> result = new ArrayList<>();
+
+        for (MathFunction function : overloads[index]) {
+            if (function != null) {
+                result.add(function);
+            }
+        }
+        if (variadic[index] != null) {
+            result.add(variadic[index]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the function name
+     *
+     * @param index The index of the function name
+     * @return The name
+     */
+    public String getName(final int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the number of function names
+     *
+     * @return The number of names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns all the functions in the order of registration
+     *
+     * @return The unmodifiable list of functions
+     */
+    public List<MathFunction> getFunctions() {
+        return functions;
+    }
+
+    /**
+     * Finds the providers: the standard one and the ones of the class path
+     *
+     * @return The providers
+     */
+    private static List<FunctionProvider> getProviders() {
+        List<FunctionProvider> providers = new ArrayList<>();
+        providers.add(new StandardFunctions());
+
+        for (FunctionProvider provider : ServiceLoader.load(FunctionProvider.class,
+                                                             FunctionRegistry.class.getClassLoader())) {
+            providers.add(provider);
+        }
+
+        return providers;
+    }
+}
@@ -0,0 +1,172 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A function which can be called from an expression. A function declares
+ * its name, its number of arguments and whether it is pure, and computes
+ * the value on primitive {@code double} arguments. The engines call the
+ * overload of {@code apply} which fits the number of arguments, so a
+ * function of one, two or three arguments which overrides the matching
+ * overload is called without creating an array.
+ * <p>
+ *     Functions are contributed by {@link FunctionProvider}s and are
+ *     collected by {@link FunctionRegistry}.
+ * </p>
+ */
+public interface MathFunction {
+    /**
+     * The arity of a function which takes any number of arguments
+     */
+    int VARIADIC = -1;
+
+    /**
+     * Returns the name which is used in expressions. It starts from a
+     * letter and contains only ASCII letters and digits.
+     *
+     * @return The name
+     */
+    String getName();
+
+    /**
+     * Returns the number of arguments
+     *
+     * @return The number of arguments, {@code VARIADIC} if it can be any
+     */
+    int getArity();
+
+    /**
+     * Checks whether the function always returns the same value for the
+     * same arguments and does not have side effects, so a call with
+     * constant arguments can be computed once
+     *
+     * @return true if the function is pure
+     */
+    boolean isPure();
+
+    /**
+     * Computes the value
+     *
+     * @param arguments The arguments
+     * @return The computed value
+     * @throws ArithmeticException If the arguments are out of the domain
+     */
+    double apply(double[] arguments) throws ArithmeticException;
+
+    /**
+     * Computes a partial derivative. The standard functions and the ones of
+     * {@code DomainFunctions} have exact rules, the other ones are
+     * approximated by a central difference unless they override it.
+     *
+     * @param arguments The arguments
+     * @param value     The value of the function for the arguments
+     * @param index     The index of the argument
+     * @return The partial derivative by the argument
+     * @throws ArithmeticException If the arguments are out of the domain
+     */
+    default double derivative(final double[] arguments, final double value, final int index)
+            throws ArithmeticException {
+
+        return Derivatives.derivative(this, arguments, value, index);
+    }
+
+    /**
+     * Computes the value of one argument
+     *
+     * @param x The argument
+     * @return The computed value
+     * @throws ArithmeticException If the argument is out of the domain
+     */
+    default double apply(double x) throws ArithmeticException {
+        return apply(new double[]{x});
+    }
+
+    /**
+     * Computes the value of two arguments
+     *
+     * @param x The first argument
+     * @param y The second argument
+     * @return The computed value
+     * @throws ArithmeticException If the arguments are out of the domain
+     */
+    default double apply(double x, double y) throws ArithmeticException {
+        return apply(new double[]{x, y});
+    }
+
+    /**
+     * Computes the value of three arguments
+     *
+     * @param x The first argument
+     * @param y The second argument
+     * @param z The third argument
+     * @return The computed value
+     * @throws ArithmeticException If the arguments are out of the domain
+     */
+    default double apply(double x, double y, double z) throws ArithmeticException {
+        return apply(new double[]{x, y, z});
+    }
+
+    /**
+     * Creates a pure function of one argument
+     *
+     * @param name     The name
+     * @param operator The implementation
+     * @return The function
+     */
+    static MathFunction of(final String name, final DoubleUnaryOperator operator) {
+        return new ArityFunctions.Unary(name, true, operator);
+    }
+
+    /**
+     * Creates a pure function of two arguments
+     *
+     * @param name     The name
+     * @param operator The implementation
+     * @return The function
+     */
+    static MathFunction of(final String name, final DoubleBinaryOperator operator) {
+        return new ArityFunctions.Binary(name, true, operator);
+    }
+
+    /**
+     * Creates a pure function of three arguments
+     *
+     * @param name     The name
+     * @param operator The implementation
+     * @return The function
+     */
+    static MathFunction of(final String name, final DoubleTernaryOperator operator) {
+        return new ArityFunctions.Ternary(name, true, operator);
+    }
+
+    /**
+     * Creates a function of any number of arguments
+     *
+     * @param name     The name
+     * @param pure     true if the function is pure
+     * @param function The implementation
+     * @return The function
+     */
+    static MathFunction variadic(final String name, final boolean pure, final ToDoubleFunction<double[]> function) {
+        return new ArityFunctions.Variadic(name, pure, function);
+    }
+
+    /**
+     * An operation on three {@code double} values which produces a {@code
+     * double} value
+     */
+    @FunctionalInterface
+    interface DoubleTernaryOperator {
+        /**
+         * Applies the operator
+         *
+         * @param x The first operand
+         * @param y The second operand
+         * @param z The third operand
+         * @return The result
+         */
+        double applyAsDouble(double x, double y, double z);
+    }
+}
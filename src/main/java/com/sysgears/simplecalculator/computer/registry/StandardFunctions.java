@@ -0,0 +1,63 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import com.sysgears.simplecalculator.computer.function2.Functions;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Provides the functions which are always available: the User's functions
+ * of {@code function2.Functions} in the order of their ordinals and then
+ * the {@code Math} functions of {@code double} arguments in the
+ * alphabetical order. The registry takes them before the functions of the
+ * other providers, so their indexes do not depend on the class path.
+ */
+final class StandardFunctions implements FunctionProvider {
+    /**
+     * The {@code Math} function which is not pure
+     */
+    private static final String IMPURE_FUNCTION = "random";
+
+    @Override
+    public Collection<MathFunction> getFunctions() {
+        List<MathFunction> functions = new ArrayList<>();
+
+        for (Functions function : Functions.values()) {
+            functions.add(MathFunction.variadic(function.getImage(), true, function::calculate));
+        }
+
+        Method[] methods = Stream.of(Math.class.getMethods()).filter(StandardFunctions::isDoubleFunction).
+                                  sorted(Comparator.comparing(Method::getName).thenComparing(Method::getParameterCount)).
+                                  toArray(Method[]::new);
+
+        for (Method method : methods) {
+            try {
+                functions.add(new ArityFunctions.MethodFunction(method.getName(),
+                        !method.getName().equals(IMPURE_FUNCTION), MethodHandles.publicLookup().unreflect(method)));
+
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        return functions;
+    }
+
+    /**
+     * Checks whether the method is a static method of {@code double}
+     * arguments which returns {@code double}
+     *
+     * @param method The method
+     * @return true if the method can be called from an expression
+     */
+    private static boolean isDoubleFunction(final Method method) {
+        return Modifier.isStatic(method.getModifiers()) && method.getReturnType() == double.class &&
+                Stream.of(method.getParameterTypes()).allMatch(type -> type == double.class);
+    }
+}
@@ -0,0 +1,630 @@
+package com.sysgears.simplecalculator.computer.validator;
+
+import com.sysgears.simplecalculator.computer.compiler.OperatorTable;
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.function2.FunctionNames;
+import com.sysgears.simplecalculator.computer.registry.FunctionRegistry;
+import com.sysgears.simplecalculator.computer.registry.MathFunction;
+
+import java.util.function.BiPredicate;
+
+/**
+ * Rejects malformed expressions before any engine starts to compute them.
+ * The expression is read once from left to right, so the check takes O(n)
+ * time. It checks:
+ * <p>
+ *     <ul>
+ *         <li>that there are only digits, letters, operators, parentheses
+ *         and argument delimiters</li>
+ *         <li>that numbers, including the E-notation ones, are complete.
+ *         The function engines also read {@code .5} and {@code 1.}</li>
+ *         <li>that operators have their operands and there are no two signs
+ *         in a row, i.e. '++', '--', '+-' and '-+'. The prefix, infix and
+ *         postfix operators are taken from an {@code OperatorTable}</li>
+ *         <li>that parentheses are balanced</li>
+ *         <li>that every function exists and gets the right number of
+ *         arguments</li>
+ *         <li>that a series or a product binds a variable which is used only
+ *         in its body, i.e. {@code series(k,1,3,k)}</li>
+ *     </ul>
+ * </p>
+ * The functions are the ones of {@code FunctionRegistry}. There are two
+ * grammars: the one of the function engines, which know only '+', '-', '*',
+ * '/' and '^' and no series, and the one of {@code compiler.StackComputer},
+ * which takes its operators from an {@code OperatorTable}. A valid expression
+ * can still fail during the computation, i.e. on a division by zero.
+ * <p>
+ *     The validator keeps the opened parentheses in its own array which grows
+ *     only when an expression is deeper than all the previous ones, so the
+ *     check of a valid expression does not allocate. An object is not thread
+ *     safe.
+ * </p>
+ */
+public class ExpressionValidator {
+    /**
+     * The opening of a parentheses expression
+     */
+    private static final char OPEN_EXP = '(';
+
+    /**
+     * The closing of a parentheses expression
+     */
+    private static final char CLOSE_EXP = ')';
+
+    /**
+     * The delimiter of function's arguments
+     */
+    private static final char DELIMITER = ',';
+
+    /**
+     * The marker of a frame which is not a function call
+     */
+    private static final int GROUP = -1;
+
+    /**
+     * The marker of a frame which is a call of a function defined by a user
+     */
+    private static final int DEFINED = -2;
+
+    /**
+     * The marker of a frame which is a series or a product
+     */
+    private static final int SERIES = -3;
+
+    /**
+     * The number of arguments of a series: the variable, the first and the
+     * last values of the variable and the body
+     */
+    private static final int SERIES_ARGUMENTS = 4;
+
+    /**
+     * The names of the series and the product of {@code compiler.StackComputer}
+     */
+    private static final String[] SERIES_NAMES = {"series", "product"};
+
+    /**
+     * The operators of the function engines
+     */
+    private static final OperatorTable FUNCTION_OPERATORS = new OperatorTable(OperatorTable.PLUS,
+            OperatorTable.NEGATE, OperatorTable.ADD, OperatorTable.SUBTRACT, OperatorTable.MULTIPLY,
+            OperatorTable.DIVIDE, OperatorTable.POWER);
+
+    /**
+     * The number of ints a frame takes: the function index or {@code GROUP},
+     * the position of the opening and the number of arguments
+     */
+    private static final int FRAME_SIZE = 3;
+
+    /**
+     * The bit of the arities of a function which takes any positive number
+     * of arguments
+     */
+    private static final long VARIADIC = Long.MIN_VALUE;
+
+    /**
+     * The allowed numbers of arguments of the functions by their indexes in
+     * {@code FunctionNames}, the bit {@code n} is set if the function takes
+     * {@code n} arguments
+     */
+    private static final long[] ARITIES = new long[FunctionNames.size()];
+
+    static {
+        for (MathFunction function : FunctionRegistry.getDefault().getFunctions()) {
+            int index = FunctionNames.find(function.getName(), 0, function.getName().length());
+
+            if (function.getArity() == MathFunction.VARIADIC) {
+                ARITIES[index] = VARIADIC;
+
+            } else if (function.getArity() < Long.SIZE - 1 && ARITIES[index] != VARIADIC) {
+                ARITIES[index] |= 1L << function.getArity();
+            }
+        }
+    }
+
+    /**
+     * Checks whether a function is defined by a user, the number of
+     * arguments is -1 if it can be any
+     */
+    private final BiPredicate<String, Integer> definedFunctions;
+
+    /**
+     * The operators which are allowed
+     */
+    private final OperatorTable table;
+
+    /**
+     * Whether the grammar is the one of {@code compiler.StackComputer}: a
+     * series binds a variable and a number cannot start or end with a point
+     */
+    private final boolean compiled;
+
+    /**
+     * The frames of the opened parentheses
+     */
+    private int[] frames = new int[16 * FRAME_SIZE];
+
+    /**
+     * The position of the last found error
+     */
+    private int errorPosition = -1;
+
+    /**
+     * Constructs an object which knows only the functions of {@code
+     * FunctionRegistry} and checks the grammar of the function engines
+     */
+    public ExpressionValidator() {
+        this((name, arguments) -> false);
+    }
+
+    /**
+     * Constructs an object which checks the grammar of the function engines
+     * and also accepts the functions defined by a user, i.e. {@code
+     * Computer::isDefined}. The names of such functions are copied to be
+     * checked, the other names are not.
+     *
+     * @param definedFunctions Checks whether a function is defined by a
+     *                         user, the number of arguments is -1 if it can
+     *                         be any
+     */
+    public ExpressionValidator(final BiPredicate<String, Integer> definedFunctions) {
+        this(definedFunctions, FUNCTION_OPERATORS, false);
+    }
+
+    /**
+     * Constructs an object which checks the grammar of {@code
+     * compiler.StackComputer} with the operators of the table
+     *
+     * @param definedFunctions Checks whether a function is defined by a
+     *                         user, the number of arguments is -1 if it can
+     *                         be any
+     * @param table            The operators
+     */
+    public ExpressionValidator(final BiPredicate<String, Integer> definedFunctions, final OperatorTable table) {
+        this(definedFunctions, table, true);
+    }
+
+    /**
+     * Constructs an object
+     *
+     * @param definedFunctions Checks whether a function is defined by a
+     *                         user
+     * @param table            The operators
+     * @param compiled         Whether the grammar is the one of {@code
+     *                         compiler.StackComputer}
+     */
+    private ExpressionValidator(final BiPredicate<String, Integer> definedFunctions, final OperatorTable table,
+                                final boolean compiled) {
+        this.definedFunctions = definedFunctions;
+        this.table = table;
+        this.compiled = compiled;
+    }
+
+    /**
+     * Checks the expression
+     *
+     * @param expression The string contains a math expression. Can be empty
+     * @return null if the expression is valid, or the reason otherwise. The
+     * position of the wrong part is returned by {@code getErrorPosition()}
+     */
+    public ErrorCode validate(final CharSequence expression) {
+        if (expression == null) {
+            return fail(ErrorCode.NULL_EXPRESSION, -1);
+        }
+
+        int length = expression.length();
+        int top = 0;
+        boolean expectOperand = true;
+        boolean afterSign = false;
+        int i = 0;
+
+        while (i < length) {
+            char symbol = expression.charAt(i);
+
+            if (expectOperand) {
+                if (isDigit(symbol) || !compiled && symbol == '.' && i + 1 < length &&
+                        isDigit(expression.charAt(i + 1))) {
+                    int end = scanNumber(expression, i, compiled);
+                    if (end < 0) {
+                        return fail(ErrorCode.WRONG_NUMBER, i);
+                    }
+                    expectOperand = false;
+                    i = end;
+
+                } else if (isLetter(symbol)) {
+                    int end = scanName(expression, i);
+
+                    if (end == length || expression.charAt(end) != OPEN_EXP) {
+                        if (!isBound(expression, i, end, top)) {
+                            return fail(ErrorCode.NOT_FUNCTION_CALL, i);
+                        }
+                        expectOperand = false;
+                        i = end;
+
+                    } else if (compiled && isSeries(expression, i, end)) {
+                        // the variable is the first argument, it is bound only in the body
+                        int variableEnd = scanName(expression, end + 1);
+                        if (variableEnd == end + 1 || !isLetter(expression.charAt(end + 1)) ||
+                                variableEnd == length || expression.charAt(variableEnd) != DELIMITER) {
+                            return fail(ErrorCode.WRONG_SERIES, i);
+                        }
+
+                        top = push(top, SERIES, i);
+                        frames[top - 1] = 2;
+                        i = variableEnd + 1;
+
+                    } else {
+                        int function = FunctionNames.find(expression, i, end);
+                        if (function < 0 && definedFunctions.test(expression.subSequence(i, end).toString(), -1)) {
+                            function = DEFINED;
+
+                        } else if (function < 0) {
+                            return fail(ErrorCode.UNKNOWN_FUNCTION, i);
+                        }
+
+                        top = push(top, function, i);
+                        i = end + 1;
+                    }
+
+                } else if (symbol == OPEN_EXP) {
+                    top = push(top, GROUP, i);
+                    i++;
+
+                } else if (table.findPrefix(symbol) != -1 && !(afterSign && isSign(symbol))) {
+                    afterSign = isSign(symbol);
+                    i++;
+                    continue;
+
+                } else if (symbol == CLOSE_EXP && !afterSign && top > 0 && frames[top - FRAME_SIZE] != GROUP &&
+                        frames[top - 1] == 1 && expression.charAt(i - 1) == OPEN_EXP) {
+                    // a function without arguments
+                    frames[top - 1] = 0;
+                    if (!hasArity(expression, frames[top - FRAME_SIZE], frames[top - 2], 0)) {
+                        return fail(ErrorCode.UNKNOWN_FUNCTION, getNameStart(expression, frames[top - 2]));
+                    }
+                    top -= FRAME_SIZE;
+                    expectOperand = false;
+                    i++;
+
+                } else {
+                    return fail(isLegal(symbol) ? ErrorCode.MISSING_OPERAND : ErrorCode.UNEXPECTED_SYMBOL, i);
+                }
+
+            } else {
+                if (table.findInfix(symbol) != -1) {
+                    expectOperand = true;
+                    // '+-', '-+', '--' and '++' are not allowed
+                    afterSign = isSign(symbol);
+                    i++;
+                    continue;
+
+                } else if (table.findPostfix(symbol) != -1) {
+                    // the operand stays complete, so an operator follows it
+
+                } else if (symbol == CLOSE_EXP) {
+                    if (top == 0) {
+                        return fail(ErrorCode.NOT_OPENED, i);
+                    }
+
+                    int function = frames[top - FRAME_SIZE];
+                    if (function != GROUP && !hasArity(expression, function, frames[top - 2], frames[top - 1])) {
+                        return fail(ErrorCode.UNKNOWN_FUNCTION, getNameStart(expression, frames[top - 2]));
+                    }
+                    top -= FRAME_SIZE;
+
+                } else if (symbol == DELIMITER) {
+                    if (top == 0 || frames[top - FRAME_SIZE] == GROUP) {
+                        return fail(ErrorCode.MISPLACED_DELIMITER, i);
+                    }
+                    frames[top - 1]++;
+                    expectOperand = true;
+
+                } else {
+                    return fail(ErrorCode.UNEXPECTED_SYMBOL, i);
+                }
+                i++;
+            }
+
+            afterSign = false;
+        }
+
+        if (expectOperand && length > 0) {
+            return fail(ErrorCode.MISSING_OPERAND, length);
+
+        } else if (top > 0) {
+            return fail(ErrorCode.NOT_CLOSED, frames[top - FRAME_SIZE] == GROUP ? frames[top - 2] :
+                    getNameStart(expression, frames[top - 2]));
+        }
+
+        errorPosition = -1;
+        return null;
+    }
+
+    /**
+     * Checks the expression and throws an exception if it is malformed
+     *
+     * @param expression The string contains a math expression. Can be empty
+     * @throws InvalidInputExpressionException If the expression is malformed
+     */
+    public void check(final String expression) throws InvalidInputExpressionException {
+        ErrorCode errorCode = validate(expression);
+
+        if (errorCode != null) {
+            throw new InvalidInputExpressionException(errorCode, expression, errorPosition);
+        }
+    }
+
+    /**
+     * Returns the position of the wrong part found by the last check
+     *
+     * @return The position, -1 if the expression is valid
+     */
+    public int getErrorPosition() {
+        return errorPosition;
+    }
+
+    /**
+     * Remembers the error position
+     *
+     * @param errorCode The reason
+     * @param position  The position of the wrong part
+     * @return The reason
+     */
+    private ErrorCode fail(final ErrorCode errorCode, final int position) {
+        errorPosition = position;
+        return errorCode;
+    }
+
+    /**
+     * Opens a frame. Grows the frames array if it is full.
+     *
+     * @param top      The size of the frames stack
+     * @param function The function index or {@code GROUP}
+     * @param position The position of the opening
+     * @return The new size of the frames stack
+     */
+    private int push(final int top, final int function, final int position) {
+        if (top == frames.length) {
+            int[] grown = new int[frames.length * 2];
+            System.arraycopy(frames, 0, grown, 0, top);
+            frames = grown;
+        }
+
+        frames[top] = function;
+        frames[top + 1] = position;
+        frames[top + 2] = 1;
+
+        return top + FRAME_SIZE;
+    }
+
+    /**
+     * Finds the end of a number which starts from the specified index
+     *
+     * @param expression The expression
+     * @param start      The index of the first digit or the point
+     * @param strict       Whether there must be digits after the point
+     * @return The index after the last symbol of the number, -1 if the
+     * number is not complete
+     */
+    private static int scanNumber(final CharSequence expression, final int start, final boolean strict) {
+        int length = expression.length();
+        int end = skipDigits(expression, start);
+
+        if (end < length && expression.charAt(end) == '.') {
+            int fraction = skipDigits(expression, end + 1);
+            if (fraction == end + 1 && (strict || end == start)) {
+                return -1;
+            }
+            end = fraction;
+        }
+
+        if (end < length && (expression.charAt(end) == 'e' || expression.charAt(end) == 'E')) {
+            int exponent = end + 1;
+            if (exponent < length && (expression.charAt(exponent) == '-' || expression.charAt(exponent) == '+')) {
+                exponent++;
+            }
+
+            end = skipDigits(expression, exponent);
+            if (end == exponent) {
+                return -1;
+            }
+        }
+
+        return end;
+    }
+
+    /**
+     * Skips all the digits which start from the specified index
+     *
+     * @param expression The expression
+     * @param start      The index to start from
+     * @return The index of the first symbol which is not a digit
+     */
+    private static int skipDigits(final CharSequence expression, final int start) {
+        int end = start;
+
+        while (end < expression.length() && isDigit(expression.charAt(end))) {
+            end++;
+        }
+
+        return end;
+    }
+
+    /**
+     * Finds the end of a name which starts from the specified index
+     *
+     * @param expression The expression
+     * @param start      The index of the first letter
+     * @return The index after the last letter or digit of the name
+     */
+    private static int scanName(final CharSequence expression, final int start) {
+        int end = start;
+
+        while (end < expression.length() && (isLetter(expression.charAt(end)) || isDigit(expression.charAt(end)))) {
+            end++;
+        }
+
+        return end;
+    }
+
+    /**
+     * Checks whether the name is a series or a product
+     *
+     * @param expression The expression
+     * @param start      The index of the first letter
+     * @param end        The index after the last letter
+     * @return true if it is a series
+     */
+    private static boolean isSeries(final CharSequence expression, final int start, final int end) {
+        for (String name : SERIES_NAMES) {
+            if (isName(name, expression, start, end)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether the name is the variable of a series which body is
+     * being read
+     *
+     * @param expression The expression
+     * @param start      The index of the first letter
+     * @param end        The index after the last letter
+     * @param top        The size of the frames stack
+     * @return true if the name is bound
+     */
+    private boolean isBound(final CharSequence expression, final int start, final int end, final int top) {
+        for (int frame = top - FRAME_SIZE; frame >= 0; frame -= FRAME_SIZE) {
+            if (frames[frame] == SERIES && frames[frame + 2] == SERIES_ARGUMENTS) {
+                int variable = scanName(expression, frames[frame + 1]) + 1;
+                int variableEnd = scanName(expression, variable);
+
+                if (isName(expression.subSequence(variable, variableEnd), expression, start, end)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether a part of the expression is the name
+     *
+     * @param name       The name
+     * @param expression The expression
+     * @param start      The index of the first letter
+     * @param end        The index after the last letter
+     * @return true if the part equals to the name
+     */
+    private static boolean isName(final CharSequence name, final CharSequence expression, final int start,
+                                  final int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != expression.charAt(start + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds the start of the function name which is followed by the opening
+     *
+     * @param expression The expression
+     * @param open       The position of the opening
+     * @return The position of the first letter
+     */
+    private static int getNameStart(final CharSequence expression, final int open) {
+        int start = open;
+
+        while (start > 0 && (isLetter(expression.charAt(start - 1)) || isDigit(expression.charAt(start - 1)))) {
+            start--;
+        }
+
+        return start;
+    }
+
+    /**
+     * Checks whether the function of a frame takes the number of arguments
+     *
+     * @param expression The expression
+     * @param function   The function index or {@code DEFINED}
+     * @param position   The position of the function name
+     * @param arguments  The number of arguments
+     * @return true if the number is allowed
+     */
+    private boolean hasArity(final CharSequence expression, final int function, final int position,
+                             final int arguments) {
+        if (function == SERIES) {
+            return arguments == SERIES_ARGUMENTS;
+
+        } else if (function != DEFINED) {
+            return hasArity(function, arguments);
+        }
+
+        return definedFunctions.test(expression.subSequence(position, scanName(expression, position)).toString(),
+                                     arguments);
+    }
+
+    /**
+     * Checks whether the function takes the number of arguments
+     *
+     * @param function  The function index
+     * @param arguments The number of arguments
+     * @return true if the number is allowed
+     */
+    private static boolean hasArity(final int function, final int arguments) {
+        long arities = ARITIES[function];
+
+        return arities == VARIADIC ? arguments > 0 : arguments < Long.SIZE - 1 && (arities & 1L << arguments) != 0;
+    }
+
+    /**
+     * Checks whether the symbol can be a part of an expression
+     *
+     * @param symbol The symbol
+     * @return true if the symbol is allowed
+     */
+    private boolean isLegal(final char symbol) {
+        return isDigit(symbol) || isLetter(symbol) || symbol == OPEN_EXP || symbol == CLOSE_EXP ||
+                symbol == DELIMITER || symbol == '.' || table.findPrefix(symbol) != -1 ||
+                table.findInfix(symbol) != -1 || table.findPostfix(symbol) != -1;
+    }
+
+    /**
+     * Checks whether the symbol is a sign, two signs cannot follow each other
+     *
+     * @param symbol The symbol
+     * @return true if it is a sign
+     */
+    private static boolean isSign(final char symbol) {
+        return symbol == '+' || symbol == '-';
+    }
+
+    /**
+     * Checks whether the symbol is an ASCII digit
+     *
+     * @param symbol The symbol
+     * @return true if the symbol is a digit
+     */
+    private static boolean isDigit(final char symbol) {
+        return symbol >= '0' && symbol <= '9';
+    }
+
+    /**
+     * Checks whether the symbol is an ASCII letter
+     *
+     * @param symbol The symbol
+     * @return true if the symbol is a letter
+     */
+    private static boolean isLetter(final char symbol) {
+        return symbol >= 'a' && symbol <= 'z' || symbol >= 'A' && symbol <= 'Z';
+    }
+}
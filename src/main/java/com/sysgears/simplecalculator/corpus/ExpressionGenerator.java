@@ -0,0 +1,404 @@
+package com.sysgears.simplecalculator.corpus;
+
+import com.sysgears.simplecalculator.computer.function2.Functions;
+import com.sysgears.simplecalculator.computer.operators.Operators;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates a reproducible corpus of math expressions for benchmarks and
+ * load tests. Expressions are written in the syntax of {@code
+ * function2.FunctionComputer}, i.e.: {@code 12*(3-sin(4.5))/power(2,3,1)}.
+ * <p>
+ *     <ul>
+ *         <li>the same seed and parameters always give the same sequence</li>
+ *         <li>every binary operator of {@code Operators} and every
+ *         function of {@code function2.Functions}, including the {@code
+ *         Math} ones, is used in turn, so a few hundred expressions cover
+ *         all of them</li>
+ *         <li>the share of invalid expressions is configurable, an invalid
+ *         expression is a valid one spoiled by a syntax error</li>
+ *         <li>expressions are generated one by one and are never kept, so
+ *         a corpus of any size can be streamed to a file</li>
+ *     </ul>
+ * </p>
+ * Valid means syntactically valid: a function can still get an argument
+ * out of its domain, i.e. {@code acos(5)}.
+ */
+public class ExpressionGenerator implements Iterator<String> {
+    /**
+     * The function which is not used since its result is not reproducible
+     */
+    private static final String EXCLUDED_FUNCTION = "random";
+
+    /**
+     * The symbols which are not allowed in expressions
+     */
+    private static final String WRONG_SYMBOLS = "#$&?@";
+
+    /**
+     * The random generator
+     */
+    private final Random random;
+
+    /**
+     * The number of literals in an expression
+     */
+    private final int size;
+
+    /**
+     * The maximum nesting depth of parentheses and functions
+     */
+    private final int depth;
+
+    /**
+     * The distribution of literals
+     */
+    private final Literals literals;
+
+    /**
+     * The share of invalid expressions from 0 to 1
+     */
+    private final double invalidShare;
+
+    /**
+     * The binary operators
+     */
+    private final String[] operators;
+
+    /**
+     * The function names
+     */
+    private final String[] functions;
+
+    /**
+     * The number of arguments of the functions, -1 if it can be any
+     */
+    private final int[] arities;
+
+    /**
+     * The order in which operators are used
+     */
+    private final int[] operatorsOrder;
+
+    /**
+     * The order in which functions are used
+     */
+    private final int[] functionsOrder;
+
+    /**
+     * The index of the next operator in {@code operatorsOrder}
+     */
+    private int operatorsCursor;
+
+    /**
+     * The index of the next function in {@code functionsOrder}
+     */
+    private int functionsCursor;
+
+    /**
+     * Constructs an object
+     *
+     * @param seed         The seed of the random generator
+     * @param size         The number of literals in an expression
+     * @param depth        The maximum nesting depth
+     * @param literals     The distribution of literals
+     * @param invalidShare The share of invalid expressions from 0 to 1
+     * @throws IllegalArgumentException If a parameter is out of its range
+     */
+    public ExpressionGenerator(final long seed, final int size, final int depth, final Literals literals,
+                               final double invalidShare) {
+        if (size < 1 || depth < 0 || invalidShare < 0 || invalidShare > 1) {
+            throw new IllegalArgumentException("Size must be positive, depth must not be negative and the share " +
+                    "of invalid expressions must be from 0 to 1");
+        }
+
+        this.random = new Random(seed);
+        this.size = size;
+        this.depth = depth;
+        this.literals = literals;
+        this.invalidShare = invalidShare;
+
+        this.operators = Operators.getOperatorsByPrecedence().stream().map(Operators::getRepresentation).
+                                   toArray(String[]::new);
+
+        List<String> names = new ArrayList<>();
+        List<Integer> arguments = new ArrayList<>();
+
+        for (Functions function : Functions.values()) {
+            names.add(function.getImage());
+            arguments.add(-1);
+        }
+
+        for (Map.Entry<String, List<String>> function : Functions.getMathFunctions().entrySet()) {
+            // only functions of double arguments can be called from an expression
+            if (!function.getKey().equals(EXCLUDED_FUNCTION) &&
+                    function.getValue().stream().allMatch(type -> type.equals("double"))) {
+
+                names.add(function.getKey());
+                arguments.add(function.getValue().size());
+            }
+        }
+
+        this.functions = names.toArray(new String[0]);
+        this.arities = arguments.stream().mapToInt(Integer::intValue).toArray();
+        this.operatorsOrder = createOrder(operators.length);
+        this.functionsOrder = createOrder(functions.length);
+    }
+
+    /**
+     * The generator is endless
+     *
+     * @return true
+     */
+    @Override
+    public boolean hasNext() {
+        return true;
+    }
+
+    /**
+     * Generates the next expression
+     *
+     * @return The expression
+     */
+    @Override
+    public String next() {
+        String expression = generate();
+
+        if (random.nextDouble() < invalidShare) {
+            expression = spoil(expression);
+        }
+
+        return expression;
+    }
+
+    /**
+     * Returns a stream of the next expressions
+     *
+     * @param count The number of expressions
+     * @return The stream of expressions
+     */
+    public Stream<String> stream(final long count) {
+        return Stream.generate(this::next).limit(count);
+    }
+
+    /**
+     * Writes the next expressions to the file, one expression per line
+     *
+     * @param file  The file
+     * @param count The number of expressions
+     * @throws IOException If an I/O error occurs
+     */
+    public void write(final Path file, final long count) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (long i = 0; i < count; i++) {
+                writer.write(next());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the functions which are used by the generator
+     *
+     * @return The function names
+     */
+    public List<String> getFunctions() {
+        return Stream.of(functions).collect(Collectors.toList());
+    }
+
+    /**
+     * Generates a valid expression. Keeps the opened parentheses and
+     * functions on the explicit stacks, so the depth is not limited by
+     * the call stack.
+     *
+     * @return The expression
+     */
+    private String generate() {
+        StringBuilder builder = new StringBuilder();
+        int[] operandsLeft = new int[depth + 1];
+        int[] argumentsLeft = new int[depth + 1];
+        int level = 0;
+        int budget = size;
+        boolean segmentStart = true;
+
+        operandsLeft[0] = size;
+        argumentsLeft[0] = 1;
+
+        while (true) {
+            if (operandsLeft[level] == 0 || budget <= 0 && !segmentStart) {
+                if (argumentsLeft[level] > 1) {
+                    builder.append(',');
+                    argumentsLeft[level]--;
+                    operandsLeft[level] = 1 + random.nextInt(3);
+                    segmentStart = true;
+
+                } else if (level > 0) {
+                    builder.append(')');
+                    level--;
+
+                } else {
+                    break;
+                }
+                continue;
+            }
+
+            String operator = "";
+            if (!segmentStart) {
+                operator = nextOperator();
+                builder.append(operator);
+
+            } else if (random.nextInt(10) == 0) {
+                builder.append('-');
+            }
+
+            operandsLeft[level]--;
+            segmentStart = false;
+
+            if (operator.equals("^")) {
+                // a small exponent does not lead to an infinity
+                builder.append(random.nextInt(3) + 1);
+                budget--;
+
+            } else if (level < depth && random.nextInt(3) == 0) {
+                level++;
+                operandsLeft[level] = 1 + random.nextInt(3);
+                argumentsLeft[level] = openFunctionOrGroup(builder);
+                segmentStart = true;
+
+            } else {
+                builder.append(literals.next(random));
+                budget--;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Opens either a function call or a parentheses expression
+     *
+     * @param builder The expression builder
+     * @return The number of arguments to generate
+     */
+    private int openFunctionOrGroup(final StringBuilder builder) {
+        int arguments = 1;
+
+        if (random.nextBoolean()) {
+            if (functionsCursor == functionsOrder.length) {
+                shuffle(functionsOrder);
+                functionsCursor = 0;
+            }
+
+            int function = functionsOrder[functionsCursor++];
+            builder.append(functions[function]);
+            arguments = arities[function] == -1 ? 2 + random.nextInt(3) : arities[function];
+        }
+        builder.append('(');
+
+        return arguments;
+    }
+
+    /**
+     * Returns the next binary operator
+     *
+     * @return The operator
+     */
+    private String nextOperator() {
+        if (operatorsCursor == operatorsOrder.length) {
+            shuffle(operatorsOrder);
+            operatorsCursor = 0;
+        }
+
+        return operators[operatorsOrder[operatorsCursor++]];
+    }
+
+    /**
+     * Spoils a valid expression by one of the typical syntax errors
+     *
+     * @param expression The valid expression
+     * @return The invalid expression
+     */
+    private String spoil(final String expression) {
+        int position = random.nextInt(expression.length() + 1);
+
+        switch (random.nextInt(5)) {
+            case 0:
+                return "unknown(" + expression + ")";
+            case 1:
+                return expression + new String[]{"++", "--", "+-", "-+"}[random.nextInt(4)] + literals.next(random);
+            case 2:
+                return expression.endsWith(")") ? expression.substring(0, expression.length() - 1) :
+                        "(" + expression;
+            case 3:
+                return expression.substring(0, position) + WRONG_SYMBOLS.charAt(random.nextInt(WRONG_SYMBOLS.length())) +
+                        expression.substring(position);
+            default:
+                return expression + nextOperator();
+        }
+    }
+
+    /**
+     * Creates a shuffled order of indexes
+     *
+     * @param length The number of indexes
+     * @return The order
+     */
+    private int[] createOrder(final int length) {
+        int[] order = new int[length];
+
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        shuffle(order);
+
+        return order;
+    }
+
+    /**
+     * Shuffles indexes
+     *
+     * @param order The indexes
+     */
+    private void shuffle(final int[] order) {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = order[i];
+            order[i] = order[j];
+            order[j] = value;
+        }
+    }
+
+    /**
+     * Writes a corpus to a file
+     *
+     * @param args The file, the number of expressions and optionally the
+     *             seed, the size, the depth, the literals distribution and
+     *             the share of invalid expressions
+     * @throws IOException If an I/O error occurs
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ExpressionGenerator file count [seed [size [depth [literals [invalidShare]]]]]");
+            return;
+        }
+
+        new ExpressionGenerator(args.length > 2 ? Long.parseLong(args[2]) : 0,
+                args.length > 3 ? Integer.parseInt(args[3]) : 10,
+                args.length > 4 ? Integer.parseInt(args[4]) : 3,
+                args.length > 5 ? Literals.valueOf(args[5].toUpperCase()) : Literals.MIXED,
+                args.length > 6 ? Double.parseDouble(args[6]) : 0).
+                write(Paths.get(args[0]), Long.parseLong(args[1]));
+    }
+}
@@ -0,0 +1,65 @@
+package com.sysgears.simplecalculator.corpus;
+
+import java.util.Random;
+
+/**
+ * Contains distributions of number literals for {@link ExpressionGenerator}.
+ * Literals are always positive and never equal to zero, so a generated
+ * expression does not divide by zero because of a literal.
+ */
+public enum Literals {
+    /**
+     * Integers from 1 to 9
+     */
+    SMALL_INTEGERS {
+        @Override
+        String next(final Random random) {
+            return String.valueOf(random.nextInt(9) + 1);
+        }
+    },
+    /**
+     * Integers from 1 to 1000000
+     */
+    INTEGERS {
+        @Override
+        String next(final Random random) {
+            return String.valueOf(random.nextInt(1_000_000) + 1);
+        }
+    },
+    /**
+     * Decimals from 1 to 1000 with up to four fraction digits
+     */
+    DECIMALS {
+        @Override
+        String next(final Random random) {
+            return (random.nextInt(999) + 1) + "." + random.nextInt(10_000);
+        }
+    },
+    /**
+     * Numbers in E-notation, i.e. 1.25E-3
+     */
+    E_NOTATION {
+        @Override
+        String next(final Random random) {
+            return (random.nextInt(9) + 1) + "." + random.nextInt(100) + (random.nextBoolean() ? "E" : "e") +
+                    (random.nextBoolean() ? "-" : "") + random.nextInt(10);
+        }
+    },
+    /**
+     * All the other distributions with the same probability
+     */
+    MIXED {
+        @Override
+        String next(final Random random) {
+            return values()[random.nextInt(ordinal())].next(random);
+        }
+    };
+
+    /**
+     * Returns the next literal
+     *
+     * @param random The random generator
+     * @return The string representation of the literal
+     */
+    abstract String next(Random random);
+}
@@ -0,0 +1,121 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Flight Recorder event of one computation made by a {@link Computer}.
+ * Only the computations which take longer than the threshold, 10 ms by
+ * default, are recorded. The threshold can be changed by the recording
+ * settings, i.e.:
+ * <pre>
+ *     -XX:StartFlightRecording:com.sysgears.simplecalculator.Computation#threshold=0ms
+ * </pre>
+ */
+@Name("com.sysgears.simplecalculator.Computation")
+@Label("Computation")
+@Category({"Simple Calculator"})
+@Description("A math expression computed by an engine")
+@StackTrace(false)
+@Threshold("10 ms")
+public class ComputationEvent extends jdk.jfr.Event {
+    /**
+     * The status of a successful computation
+     */
+    static final String OK = "OK";
+
+    /**
+     * The status of a computation of an invalid expression
+     */
+    static final String INVALID = "INVALID";
+
+    /**
+     * The status of a computation which failed by an unexpected exception
+     */
+    static final String ERROR = "ERROR";
+
+    /**
+     * The engine class name
+     */
+    @Label("Engine")
+    String engine;
+
+    /**
+     * The expression length
+     */
+    @Label("Expression Length")
+    int expressionLength;
+
+    /**
+     * The result status: OK, INVALID or ERROR
+     */
+    @Label("Status")
+    String status;
+
+    /**
+     * Computes the expression by the engine and records the event. If the
+     * recording is off or the computation is shorter than the threshold,
+     * the event is not committed.
+     *
+     * @param engine      The engine which is recorded
+     * @param computation The computation itself
+     * @param expression  The string contains a math expression
+     * @param <T>         The type of the expression, a string or a range
+     *                    of characters
+     * @return The string contains the calculated expression
+     * @throws InvalidInputExpressionException If the incoming string has an
+     *                                         invalid format, or it is null
+     */
+    public static <T extends CharSequence> String compute(final Computer engine, final Computation<T> computation,
+                                                          final T expression) throws InvalidInputExpressionException {
+
+        ComputationEvent event = new ComputationEvent();
+        String status = ERROR;
+        event.begin();
+
+        try {
+            String result = computation.compute(expression);
+            status = OK;
+
+            return result;
+
+        } catch (InvalidInputExpressionException e) {
+            status = INVALID;
+            throw e;
+
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.engine = engine.getClass().getName();
+                event.expressionLength = expression == null ? 0 : expression.length();
+                event.status = status;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * A computation of an expression which is recorded
+     *
+     * @param <T> The type of the expression
+     */
+    @FunctionalInterface
+    public interface Computation<T extends CharSequence> {
+        /**
+         * Computes the expression
+         *
+         * @param expression The math expression
+         * @return The string contains the calculated expression
+         * @throws InvalidInputExpressionException If the expression has an
+         *                                         invalid format
+         */
+        String compute(T expression) throws InvalidInputExpressionException;
+    }
+}
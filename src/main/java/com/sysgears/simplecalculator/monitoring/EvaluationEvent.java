@@ -0,0 +1,60 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Flight Recorder event of one expression evaluated by the {@code
+ * Calculator}, either computed or taken from the history. Only the
+ * evaluations which take longer than the threshold, 10 ms by default, are
+ * recorded.
+ */
+@Name("com.sysgears.simplecalculator.Evaluation")
+@Label("Evaluation")
+@Category({"Simple Calculator"})
+@Description("A math expression evaluated by the calculator")
+@StackTrace(false)
+@Threshold("10 ms")
+public class EvaluationEvent extends jdk.jfr.Event {
+    /**
+     * The engine class name
+     */
+    @Label("Engine")
+    public String engine;
+
+    /**
+     * The expression length
+     */
+    @Label("Expression Length")
+    public int expressionLength;
+
+    /**
+     * The result status: OK, INVALID or ERROR
+     */
+    @Label("Status")
+    public String status = ComputationEvent.ERROR;
+
+    /**
+     * Whether the result is taken from the history
+     */
+    @Label("Cache Hit")
+    public boolean cacheHit;
+
+    /**
+     * Marks the evaluation as successful
+     */
+    public void succeed() {
+        status = ComputationEvent.OK;
+    }
+
+    /**
+     * Marks the expression as invalid
+     */
+    public void reject() {
+        status = ComputationEvent.INVALID;
+    }
+}
@@ -0,0 +1,210 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the statistics of the evaluations made by the {@code Calculator}:
+ * the latency distribution in a {@link LatencyHistogram}, the history cache
+ * hits, the throughput since the statistics were started or reset and the
+ * {@link TopExpressions}. The statistics can be appended to a file
+ * periodically.
+ */
+public class EvaluationStatistics {
+    /**
+     * The percentiles which are reported
+     */
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * The names of the reported percentiles
+     */
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    /**
+     * The number of expressions in the lists of the slowest and the most
+     * frequent ones
+     */
+    private static final int TOP_SIZE = 10;
+
+    /**
+     * The latency distribution
+     */
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * The slowest and the most frequent expressions
+     */
+    private final TopExpressions topExpressions = new TopExpressions(TOP_SIZE);
+
+    /**
+     * The number of results taken from the history
+     */
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    /**
+     * The time when the statistics were started or reset
+     */
+    private volatile long startTime = System.nanoTime();
+
+    /**
+     * The executor which dumps the statistics, null if they are not dumped
+     */
+    private ScheduledExecutorService dumper;
+
+    /**
+     * Records an evaluation
+     *
+     * @param nanos    The evaluation time in nanoseconds
+     * @param cacheHit true if the result is taken from the history
+     */
+    public void record(final long nanos, final boolean cacheHit) {
+        histogram.record(nanos);
+
+        if (cacheHit) {
+            cacheHits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records an evaluation of the expression
+     *
+     * @param expression The expression
+     * @param engine     The engine which computes expressions
+     * @param nanos      The evaluation time in nanoseconds
+     * @param cacheHit   true if the result is taken from the history
+     */
+    public void record(final String expression, final String engine, final long nanos, final boolean cacheHit) {
+        record(nanos, cacheHit);
+        topExpressions.record(expression, engine, nanos);
+    }
+
+    /**
+     * Returns the slowest and the most frequent expressions
+     *
+     * @return The top expressions
+     */
+    public TopExpressions getTopExpressions() {
+        return topExpressions;
+    }
+
+    /**
+     * Returns the latency distribution
+     *
+     * @return The histogram
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Returns the share of the results taken from the history
+     *
+     * @return The ratio from 0 to 1, 0 if there are no evaluations
+     */
+    public double getCacheHitRatio() {
+        long count = histogram.getCount();
+
+        return count == 0 ? 0 : (double) cacheHits.get() / count;
+    }
+
+    /**
+     * Returns the number of evaluations per second since the statistics
+     * were started or reset
+     *
+     * @return The throughput
+     */
+    public double getThroughput() {
+        return histogram.getCount() / Math.max((System.nanoTime() - startTime) / 1e9, 1e-9);
+    }
+
+    /**
+     * Clears the statistics
+     */
+    public void reset() {
+        histogram.reset();
+        topExpressions.reset();
+        cacheHits.set(0);
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Appends the statistics to the file every period in a background
+     * daemon thread. Stops the previous dumping if any.
+     *
+     * @param file   The file
+     * @param period The period
+     * @param unit   The time unit of the period
+     */
+    public synchronized void startDumping(final Path file, final long period, final TimeUnit unit) {
+        stopDumping();
+
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "statistics-dumper");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file), period, period, unit);
+    }
+
+    /**
+     * Stops dumping of the statistics
+     */
+    public synchronized void stopDumping() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    /**
+     * Appends the statistics to the file with the current time
+     *
+     * @param file The file
+     * @throws UncheckedIOException If an I/O error occurs
+     */
+    public void dump(final Path file) {
+        String report = "[" + new SimpleDateFormat("dd MMM HH:mm:ss").format(System.currentTimeMillis()) + "]" +
+                System.lineSeparator() + this + System.lineSeparator();
+
+        try {
+            Files.write(file, report.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the report of the statistics, the latencies are in
+     * microseconds
+     *
+     * @return The report
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(String.format("\tcount: %d%n", histogram.getCount()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            builder.append(String.format("\t%s: %.3f us%n", PERCENTILE_NAMES[i],
+                    histogram.getValueAtPercentile(PERCENTILES[i]) / 1e3));
+        }
+        builder.append(String.format("\tmax: %.3f us%n", histogram.getMax() / 1e3));
+        builder.append(String.format("\tcache hit ratio: %.3f%n", getCacheHitRatio()));
+        builder.append(String.format("\tthroughput: %.3f per second", getThroughput()));
+
+        return builder.toString();
+    }
+}
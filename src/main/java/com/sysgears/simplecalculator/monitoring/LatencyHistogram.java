@@ -0,0 +1,151 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the distribution of latencies in nanoseconds in the way of the HDR
+ * histogram. The values from 0 to 255 have their own buckets, every next
+ * power of two range is split into 128 linear buckets, so any recorded
+ * value is kept with a relative error below 1%. The histogram takes a
+ * fixed amount of memory, recording is lock free and does not allocate.
+ */
+public class LatencyHistogram {
+    /**
+     * The number of bits of a value which are kept exactly
+     */
+    private static final int PRECISION_BITS = 8;
+
+    /**
+     * The number of buckets of the values which are kept exactly
+     */
+    private static final int LINEAR_BUCKETS = 1 << PRECISION_BITS;
+
+    /**
+     * The number of buckets of every next power of two range
+     */
+    private static final int SUB_BUCKETS = LINEAR_BUCKETS >> 1;
+
+    /**
+     * The number of all the buckets which cover any non negative long
+     */
+    private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - PRECISION_BITS) * SUB_BUCKETS;
+
+    /**
+     * The number of recorded values in every bucket
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * The number of recorded values
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * The maximum recorded value
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. A negative value is recorded as zero.
+     *
+     * @param nanos The value in nanoseconds
+     */
+    public void record(final long nanos) {
+        long value = Math.max(nanos, 0);
+
+        counts.incrementAndGet(getIndex(value));
+        count.incrementAndGet();
+
+        for (long current = max.get(); value > current && !max.compareAndSet(current, value); current = max.get()) {
+            // retry until either the value is set or a bigger one is recorded
+        }
+    }
+
+    /**
+     * Returns the number of recorded values
+     *
+     * @return The number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the maximum recorded value
+     *
+     * @return The maximum value, 0 if nothing is recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the percentile, i.e. 99.9 for the 999th
+     * permille. The value is the upper bound of its bucket, but not greater
+     * than the maximum recorded value.
+     *
+     * @param percentile The percentile from 0 to 100
+     * @return The value in nanoseconds, 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+
+        long rank = Math.max((long) Math.ceil(total * Math.min(percentile, 100) / 100), 1);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS && total > 0; i++) {
+            seen += counts.get(i);
+
+            if (seen >= rank) {
+                return Math.min(getUpperBound(i), getMax());
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Clears the histogram
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Returns the bucket of a value
+     *
+     * @param value The non negative value
+     * @return The bucket index
+     */
+    static int getIndex(final long value) {
+        int shift = Math.max(Long.SIZE - Long.numberOfLeadingZeros(value) - PRECISION_BITS, 0);
+
+        return shift == 0 ? (int) value : LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) -
+                SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the greatest value of a bucket
+     *
+     * @param index The bucket index
+     * @return The greatest value
+     */
+    static long getUpperBound(final int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
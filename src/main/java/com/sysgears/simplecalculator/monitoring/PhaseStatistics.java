@@ -0,0 +1,116 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Keeps a snapshot of the statistics of one phase. The percentiles are the
+ * upper bounds of the power of two buckets of the histogram, so they are
+ * overestimated by two times at most.
+ */
+public class PhaseStatistics {
+    /**
+     * The phase name
+     */
+    private final String name;
+
+    /**
+     * The number of timed calls
+     */
+    private final long count;
+
+    /**
+     * The total time of the calls in nanoseconds
+     */
+    private final long totalNanos;
+
+    /**
+     * The longest call in nanoseconds
+     */
+    private final long maxNanos;
+
+    /**
+     * The median in nanoseconds
+     */
+    private final long p50Nanos;
+
+    /**
+     * The 90th percentile in nanoseconds
+     */
+    private final long p90Nanos;
+
+    /**
+     * The 99th percentile in nanoseconds
+     */
+    private final long p99Nanos;
+
+    /**
+     * Constructs an object
+     *
+     * @param name       The phase name
+     * @param count      The number of timed calls
+     * @param totalNanos The total time in nanoseconds
+     * @param maxNanos   The longest call in nanoseconds
+     * @param p50Nanos   The median in nanoseconds
+     * @param p90Nanos   The 90th percentile in nanoseconds
+     * @param p99Nanos   The 99th percentile in nanoseconds
+     */
+    @ConstructorProperties({"name", "count", "totalNanos", "maxNanos", "p50Nanos", "p90Nanos", "p99Nanos"})
+    public PhaseStatistics(final String name, final long count, final long totalNanos, final long maxNanos,
+                           final long p50Nanos, final long p90Nanos, final long p99Nanos) {
+        this.name = name;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * Returns the average time of a call
+     *
+     * @return The average time in nanoseconds, 0 if there are no calls
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Returns the string representation of the statistics
+     *
+     * @return The string representation
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d, total=%dns, mean=%dns, p50<=%dns, p90<=%dns, p99<=%dns, max=%dns",
+                name, count, totalNanos, getMeanNanos(), p50Nanos, p90Nanos, p99Nanos, maxNanos);
+    }
+}
@@ -0,0 +1,260 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times the phases of an engine and publishes the statistics as a platform
+ * MBean. There is one timer per engine which is shared by all the engine
+ * instances. Usage:
+ * <pre>
+ *     long start = timer.start();
+ *     ... the phase ...
+ *     timer.stop(Phase.PARSING, start);
+ * </pre>
+ * When the timer is off, {@code start()} reads one volatile field and
+ * {@code stop()} compares two longs, so the instrumented code costs nearly
+ * nothing. The timing is off by default, it is switched on either through
+ * JMX or by the {@code simplecalculator.phases} system property.
+ *
+ * @param <P> The enumeration of the phases
+ */
+public final class PhaseTimer<P extends Enum<P>> implements PhaseTimerMXBean {
+    /**
+     * The value returned by {@code start()} when the timer is off
+     */
+    private static final long OFF = Long.MIN_VALUE;
+
+    /**
+     * The number of power of two buckets which can hold any nanoTime difference
+     */
+    private static final int BUCKETS = 64;
+
+    /**
+     * The timers of all the engines
+     */
+    private static final Map<String, PhaseTimer<?>> TIMERS = new ConcurrentHashMap<>();
+
+    /**
+     * The engine name
+     */
+    private final String engine;
+
+    /**
+     * The phases
+     */
+    private final P[] phases;
+
+    /**
+     * The number of calls of every phase
+     */
+    private final LongAdder[] counts;
+
+    /**
+     * The total time of every phase
+     */
+    private final LongAdder[] totals;
+
+    /**
+     * The longest call of every phase
+     */
+    private final LongAccumulator[] maximums;
+
+    /**
+     * The histograms of all the phases, {@code BUCKETS} cells per phase.
+     * The bucket {@code i} keeps calls which took from 2^(i-1) to 2^i - 1
+     * nanoseconds, the bucket 0 keeps the calls shorter than the timer
+     * resolution.
+     */
+    private final AtomicLongArray histograms;
+
+    /**
+     * Whether the phases are timed
+     */
+    private volatile boolean enabled = Boolean.getBoolean("simplecalculator.phases");
+
+    /**
+     * Constructs an object
+     *
+     * @param engine The engine name
+     * @param phases The enumeration of the phases
+     */
+    private PhaseTimer(final String engine, final Class<P> phases) {
+        this.engine = engine;
+        this.phases = phases.getEnumConstants();
+        this.counts = new LongAdder[this.phases.length];
+        this.totals = new LongAdder[this.phases.length];
+        this.maximums = new LongAccumulator[this.phases.length];
+        this.histograms = new AtomicLongArray(this.phases.length * BUCKETS);
+
+        for (int i = 0; i < this.phases.length; i++) {
+            counts[i] = new LongAdder();
+            totals[i] = new LongAdder();
+            maximums[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    /**
+     * Returns the timer of the engine. Creates and registers it in the
+     * platform MBean server at the first call.
+     *
+     * @param engine The engine name
+     * @param phases The enumeration of the engine phases
+     * @param <P>    The type of the phases
+     * @return The timer
+     * @throws IllegalArgumentException If the engine has a timer with
+     *                                  other phases
+     */
+    @SuppressWarnings("unchecked")
+    public static <P extends Enum<P>> PhaseTimer<P> forEngine(final String engine, final Class<P> phases) {
+        PhaseTimer<?> timer = TIMERS.computeIfAbsent(engine, e -> register(new PhaseTimer<>(e, phases)));
+
+        if (timer.phases.getClass().getComponentType() != phases) {
+            throw new IllegalArgumentException("The engine " + engine + " is already timed by other phases");
+        }
+
+        return (PhaseTimer<P>) timer;
+    }
+
+    /**
+     * Registers the timer in the platform MBean server. The timer still works
+     * if it cannot be registered.
+     *
+     * @param timer The timer
+     * @return The timer
+     */
+    private static PhaseTimer<?> register(final PhaseTimer<?> timer) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(timer, getObjectName(timer.engine));
+
+        } catch (JMException | SecurityException e) {
+            // the statistics are still available through the object
+        }
+
+        return timer;
+    }
+
+    /**
+     * Returns the MBean name of the engine timer
+     *
+     * @param engine The engine name
+     * @return The MBean name
+     * @throws JMException If the engine name is not a valid MBean name part
+     */
+    public static ObjectName getObjectName(final String engine) throws JMException {
+        return new ObjectName("com.sysgears.simplecalculator:type=PhaseTimer,engine=" + ObjectName.quote(engine));
+    }
+
+    /**
+     * Starts timing of a phase
+     *
+     * @return The start time which is passed to {@code stop()}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : OFF;
+    }
+
+    /**
+     * Stops timing of a phase
+     *
+     * @param phase The phase
+     * @param start The value returned by {@code start()}
+     */
+    public void stop(final P phase, final long start) {
+        if (start != OFF) {
+            long duration = Math.max(System.nanoTime() - start, 0);
+            int index = phase.ordinal();
+
+            counts[index].increment();
+            totals[index].add(duration);
+            maximums[index].accumulate(duration);
+            histograms.incrementAndGet(index * BUCKETS + Long.SIZE - Long.numberOfLeadingZeros(duration));
+        }
+    }
+
+    @Override
+    public String getEngine() {
+        return engine;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public List<PhaseStatistics> getPhases() {
+        List<PhaseStatistics> result = new ArrayList<>(phases.length);
+
+        for (P phase : phases) {
+            result.add(getStatistics(phase));
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the statistics of the phase
+     *
+     * @param phase The phase
+     * @return The statistics
+     */
+    public PhaseStatistics getStatistics(final P phase) {
+        int index = phase.ordinal();
+
+        return new PhaseStatistics(phase.name(), counts[index].sum(), totals[index].sum(), maximums[index].get(),
+                getPercentile(index, 0.5), getPercentile(index, 0.9), getPercentile(index, 0.99));
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < phases.length; i++) {
+            counts[i].reset();
+            totals[i].reset();
+            maximums[i].reset();
+
+            for (int j = 0; j < BUCKETS; j++) {
+                histograms.set(i * BUCKETS + j, 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the upper bound of the bucket which contains the percentile
+     *
+     * @param index    The phase index
+     * @param fraction The percentile from 0 to 1
+     * @return The upper bound in nanoseconds, 0 if there are no calls
+     */
+    private long getPercentile(final int index, final double fraction) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += histograms.get(index * BUCKETS + i);
+        }
+
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && total > 0; i++) {
+            seen += histograms.get(index * BUCKETS + i);
+
+            if (seen >= rank) {
+                return (1L << i) - 1;
+            }
+        }
+
+        return 0;
+    }
+}
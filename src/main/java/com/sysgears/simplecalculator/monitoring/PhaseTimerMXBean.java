@@ -0,0 +1,43 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import java.util.List;
+
+/**
+ * The management interface of {@link PhaseTimer}. Every engine is published
+ * in the platform MBean server under the name
+ * {@code com.sysgears.simplecalculator:type=PhaseTimer,engine=<engine>}.
+ */
+public interface PhaseTimerMXBean {
+    /**
+     * Returns the name of the engine
+     *
+     * @return The engine name
+     */
+    String getEngine();
+
+    /**
+     * Checks whether the phases are timed
+     *
+     * @return true if the phases are timed
+     */
+    boolean isEnabled();
+
+    /**
+     * Switches the timing on or off
+     *
+     * @param enabled true to time the phases
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the statistics of every phase in the order of the phases
+     *
+     * @return The statistics
+     */
+    List<PhaseStatistics> getPhases();
+
+    /**
+     * Clears the collected statistics
+     */
+    void reset();
+}
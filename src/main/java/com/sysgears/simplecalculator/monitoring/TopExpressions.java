@@ -0,0 +1,364 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the slowest and the most frequently evaluated expressions in a
+ * bounded memory:
+ * <p>
+ *     <ul>
+ *         <li>the slowest ones are kept in a min-heap of the capacity size
+ *         ordered by the longest evaluation, so a new expression either
+ *         replaces the fastest of the slow ones or is dropped</li>
+ *         <li>the frequent ones are counted by the Space-Saving algorithm:
+ *         a new expression replaces the least frequent one and inherits its
+ *         count as the possible overestimation ({@code countError})</li>
+ *     </ul>
+ * </p>
+ * Both operations take O(capacity) time at most, the structure is meant
+ * for tens or hundreds of expressions.
+ */
+public class TopExpressions {
+    /**
+     * The maximum number of expressions in every list
+     */
+    private final int capacity;
+
+    /**
+     * The slowest expressions by their text
+     */
+    private final Map<String, ExpressionRecord> slowest = new HashMap<>();
+
+    /**
+     * The slowest expressions, the fastest of them is at the head
+     */
+    private final PriorityQueue<ExpressionRecord> slowestHeap =
+            new PriorityQueue<>(Comparator.comparingLong(ExpressionRecord::getMaxNanos));
+
+    /**
+     * The most frequent expressions by their text
+     */
+    private final Map<String, ExpressionRecord> frequent = new HashMap<>();
+
+    /**
+     * The most frequent expressions, the least frequent of them is at the
+     * head
+     */
+    private final PriorityQueue<ExpressionRecord> frequentHeap =
+            new PriorityQueue<>(Comparator.comparingLong(ExpressionRecord::getCount));
+
+    /**
+     * Constructs an object
+     *
+     * @param capacity The maximum number of expressions in every list
+     * @throws IllegalArgumentException If the capacity is not positive
+     */
+    public TopExpressions(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records an evaluation of the expression
+     *
+     * @param expression The expression
+     * @param engine     The engine which computed the expression
+     * @param nanos      The evaluation time in nanoseconds
+     */
+    public synchronized void record(final String expression, final String engine, final long nanos) {
+        recordSlow(expression, engine, nanos);
+        recordFrequent(expression, engine, nanos);
+    }
+
+    /**
+     * Returns the slowest expressions starting from the slowest one
+     *
+     * @return The copies of the records
+     */
+    public synchronized List<ExpressionRecord> getSlowest() {
+        return sortedCopy(slowestHeap, Comparator.comparingLong(ExpressionRecord::getMaxNanos).reversed());
+    }
+
+    /**
+     * Returns the most frequent expressions starting from the most
+     * frequent one
+     *
+     * @return The copies of the records
+     */
+    public synchronized List<ExpressionRecord> getMostFrequent() {
+        return sortedCopy(frequentHeap, Comparator.comparingLong(ExpressionRecord::getCount).reversed());
+    }
+
+    /**
+     * Clears both lists
+     */
+    public synchronized void reset() {
+        slowest.clear();
+        slowestHeap.clear();
+        frequent.clear();
+        frequentHeap.clear();
+    }
+
+    /**
+     * Writes both lists to the file as JSON lines, i.e.
+     * {@code {"list":"slowest","expression":"2+2","engine":"...","count":1,
+     * "countError":0,"maxNanos":1000}}
+     *
+     * @param file The file, it is overwritten
+     * @throws UncheckedIOException If an I/O error occurs
+     */
+    public void dump(final Path file) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (ExpressionRecord record : getSlowest()) {
+                writer.write(record.toJson("slowest"));
+                writer.newLine();
+            }
+
+            for (ExpressionRecord record : getMostFrequent()) {
+                writer.write(record.toJson("frequent"));
+                writer.newLine();
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the report of both lists
+     *
+     * @return The report
+     */
+    @Override
+    public String toString() {
+        return "\tThe slowest:" + System.lineSeparator() +
+                getSlowest().stream().map(r -> "\t\t" + r).collect(Collectors.joining(System.lineSeparator())) +
+                System.lineSeparator() + "\tThe most frequent:" + System.lineSeparator() +
+                getMostFrequent().stream().map(r -> "\t\t" + r).collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    /**
+     * Keeps the expression if it is slower than the fastest of the slow ones
+     *
+     * @param expression The expression
+     * @param engine     The engine
+     * @param nanos      The evaluation time
+     */
+    private void recordSlow(final String expression, final String engine, final long nanos) {
+        ExpressionRecord record = slowest.get(expression);
+
+        if (record != null) {
+            slowestHeap.remove(record);
+            record.add(engine, nanos);
+            slowestHeap.add(record);
+
+        } else if (slowestHeap.size() < capacity || slowestHeap.peek().maxNanos < nanos) {
+            if (slowestHeap.size() == capacity) {
+                slowest.remove(slowestHeap.poll().expression);
+            }
+
+            record = new ExpressionRecord(expression, 0);
+            record.add(engine, nanos);
+            slowest.put(expression, record);
+            slowestHeap.add(record);
+        }
+    }
+
+    /**
+     * Counts the expression by the Space-Saving algorithm
+     *
+     * @param expression The expression
+     * @param engine     The engine
+     * @param nanos      The evaluation time
+     */
+    private void recordFrequent(final String expression, final String engine, final long nanos) {
+        ExpressionRecord record = frequent.get(expression);
+
+        if (record != null) {
+            frequentHeap.remove(record);
+
+        } else if (frequentHeap.size() < capacity) {
+            record = new ExpressionRecord(expression, 0);
+            frequent.put(expression, record);
+
+        } else {
+            ExpressionRecord evicted = frequentHeap.poll();
+            frequent.remove(evicted.expression);
+
+            record = new ExpressionRecord(expression, evicted.count);
+            frequent.put(expression, record);
+        }
+
+        record.add(engine, nanos);
+        frequentHeap.add(record);
+    }
+
+    /**
+     * Copies and sorts the records
+     *
+     * @param records    The records
+     * @param comparator The order
+     * @return The sorted copies
+     */
+    private static List<ExpressionRecord> sortedCopy(final PriorityQueue<ExpressionRecord> records,
+                                                     final Comparator<ExpressionRecord> comparator) {
+        List<ExpressionRecord> result = new ArrayList<>(records.size());
+
+        for (ExpressionRecord record : records) {
+            result.add(new ExpressionRecord(record));
+        }
+        result.sort(comparator);
+
+        return result;
+    }
+
+    /**
+     * Keeps the evaluations of an expression
+     */
+    public static final class ExpressionRecord {
+        /**
+         * The expression
+         */
+        private final String expression;
+
+        /**
+         * The engine of the last evaluation
+         */
+        private String engine;
+
+        /**
+         * The number of evaluations including the inherited overestimation
+         */
+        private long count;
+
+        /**
+         * The maximum overestimation of the count
+         */
+        private final long countError;
+
+        /**
+         * The longest evaluation in nanoseconds
+         */
+        private long maxNanos;
+
+        /**
+         * Constructs an object
+         *
+         * @param expression The expression
+         * @param countError The inherited overestimation of the count
+         */
+        private ExpressionRecord(final String expression, final long countError) {
+            this.expression = expression;
+            this.count = countError;
+            this.countError = countError;
+        }
+
+        /**
+         * Constructs a copy
+         *
+         * @param record The record to copy
+         */
+        private ExpressionRecord(final ExpressionRecord record) {
+            this.expression = record.expression;
+            this.engine = record.engine;
+            this.count = record.count;
+            this.countError = record.countError;
+            this.maxNanos = record.maxNanos;
+        }
+
+        /**
+         * Adds an evaluation
+         *
+         * @param engine The engine
+         * @param nanos  The evaluation time
+         */
+        private void add(final String engine, final long nanos) {
+            this.engine = engine;
+            this.count++;
+            this.maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public String getEngine() {
+            return engine;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getCountError() {
+            return countError;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns the JSON object of the record
+         *
+         * @param list The name of the list which contains the record
+         * @return The JSON object in one line
+         */
+        String toJson(final String list) {
+            return "{\"list\":\"" + list + "\",\"expression\":" + quote(expression) + ",\"engine\":" +
+                    quote(engine) + ",\"count\":" + count + ",\"countError\":" + countError + ",\"maxNanos\":" +
+                    maxNanos + "}";
+        }
+
+        /**
+         * Returns the JSON string literal
+         *
+         * @param value The string
+         * @return The quoted and escaped string
+         */
+        private static String quote(final String value) {
+            StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+
+                if (c == '"' || c == '\\') {
+                    builder.append('\\').append(c);
+
+                } else if (c < ' ') {
+                    builder.append(String.format("\\u%04x", (int) c));
+
+                } else {
+                    builder.append(c);
+                }
+            }
+
+            return builder.append('"').toString();
+        }
+
+        /**
+         * Returns the string representation of the record
+         *
+         * @return The string representation
+         */
+        @Override
+        public String toString() {
+            return String.format("%s: count=%d (+-%d), max=%.3f us, engine=%s", expression, count, countError,
+                    maxNanos / 1e3, engine);
+        }
+    }
+}
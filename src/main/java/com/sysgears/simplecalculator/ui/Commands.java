@@ -44,6 +44,24 @@ public enum Commands {
      */
     FUNCTIONS("functions", "The Math's functions list:" + System.lineSeparator(),"\t\t- to see Math's functions list"),
 
+    /**
+     * A command to show the evaluation statistics
+     */
+    STATS("stats", "The evaluation statistics:" + System.lineSeparator(), "\t\t\t- to see the latency percentiles, " +
+            "the cache hit ratio and the throughput"),
+
+    /**
+     * A command to show the slowest and the most frequent expressions
+     */
+    TOP("top", "The slowest and the most frequent expressions:" + System.lineSeparator(),
+            "\t\t\t- to see the slowest and the most frequent expressions"),
+
+    /**
+     * A command to write the slowest and the most frequent expressions to a file
+     */
+    TOP_DUMP("top dump", "The slowest and the most frequent expressions are written to: ",
+            "\t\t- to write them to a file as JSON lines"),
+
     /**
      * Additional information
      */
@@ -3,6 +3,11 @@ package com.sysgears.simplecalculator.ui;
 import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
 import com.sysgears.simplecalculator.computer.function2.*;
 import com.sysgears.simplecalculator.history.HistoryHolder;
+import com.sysgears.simplecalculator.monitoring.EvaluationStatistics;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import static com.sysgears.simplecalculator.ui.Commands.*;
 
@@ -10,6 +15,10 @@ import static com.sysgears.simplecalculator.ui.Commands.*;
  * Handles {@link Commands}
  */
 public class CommandsHandler {
+    /**
+     * The system property of the file to which the top expressions are written
+     */
+    private static final String TOP_FILE = "simplecalculator.top.file";
 
     /**
      * Handles commands received from UI
@@ -17,8 +26,10 @@ public class CommandsHandler {
      * @param command The command
      * @param controller The {@link UIController} implementation
      * @param history The {@link HistoryHolder}
+     * @param statistics The {@link EvaluationStatistics}
      */
-    public static void handle(Commands command, final UIController controller, HistoryHolder history) {
+    public static void handle(Commands command, final UIController controller, HistoryHolder history,
+                              final EvaluationStatistics statistics) {
         switch (command) {
             case EXIT:
                 controller.printLine(System.lineSeparator() + "Good bye!");
@@ -49,6 +60,26 @@ public class CommandsHandler {
                 controller.printLine(USER_FUNCTIONS.HEADER, Functions.getList());
                 break;
 
+            case STATS:
+                controller.printLine(STATS.HEADER, statistics.toString());
+                break;
+
+            case TOP:
+                controller.printLine(TOP.HEADER, statistics.getTopExpressions().toString());
+                break;
+
+            case TOP_DUMP:
+                Path file = Paths.get(System.getProperty(TOP_FILE, "top-expressions.jsonl"));
+
+                try {
+                    statistics.getTopExpressions().dump(file);
+                    controller.printLine(TOP_DUMP.HEADER, file.toAbsolutePath().toString());
+
+                } catch (UncheckedIOException e) {
+                    controller.printLine("The expressions cannot be written: ", e.getCause().getMessage());
+                }
+                break;
+
             default:
                 throw new InvalidInputExpressionException("There is no handler for " + command);
         }
@@ -0,0 +1,190 @@
+package com.sysgears.simplecalculator.workbook;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps a named cell of {@link Workbook}: its expression, the cells which it
+ * refers to and the result of the last recalculation. The expression is
+ * split by the references, so the text which is sent to the computer is
+ * built by putting the results of the referred cells between the parts. A
+ * cell which is referred to but not assigned yet has no expression.
+ * <p>
+ *     A cell is changed only by its workbook, a recalculation computes
+ *     every cell in one thread, and a result is read after the
+ *     recalculation is joined.
+ * </p>
+ */
+public final class Cell {
+    /**
+     * The name of the cell
+     */
+    private final String name;
+
+    /**
+     * The expression without white spaces, null if the cell is not assigned
+     */
+    private String expression;
+
+    /**
+     * The parts of the expression between the references
+     */
+    private String[] parts = new String[0];
+
+    /**
+     * The referred cells in the order of the references in the expression,
+     * one for every reference
+     */
+    private Cell[] references = new Cell[0];
+
+    /**
+     * The distinct referred cells
+     */
+    private Set<Cell> precedents = Collections.emptySet();
+
+    /**
+     * The cells which refer to the cell
+     */
+    private final Set<Cell> dependents = new LinkedHashSet<>();
+
+    /**
+     * The result of the last recalculation, null if the cell is invalid
+     */
+    private String result;
+
+    /**
+     * The reason why the cell is invalid, null if it is computed
+     */
+    private InvalidInputExpressionException error;
+
+    /**
+     * Constructs a cell which is not assigned yet
+     *
+     * @param name The name of the cell
+     */
+    Cell(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public InvalidInputExpressionException getError() {
+        return error;
+    }
+
+    /**
+     * Checks whether the cell is assigned
+     *
+     * @return true if the cell has an expression
+     */
+    public boolean isAssigned() {
+        return expression != null;
+    }
+
+    /**
+     * Sets the expression
+     *
+     * @param expression The expression without white spaces
+     * @param parts      The parts of the expression between the references,
+     *                   one more than the references
+     * @param references The referred cells in the order of the references
+     */
+    void assign(final String expression, final List<String> parts, final List<Cell> references) {
+        this.expression = expression;
+        this.parts = parts.toArray(new String[0]);
+        this.references = references.toArray(new Cell[0]);
+        this.precedents = new LinkedHashSet<>(references);
+    }
+
+    /**
+     * Returns the distinct referred cells
+     *
+     * @return The referred cells
+     */
+    Set<Cell> getPrecedents() {
+        return precedents;
+    }
+
+    /**
+     * Returns the cells which refer to the cell
+     *
+     * @return The dependent cells, the set is changed by the workbook
+     */
+    Set<Cell> getDependents() {
+        return dependents;
+    }
+
+    /**
+     * Builds the expression which is sent to the computer, every reference
+     * is replaced by the result of the referred cell in parentheses, so a
+     * negative number or a fraction keeps its sign and its precedence
+     *
+     * @return The expression
+     * @throws InvalidInputExpressionException If a referred cell is either
+     *                                         not assigned or invalid
+     */
+    String resolve() throws InvalidInputExpressionException {
+        StringBuilder resolved = new StringBuilder(parts[0]);
+
+        for (int i = 0; i < references.length; i++) {
+            Cell reference = references[i];
+
+            if (!reference.isAssigned()) {
+                throw new InvalidInputExpressionException(ErrorCode.UNKNOWN_CELL, reference.name, 0);
+
+            } else if (reference.result == null) {
+                throw new InvalidInputExpressionException(ErrorCode.INVALID_CELL, reference.name, 0);
+            }
+
+            resolved.append('(').append(reference.result).append(')').append(parts[i + 1]);
+        }
+
+        return resolved.toString();
+    }
+
+    /**
+     * Keeps the result of a recalculation
+     *
+     * @param result The result
+     */
+    void setResult(final String result) {
+        this.result = result;
+        this.error = null;
+    }
+
+    /**
+     * Keeps the reason why a recalculation failed
+     *
+     * @param error The reason
+     */
+    void setError(final InvalidInputExpressionException error) {
+        this.result = null;
+        this.error = error;
+    }
+
+    /**
+     * Returns the name and either the result or the error message, i.e.
+     * {@code a = 6}
+     *
+     * @return The string representation
+     */
+    @Override
+    public String toString() {
+        return name + " = " + (error == null ? result : error.getMessage());
+    }
+}
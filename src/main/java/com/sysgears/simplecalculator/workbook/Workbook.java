@@ -0,0 +1,461 @@
+package com.sysgears.simplecalculator.workbook;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.registry.FunctionRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps named cells which are computed by a {@link Computer}, i.e.:
+ * <p>
+ *     a = 2*3
+ *     b = a^2
+ * </p>
+ * A cell refers to other cells by their names, the references are kept as
+ * a dependency graph. When a cell is assigned only the cell and the cells
+ * which depend on it are recalculated, in the topological order. The order
+ * is split into waves, the cells of a wave do not depend on each other, so
+ * a big wave is computed in parallel on a {@code ForkJoinPool}.
+ * <p>
+ *     A reference is replaced by the result of the referred cell before the
+ *     expression is sent to the computer, so any engine can be used, but it
+ *     must be thread safe. A cell cannot refer to itself directly or through
+ *     other cells, and its name cannot be a name of a function. A cell can
+ *     refer to a cell which is assigned later, it is invalid until then.
+ *     Any exception of the computer makes only its cell invalid.
+ *     The methods which change the cells are synchronized.
+ * </p>
+ */
+public final class Workbook {
+    /**
+     * A pattern for a cell name
+     */
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z][a-zA-Z0-9]*");
+
+    /**
+     * A pattern for an assignment, i.e. {@code a = 2*3}
+     */
+    private static final Pattern ASSIGNMENT = Pattern.compile("\\s*(" + NAME.pattern() + ")\\s*=(.*)", Pattern.DOTALL);
+
+    /**
+     * The number of cells which is computed in one task, a wave is split in
+     * parallel tasks only if it is bigger
+     */
+    private static final int BATCH_SIZE = 16;
+
+    /**
+     * A math expression computer
+     */
+    private final Computer computer;
+
+    /**
+     * A pool which computes the waves
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The cells by their names in the order of creation
+     */
+    private final Map<String, Cell> cells = new LinkedHashMap<>();
+
+    /**
+     * Constructs an object which computes the waves on the common pool
+     *
+     * @param computer The computer
+     */
+    public Workbook(final Computer computer) {
+        this(computer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an object
+     *
+     * @param computer The computer, it must be thread safe
+     * @param pool     The pool which computes the waves
+     */
+    public Workbook(final Computer computer, final ForkJoinPool pool) {
+        this.computer = Objects.requireNonNull(computer);
+        this.pool = Objects.requireNonNull(pool);
+    }
+
+    /**
+     * Checks whether the line is an assignment, i.e. it starts from a name
+     * followed by '='
+     *
+     * @param line The line
+     * @return true if it is an assignment
+     */
+    public static boolean isAssignment(final String line) {
+        return line != null && ASSIGNMENT.matcher(line).matches();
+    }
+
+    /**
+     * Assigns a cell and recalculates the cells which depend on it
+     *
+     * @param assignment The assignment, i.e. {@code b = a^2}
+     * @return The recalculated cells in the topological order, the assigned
+     * cell is the first one
+     * @throws InvalidInputExpressionException If the line is not an
+     *                                         assignment, the name is taken
+     *                                         by a function, or the cell
+     *                                         refers to itself
+     */
+    public List<Cell> assign(final String assignment) throws InvalidInputExpressionException {
+        if (assignment == null) {
+            throw new InvalidInputExpressionException(ErrorCode.NULL_EXPRESSION, null, -1);
+        }
+
+        Matcher matcher = ASSIGNMENT.matcher(assignment);
+        if (!matcher.matches()) {
+            throw new InvalidInputExpressionException(ErrorCode.UNEXPECTED_SYMBOL, assignment, 0);
+        }
+
+        return assign(matcher.group(1), matcher.group(2));
+    }
+
+    /**
+     * Assigns a cell and recalculates the cells which depend on it
+     *
+     * @param name       The name of the cell
+     * @param expression The expression which can refer to other cells
+     * @return The recalculated cells in the topological order, the assigned
+     * cell is the first one
+     * @throws InvalidInputExpressionException If the name is taken by a
+     *                                         function, or the cell refers
+     *                                         to itself
+     */
+    public synchronized List<Cell> assign(final String name, final String expression)
+            throws InvalidInputExpressionException {
+
+        if (name == null || expression == null) {
+            throw new InvalidInputExpressionException(ErrorCode.NULL_EXPRESSION, null, -1);
+
+        } else if (!NAME.matcher(name).matches()) {
+            throw new InvalidInputExpressionException(ErrorCode.UNEXPECTED_SYMBOL, name, 0);
+
+        } else if (FunctionRegistry.getDefault().indexOf(name) >= 0 || computer.isDefined(name, -1)) {
+            throw new InvalidInputExpressionException(ErrorCode.WRONG_CELL_NAME, name, 0);
+        }
+
+        String source = expression.replaceAll("\\s", "");
+        if (source.isEmpty()) {
+            throw new InvalidInputExpressionException(ErrorCode.MISSING_OPERAND, name, 0);
+        }
+
+        List<String> parts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        split(source, parts, names);
+
+        Cell cell = cells.get(name);
+        Set<Cell> affected = cell == null ? Collections.emptySet() : collectDependents(cell);
+        for (String reference : names) {
+            if (reference.equals(name) || affected.contains(cells.get(reference))) {
+                throw new InvalidInputExpressionException(ErrorCode.CYCLIC_REFERENCE, name, 0);
+            }
+        }
+
+        if (cell == null) {
+            cell = getOrCreate(name);
+            affected = Collections.singleton(cell);
+        }
+
+        for (Cell precedent : cell.getPrecedents()) {
+            precedent.getDependents().remove(cell);
+            if (!precedent.isAssigned() && precedent.getDependents().isEmpty()) {
+                cells.remove(precedent.getName());
+            }
+        }
+
+        List<Cell> references = new ArrayList<>(names.size());
+        for (String reference : names) {
+            references.add(getOrCreate(reference));
+        }
+        cell.assign(source, parts, references);
+        for (Cell precedent : cell.getPrecedents()) {
+            precedent.getDependents().add(cell);
+        }
+
+        return recalculate(affected);
+    }
+
+    /**
+     * Finds a cell
+     *
+     * @param name The name of the cell
+     * @return The cell, null if it is neither assigned nor referred to
+     */
+    public synchronized Cell get(final String name) {
+        return cells.get(name);
+    }
+
+    /**
+     * Returns all the cells
+     *
+     * @return The unmodifiable collection of the cells in the order of
+     * creation
+     */
+    public synchronized Collection<Cell> getCells() {
+        return Collections.unmodifiableCollection(new ArrayList<>(cells.values()));
+    }
+
+    /**
+     * Splits the expression by the references to cells. A name followed by
+     * '(' is a function, a letter inside a number is its exponent.
+     *
+     * @param expression The expression without white spaces
+     * @param parts      The list which receives the parts between the
+     *                   references
+     * @param names      The list which receives the referred names
+     */
+    private static void split(final String expression, final List<String> parts, final List<String> names) {
+        int partStart = 0;
+        int i = 0;
+
+        while (i < expression.length()) {
+            char symbol = expression.charAt(i);
+
+            if (Character.isDigit(symbol) || symbol == '.') {
+                i = skipNumber(expression, i);
+
+            } else if (isLetter(symbol)) {
+                int end = i + 1;
+                while (end < expression.length() && (isLetter(expression.charAt(end)) ||
+                        Character.isDigit(expression.charAt(end)))) {
+                    end++;
+                }
+
+                if (end == expression.length() || expression.charAt(end) != '(') {
+                    parts.add(expression.substring(partStart, i));
+                    names.add(expression.substring(i, end));
+                    partStart = end;
+                }
+                i = end;
+
+            } else {
+                i++;
+            }
+        }
+
+        parts.add(expression.substring(partStart));
+    }
+
+    /**
+     * Skips a number including its exponent
+     *
+     * @param expression The expression
+     * @param start      The start of the number
+     * @return The end of the number, exclusive
+     */
+    private static int skipNumber(final String expression, final int start) {
+        int end = start;
+        while (end < expression.length() && (Character.isDigit(expression.charAt(end)) ||
+                expression.charAt(end) == '.')) {
+            end++;
+        }
+
+        if (end < expression.length() && (expression.charAt(end) == 'e' || expression.charAt(end) == 'E')) {
+            int exponent = end + 1;
+            if (exponent < expression.length() && (expression.charAt(exponent) == '+' ||
+                    expression.charAt(exponent) == '-')) {
+                exponent++;
+            }
+
+            if (exponent < expression.length() && Character.isDigit(expression.charAt(exponent))) {
+                end = exponent;
+                while (end < expression.length() && Character.isDigit(expression.charAt(end))) {
+                    end++;
+                }
+            }
+        }
+
+        return end;
+    }
+
+    /**
+     * Checks whether the symbol is an ASCII letter
+     *
+     * @param symbol The symbol
+     * @return true if it is a letter
+     */
+    private static boolean isLetter(final char symbol) {
+        return symbol >= 'a' && symbol <= 'z' || symbol >= 'A' && symbol <= 'Z';
+    }
+
+    /**
+     * Finds a cell or creates a cell which is not assigned yet
+     *
+     * @param name The name of the cell
+     * @return The cell
+     */
+    private Cell getOrCreate(final String name) {
+        return cells.computeIfAbsent(name, Cell::new);
+    }
+
+    /**
+     * Collects the cell and all the cells which depend on it directly or
+     * through other cells
+     *
+     * @param cell The cell
+     * @return The cells
+     */
+    private static Set<Cell> collectDependents(final Cell cell) {
+        Set<Cell> collected = new LinkedHashSet<>();
+        Deque<Cell> stack = new ArrayDeque<>();
+        stack.push(cell);
+
+        while (!stack.isEmpty()) {
+            Cell current = stack.pop();
+            if (collected.add(current)) {
+                current.getDependents().forEach(stack::push);
+            }
+        }
+
+        return collected;
+    }
+
+    /**
+     * Recalculates the cells in the topological order. A wave contains the
+     * cells which precedents are already recalculated, so its cells are
+     * computed in parallel.
+     *
+     * @param affected The cells to recalculate, they contain all the cells
+     *                 which depend on any of them
+     * @return The recalculated cells in the topological order
+     */
+    private List<Cell> recalculate(final Set<Cell> affected) {
+        Map<Cell, Integer> waiting = new HashMap<>();
+        List<Cell> wave = new ArrayList<>();
+
+        for (Cell cell : affected) {
+            int precedents = 0;
+            for (Cell precedent : cell.getPrecedents()) {
+                if (affected.contains(precedent)) {
+                    precedents++;
+                }
+            }
+
+            if (precedents == 0) {
+                wave.add(cell);
+
+            } else {
+                waiting.put(cell, precedents);
+            }
+        }
+
+        List<Cell> order = new ArrayList<>(affected.size());
+        while (!wave.isEmpty()) {
+            Cell[] current = wave.toArray(new Cell[0]);
+            if (current.length > BATCH_SIZE) {
+                pool.invoke(new Recalculation(current, 0, current.length));
+
+            } else {
+                compute(current, 0, current.length);
+            }
+            Collections.addAll(order, current);
+
+            wave = new ArrayList<>();
+            for (Cell cell : current) {
+                for (Cell dependent : cell.getDependents()) {
+                    if (waiting.merge(dependent, -1, Integer::sum) == 0) {
+                        waiting.remove(dependent);
+                        wave.add(dependent);
+                    }
+                }
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Computes the cells of a wave
+     *
+     * @param wave The cells
+     * @param from The first cell
+     * @param to   The end of the cells, exclusive
+     */
+    private void compute(final Cell[] wave, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            Cell cell = wave[i];
+
+            if (cell.isAssigned()) {
+                try {
+                    cell.setResult(computer.compute(cell.resolve()));
+
+                } catch (InvalidInputExpressionException e) {
+                    cell.setError(e);
+
+                } catch (RuntimeException e) {
+                    // an engine failure stays in the cell, the other cells are still recalculated
+                    cell.setError(new InvalidInputExpressionException("Input data is invalid cause the cell " +
+                            cell.getName() + " cannot be computed: " + e, cell.getExpression()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a range of a wave, splits it in halves while it is bigger
+     * than {@code BATCH_SIZE}
+     */
+    private final class Recalculation extends RecursiveAction {
+        /**
+         * The cells of the wave
+         */
+        private final Cell[] wave;
+
+        /**
+         * The first cell of the range
+         */
+        private final int from;
+
+        /**
+         * The end of the range, exclusive
+         */
+        private final int to;
+
+        /**
+         * Constructs an object
+         *
+         * @param wave The cells of the wave
+         * @param from The first cell of the range
+         * @param to   The end of the range, exclusive
+         */
+        Recalculation(final Cell[] wave, final int from, final int to) {
+            this.wave = wave;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Computes the range or splits it
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                Workbook.this.compute(wave, from, to);
+
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Recalculation(wave, from, middle), new Recalculation(wave, middle, to));
+            }
+        }
+    }
+}
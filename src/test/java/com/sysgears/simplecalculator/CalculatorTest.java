@@ -0,0 +1,89 @@
+package com.sysgears.simplecalculator;
+
+import com.sysgears.simplecalculator.computer.Computer;
+import com.sysgears.simplecalculator.computer.compiler.StackComputer;
+import com.sysgears.simplecalculator.computer.function2.FunctionComputer;
+import com.sysgears.simplecalculator.history.HistoryHolder;
+import com.sysgears.simplecalculator.ui.UIController;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+public class CalculatorTest {
+    @Test
+    public void testComputeExactFactorial() throws Exception {
+        Assert.assertEquals(Arrays.asList("15511210043330985984000000", "1", "3"),
+                run(new StackComputer(), "25!", "7 % 3", "7\\2"));
+    }
+
+    @Test
+    public void testComputeSeries() throws Exception {
+        Assert.assertEquals(Arrays.asList("6", "120"),
+                run(new StackComputer(), "series(k, 1, 3, k)", "product(k,1,5,k)"));
+    }
+
+    @Test
+    public void testRejectUnknownOperator() throws Exception {
+        List<String> results = run(new FunctionComputer(), "5!", "2+2");
+
+        Assert.assertTrue(results.get(0), results.get(0).startsWith("Input data is invalid"));
+        Assert.assertEquals("4.0", results.get(1));
+    }
+
+    @Test
+    public void testFunctionGrammar() throws Exception {
+        List<String> results = run(new FunctionComputer(), "2+3!", "series(k,1,3,k)", ".5+1", "1.+2", "(-3)^2");
+
+        for (String result : results.subList(0, 2)) {
+            Assert.assertTrue(result, result.startsWith("Input data is invalid"));
+        }
+        Assert.assertEquals(Arrays.asList("1.5", "3.0", "9.0"), results.subList(2, 5));
+    }
+
+    @Test
+    public void testWhitespaceDoesNotJoinNumbers() throws Exception {
+        for (Computer computer : new Computer[]{new StackComputer(), new FunctionComputer()}) {
+            List<String> results = run(computer, "1 2", "12", "1 2", "2 +  2");
+
+            Assert.assertTrue(results.get(0), results.get(0).startsWith("Input data is invalid"));
+            Assert.assertTrue(results.get(2), results.get(2).startsWith("Input data is invalid"));
+            Assert.assertTrue(results.get(3), results.get(3).startsWith("4"));
+        }
+    }
+
+    private static List<String> run(final Computer computer, final String... expressions) {
+        Iterator<String> lines = Arrays.asList(expressions).iterator();
+        List<String> results = new ArrayList<>();
+
+        new Calculator(new UIController() {
+            @Override
+            public String readLine(final String promptString) throws IOException {
+                if (!lines.hasNext()) {
+                    throw new EOFException();
+                }
+                return lines.next();
+            }
+
+            @Override
+            public void printLine(final String description, final String outputString) {
+                results.add(outputString);
+            }
+
+            @Override
+            public void printLine(final String line) {
+            }
+
+            @Override
+            public void close() {
+            }
+        }, new HistoryHolder(), computer).run();
+
+        return results;
+    }
+}
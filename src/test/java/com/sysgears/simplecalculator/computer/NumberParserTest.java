@@ -0,0 +1,74 @@
+package com.sysgears.simplecalculator.computer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class NumberParserTest {
+    /**
+     * Compares the parser with {@code Double.parseDouble()} on all the
+     * sources
+     */
+    private void assertParsed(final String text) {
+        long expected = Double.doubleToRawLongBits(Double.parseDouble(text));
+        String padded = "(" + text + ")";
+
+        Assert.assertEquals(text, expected, Double.doubleToRawLongBits(NumberParser.parse(text)));
+        Assert.assertEquals(text, expected, Double.doubleToRawLongBits(
+                NumberParser.parse(padded, 1, padded.length() - 1)));
+        Assert.assertEquals(text, expected, Double.doubleToRawLongBits(
+                NumberParser.parse(padded.toCharArray(), 1, padded.length() - 1)));
+        Assert.assertEquals(text, expected, Double.doubleToRawLongBits(
+                NumberParser.parse(padded.getBytes(StandardCharsets.US_ASCII), 1, padded.length() - 1)));
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        for (String text : new String[]{"0", "-0", "+1", "2.5", ".5", "5.", "0.1", "001.2300", "123.456e-7",
+                "1E5", "21.1E-2", "9007199254740993", "1e23", "8.98846567431158e307", "1.7976931348623157e308",
+                "1.7976931348623159e308", "2.2250738585072014E-308", "4.9e-324", "2.4703282292062328e-324",
+                "1e400", "-1e-400", "12345678901234567890123.45678", "0.000000000000000000000000123456789",
+                "Infinity", "-NaN", "0x1p3", "1d", " 1 "}) {
+
+            assertParsed(text);
+        }
+    }
+
+    @Test
+    public void testParseRandom() throws Exception {
+        Random random = new Random(7);
+
+        // the exhaustive check is the setup of NumberParserBenchmark
+        for (int i = 0; i < 2000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE);
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                continue;
+            }
+            assertParsed(Double.toString(value));
+
+            // the half way between two values is the hardest to round
+            BigDecimal halfWay = new BigDecimal(value).add(new BigDecimal(Math.nextUp(value))).
+                    divide(BigDecimal.valueOf(2));
+            assertParsed(halfWay.toString());
+            assertParsed(halfWay.add(halfWay.ulp()).toString());
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseNotNumber() throws Exception {
+        NumberParser.parse("1e");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseEmpty() throws Exception {
+        NumberParser.parse("2+2", 1, 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testParseOutOfRange() throws Exception {
+        NumberParser.parse("2+2", 0, -1);
+    }
+}
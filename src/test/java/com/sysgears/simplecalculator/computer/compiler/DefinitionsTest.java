@@ -0,0 +1,131 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class DefinitionsTest {
+    Definitions definitions = new Definitions();
+    StackComputer stackComputer = new StackComputer(definitions);
+
+    @Test
+    public void testIsDefinition() throws Exception {
+        Assert.assertTrue(Definitions.isDefinition("def f(x)=x"));
+        Assert.assertTrue(Definitions.isDefinition("  def\tf(x) = x"));
+        Assert.assertFalse(Definitions.isDefinition("define(x)"));
+        Assert.assertFalse(Definitions.isDefinition("def"));
+        Assert.assertFalse(Definitions.isDefinition(null));
+    }
+
+    @Test
+    public void testDefine() throws Exception {
+        Definition definition = definitions.define("def hyp(a, b) = sqrt(a^2 + b^2)");
+
+        Assert.assertEquals("hyp", definition.getName());
+        Assert.assertEquals(Arrays.asList("a", "b"), definition.getParameters());
+        Assert.assertEquals("hyp(a,b)=sqrt(a^2+b^2)", definition.toString());
+        Assert.assertEquals(5, definition.apply(3, 4), 0);
+        Assert.assertSame(definition, definitions.find("hyp", 2));
+        Assert.assertNull(definitions.find("hyp", 1));
+    }
+
+    @Test
+    public void testComputeInlined() throws Exception {
+        stackComputer.define("def f(x, y) = x*y - x");
+
+        Assert.assertEquals("7", stackComputer.compute("f(3,4)-2+f(1,1)*7"));
+        Assert.assertEquals("3", stackComputer.compute("1+f(2,2)"));
+        Assert.assertEquals("-6", stackComputer.compute("-f(2,4)"));
+    }
+
+    @Test
+    public void testComputeNestedDefinitions() throws Exception {
+        stackComputer.define("def sq(x) = x^2");
+        stackComputer.define("def hyp(a, b) = sqrt(sq(a) + sq(b))");
+        stackComputer.define("def k() = 10");
+
+        Assert.assertEquals("50", stackComputer.compute("hyp(3,sq(2))*k()"));
+        Assert.assertEquals("13", stackComputer.compute("hyp(hyp(3,4)+7,5)"));
+    }
+
+    @Test
+    public void testComputeDefinitionWithOperators() throws Exception {
+        stackComputer.define("def binomial(n, k) = n!/(k!*(n-k)!)");
+
+        Assert.assertEquals("10", stackComputer.compute("binomial(5,2)"));
+    }
+
+    @Test
+    public void testDefinedOnce() throws Exception {
+        stackComputer.define("def f(x) = x");
+
+        try {
+            stackComputer.define("def f(x, y) = x + y");
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.DEFINED_FUNCTION, e.getErrorCode());
+            Assert.assertEquals("f", e.getWrongPart());
+        }
+    }
+
+    @Test
+    public void testWrongDefinitions() throws Exception {
+        for (String definition : new String[]{"def f = 2", "def f(x) =", "def f(x, x) = x", "def (x) = x",
+                "def f(2) = 2", "deff(x)=x"}) {
+            try {
+                definitions.define(definition);
+                Assert.fail(definition);
+
+            } catch (InvalidInputExpressionException e) {
+                Assert.assertEquals(definition, ErrorCode.WRONG_DEFINITION, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testDefineFunctionOfRegistry() throws Exception {
+        definitions.define("def cos(x) = x");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testDefineUnknownParameter() throws Exception {
+        definitions.define("def f(x) = x + y");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testDefineRecursive() throws Exception {
+        definitions.define("def f(x) = f(x)");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeWrongArity() throws Exception {
+        stackComputer.define("def f(x) = x");
+        stackComputer.compute("f(1,2)");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeParameterOutsideOfBody() throws Exception {
+        stackComputer.define("def f(x) = x");
+        stackComputer.compute("x+1");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeDivideByZeroInBody() throws Exception {
+        stackComputer.define("def inv(x) = 1/x");
+        stackComputer.compute("inv(0)");
+    }
+
+    @Test
+    public void testIsDefined() throws Exception {
+        stackComputer.define("def f(x) = x");
+
+        Assert.assertTrue(stackComputer.isDefined("f", 1));
+        Assert.assertTrue(stackComputer.isDefined("f", -1));
+        Assert.assertFalse(stackComputer.isDefined("f", 2));
+        Assert.assertFalse(stackComputer.isDefined("g", -1));
+    }
+}
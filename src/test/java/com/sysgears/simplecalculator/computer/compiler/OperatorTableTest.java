@@ -0,0 +1,56 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OperatorTableTest {
+    OperatorTable table = OperatorTable.getDefault();
+
+    @Test
+    public void testFind() throws Exception {
+        Assert.assertSame(OperatorTable.NEGATE, table.get(table.findPrefix('-')));
+        Assert.assertSame(OperatorTable.SUBTRACT, table.get(table.findInfix('-')));
+        Assert.assertSame(OperatorTable.FACTORIAL, table.get(table.findPostfix('!')));
+        Assert.assertEquals(-1, table.findPostfix('-'));
+        Assert.assertEquals(-1, table.findInfix('#'));
+        Assert.assertEquals(-1, table.findInfix('÷'));
+    }
+
+    @Test
+    public void testKernels() throws Exception {
+        Assert.assertEquals(8, OperatorTable.POWER.apply(-2, 3), 0);
+        Assert.assertEquals(-4, OperatorTable.POWER.apply(-2, 2), 0);
+        Assert.assertEquals(1, OperatorTable.REMAINDER.apply(7, 3), 0);
+        Assert.assertEquals(-4, OperatorTable.INTEGER_DIVIDE.apply(-7, 2), 0);
+        Assert.assertEquals(120, OperatorTable.FACTORIAL.apply(5), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, OperatorTable.FACTORIAL.apply(171), 0);
+        Assert.assertTrue(Double.isNaN(OperatorTable.FACTORIAL.apply(2.5)));
+        Assert.assertEquals(1, OperatorTable.FACTORIAL.getArity());
+        Assert.assertEquals(2, OperatorTable.POWER.getArity());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDivideByZero() throws Exception {
+        OperatorTable.DIVIDE.apply(1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeclaredTwice() throws Exception {
+        new OperatorTable(OperatorTable.ADD, new Operator('+', 10, Operator.Associativity.LEFT, Math::max));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfixAndPostfix() throws Exception {
+        new OperatorTable(new Operator('!', 10, Operator.Associativity.LEFT, Math::max), OperatorTable.FACTORIAL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongSymbol() throws Exception {
+        new OperatorTable(new Operator('(', 10, Operator.Associativity.LEFT, Math::max));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfixUnary() throws Exception {
+        new Operator('~', Operator.Position.INFIX, 10, x -> -x);
+    }
+}
@@ -0,0 +1,565 @@
+package com.sysgears.simplecalculator.computer.compiler;
+
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+public class StackComputerTest {
+    StackComputer stackComputer = new StackComputer();
+
+    @Test
+    public void testComputeEmptyString() throws Exception {
+        Assert.assertEquals("", stackComputer.compute(""));
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeNull() throws Exception {
+        stackComputer.compute(null);
+    }
+
+    @Test
+    public void testComputeRange() throws Exception {
+        String line = "x = 2 + 3 * 4;";
+
+        Assert.assertEquals("14", stackComputer.compute(line, 4, line.length() - 1));
+        Assert.assertEquals("3", stackComputer.compute(" max ( 1 , 3 ) ", 0, 15));
+        Assert.assertEquals("14", stackComputer.compute(" series( k , 1 , 3 , k ^ 2 )", 0, 28));
+        Assert.assertEquals("", stackComputer.compute(new StringBuilder(" \t\n"), 0, 3));
+    }
+
+    @Test
+    public void testComputeRangeWithSplitNumber() throws Exception {
+        try {
+            stackComputer.compute("(1 2)", 1, 4);
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, e.getErrorCode());
+            Assert.assertEquals(2, e.getPosition());
+        }
+
+        try {
+            stackComputer.compute("1 2", 0, 3);
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, e.getErrorCode());
+            Assert.assertEquals(2, e.getPosition());
+        }
+    }
+
+    @Test
+    public void testComputeBytes() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap("[1 + 2.5e1]".getBytes(StandardCharsets.US_ASCII));
+
+        Assert.assertEquals("26", stackComputer.compute(buffer, 1, 10));
+        Assert.assertEquals(0, buffer.position());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testComputeBytesOutOfRange() throws Exception {
+        stackComputer.compute(ByteBuffer.allocate(4), 2, 5);
+    }
+
+    @Test
+    public void testComputeOne() throws Exception {
+        Assert.assertEquals("40", stackComputer.compute("45-10-20-45-40-(-10-100)"));
+    }
+
+    @Test
+    public void testComputeTwo() throws Exception {
+        Assert.assertEquals("-49.53333333333334", stackComputer.compute("(2+8)/6-12.8*4^1"));
+    }
+
+    @Test
+    public void testComputeThree() throws Exception {
+        Assert.assertEquals("512", stackComputer.compute("2^3^2"));
+    }
+
+    @Test
+    public void testComputeFour() throws Exception {
+        Assert.assertEquals("-224", stackComputer.compute("21-8*45-(10-20)-45-(-40)-(-10-100)"));
+    }
+
+    @Test
+    public void testComputeUnaryMinus() throws Exception {
+        Assert.assertEquals("-4", stackComputer.compute("-2^2"));
+    }
+
+    @Test
+    public void testComputeNegativeOperand() throws Exception {
+        Assert.assertEquals("-20", stackComputer.compute("10*-2"));
+    }
+
+    @Test
+    public void testComputeENotation() throws Exception {
+        Assert.assertEquals("100000.38", stackComputer.compute("1E5+38e-2"));
+    }
+
+    @Test
+    public void testComputeFunctions() throws Exception {
+        Assert.assertEquals("25.546232258060808", stackComputer.compute("cos(180)+22/sin(1)"));
+    }
+
+    @Test
+    public void testComputeVariadicFunctions() throws Exception {
+        Assert.assertEquals("-211.9401511604541", stackComputer.compute(
+                "sum(power(subtract(12,cos(12)),2),multiply(cos(subtract(cos(24),sin(6))),sqrt(sum(cos(4)," +
+                        "power(10,2)))),(subtract(21,multiply(8,45),10,20,45,40,(subtract(0,10,100)))))"));
+    }
+
+    @Test
+    public void testComputeTwoArgumentsMathFunction() throws Exception {
+        Assert.assertEquals("7", stackComputer.compute("max(2+3,7)"));
+    }
+
+    @Test
+    public void testComputeRemainder() throws Exception {
+        Assert.assertEquals("7", stackComputer.compute("10-7%4"));
+    }
+
+    @Test
+    public void testComputeIntegerDivide() throws Exception {
+        Assert.assertEquals("3", stackComputer.compute("7\\2"));
+        Assert.assertEquals("-4", stackComputer.compute("-7\\2"));
+    }
+
+    @Test
+    public void testComputeFactorial() throws Exception {
+        Assert.assertEquals("-6", stackComputer.compute("-3!"));
+        Assert.assertEquals("64", stackComputer.compute("2^3!"));
+        Assert.assertEquals("720", stackComputer.compute("(1+2)!!"));
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeRemainderByZero() throws Exception {
+        stackComputer.compute("5%0");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeFactorialWithoutOperand() throws Exception {
+        stackComputer.compute("!3");
+    }
+
+    @Test
+    public void testComputeCustomOperators() throws Exception {
+        StackComputer computer = new StackComputer(new OperatorTable(OperatorTable.NEGATE, OperatorTable.ADD,
+                OperatorTable.MULTIPLY, new Operator('&', 15, Operator.Associativity.RIGHT, Math::max)));
+
+        Assert.assertEquals("13", computer.compute("1+2&3*4&-5"));
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeOperatorNotInTable() throws Exception {
+        new StackComputer(new OperatorTable(OperatorTable.ADD)).compute("2*2");
+    }
+
+    @Test
+    public void testComputeProvidedFunctions() throws Exception {
+        Assert.assertEquals("3", stackComputer.compute("clamp(2+3,0,3)"));
+        Assert.assertEquals("15", stackComputer.compute("lerp(10,20,0.5)"));
+    }
+
+    @Test
+    public void testComputeConstantCalls() throws Exception {
+        Assert.assertEquals("3", stackComputer.compute("sum(1,max(1,2))"));
+        Assert.assertEquals("0", stackComputer.compute("sum()"));
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeConstantCallDivideByZero() throws Exception {
+        stackComputer.compute("divide(1,0)");
+    }
+
+    @Test
+    public void testComputeDeepParentheses() throws Exception {
+        int depth = 100_000;
+        String expression = String.join("", Collections.nCopies(depth, "(1+")) + "1" +
+                String.join("", Collections.nCopies(depth, ")"));
+
+        Assert.assertEquals(String.valueOf(depth + 1), stackComputer.compute(expression));
+    }
+
+    @Test
+    public void testComputeDeepFunctions() throws Exception {
+        int depth = 50_000;
+        String expression = String.join("", Collections.nCopies(depth, "sum(1,")) + "0" +
+                String.join("", Collections.nCopies(depth, ")"));
+
+        Assert.assertEquals(String.valueOf(depth), stackComputer.compute(expression));
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeDivideByZero() throws Exception {
+        stackComputer.compute("4*8-5/0+3^0");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeTwoSigns() throws Exception {
+        stackComputer.compute("2+-2");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeNotClosed() throws Exception {
+        stackComputer.compute("(2+2");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeNotOpened() throws Exception {
+        stackComputer.compute("2+2)");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeUnknownFunction() throws Exception {
+        stackComputer.compute("foo(2)");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeMissingOperand() throws Exception {
+        stackComputer.compute("2*");
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testComputeWrongSymbol() throws Exception {
+        stackComputer.compute("7+3x");
+    }
+
+    @Test
+    public void testEvaluateValid() throws Exception {
+        ComputationResult result = stackComputer.evaluate("2+2*2");
+
+        Assert.assertTrue(result.isValid());
+        Assert.assertEquals(6, result.getValue(), 0);
+        Assert.assertNull(result.getErrorCode());
+    }
+
+    @Test
+    public void testEvaluateInvalid() throws Exception {
+        ComputationResult result = stackComputer.evaluate("(2+2");
+
+        Assert.assertFalse(result.isValid());
+        Assert.assertEquals(ErrorCode.NOT_CLOSED, result.getErrorCode());
+        Assert.assertEquals(0, result.getPosition());
+        Assert.assertEquals("(2+2", result.getWrongPart());
+        Assert.assertEquals("Input data is invalid cause this part '(2+2' does not have the closing symbol: ')'.",
+                result.getMessage());
+    }
+
+    @Test
+    public void testEvaluateDivideByZero() throws Exception {
+        Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, stackComputer.evaluate("1/(2-2)").getErrorCode());
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testEvaluateInvalidValue() throws Exception {
+        stackComputer.evaluate("2*").getValue();
+    }
+
+    @Test
+    public void testComputeConditionIsLazy() throws Exception {
+        Assert.assertEquals("2", stackComputer.compute("if(1,2,1/0)"));
+        Assert.assertEquals("4", stackComputer.compute("if(0,1/0,3)+1"));
+        Assert.assertEquals("6", stackComputer.compute("if(1-1,1,2)*if(2,3,4)"));
+    }
+
+    @Test
+    public void testComputeSelectionIsLazy() throws Exception {
+        Assert.assertEquals("5", stackComputer.compute("choose(2,1/0,5,1/0)"));
+        Assert.assertEquals("7", stackComputer.compute("choose(1,7)"));
+        Assert.assertEquals("8", stackComputer.compute("2*choose(if(0,1,2),3,if(1,choose(1,4),5))"));
+    }
+
+    @Test
+    public void testComputeSelectionOutOfRange() throws Exception {
+        Assert.assertEquals(ErrorCode.NOT_A_NUMBER, stackComputer.evaluate("choose(4,1,2,3)").getErrorCode());
+        Assert.assertEquals(ErrorCode.NOT_A_NUMBER, stackComputer.evaluate("choose(1.5,1,2)").getErrorCode());
+    }
+
+    @Test
+    public void testComputeConditionWrongArity() throws Exception {
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, stackComputer.evaluate("if(1,2)").getErrorCode());
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, stackComputer.evaluate("if(1,2,3,4)").getErrorCode());
+    }
+
+    @Test
+    public void testComputeInlinedSelectors() throws Exception {
+        StackComputer stackComputer = new StackComputer();
+        stackComputer.define("def safe(x, y) = if(y, x/y, 0)");
+        stackComputer.define("def pick(i) = choose(i, 10, 20, 1/0)*2");
+
+        Assert.assertEquals("2", stackComputer.compute("safe(6,0)+safe(6,3)"));
+        Assert.assertEquals("65", stackComputer.compute("pick(2)+pick(1)+safe(pick(1),4)"));
+    }
+
+    @Test
+    public void testComputeSeries() throws Exception {
+        Assert.assertEquals("385", stackComputer.compute("series(k,1,10,k^2)"));
+        Assert.assertEquals("120", stackComputer.compute("product(k,1,5,k)"));
+        Assert.assertEquals("3", stackComputer.compute("series(k,1.5,3.9,1)"));
+        Assert.assertEquals("11", stackComputer.compute("series(i,1,3,series(j,1,i,j))+1"));
+    }
+
+    @Test
+    public void testComputeEmptySeries() throws Exception {
+        Assert.assertEquals("0", stackComputer.compute("series(k,5,1,k)"));
+        Assert.assertEquals("1", stackComputer.compute("product(k,5,1,1/0)"));
+    }
+
+    @Test
+    public void testComputeSeriesWithParameters() throws Exception {
+        StackComputer stackComputer = new StackComputer();
+        stackComputer.define("def squares(n) = series(k, 1, n, k^2)");
+        stackComputer.define("def raise(x, n) = product(k, 1, n, x)");
+        stackComputer.define("def shadow(k) = k + series(k, 1, k, k)");
+
+        Assert.assertEquals("390", stackComputer.compute("squares(10)+squares(2)"));
+        Assert.assertEquals("-8", stackComputer.compute("raise(-2,3)"));
+        Assert.assertEquals("14", stackComputer.compute("shadow(4)"));
+    }
+
+    @Test
+    public void testComputeParallelSeries() throws Exception {
+        Assert.assertEquals("500000500000", stackComputer.compute("series(k,1,1000000,k)"));
+        Assert.assertEquals("1", stackComputer.compute("product(k,1,200000,1)"));
+    }
+
+    @Test
+    public void testComputeWrongSeries() throws Exception {
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, stackComputer.evaluate("series(k,1,2)").getErrorCode());
+        Assert.assertEquals(ErrorCode.NOT_CLOSED, stackComputer.evaluate("series(k,1,2,k").getErrorCode());
+        Assert.assertEquals(ErrorCode.WRONG_SERIES, stackComputer.evaluate("series(2,1,2,k)").getErrorCode());
+        Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, stackComputer.evaluate("series(k,0,2,1/k)").getErrorCode());
+
+        ComputationResult result = stackComputer.evaluate("1+series(k,1,2,k*)");
+        Assert.assertEquals(ErrorCode.MISSING_OPERAND, result.getErrorCode());
+        Assert.assertEquals(17, result.getPosition());
+    }
+
+    @Test
+    public void testComputeExactIntegers() throws Exception {
+        Assert.assertEquals("4611686018427387905", stackComputer.compute("2^62+1"));
+        Assert.assertEquals("12157665459056928801", stackComputer.compute("3^40"));
+        Assert.assertEquals("9223372036854775808", stackComputer.compute("9223372036854775807+1"));
+        Assert.assertEquals("15511210043330985984000000", stackComputer.compute("25!"));
+        Assert.assertEquals("-4", stackComputer.compute("-7\\2"));
+        Assert.assertEquals("-1", stackComputer.compute("-7%2"));
+        Assert.assertEquals("8", stackComputer.compute("(-2)^3"));
+        Assert.assertEquals("2", stackComputer.compute("6/3"));
+    }
+
+    @Test
+    public void testComputeIntegersInDouble() throws Exception {
+        Assert.assertEquals("3.5", stackComputer.compute("7/2"));
+        Assert.assertEquals("0.5", stackComputer.compute("2^-1"));
+        Assert.assertEquals("1.5", stackComputer.compute("3*(1/2)"));
+        Assert.assertEquals(ErrorCode.INFINITY, stackComputer.evaluate("10^400").getErrorCode());
+        Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, stackComputer.evaluate("1/0").getErrorCode());
+        Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, stackComputer.evaluate("7%0").getErrorCode());
+
+        try {
+            stackComputer.compute("99999999999^2/0");
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testComputeWithPrecision() throws Exception {
+        StackComputer decimal = new StackComputer(MathContext.DECIMAL128);
+
+        Assert.assertEquals("0.3333333333333333333333333333333333", decimal.compute("1/3"));
+        Assert.assertEquals("0.3", decimal.compute("0.1+0.2"));
+        Assert.assertEquals("2", decimal.compute("if(0.1+0.2-0.3,1,2)"));
+        Assert.assertEquals("0.03703703703703703703703703703703704", decimal.compute("(1/3)^3"));
+        Assert.assertEquals("1", decimal.compute("1/7*7"));
+        Assert.assertEquals("0.125", decimal.compute("2^-3"));
+        Assert.assertEquals("6172839450617283945.5", decimal.compute("12345678901234567891*0.5"));
+        Assert.assertEquals("0.3333333333", new StackComputer(new MathContext(10)).compute("1/3"));
+    }
+
+    @Test
+    public void testComputeWithPrecisionOutOfRange() throws Exception {
+        StackComputer decimal = new StackComputer(MathContext.DECIMAL128);
+
+        for (String expression : new String[]{"1E400", "10^400", "-1E300*1E10"}) {
+            try {
+                decimal.compute(expression);
+                Assert.fail(expression);
+
+            } catch (InvalidInputExpressionException e) {
+                Assert.assertEquals(expression, stackComputer.evaluate(expression).getErrorCode(), e.getErrorCode());
+            }
+        }
+
+        // only the result is checked, an underflow is computed in BigDecimal
+        String[][] cases = {{"1E300*1E10/1E10", "1E300"}, {"1E200*1E200/1E200", "1E200"},
+                {"1E-400*1E300", "1E-100"}, {"1E-200*1E-200*1E300", "1E-100"}, {"1E-300/1E100", "1E-400"},
+                {"1E400-1E400", "0"}, {"1E-400", "1E-400"}};
+        for (String[] test : cases) {
+            Assert.assertEquals(test[0], 0, new BigDecimal(test[1]).compareTo(new BigDecimal(decimal.compute(test[0]))));
+        }
+    }
+
+    @Test
+    public void testComputeWithPrecisionOfDouble() throws Exception {
+        StackComputer decimal = new StackComputer(MathContext.DECIMAL128);
+
+        // a function is computed in double, so its error bound limits the digits
+        Assert.assertEquals("1.414213562373095", decimal.compute("sqrt(2)"));
+        Assert.assertEquals("1.414213562373095", decimal.compute("2^0.5"));
+
+        try {
+            decimal.compute("1/(0.1-0.1)");
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testComputeFractions() throws Exception {
+        StackComputer rational = new StackComputer(new Definitions(), null, true);
+
+        Assert.assertEquals("1/2", rational.compute("1/3+1/6"));
+        Assert.assertEquals("3/10", rational.compute("0.1+0.2"));
+        Assert.assertEquals("1", rational.compute("1/3*3"));
+        Assert.assertEquals("9/4", rational.compute("(2/3)^-2"));
+        Assert.assertEquals("1/8", rational.compute("(-1/2)^3"));
+        Assert.assertEquals("1/2", rational.compute("7/2%1"));
+        Assert.assertEquals("-4", rational.compute("-7/2\\1"));
+        Assert.assertEquals("2", rational.compute("if(0.1+0.2-0.3,1,2)"));
+        // the long values overflow, so the fraction is computed on BigInteger
+        Assert.assertEquals("1/36893488147419103232", rational.compute("1/2^40/2^25"));
+        Assert.assertEquals("12345678901234567891/2", rational.compute("12345678901234567891/2"));
+        Assert.assertEquals("30000000000000000003/10000000000000000000", rational.compute("1.0000000000000000001*3"));
+        // a function is computed in double
+        Assert.assertEquals("0.7071067811865476", rational.compute("sqrt(2)/2"));
+        Assert.assertEquals("3.5", stackComputer.compute("7/2"));
+
+        try {
+            rational.compute("1/(0.1-0.1)");
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, e.getErrorCode());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnlimitedPrecision() throws Exception {
+        new StackComputer(MathContext.UNLIMITED);
+    }
+
+    @Test
+    public void testSweep() throws Exception {
+        Assert.assertArrayEquals(new double[]{0, 0.0625, 0.25, 0.5625, 1},
+                stackComputer.sweep("x^2", "x", 0, 1, 5), 0);
+        Assert.assertArrayEquals(new double[]{3}, stackComputer.sweep("x+1", "x", 2, 10, 1), 0);
+        Assert.assertEquals(0, stackComputer.sweep("x", "x", 0, 1, 0).length);
+    }
+
+    @Test
+    public void testSweepInvalidSample() throws Exception {
+        double[] samples = stackComputer.sweep("1/x", "x", -1, 1, 3);
+
+        Assert.assertEquals(-1, samples[0], 0);
+        Assert.assertTrue(Double.isNaN(samples[1]));
+        Assert.assertEquals(1, samples[2], 0);
+    }
+
+    @Test
+    public void testSweepIntoBuffer() throws Exception {
+        DoubleBuffer buffer = DoubleBuffer.allocate(5);
+        buffer.put(7);
+        stackComputer.sweep("2*t", "t", 1, 3, 3, buffer);
+
+        Assert.assertEquals(4, buffer.position());
+        Assert.assertArrayEquals(new double[]{7, 2, 4, 6, 0}, buffer.array(), 0);
+    }
+
+    @Test
+    public void testSweepParallel() throws Exception {
+        int steps = StackComputer.SWEEP_PARALLEL_THRESHOLD * 4 + 1;
+        double[] samples = stackComputer.sweep("x*2+if(x,1,0)", "x", 0, steps - 1, steps);
+
+        for (int i = 0; i < steps; i++) {
+            Assert.assertEquals(i == 0 ? 0 : 2 * i + 1, samples[i], 0);
+        }
+    }
+
+    @Test
+    public void testSweepWrongVariable() throws Exception {
+        try {
+            stackComputer.sweep("x+1", "2x", 0, 1, 2);
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.WRONG_VARIABLE, e.getErrorCode());
+        }
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testSweepUnknownName() throws Exception {
+        stackComputer.sweep("x+y", "x", 0, 1, 2);
+    }
+
+    @Test
+    public void testSolve() throws Exception {
+        Assert.assertEquals(Math.sqrt(2), stackComputer.solve("x^2-2", "x", 0, 2), 1e-15);
+        Assert.assertEquals(Math.PI, stackComputer.solve("sin(x)", "x", 3, 4), 1e-15);
+        Assert.assertEquals(0.7390851332151607, stackComputer.solve("cos(t)-t", "t", 0, 1), 1e-15);
+        Assert.assertEquals(1, stackComputer.solve("x-1", "x", 1, 5), 0);
+        Assert.assertEquals(-2, stackComputer.solve("x*x*x+8", "x", -5, 5), 1e-14);
+    }
+
+    @Test
+    public void testSolveWithoutSignChange() throws Exception {
+        try {
+            stackComputer.solve("x*x+1", "x", -1, 1);
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.NO_ROOT, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testIntegrate() throws Exception {
+        Assert.assertEquals(2, stackComputer.integrate("sin(x)", "x", 0, Math.PI), 1e-14);
+        Assert.assertEquals(1.0 / 3, stackComputer.integrate("x^2", "x", 0, 1), 1e-15);
+        Assert.assertEquals(-1.0 / 3, stackComputer.integrate("x^2", "x", 1, 0), 1e-15);
+        Assert.assertEquals(Math.PI, stackComputer.integrate("4/(1+x^2)", "x", 0, 1), 1e-14);
+        Assert.assertEquals(2.0 / 3, stackComputer.integrate("sqrt(x)", "x", 0, 1), 1e-12);
+        Assert.assertEquals(0, stackComputer.integrate("1/0", "x", 2, 2), 0);
+    }
+
+    @Test
+    public void testIntegrateDivergent() throws Exception {
+        try {
+            stackComputer.integrate("1/x", "x", 0, 1);
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.DIVERGENT_INTEGRAL, e.getErrorCode());
+        }
+
+        try {
+            stackComputer.integrate("1/x", "x", -1, 1);
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, e.getErrorCode());
+        }
+    }
+}
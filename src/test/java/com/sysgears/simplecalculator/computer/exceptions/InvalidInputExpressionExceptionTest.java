@@ -0,0 +1,42 @@
+package com.sysgears.simplecalculator.computer.exceptions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InvalidInputExpressionExceptionTest {
+    @Test
+    public void testNoStackTrace() throws Exception {
+        Assert.assertEquals(0, new InvalidInputExpressionException("message").getStackTrace().length);
+        Assert.assertEquals(0, new InvalidInputExpressionException(ErrorCode.WRONG_NUMBER, "1.", 0).
+                getStackTrace().length);
+    }
+
+    @Test
+    public void testLazyMessage() throws Exception {
+        InvalidInputExpressionException e = new InvalidInputExpressionException(ErrorCode.UNEXPECTED_SYMBOL, "7+3x", 3);
+
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, e.getErrorCode());
+        Assert.assertEquals(3, e.getPosition());
+        Assert.assertEquals(4, e.getEnd());
+        Assert.assertEquals("x", e.getWrongPart());
+        Assert.assertEquals("Input data is invalid cause this part 'x' contains an unexpected symbol.", e.getMessage());
+    }
+
+    @Test
+    public void testSpan() throws Exception {
+        InvalidInputExpressionException e = new InvalidInputExpressionException(ErrorCode.TWO_SIGNS, "2--2", 1, 3);
+
+        Assert.assertEquals("--", e.getWrongPart());
+        Assert.assertEquals("Incoming string cannot contain either '++' or '--'", e.getMessage());
+    }
+
+    @Test
+    public void testMessageConstructor() throws Exception {
+        InvalidInputExpressionException e = new InvalidInputExpressionException("message", "part");
+
+        Assert.assertNull(e.getErrorCode());
+        Assert.assertEquals(-1, e.getPosition());
+        Assert.assertEquals("part", e.getWrongPart());
+        Assert.assertEquals("message", e.getMessage());
+    }
+}
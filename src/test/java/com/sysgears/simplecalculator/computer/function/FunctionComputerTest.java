@@ -1,5 +1,6 @@
 package com.sysgears.simplecalculator.computer.function;
 
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -120,4 +121,16 @@ public class FunctionComputerTest {
     public void testComputeFunction5() throws Exception {
         Assert.assertEquals("512.0", functionComputer.computeFunction("pow(2,3,2)"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testComputeSelectors() throws Exception {
+        Assert.assertEquals("2.0", functionComputer.compute("if(1,2,1/0)"));
+        Assert.assertEquals("8.0", functionComputer.compute("2*if(cos(0),4,1/0)"));
+        Assert.assertEquals("5.0", functionComputer.compute("choose(2,1/0,5,1/0)"));
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testSelectWrongArguments() throws Exception {
+        Functions.IF.select(1.0, 2);
+    }
+}
@@ -1,8 +1,14 @@
 package com.sysgears.simplecalculator.computer.function2;
 
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 public class FunctionComputerTest {
     FunctionComputer functionComputer = new FunctionComputer();
 
@@ -11,6 +17,35 @@ public class FunctionComputerTest {
         Assert.assertEquals("25.546232258060808", functionComputer.compute("cos(180)+22/sin(1)"));
     }
 
+    @Test
+    public void testComputeProvidedFunction() throws Exception {
+        Assert.assertEquals("3.0", functionComputer.compute("clamp(2+3,0,3)"));
+    }
+
+    @Test
+    public void testComputeDivisionByZero() throws Exception {
+        for (String expression : new String[]{"1/0", "if(1,2,1/0)"}) {
+            try {
+                functionComputer.compute(expression);
+                Assert.fail(expression);
+
+            } catch (InvalidInputExpressionException e) {
+                Assert.assertEquals(ErrorCode.DIVISION_BY_ZERO, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void testParseArguments() throws Exception {
+        Assert.assertArrayEquals(new double[]{1, -2.5, 300}, FunctionComputer.parseArguments("f(1,-2.5,3E2)", 2, 12), 0);
+        Assert.assertArrayEquals(new double[]{1}, FunctionComputer.parseArguments("f(1,,)", 2, 5), 0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseArgumentsNotNumber() throws Exception {
+        FunctionComputer.parseArguments("f(1,x)", 2, 5);
+    }
+
     @Test
     public void testGetOperands() throws Exception {
     }
@@ -52,6 +87,64 @@ public class FunctionComputerTest {
         Assert.assertEquals("512.0", functionComputer.computeFunction("power(2,3,2)"));
     }
 
+    @Test
+    public void testComputeHugeCall() throws Exception {
+        String arguments = IntStream.range(0, 3 * Functions.PARALLEL_THRESHOLD).mapToObj(i -> i % 2 == 0 ? "1" : "2").
+                                     collect(Collectors.joining(","));
+
+        Assert.assertEquals(String.valueOf(4.5 * Functions.PARALLEL_THRESHOLD),
+                functionComputer.compute("sum(" + arguments + ")"));
+        Assert.assertEquals(String.valueOf(2 - 4.5 * Functions.PARALLEL_THRESHOLD),
+                functionComputer.computeFunction("subtract(" + arguments + ")"));
+    }
+
+    @Test
+    public void testParallelReductions() throws Exception {
+        double[] arguments = new double[2 * Functions.PARALLEL_THRESHOLD];
+        Arrays.fill(arguments, 1.5);
+        arguments[0] = 3;
+
+        Assert.assertEquals(3 + 1.5 * (arguments.length - 1), Functions.SUM.calculate(arguments), 0);
+        Assert.assertEquals(3 - 1.5 * (arguments.length - 1), Functions.SUBTRACT.calculate(arguments), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, Functions.MULTIPLY.calculate(arguments), 0);
+
+        double quotient = arguments[0];
+        for (int i = 1; i < arguments.length; i++) {
+            quotient /= arguments[i];
+        }
+        Assert.assertEquals(quotient, Functions.DIVIDE.calculate(arguments), 0);
+
+        Arrays.fill(arguments, 1, arguments.length, 1.0);
+        Assert.assertEquals(3, Functions.MULTIPLY.calculate(arguments), 0);
+        Assert.assertEquals(3, Functions.DIVIDE.calculate(arguments), 0);
+    }
+
+    @Test
+    public void testParallelDivideOverflow() throws Exception {
+        double[] arguments = new double[Functions.PARALLEL_THRESHOLD];
+        Arrays.fill(arguments, 1);
+        arguments[0] = 1e300;
+        arguments[1] = 1e200;
+        arguments[2] = 1e200;
+
+        Assert.assertEquals(1e300 / 1e200 / 1e200, Functions.DIVIDE.calculate(arguments), 0);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testParallelDivideByZero() throws Exception {
+        double[] arguments = new double[Functions.PARALLEL_THRESHOLD];
+        Arrays.fill(arguments, 1);
+        arguments[arguments.length / 2] = -0.0;
+
+        Functions.DIVIDE.calculate(arguments);
+    }
+
+    @Test
+    public void testBoxedAndPrimitiveAgree() throws Exception {
+        Assert.assertEquals(Functions.POWER.calculate(2.0, 3.0, 2.0), Functions.POWER.calculate(new double[]{2, 3, 2}), 0);
+        Assert.assertEquals(Functions.SUM.calculate(1.0, 2.0, 3.5), Functions.SUM.calculate(new double[]{1, 2, 3.5}), 0);
+    }
+
 /*
     @Test
     public void testGetEnclosedExpressionBound1() throws Exception {
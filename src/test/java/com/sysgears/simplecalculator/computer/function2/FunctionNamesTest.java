@@ -0,0 +1,53 @@
+package com.sysgears.simplecalculator.computer.function2;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FunctionNamesTest {
+    @Test
+    public void testFindAll() throws Exception {
+        for (int i = 0; i < FunctionNames.size(); i++) {
+            String name = FunctionNames.getName(i);
+            Assert.assertEquals(name, i, FunctionNames.find(name, 0, name.length()));
+        }
+    }
+
+    @Test
+    public void testFindUserFunctions() throws Exception {
+        for (Functions function : Functions.values()) {
+            Assert.assertEquals(function.ordinal(), FunctionNames.find(function.getImage(), 0,
+                                                                        function.getImage().length()));
+        }
+    }
+
+    @Test
+    public void testFindUnknown() throws Exception {
+        Assert.assertEquals(-1, FunctionNames.find("foo", 0, 3));
+        Assert.assertEquals(-1, FunctionNames.find("co", 0, 2));
+        Assert.assertEquals(-1, FunctionNames.find("cosx", 0, 4));
+        Assert.assertEquals(-1, FunctionNames.find("co_s", 0, 4));
+        Assert.assertEquals(-1, FunctionNames.find("", 0, 0));
+    }
+
+    @Test
+    public void testFindPart() throws Exception {
+        Assert.assertEquals(FunctionNames.find("cos", 0, 3), FunctionNames.find("2+cos(1)", 2, 5));
+    }
+
+    @Test
+    public void testMatchCall() throws Exception {
+        Assert.assertEquals(6, FunctionNames.matchCall("2+acos(1)", 2));
+        Assert.assertEquals(-1, FunctionNames.matchCall("2+acos(1)", 0));
+        Assert.assertEquals(-1, FunctionNames.matchCall("cos", 0));
+        Assert.assertEquals(-1, FunctionNames.matchCall("(1)", 0));
+    }
+
+    @Test
+    public void testFindCall() throws Exception {
+        Assert.assertEquals(2, FunctionNames.findCall("2+acos(1)", 0));
+        Assert.assertEquals(0, FunctionNames.findCall("sum(cos(1),2)", 0));
+        Assert.assertEquals(4, FunctionNames.findCall("sum(cos(1),2)", 1));
+        Assert.assertEquals(-1, FunctionNames.findCall("2+foo(1)", 0));
+        Assert.assertEquals(-1, FunctionNames.findCall("2+2", 0));
+    }
+}
@@ -1,5 +1,6 @@
 package com.sysgears.simplecalculator.computer.operators;
 
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
 import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
 import org.junit.Assert;
 import org.junit.Test;
@@ -186,6 +187,23 @@ public abstract class ComputerTest {
         Assert.assertEquals("", operatorsComputer.compute(null));
     }
 
+    @Test
+    public void testComputeRange() throws Exception {
+        Assert.assertEquals("12", operatorsComputer.compute("x = 2 + 10 ;", 4, 11));
+    }
+
+    @Test
+    public void testComputeRangeWithSplitNumber() throws Exception {
+        try {
+            operatorsComputer.compute("1 2", 0, 3);
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, e.getErrorCode());
+            Assert.assertEquals(2, e.getPosition());
+        }
+    }
+
     @Test
     public void testComputeOne() throws Exception {
         Assert.assertEquals("40", operatorsComputer.compute("45-10-20-45-40-(-10-100)"));
@@ -219,6 +237,11 @@ public abstract class ComputerTest {
         Assert.assertEquals("100000+0.211*180", operatorsComputer.convertFromENotation("1E5+21.1E-2*18E1"));
     }
 
+    @Test
+    public void testConvertFromENotationSameEnding() throws Exception {
+        Assert.assertEquals("0.5+2.5", operatorsComputer.convertFromENotation("5E-1+25E-1"));
+    }
+
     @Test
     public void testGetParenthesesExpression() {
         Assert.assertEquals("2+2", operatorsComputer.getEnclosedExpression("(2+2)*2", "("));
@@ -0,0 +1,79 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DerivativesTest {
+    FunctionRegistry registry = FunctionRegistry.getDefault();
+
+    /**
+     * Compares the rule with a central difference for every argument
+     */
+    private void assertDerivatives(final String name, final double... arguments) {
+        MathFunction function = registry.find(name, arguments.length);
+        double value = function.apply(arguments);
+
+        for (int index = 0; index < arguments.length; index++) {
+            double[] shifted = arguments.clone();
+            final int i = index;
+            double expected = Derivatives.difference(x -> {
+                shifted[i] = x;
+                return function.apply(shifted);
+            }, arguments[index]);
+
+            Assert.assertEquals(name + " by " + index, expected, function.derivative(arguments, value, index),
+                    1e-6 * Math.max(1, Math.abs(expected)));
+        }
+    }
+
+    @Test
+    public void testMathFunctions() throws Exception {
+        for (String name : new String[]{"abs", "acos", "asin", "atan", "cbrt", "cos", "cosh", "exp", "expm1",
+                "log", "log10", "log1p", "sin", "sinh", "sqrt", "tan", "tanh", "toDegrees", "toRadians", "floor",
+                "ceil", "rint", "signum", "ulp"}) {
+            assertDerivatives(name, 0.3);
+            assertDerivatives(name, 0.7);
+        }
+
+        for (String name : new String[]{"atan2", "hypot", "pow", "max", "min", "IEEEremainder", "copySign"}) {
+            assertDerivatives(name, 1.3, 0.4);
+            assertDerivatives(name, 0.4, 1.3);
+        }
+
+        assertDerivatives("fma", 1.5, -2, 3);
+    }
+
+    @Test
+    public void testUserFunctions() throws Exception {
+        assertDerivatives("power", 1.5, 2, 0.5);
+        assertDerivatives("power", 1.5, -1.2);
+        assertDerivatives("divide", 3, 1.5, -2);
+        assertDerivatives("multiply", 3, 0, -2);
+        assertDerivatives("subtract", 3, 1.5, -2);
+        assertDerivatives("sum", 3, 1.5, -2, 4);
+    }
+
+    @Test
+    public void testDomainFunctions() throws Exception {
+        assertDerivatives("clamp", 0.5, 0, 1);
+        assertDerivatives("clamp", -0.5, 0, 1);
+        assertDerivatives("clamp", 1.5, 0, 1);
+        assertDerivatives("lerp", 2, 5, 0.3);
+        assertDerivatives("if", 1, 2, 3);
+        assertDerivatives("max", 2, 7, 3, 4);
+
+        MathFunction choose = registry.find("choose", 4);
+        double[] arguments = {2, 2, 3, 4};
+        Assert.assertEquals(0, choose.derivative(arguments, 3, 0), 0);
+        Assert.assertEquals(0, choose.derivative(arguments, 3, 1), 0);
+        Assert.assertEquals(1, choose.derivative(arguments, 3, 2), 0);
+    }
+
+    @Test
+    public void testCentralDifference() throws Exception {
+        MathFunction cube = MathFunction.of("cube", x -> x * x * x);
+
+        Assert.assertEquals(12, cube.derivative(new double[]{2}, 8, 0), 1e-6);
+        Assert.assertEquals(6, Derivatives.difference(x -> x * x, 3), 1e-6);
+    }
+}
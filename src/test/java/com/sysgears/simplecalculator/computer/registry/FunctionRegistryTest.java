@@ -0,0 +1,115 @@
+package com.sysgears.simplecalculator.computer.registry;
+
+import com.sysgears.simplecalculator.computer.function2.Functions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class FunctionRegistryTest {
+    FunctionRegistry registry = FunctionRegistry.getDefault();
+
+    @Test
+    public void testUserFunctionsComeFirst() throws Exception {
+        for (Functions function : Functions.values()) {
+            Assert.assertEquals(function.ordinal(), registry.indexOf(function.getImage()));
+            Assert.assertEquals(MathFunction.VARIADIC, registry.find(function.getImage(), 5).getArity());
+        }
+    }
+
+    @Test
+    public void testMathFunctions() throws Exception {
+        Assert.assertEquals(Math.cos(2), registry.find("cos", 1).apply(2), 0);
+        Assert.assertEquals(Math.atan2(1, 2), registry.find("atan2", 2).apply(1, 2), 0);
+        Assert.assertEquals(Math.hypot(3, 4), registry.find("hypot", 2).apply(new double[]{3, 4}), 0);
+        Assert.assertNull(registry.find("cos", 2));
+        Assert.assertTrue(registry.find("cos", 1).isPure());
+        Assert.assertFalse(registry.find("random", 0).isPure());
+    }
+
+    @Test
+    public void testProvidedFunctions() throws Exception {
+        Assert.assertEquals(3, registry.find("clamp", 3).apply(5, 0, 3), 0);
+        Assert.assertEquals(0, registry.find("clamp", 3).apply(-5, 0, 3), 0);
+        Assert.assertEquals(2, registry.find("clamp", 3).apply(new double[]{2, 0, 3}), 0);
+        Assert.assertTrue(Double.isNaN(registry.find("clamp", 3).apply(1, 3, 0)));
+        Assert.assertEquals(15, registry.find("lerp", 3).apply(10, 20, 0.5), 0);
+        Assert.assertEquals(0.3, registry.find("lerp", 3).apply(0.1, 0.3, 1), 0);
+        Assert.assertTrue(registry.indexOf("clamp") > registry.indexOf("cos"));
+    }
+
+    @Test
+    public void testSelectors() throws Exception {
+        Assert.assertEquals(2, registry.find("if", 3).apply(-1, 2, 3), 0);
+        Assert.assertEquals(3, registry.find("if", 3).apply(0, 2, 3), 0);
+        Assert.assertEquals(6, registry.find("choose", 4).apply(new double[]{3, 4, 5, 6}), 0);
+        Assert.assertTrue(Double.isNaN(registry.find("choose", 2).apply(2, 4)));
+        Assert.assertEquals(1, registry.find("min", 4).apply(new double[]{4, 2, 8, 1}), 0);
+        Assert.assertEquals(8, registry.find("max", 3).apply(4, 8, 1), 0);
+        Assert.assertEquals(Math.max(1, 2), registry.find("max", 2).apply(1, 2), 0);
+    }
+
+    @Test
+    public void testUnknownFunction() throws Exception {
+        Assert.assertEquals(-1, registry.indexOf("foo"));
+        Assert.assertNull(registry.find("foo", 1));
+    }
+
+    @Test
+    public void testExactArityIsPreferred() throws Exception {
+        MathFunction variadic = MathFunction.variadic("f", true, arguments -> arguments.length);
+        MathFunction unary = MathFunction.of("f", x -> -x);
+        FunctionRegistry registry = new FunctionRegistry(Collections.singletonList(() -> Arrays.asList(variadic, unary)));
+
+        Assert.assertSame(unary, registry.find("f", 1));
+        Assert.assertSame(variadic, registry.find("f", 2));
+        Assert.assertSame(variadic, registry.find("f", 0));
+        Assert.assertEquals(2, registry.getOverloads(0).size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRegisteredTwice() throws Exception {
+        new FunctionRegistry(Arrays.asList(() -> Collections.singletonList(MathFunction.of("f", x -> x)),
+                                           () -> Collections.singletonList(MathFunction.of("f", x -> -x))));
+    }
+
+    @Test
+    public void testMathFunctionIsReplaced() throws Exception {
+        MathFunction cos = MathFunction.of("cos", x -> 2 * x);
+        FunctionRegistry registry = new FunctionRegistry(Arrays.asList(new StandardFunctions(),
+                                                                       () -> Collections.singletonList(cos)));
+
+        Assert.assertSame(cos, registry.find("cos", 1));
+        Assert.assertEquals(registry.size() - 1, registry.indexOf("cos"));
+        Assert.assertEquals(1, registry.getOverloads(registry.indexOf("cos")).size());
+        Assert.assertEquals(1, registry.getFunctions().stream().filter(f -> f.getName().equals("cos")).count());
+        Assert.assertEquals(Math.sin(2), registry.find("sin", 1).apply(2), 0);
+    }
+
+    @Test
+    public void testMathOverloadIsReplaced() throws Exception {
+        MathFunction method = new ArityFunctions.MethodFunction("hypot", true, MethodHandles.publicLookup().
+                unreflect(Math.class.getMethod("hypot", double.class, double.class)));
+        MathFunction variadic = MathFunction.variadic("hypot", true, arguments -> arguments.length);
+        MathFunction binary = MathFunction.of("hypot", (x, y) -> x + y);
+        FunctionRegistry registry = new FunctionRegistry(Arrays.asList(() -> Arrays.asList(method, variadic),
+                                                                       () -> Collections.singletonList(binary)));
+
+        Assert.assertSame(binary, registry.find("hypot", 2));
+        Assert.assertSame(variadic, registry.find("hypot", 3));
+        Assert.assertEquals(0, registry.indexOf("hypot"));
+        Assert.assertEquals(Arrays.asList(variadic, binary), registry.getFunctions());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWrongName() throws Exception {
+        new FunctionRegistry(Collections.singletonList(() -> Collections.singletonList(MathFunction.of("2f", x -> x))));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFrozen() throws Exception {
+        registry.getFunctions().clear();
+    }
+}
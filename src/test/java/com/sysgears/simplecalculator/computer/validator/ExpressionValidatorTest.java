@@ -0,0 +1,160 @@
+package com.sysgears.simplecalculator.computer.validator;
+
+import com.sysgears.simplecalculator.computer.compiler.ExpressionCompiler;
+import com.sysgears.simplecalculator.computer.compiler.OperatorTable;
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.corpus.ExpressionGenerator;
+import com.sysgears.simplecalculator.corpus.Literals;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class ExpressionValidatorTest {
+    ExpressionValidator validator = new ExpressionValidator();
+
+    ExpressionValidator compiled = new ExpressionValidator((name, arguments) -> false, OperatorTable.getDefault());
+
+    @Test
+    public void testValidExpressions() throws Exception {
+        for (String expression : new String[]{"", "2", "-2", "(2+8)/6-12.8*4^1", "10*-2", "1E5+38e-2",
+                "cos(180)+22/sin(1)", "max(2+3,7)", "sum(1,2,3,4)", "random()", "-(-(2))", "power(2,3)^2"}) {
+            Assert.assertNull(expression, validator.validate(expression));
+            Assert.assertEquals(-1, validator.getErrorPosition());
+        }
+    }
+
+    @Test
+    public void testWrongSymbol() throws Exception {
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, validator.validate("7+3x"));
+        Assert.assertEquals(3, validator.getErrorPosition());
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, validator.validate("2 + 2"));
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, validator.validate("#2"));
+    }
+
+    @Test
+    public void testTwoSigns() throws Exception {
+        for (String expression : new String[]{"2++2", "2--2", "2+-2", "2-+2", "--2"}) {
+            Assert.assertEquals(expression, ErrorCode.MISSING_OPERAND, validator.validate(expression));
+        }
+    }
+
+    @Test
+    public void testOperatorTable() throws Exception {
+        for (String expression : new String[]{"5!", "7%3", "7\\2", "-3!+2", "(2+1)!^2", "2!!"}) {
+            Assert.assertNull(expression, compiled.validate(expression));
+        }
+        Assert.assertEquals(ErrorCode.MISSING_OPERAND, compiled.validate("!5"));
+        Assert.assertEquals(ErrorCode.MISSING_OPERAND, compiled.validate("7%"));
+
+        // the function engines know only the classic operators
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, validator.validate("2+3!"));
+        Assert.assertEquals(3, validator.getErrorPosition());
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, validator.validate("7%3"));
+
+        ExpressionValidator classic = new ExpressionValidator((name, arguments) -> false,
+                new OperatorTable(OperatorTable.PLUS, OperatorTable.NEGATE, OperatorTable.ADD,
+                        OperatorTable.SUBTRACT));
+        Assert.assertNull(classic.validate("-2+3"));
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, classic.validate("5!"));
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, classic.validate("2*3"));
+    }
+
+    @Test
+    public void testParentheses() throws Exception {
+        Assert.assertEquals(ErrorCode.NOT_CLOSED, validator.validate("2*(2+(3)"));
+        Assert.assertEquals(2, validator.getErrorPosition());
+        Assert.assertEquals(ErrorCode.NOT_OPENED, validator.validate("2+2)"));
+        Assert.assertEquals(3, validator.getErrorPosition());
+        Assert.assertEquals(ErrorCode.MISSING_OPERAND, validator.validate("()"));
+    }
+
+    @Test
+    public void testNumbers() throws Exception {
+        for (String expression : new String[]{".5+1", "1.+2", "2*.5", "-.5", "1.e5"}) {
+            Assert.assertNull(expression, validator.validate(expression));
+        }
+        Assert.assertEquals(ErrorCode.WRONG_NUMBER, validator.validate("1e+"));
+        Assert.assertEquals(ErrorCode.UNEXPECTED_SYMBOL, validator.validate("1.2.3"));
+        Assert.assertEquals(ErrorCode.MISSING_OPERAND, validator.validate(".+1"));
+
+        Assert.assertEquals(ErrorCode.WRONG_NUMBER, compiled.validate("2.+1"));
+        Assert.assertEquals(ErrorCode.MISSING_OPERAND, compiled.validate(".5+1"));
+        Assert.assertEquals(ErrorCode.WRONG_NUMBER, compiled.validate("1e+"));
+    }
+
+    @Test
+    public void testFunctions() throws Exception {
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, validator.validate("2+foo(2)"));
+        Assert.assertEquals(2, validator.getErrorPosition());
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, validator.validate("sin(1,2)"));
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, validator.validate("sum()"));
+        Assert.assertEquals(ErrorCode.NOT_FUNCTION_CALL, validator.validate("sin+1"));
+        Assert.assertEquals(ErrorCode.MISPLACED_DELIMITER, validator.validate("(1,2)"));
+        Assert.assertEquals(ErrorCode.MISSING_OPERAND, validator.validate("max(1,)"));
+    }
+
+    @Test
+    public void testSeries() throws Exception {
+        for (String expression : new String[]{"series(k,1,3,k)", "product(k,1,5,k^2)+1",
+                "series(i,1,3,series(j,1,i,i*j))", "series(k,1,3,sin(k))"}) {
+            Assert.assertNull(expression, compiled.validate(expression));
+        }
+        Assert.assertNotNull(validator.validate("series(k,1,3,k)"));
+        Assert.assertEquals(ErrorCode.NOT_FUNCTION_CALL, compiled.validate("series(k,1,k,k)"));
+        Assert.assertEquals(11, compiled.getErrorPosition());
+        Assert.assertEquals(ErrorCode.NOT_FUNCTION_CALL, compiled.validate("series(k,1,3,k)+k"));
+        Assert.assertEquals(ErrorCode.NOT_FUNCTION_CALL, compiled.validate("series(k,1,3,j)"));
+        Assert.assertEquals(ErrorCode.WRONG_SERIES, compiled.validate("series(1,1,3,1)"));
+        Assert.assertEquals(ErrorCode.WRONG_SERIES, compiled.validate("series(k)"));
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, compiled.validate("series(k,1,3)"));
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, compiled.validate("series(k,1,3,k,2)"));
+        Assert.assertEquals(ErrorCode.NOT_CLOSED, compiled.validate("product(k,1,3,k"));
+    }
+
+    @Test
+    public void testDeepExpression() throws Exception {
+        int depth = 100_000;
+        String expression = String.join("", Collections.nCopies(depth, "sum(1,(")) + "1" +
+                String.join("", Collections.nCopies(depth, "))"));
+
+        Assert.assertNull(validator.validate(expression));
+        Assert.assertEquals(ErrorCode.NOT_CLOSED, validator.validate(expression.substring(0, expression.length() - 1)));
+    }
+
+    @Test
+    public void testAgreesWithCompiler() throws Exception {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+
+        new ExpressionGenerator(8, 10, 3, Literals.MIXED, 0.5).stream(10_000).forEach(expression -> {
+            boolean compiles;
+            try {
+                compiler.compile(expression);
+                compiles = true;
+
+            } catch (InvalidInputExpressionException e) {
+                compiles = false;
+            }
+
+            Assert.assertEquals(expression, compiles, compiled.validate(expression) == null);
+        });
+    }
+
+    @Test(expected = InvalidInputExpressionException.class)
+    public void testCheck() throws Exception {
+        validator.check("(2+2");
+    }
+
+    @Test
+    public void testDefinedFunctions() throws Exception {
+        ExpressionValidator validator = new ExpressionValidator((name, arguments) ->
+                name.equals("hyp") && (arguments == -1 || arguments == 2));
+
+        Assert.assertNull(validator.validate("1+hyp(3,cos(4))"));
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, validator.validate("1+hyp(3)"));
+        Assert.assertEquals(2, validator.getErrorPosition());
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, validator.validate("1+foo(3)"));
+        Assert.assertEquals(ErrorCode.UNKNOWN_FUNCTION, this.validator.validate("hyp(3,4)"));
+    }
+}
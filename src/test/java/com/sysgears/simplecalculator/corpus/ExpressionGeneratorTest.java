@@ -0,0 +1,75 @@
+package com.sysgears.simplecalculator.corpus;
+
+import com.sysgears.simplecalculator.computer.compiler.ExpressionCompiler;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class ExpressionGeneratorTest {
+    ExpressionCompiler compiler = new ExpressionCompiler();
+
+    @Test
+    public void testSameSeedSameCorpus() throws Exception {
+        Assert.assertEquals(new ExpressionGenerator(7, 10, 3, Literals.MIXED, 0.2).stream(100).collect(Collectors.toList()),
+                new ExpressionGenerator(7, 10, 3, Literals.MIXED, 0.2).stream(100).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testCoversAllFunctionsAndOperators() throws Exception {
+        ExpressionGenerator generator = new ExpressionGenerator(1, 10, 3, Literals.SMALL_INTEGERS, 0);
+        String corpus = generator.stream(2000).collect(Collectors.joining(System.lineSeparator()));
+
+        for (String function : generator.getFunctions()) {
+            Assert.assertTrue(function, Pattern.compile("(?<![a-zA-Z0-9])" + function + "\\(").matcher(corpus).find());
+        }
+
+        for (String operator : new String[]{"+", "-", "*", "/", "^"}) {
+            Assert.assertTrue(operator, corpus.contains(operator));
+        }
+    }
+
+    @Test
+    public void testValidExpressionsCompile() throws Exception {
+        new ExpressionGenerator(2, 20, 5, Literals.MIXED, 0).stream(5000).forEach(compiler::compile);
+    }
+
+    @Test
+    public void testInvalidExpressionsDoNotCompile() throws Exception {
+        List<String> corpus = new ExpressionGenerator(3, 10, 3, Literals.MIXED, 1).stream(1000).
+                collect(Collectors.toList());
+
+        Assert.assertEquals(0, corpus.stream().filter(this::compiles).count());
+    }
+
+    @Test
+    public void testInvalidShare() throws Exception {
+        long invalid = new ExpressionGenerator(4, 10, 3, Literals.MIXED, 0.2).stream(10_000).
+                filter(e -> !compiles(e)).count();
+
+        Assert.assertTrue(String.valueOf(invalid), invalid > 1800 && invalid < 2200);
+    }
+
+    @Test
+    public void testDepthIsNotLimitedByCallStack() throws Exception {
+        Assert.assertFalse(new ExpressionGenerator(5, 100_000, 100_000, Literals.INTEGERS, 0).next().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongInvalidShare() throws Exception {
+        new ExpressionGenerator(6, 10, 3, Literals.MIXED, 2);
+    }
+
+    private boolean compiles(final String expression) {
+        try {
+            compiler.compile(expression);
+            return true;
+
+        } catch (InvalidInputExpressionException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+public class EvaluationStatisticsTest {
+    EvaluationStatistics statistics = new EvaluationStatistics();
+
+    @Test
+    public void testReport() throws Exception {
+        statistics.record(1_000, false);
+        statistics.record(2_000, true);
+        statistics.record(3_000, true);
+        statistics.record(4_000, false);
+
+        Assert.assertEquals(0.5, statistics.getCacheHitRatio(), 0);
+        Assert.assertTrue(statistics.getThroughput() > 0);
+
+        String report = statistics.toString();
+        Assert.assertTrue(report, report.contains("count: 4"));
+        Assert.assertTrue(report, report.contains("p999"));
+        Assert.assertTrue(report, report.contains("max"));
+        Assert.assertTrue(report, report.contains("cache hit ratio"));
+    }
+
+    @Test
+    public void testPeriodicDump() throws Exception {
+        Path file = Files.createTempFile("statistics", ".txt");
+        statistics.record(1_000, false);
+
+        try {
+            statistics.startDumping(file, 10, TimeUnit.MILLISECONDS);
+
+            for (int i = 0; i < 100 && Files.size(file) == 0; i++) {
+                Thread.sleep(10);
+            }
+            statistics.stopDumping();
+
+            Assert.assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("count: 1"));
+
+        } finally {
+            statistics.stopDumping();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        statistics.record(1_000, true);
+        statistics.reset();
+
+        Assert.assertEquals(0, statistics.getHistogram().getCount());
+        Assert.assertEquals(0, statistics.getCacheHitRatio(), 0);
+    }
+}
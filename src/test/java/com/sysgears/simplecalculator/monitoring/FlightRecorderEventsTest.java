@@ -0,0 +1,100 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import com.sysgears.simplecalculator.Calculator;
+import com.sysgears.simplecalculator.computer.compiler.StackComputer;
+import com.sysgears.simplecalculator.computer.operators.ComputerRegExp;
+import com.sysgears.simplecalculator.history.HistoryHolder;
+import com.sysgears.simplecalculator.ui.UIController;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FlightRecorderEventsTest {
+    private static final String COMPUTATION = "com.sysgears.simplecalculator.Computation";
+
+    private static final String EVALUATION = "com.sysgears.simplecalculator.Evaluation";
+
+    @Test
+    public void testComputationEvents() throws Exception {
+        List<RecordedEvent> events = record(COMPUTATION, () -> {
+            new StackComputer().compute("2+2");
+            try {
+                new StackComputer().compute("2+");
+            } catch (RuntimeException e) {
+                // the event is recorded anyway
+            }
+            new ComputerRegExp().compute("(1+2)*3");
+        });
+
+        Assert.assertEquals(3, events.size());
+        Assert.assertEquals(StackComputer.class.getName(), events.get(0).getString("engine"));
+        Assert.assertEquals(3, events.get(0).getInt("expressionLength"));
+        Assert.assertEquals("OK", events.get(0).getString("status"));
+        Assert.assertEquals("INVALID", events.get(1).getString("status"));
+        Assert.assertEquals(ComputerRegExp.class.getName(), events.get(2).getString("engine"));
+    }
+
+    @Test
+    public void testEvaluationEvents() throws Exception {
+        Iterator<String> lines = Arrays.asList("2 + 2", "2+2", "2/0").iterator();
+
+        List<RecordedEvent> events = record(EVALUATION, () -> new Calculator(new UIController() {
+            @Override
+            public String readLine(final String promptString) throws IOException {
+                if (!lines.hasNext()) {
+                    throw new EOFException();
+                }
+                return lines.next();
+            }
+
+            @Override
+            public void printLine(final String description, final String outputString) {
+            }
+
+            @Override
+            public void printLine(final String line) {
+            }
+
+            @Override
+            public void close() {
+            }
+        }, new HistoryHolder(), new StackComputer()).run());
+
+        Assert.assertEquals(3, events.size());
+        Assert.assertFalse(events.get(0).getBoolean("cacheHit"));
+        Assert.assertTrue(events.get(1).getBoolean("cacheHit"));
+        Assert.assertEquals("OK", events.get(1).getString("status"));
+        Assert.assertEquals("INVALID", events.get(2).getString("status"));
+    }
+
+    private List<RecordedEvent> record(final String event, final Runnable action) throws IOException {
+        Path file = Files.createTempFile("calculator", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(event).withThreshold(Duration.ZERO);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+
+            return RecordingFile.readAllEvents(file).stream().
+                    filter(e -> e.getEventType().getName().equals(event)).
+                    collect(Collectors.toList());
+
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
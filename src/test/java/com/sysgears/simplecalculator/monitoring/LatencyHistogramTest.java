@@ -0,0 +1,65 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void testEmpty() throws Exception {
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() throws Exception {
+        for (long i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(50, histogram.getValueAtPercentile(50));
+        Assert.assertEquals(99, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(100, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(100, histogram.getMax());
+    }
+
+    @Test
+    public void testRelativeError() throws Exception {
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            double expected = percentile * 1_000_000;
+            Assert.assertEquals(expected, histogram.getValueAtPercentile(percentile), expected * 0.01);
+        }
+        Assert.assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testBucketsCoverAllValues() throws Exception {
+        long previous = -1;
+
+        for (long value : new long[]{0, 1, 255, 256, 258, 511, 512, 1 << 20, Long.MAX_VALUE / 2, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.getIndex(value);
+
+            Assert.assertTrue(LatencyHistogram.getUpperBound(index) >= value);
+            Assert.assertTrue(index > previous || value == 0);
+            previous = index;
+        }
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        histogram.record(10);
+        histogram.reset();
+
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+}
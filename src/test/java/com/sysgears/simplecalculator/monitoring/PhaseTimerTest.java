@@ -0,0 +1,74 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import com.sysgears.simplecalculator.computer.function2.FunctionComputer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+public class PhaseTimerTest {
+    enum Phase {
+        FIRST,
+        SECOND
+    }
+
+    @Test
+    public void testDisabledTimerRecordsNothing() throws Exception {
+        PhaseTimer<Phase> timer = PhaseTimer.forEngine("disabled", Phase.class);
+        timer.setEnabled(false);
+
+        timer.stop(Phase.FIRST, timer.start());
+
+        Assert.assertEquals(0, timer.getStatistics(Phase.FIRST).getCount());
+    }
+
+    @Test
+    public void testEnabledTimerRecordsPhases() throws Exception {
+        PhaseTimer<Phase> timer = PhaseTimer.forEngine("enabled", Phase.class);
+        timer.setEnabled(true);
+
+        for (int i = 0; i < 10; i++) {
+            timer.stop(Phase.SECOND, timer.start());
+        }
+        timer.stop(Phase.SECOND, System.nanoTime() - 1_000_000);
+
+        PhaseStatistics statistics = timer.getStatistics(Phase.SECOND);
+        Assert.assertEquals(11, statistics.getCount());
+        Assert.assertTrue(statistics.getMaxNanos() >= 1_000_000);
+        Assert.assertTrue(statistics.getP99Nanos() >= statistics.getP50Nanos());
+        Assert.assertEquals(0, timer.getStatistics(Phase.FIRST).getCount());
+
+        timer.reset();
+        Assert.assertEquals(0, timer.getStatistics(Phase.SECOND).getCount());
+    }
+
+    @Test
+    public void testSameEngineSameTimer() throws Exception {
+        Assert.assertSame(PhaseTimer.forEngine("same", Phase.class), PhaseTimer.forEngine("same", Phase.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSameEngineOtherPhases() throws Exception {
+        PhaseTimer.forEngine("other", Phase.class);
+        PhaseTimer.forEngine("other", Thread.State.class);
+    }
+
+    @Test
+    public void testEnginePublishedAsMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String engine = FunctionComputer.class.getName();
+        FunctionComputer computer = new FunctionComputer();
+
+        server.setAttribute(PhaseTimer.getObjectName(engine), new Attribute("Enabled", true));
+        computer.compute("2+2*2");
+        server.setAttribute(PhaseTimer.getObjectName(engine), new Attribute("Enabled", false));
+
+        CompositeData[] phases = (CompositeData[]) server.getAttribute(PhaseTimer.getObjectName(engine), "Phases");
+        Assert.assertEquals("CONVERSION_TO_FUNCTIONS", phases[0].get("name"));
+        Assert.assertTrue((Long) phases[0].get("count") > 0);
+        Assert.assertTrue((Long) phases[1].get("count") > 0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sysgears.simplecalculator.monitoring;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TopExpressionsTest {
+    TopExpressions top = new TopExpressions(3);
+
+    @Test
+    public void testSlowest() throws Exception {
+        for (int i = 1; i <= 10; i++) {
+            top.record("e" + i, "engine", i * 100);
+        }
+        top.record("e1", "engine", 5_000);
+
+        Assert.assertEquals("[e1, e10, e9]", expressions(top.getSlowest()));
+        Assert.assertEquals(5_000, top.getSlowest().get(0).getMaxNanos());
+    }
+
+    @Test
+    public void testMostFrequent() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            top.record("often", "engine", 1);
+            top.record("rare" + i, "engine", 1);
+
+            if (i % 4 == 0) {
+                top.record("sometimes", "engine", 1);
+            }
+        }
+
+        List<TopExpressions.ExpressionRecord> frequent = top.getMostFrequent();
+        Assert.assertEquals("often", frequent.get(0).getExpression());
+        Assert.assertEquals(100, frequent.get(0).getCount());
+        Assert.assertEquals(0, frequent.get(0).getCountError());
+        Assert.assertEquals(3, frequent.size());
+    }
+
+    @Test
+    public void testSpaceSavingOverestimates() throws Exception {
+        top.record("a", "engine", 1);
+        top.record("a", "engine", 1);
+        top.record("b", "engine", 1);
+        top.record("c", "engine", 1);
+        top.record("d", "engine", 1);
+
+        TopExpressions.ExpressionRecord d = top.getMostFrequent().stream().
+                filter(r -> r.getExpression().equals("d")).findFirst().get();
+        Assert.assertEquals(2, d.getCount());
+        Assert.assertEquals(1, d.getCountError());
+    }
+
+    @Test
+    public void testDumpJsonLines() throws Exception {
+        Path file = Files.createTempFile("top", ".jsonl");
+        top.record("sum(\"1\",2)", "engine", 42);
+
+        try {
+            top.dump(file);
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+            Assert.assertEquals(2, lines.size());
+            Assert.assertEquals("{\"list\":\"slowest\",\"expression\":\"sum(\\\"1\\\",2)\",\"engine\":\"engine\"," +
+                    "\"count\":1,\"countError\":0,\"maxNanos\":42}", lines.get(0));
+            Assert.assertTrue(lines.get(1).startsWith("{\"list\":\"frequent\""));
+
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongCapacity() throws Exception {
+        new TopExpressions(0);
+    }
+
+    private String expressions(final List<TopExpressions.ExpressionRecord> records) {
+        return records.stream().map(TopExpressions.ExpressionRecord::getExpression).collect(Collectors.toList()).
+                toString();
+    }
+}
@@ -0,0 +1,210 @@
+package com.sysgears.simplecalculator.workbook;
+
+import com.sysgears.simplecalculator.computer.compiler.Definitions;
+import com.sysgears.simplecalculator.computer.compiler.StackComputer;
+import com.sysgears.simplecalculator.computer.exceptions.ErrorCode;
+import com.sysgears.simplecalculator.computer.exceptions.InvalidInputExpressionException;
+import com.sysgears.simplecalculator.computer.function2.FunctionComputer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+public class WorkbookTest {
+    Workbook workbook = new Workbook(new StackComputer());
+
+    @Test
+    public void testIsAssignment() throws Exception {
+        Assert.assertTrue(Workbook.isAssignment("a = 2*3"));
+        Assert.assertTrue(Workbook.isAssignment("price2=a"));
+        Assert.assertFalse(Workbook.isAssignment("def f(x) = x"));
+        Assert.assertFalse(Workbook.isAssignment("2*3"));
+        Assert.assertFalse(Workbook.isAssignment(null));
+    }
+
+    @Test
+    public void testAssign() throws Exception {
+        workbook.assign("a = 2*3");
+        List<Cell> cells = workbook.assign("b = a^2 + cos(0)");
+
+        Assert.assertEquals(1, cells.size());
+        Assert.assertEquals("37", workbook.get("b").getResult());
+        Assert.assertEquals("b = 37", cells.get(0).toString());
+    }
+
+    @Test
+    public void testRecalculateDependents() throws Exception {
+        workbook.assign("a = 1");
+        workbook.assign("b = a + 1");
+        workbook.assign("c = a * 10");
+        workbook.assign("d = b + c");
+        workbook.assign("e = 100");
+
+        List<Cell> cells = workbook.assign("a = -2");
+
+        Assert.assertEquals("a", cells.get(0).getName());
+        Assert.assertEquals("d", cells.get(3).getName());
+        Assert.assertEquals(4, cells.size());
+        Assert.assertEquals("-21", workbook.get("d").getResult());
+        Assert.assertEquals("100", workbook.get("e").getResult());
+    }
+
+    @Test
+    public void testReassignReferences() throws Exception {
+        workbook.assign("a = 1");
+        workbook.assign("b = 2");
+        workbook.assign("c = a");
+        workbook.assign("c = b");
+
+        Assert.assertEquals(1, workbook.assign("a = 5").size());
+        Assert.assertEquals(2, workbook.assign("b = 5").size());
+        Assert.assertEquals("5", workbook.get("c").getResult());
+    }
+
+    @Test
+    public void testForwardReference() throws Exception {
+        workbook.assign("b = x + 1");
+        workbook.assign("b = x + 2");
+
+        Assert.assertNull(workbook.get("b").getResult());
+        Assert.assertEquals(ErrorCode.UNKNOWN_CELL, workbook.get("b").getError().getErrorCode());
+
+        workbook.assign("x = 1");
+
+        Assert.assertEquals("3", workbook.get("b").getResult());
+    }
+
+    @Test
+    public void testInvalidPrecedent() throws Exception {
+        workbook.assign("a = 1/0");
+        workbook.assign("b = a + 1");
+
+        Assert.assertEquals(ErrorCode.INVALID_CELL, workbook.get("b").getError().getErrorCode());
+
+        workbook.assign("a = 1");
+
+        Assert.assertEquals("2", workbook.get("b").getResult());
+        Assert.assertNull(workbook.get("b").getError());
+    }
+
+    @Test
+    public void testExponentIsNotReference() throws Exception {
+        workbook.assign("e1 = 2e1 + 1.5E-1");
+
+        Assert.assertEquals("20.15", workbook.get("e1").getResult());
+    }
+
+    @Test
+    public void testCyclicReference() throws Exception {
+        workbook.assign("a = 1");
+        workbook.assign("b = a + 1");
+        workbook.assign("c = b + 1");
+
+        for (String assignment : new String[]{"a = c", "a = a + 1", "b = c * 2"}) {
+            try {
+                workbook.assign(assignment);
+                Assert.fail(assignment);
+
+            } catch (InvalidInputExpressionException e) {
+                Assert.assertEquals(ErrorCode.CYCLIC_REFERENCE, e.getErrorCode());
+            }
+        }
+
+        Assert.assertEquals("3", workbook.get("c").getResult());
+    }
+
+    @Test
+    public void testFunctionName() throws Exception {
+        try {
+            workbook.assign("cos = 1");
+            Assert.fail();
+
+        } catch (InvalidInputExpressionException e) {
+            Assert.assertEquals(ErrorCode.WRONG_CELL_NAME, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testFunctionComputer() throws Exception {
+        Workbook workbook = new Workbook(new FunctionComputer());
+        workbook.assign("a = 2*3");
+        workbook.assign("b = a^2");
+
+        Assert.assertEquals("36.0", workbook.get("b").getResult());
+
+        workbook.assign("c = -3");
+        workbook.assign("d = c^2 + 2*c");
+
+        Assert.assertEquals("3.0", workbook.get("d").getResult());
+    }
+
+    @Test
+    public void testFractionReference() throws Exception {
+        Workbook workbook = new Workbook(new StackComputer(new Definitions(), null, true));
+        workbook.assign("a = 1/2");
+        workbook.assign("b = 2^a");
+        workbook.assign("c = 1/a");
+
+        Assert.assertEquals("1/2", workbook.get("a").getResult());
+        Assert.assertEquals(String.valueOf(Math.sqrt(2)), workbook.get("b").getResult());
+        Assert.assertEquals("2", workbook.get("c").getResult());
+    }
+
+    @Test
+    public void testParallelWaves() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Workbook workbook = new Workbook(new StackComputer(), pool);
+            workbook.assign("x = 1");
+
+            StringBuilder total = new StringBuilder("0");
+            for (int i = 0; i < 1000; i++) {
+                workbook.assign("c" + i + " = x * " + i);
+                total.append("+c").append(i);
+            }
+            workbook.assign("total = " + total);
+
+            List<Cell> cells = workbook.assign("x = 2");
+
+            Assert.assertEquals(1002, cells.size());
+            Assert.assertEquals("x", cells.get(0).getName());
+            Assert.assertEquals("total", cells.get(1001).getName());
+            Assert.assertEquals("999000", workbook.get("total").getResult());
+            Assert.assertEquals(1002, cells.stream().map(Cell::getName).collect(Collectors.toSet()).size());
+
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUncheckedError() throws Exception {
+        StackComputer stackComputer = new StackComputer();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Workbook workbook = new Workbook(expression -> {
+                if (expression.contains("^")) {
+                    throw new NumberFormatException("empty String");
+                }
+                return stackComputer.compute(expression);
+            }, pool);
+            workbook.assign("x = 1");
+            for (int i = 0; i < 1000; i++) {
+                workbook.assign("c" + i + " = x * " + i);
+            }
+            workbook.assign("d = x^2");
+
+            List<Cell> cells = workbook.assign("x = 2");
+
+            Assert.assertEquals(1002, cells.size());
+            Assert.assertEquals("1998", workbook.get("c999").getResult());
+            Assert.assertNull(workbook.get("d").getResult());
+            Assert.assertTrue(workbook.get("d").getError().getMessage().contains("empty String"));
+
+        } finally {
+            pool.shutdown();
+        }
+    }
+}